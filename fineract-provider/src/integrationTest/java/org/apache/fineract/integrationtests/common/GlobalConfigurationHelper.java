@@ -88,9 +88,9 @@ public class GlobalConfigurationHelper {
         ArrayList<HashMap> expectedGlobalConfigurations = getAllDefaultGlobalConfigurations();
         ArrayList<HashMap> actualGlobalConfigurations = getAllGlobalConfigurations(requestSpec, responseSpec);
 
-        // There are currently 30 global configurations.
-        Assertions.assertEquals(30, expectedGlobalConfigurations.size());
-        Assertions.assertEquals(30, actualGlobalConfigurations.size());
+        // There are currently 32 global configurations.
+        Assertions.assertEquals(32, expectedGlobalConfigurations.size());
+        Assertions.assertEquals(32, actualGlobalConfigurations.size());
 
         for (int i = 0; i < expectedGlobalConfigurations.size(); i++) {
 
@@ -362,6 +362,22 @@ public class GlobalConfigurationHelper {
         isInterestAppropriationEnabled.put("trapDoor", false);
         defaults.add(isInterestAppropriationEnabled);
 
+        HashMap<String, Object> batchApiParallelism = new HashMap<>();
+        batchApiParallelism.put("id", 35);
+        batchApiParallelism.put("name", "batch-api-parallelism");
+        batchApiParallelism.put("value", 4);
+        batchApiParallelism.put("enabled", false);
+        batchApiParallelism.put("trapDoor", false);
+        defaults.add(batchApiParallelism);
+
+        HashMap<String, Object> asyncCommandAudit = new HashMap<>();
+        asyncCommandAudit.put("id", 36);
+        asyncCommandAudit.put("name", "async-command-audit");
+        asyncCommandAudit.put("value", 0);
+        asyncCommandAudit.put("enabled", false);
+        asyncCommandAudit.put("trapDoor", false);
+        defaults.add(asyncCommandAudit);
+
         return defaults;
     }
 
@@ -136,7 +136,9 @@ public class JournalEntriesApiResource {
             @QueryParam("loanId") @Parameter(description = "loanId") final Long loanId,
             @QueryParam("savingsId") @Parameter(description = "savingsId") final Long savingsId,
             @QueryParam("runningBalance") @Parameter(description = "runningBalance") final boolean runningBalance,
-            @QueryParam("transactionDetails") @Parameter(description = "transactionDetails") final boolean transactionDetails) {
+            @QueryParam("transactionDetails") @Parameter(description = "transactionDetails") final boolean transactionDetails,
+            @QueryParam("cursor") @Parameter(description = "cursor") final String cursor,
+            @QueryParam("countTotal") @Parameter(description = "countTotal") final Boolean countTotal) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermission);
 
@@ -149,8 +151,8 @@ public class JournalEntriesApiResource {
             toDate = toDateParam.getDate("toDate", dateFormat, locale);
         }
 
-        final SearchParameters searchParameters = SearchParameters.forJournalEntries(officeId, offset, limit, orderBy, sortOrder, loanId,
-                savingsId);
+        final SearchParameters searchParameters = SearchParameters
+                .forJournalEntries(officeId, offset, limit, orderBy, sortOrder, loanId, savingsId).withCursor(cursor, countTotal);
         JournalEntryAssociationParametersData associationParametersData = new JournalEntryAssociationParametersData(transactionDetails,
                 runningBalance);
 
@@ -162,7 +162,8 @@ public class AccountingProcessorHelper {
                 }
             }
 
-            if (!isAccountTransfer) {
+            // accruals are never created by an account transfer
+            if (!isAccountTransfer && !transactionType.isAccrual()) {
                 isAccountTransfer = this.accountTransfersReadPlatformService.isAccountTransfer(Long.parseLong(transactionId),
                         PortfolioAccountType.LOAN);
             }
@@ -1132,7 +1133,7 @@ public class AccountingProcessorHelper {
         return glAccount;
     }
 
-    private GLAccount getLinkedGLAccountForLoanCharges(final Long loanProductId, final int accountMappingTypeId, final Long chargeId) {
+    public GLAccount getLinkedGLAccountForLoanCharges(final Long loanProductId, final int accountMappingTypeId, final Long chargeId) {
         ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(loanProductId,
                 PortfolioProductType.LOAN.getValue(), accountMappingTypeId);
         /*****
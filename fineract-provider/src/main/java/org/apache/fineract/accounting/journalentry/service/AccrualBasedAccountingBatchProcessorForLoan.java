@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.accounting.closure.domain.GLClosure;
+import org.apache.fineract.accounting.common.AccountingConstants.AccrualAccountsForLoan;
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
+import org.apache.fineract.accounting.journalentry.data.LoanDTO;
+import org.apache.fineract.accounting.journalentry.data.LoanTransactionDTO;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Set based counterpart of {@link AccrualBasedAccountingProcessorForLoan} for accrual transactions: resolves the GL
+ * accounts and branch closures once per call and writes all journal entries with a single JDBC batch instead of saving
+ * them one entity at a time. The debit and credit entries are the same as the ones the per-transaction processor
+ * creates.
+ */
+@Component
+public class AccrualBasedAccountingBatchProcessorForLoan {
+
+    private static final String INSERT_JOURNAL_ENTRY_SQL = "INSERT INTO acc_gl_journal_entry (account_id, office_id, currency_code, "
+            + "transaction_id, loan_transaction_id, reversed, manual_entry, entry_date, type_enum, amount, entity_type_enum, entity_id, "
+            + "createdby_id, lastmodifiedby_id, created_date, lastmodified_date) VALUES (?, ?, ?, ?, ?, 0, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final AccountingProcessorHelper helper;
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<AppUser> auditorAware;
+
+    @Autowired
+    public AccrualBasedAccountingBatchProcessorForLoan(final AccountingProcessorHelper accountingProcessorHelper,
+            final RoutingDataSource dataSource, final AuditorAware<AppUser> auditorAware) {
+        this.helper = accountingProcessorHelper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.auditorAware = auditorAware;
+    }
+
+    public void createJournalEntriesForAccruals(final List<LoanDTO> loanDTOs) {
+        final Map<Long, GLClosure> latestClosuresByOffice = new HashMap<>();
+        final Map<String, GLAccount> accountsByMapping = new HashMap<>();
+        final Long userId = this.auditorAware.getCurrentAuditor().map(AppUser::getId).orElse(null);
+        final Date auditDate = new Date();
+
+        final List<Object[]> journalEntries = new ArrayList<>();
+        for (final LoanDTO loanDTO : loanDTOs) {
+            final Long officeId = loanDTO.getOfficeId();
+            if (!latestClosuresByOffice.containsKey(officeId)) {
+                latestClosuresByOffice.put(officeId, this.helper.getLatestClosureByBranch(officeId));
+            }
+            final GLClosure latestGLClosure = latestClosuresByOffice.get(officeId);
+
+            for (final LoanTransactionDTO loanTransactionDTO : loanDTO.getNewLoanTransactions()) {
+                if (!loanTransactionDTO.getTransactionType().isAccrual()) {
+                    throw new IllegalArgumentException("Only accrual transactions can be batched, transaction "
+                            + loanTransactionDTO.getTransactionId() + " is " + loanTransactionDTO.getTransactionType().getCode());
+                }
+                this.helper.checkForBranchClosures(latestGLClosure, loanTransactionDTO.getTransactionDate());
+                final JournalEntryRows rows = new JournalEntryRows(loanDTO, loanTransactionDTO, userId, auditDate, journalEntries);
+
+                final Long loanProductId = loanDTO.getLoanProductId();
+                final BigDecimal interestAmount = loanTransactionDTO.getInterest();
+                if (interestAmount != null && !(interestAmount.compareTo(BigDecimal.ZERO) == 0)) {
+                    final GLAccount receivableAccount = productAccount(accountsByMapping, loanProductId,
+                            AccrualAccountsForLoan.INTEREST_RECEIVABLE.getValue(), loanTransactionDTO.getPaymentTypeId());
+                    final GLAccount incomeAccount = productAccount(accountsByMapping, loanProductId,
+                            AccrualAccountsForLoan.INTEREST_ON_LOANS.getValue(), loanTransactionDTO.getPaymentTypeId());
+                    rows.add(receivableAccount, incomeAccount, interestAmount);
+                }
+
+                final BigDecimal feesAmount = loanTransactionDTO.getFees();
+                if (feesAmount != null && !(feesAmount.compareTo(BigDecimal.ZERO) == 0)) {
+                    addChargeEntries(rows, accountsByMapping, loanProductId, AccrualAccountsForLoan.FEES_RECEIVABLE.getValue(),
+                            AccrualAccountsForLoan.INCOME_FROM_FEES.getValue(), feesAmount, loanTransactionDTO.getFeePayments());
+                }
+
+                final BigDecimal penaltiesAmount = loanTransactionDTO.getPenalties();
+                if (penaltiesAmount != null && !(penaltiesAmount.compareTo(BigDecimal.ZERO) == 0)) {
+                    addChargeEntries(rows, accountsByMapping, loanProductId, AccrualAccountsForLoan.PENALTIES_RECEIVABLE.getValue(),
+                            AccrualAccountsForLoan.INCOME_FROM_PENALTIES.getValue(), penaltiesAmount,
+                            loanTransactionDTO.getPenaltyPayments());
+                }
+            }
+        }
+
+        if (!journalEntries.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(INSERT_JOURNAL_ENTRY_SQL, journalEntries);
+        }
+    }
+
+    /**
+     * Mirrors {@link AccountingProcessorHelper#createAccrualBasedJournalEntriesAndReversalsForLoanCharges}
+     */
+    private void addChargeEntries(final JournalEntryRows rows, final Map<String, GLAccount> accountsByMapping, final Long loanProductId,
+            final int receivableAccountType, final int incomeAccountType, final BigDecimal totalAmount,
+            final List<ChargePaymentDTO> chargePaymentDTOs) {
+        final GLAccount receivableAccount = chargeAccount(accountsByMapping, loanProductId, receivableAccountType, null);
+        final Map<GLAccount, BigDecimal> creditDetailsMap = new LinkedHashMap<>();
+        for (final ChargePaymentDTO chargePaymentDTO : chargePaymentDTOs) {
+            final GLAccount chargeSpecificAccount = chargeAccount(accountsByMapping, loanProductId, incomeAccountType,
+                    chargePaymentDTO.getChargeId());
+            BigDecimal chargeSpecificAmount = chargePaymentDTO.getAmount();
+            if (creditDetailsMap.containsKey(chargeSpecificAccount)) {
+                chargeSpecificAmount = chargeSpecificAmount.add(creditDetailsMap.get(chargeSpecificAccount));
+            }
+            creditDetailsMap.put(chargeSpecificAccount, chargeSpecificAmount);
+        }
+
+        BigDecimal totalCreditedAmount = BigDecimal.ZERO;
+        for (final Map.Entry<GLAccount, BigDecimal> entry : creditDetailsMap.entrySet()) {
+            totalCreditedAmount = totalCreditedAmount.add(entry.getValue());
+            rows.add(receivableAccount, entry.getKey(), entry.getValue());
+        }
+
+        if (totalAmount.compareTo(totalCreditedAmount) != 0) {
+            throw new PlatformDataIntegrityException(
+                    "Meltdown in advanced accounting...sum of all charges is not equal to the fee charge for a transaction",
+                    "Meltdown in advanced accounting...sum of all charges is not equal to the fee charge for a transaction",
+                    totalCreditedAmount, totalAmount);
+        }
+    }
+
+    private GLAccount productAccount(final Map<String, GLAccount> accountsByMapping, final Long loanProductId,
+            final int accountMappingTypeId, final Long paymentTypeId) {
+        final String key = "product_" + loanProductId + "_" + accountMappingTypeId + "_" + paymentTypeId;
+        GLAccount account = accountsByMapping.get(key);
+        if (account == null) {
+            account = this.helper.getLinkedGLAccountForLoanProduct(loanProductId, accountMappingTypeId, paymentTypeId);
+            accountsByMapping.put(key, account);
+        }
+        return account;
+    }
+
+    private GLAccount chargeAccount(final Map<String, GLAccount> accountsByMapping, final Long loanProductId,
+            final int accountMappingTypeId, final Long chargeId) {
+        final String key = "charge_" + loanProductId + "_" + accountMappingTypeId + "_" + chargeId;
+        GLAccount account = accountsByMapping.get(key);
+        if (account == null) {
+            account = this.helper.getLinkedGLAccountForLoanCharges(loanProductId, accountMappingTypeId, chargeId);
+            accountsByMapping.put(key, account);
+        }
+        return account;
+    }
+
+    /**
+     * Collects the debit and credit rows of one loan transaction, reversing sides for reversed transactions.
+     */
+    private static final class JournalEntryRows {
+
+        private final LoanDTO loanDTO;
+        private final LoanTransactionDTO loanTransactionDTO;
+        private final Long userId;
+        private final Date auditDate;
+        private final List<Object[]> journalEntries;
+
+        JournalEntryRows(final LoanDTO loanDTO, final LoanTransactionDTO loanTransactionDTO, final Long userId, final Date auditDate,
+                final List<Object[]> journalEntries) {
+            this.loanDTO = loanDTO;
+            this.loanTransactionDTO = loanTransactionDTO;
+            this.userId = userId;
+            this.auditDate = auditDate;
+            this.journalEntries = journalEntries;
+        }
+
+        void add(final GLAccount accountToDebit, final GLAccount accountToCredit, final BigDecimal amount) {
+            if (this.loanTransactionDTO.isReversed()) {
+                this.journalEntries.add(row(accountToCredit, JournalEntryType.DEBIT, amount));
+                this.journalEntries.add(row(accountToDebit, JournalEntryType.CREDIT, amount));
+            } else {
+                this.journalEntries.add(row(accountToDebit, JournalEntryType.DEBIT, amount));
+                this.journalEntries.add(row(accountToCredit, JournalEntryType.CREDIT, amount));
+            }
+        }
+
+        private Object[] row(final GLAccount account, final JournalEntryType type, final BigDecimal amount) {
+            final String transactionId = this.loanTransactionDTO.getTransactionId();
+            return new Object[] { account.getId(), this.loanDTO.getOfficeId(), this.loanDTO.getCurrencyCode(),
+                    AccountingProcessorHelper.LOAN_TRANSACTION_IDENTIFIER + transactionId, Long.valueOf(transactionId),
+                    this.loanTransactionDTO.getTransactionDate(), type.getValue(), amount, PortfolioProductType.LOAN.getValue(),
+                    this.loanDTO.getLoanId(), this.userId, this.userId, this.auditDate, this.auditDate };
+        }
+    }
+}
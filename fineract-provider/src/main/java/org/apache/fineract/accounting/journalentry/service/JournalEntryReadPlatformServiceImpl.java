@@ -45,6 +45,7 @@ import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PageCursor;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
@@ -250,10 +251,10 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
 
         GLJournalEntryMapper rm = new GLJournalEntryMapper(associationParametersData);
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append(searchParameters.isSeekPaged() ? "select " : "select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(rm.schema());
 
-        final Object[] objectArray = new Object[15];
+        final Object[] objectArray = new Object[18];
         int arrayPos = 0;
         String whereClose = " where ";
 
@@ -355,6 +356,29 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             whereClose = " and ";
         }
 
+        if (searchParameters.isSeekPaged()) {
+            String sqlCountRows = null;
+            if (searchParameters.isTotalCountRequested()) {
+                sqlCountRows = "select count(*) from (" + sqlBuilder + ") filtered_journal_entries";
+            }
+            final Object[] countArgs = Arrays.copyOf(objectArray, arrayPos);
+
+            // seek pages follow the default order of entry date and id
+            final PageCursor cursor = searchParameters.getCursor();
+            if (cursor != null) {
+                sqlBuilder.append(whereClose).append(
+                        " (journalEntry.entry_date > ? or (journalEntry.entry_date = ? and journalEntry.id > ?))");
+                objectArray[arrayPos++] = cursor.getSortValue();
+                objectArray[arrayPos++] = cursor.getSortValue();
+                objectArray[arrayPos++] = cursor.getId();
+            }
+            sqlBuilder.append(" order by journalEntry.entry_date, journalEntry.id");
+
+            return this.paginationHelper.fetchSeekPage(this.jdbcTemplate, sqlBuilder.toString(), Arrays.copyOf(objectArray, arrayPos),
+                    sqlCountRows, countArgs, searchParameters.getLimit(), rm,
+                    journalEntry -> PageCursor.of(journalEntry.getTransactionDate(), journalEntry.getId()));
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
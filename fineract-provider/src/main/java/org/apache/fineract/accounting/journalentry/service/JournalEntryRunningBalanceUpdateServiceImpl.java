@@ -40,8 +40,11 @@ import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunkHistory;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobRunProgressWritePlatformService;
 import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.joda.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -63,8 +66,20 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private final FromJsonHelper fromApiJsonHelper;
 
+    private final JobRunProgressWritePlatformService jobRunProgressWritePlatformService;
+
     private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
 
+    // journal entries are read and updated a page at a time so that the
+    // entries since the oldest uncalculated one never have to fit in memory
+    private static final int RUNNING_BALANCE_PAGE_SIZE = 1000;
+
+    private static final String UPDATE_ORGANIZATION_RUNNING_BALANCE_SQL = "UPDATE acc_gl_journal_entry je "
+            + "SET je.is_running_balance_calculated=1, je.organization_running_balance=?, je.office_running_balance=? WHERE je.id=?";
+
+    private static final String UPDATE_OFFICE_RUNNING_BALANCE_SQL = "UPDATE acc_gl_journal_entry je SET je.office_running_balance=? "
+            + "WHERE je.id=?";
+
     // if a limit is not added to the running balance select statements below
     // and the resultset is more than 400,000,
     // the script will eat up all of the server memory
@@ -92,11 +107,12 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
     @Autowired
     public JournalEntryRunningBalanceUpdateServiceImpl(final RoutingDataSource dataSource,
             final OfficeRepositoryWrapper officeRepositoryWrapper, final JournalEntryDataValidator dataValidator,
-            final FromJsonHelper fromApiJsonHelper) {
+            final FromJsonHelper fromApiJsonHelper, final JobRunProgressWritePlatformService jobRunProgressWritePlatformService) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.officeRepositoryWrapper = officeRepositoryWrapper;
         this.dataValidator = dataValidator;
         this.fromApiJsonHelper = fromApiJsonHelper;
+        this.jobRunProgressWritePlatformService = jobRunProgressWritePlatformService;
     }
 
     @Override
@@ -173,43 +189,62 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             }
         }
 
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                new Object[] { entityDate });
-        if (entryDatas.size() > 0) {
-            // run a batch update of 1000 SQL statements at a time
-            final Integer batchUpdateSize = 1000;
-            ArrayList<String> updateSql = new ArrayList<>();
-            int batchIndex = 0;
-            for (int index = 0; index < entryDatas.size(); index++) {
-                JournalEntryData entryData = entryDatas.get(index);
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
+        final Map<String, Object> range = this.jdbcTemplate.queryForMap(
+                "select count(*) as entryCount, min(je.id) as firstId, max(je.id) as lastId from acc_gl_journal_entry je "
+                        + "where je.entry_date >= ?",
+                entityDate);
+        final int entryCount = ((Number) range.get("entryCount")).intValue();
+        if (entryCount == 0) {
+            return;
+        }
+        final ScheduledJobRunChunkHistory progress = this.jobRunProgressWritePlatformService.startRun(
+                JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE, ((Number) range.get("firstId")).longValue(),
+                ((Number) range.get("lastId")).longValue(), entryCount);
+
+        final long startTime = System.currentTimeMillis();
+        int processed = 0;
+        try {
+            LocalDate lastEntryDate = new LocalDate(entityDate);
+            Long lastId = 0L;
+            List<JournalEntryData> entryDatas;
+            do {
+                entryDatas = this.jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
+                        new Object[] { lastEntryDate.toDate(), lastEntryDate.toDate(), lastId, RUNNING_BALANCE_PAGE_SIZE });
+                final List<Object[]> batch = new ArrayList<>(entryDatas.size());
+                for (final JournalEntryData entryData : entryDatas) {
+                    Map<Long, BigDecimal> officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
+                    if (officeRunningBalanceMap == null) {
+                        officeRunningBalanceMap = new HashMap<>();
+                        officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
+                    }
+                    BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
+                    BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
+                    batch.add(new Object[] { runningBalance, officeRunningBalance, entryData.getId() });
                 }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry je SET je.is_running_balance_calculated=1, je.organization_running_balance="
-                        + runningBalance + ",je.office_running_balance=" + officeRunningBalance + " WHERE  je.id=" + entryData.getId();
-                updateSql.add(sql);
-                batchIndex++;
-                if (batchIndex == batchUpdateSize || index == entryDatas.size() - 1) {
-                    // run a batch update of the 1000 update SQL statements
-                    String[] batch = new String[updateSql.size()];
-                    updateSql.toArray(batch);
-                    this.jdbcTemplate.batchUpdate(batch);
-                    // reset counter and string array
-                    batchIndex = 0;
-                    updateSql.clear();
+                if (!batch.isEmpty()) {
+                    this.jdbcTemplate.batchUpdate(UPDATE_ORGANIZATION_RUNNING_BALANCE_SQL, batch);
+                    final JournalEntryData lastEntry = entryDatas.get(entryDatas.size() - 1);
+                    lastEntryDate = lastEntry.getTransactionDate();
+                    lastId = lastEntry.getId();
+                    processed += batch.size();
+                    this.jobRunProgressWritePlatformService.updateProgress(progress, processed);
                 }
-            }
+            } while (entryDatas.size() == RUNNING_BALANCE_PAGE_SIZE);
+        } catch (final RuntimeException e) {
+            this.jobRunProgressWritePlatformService.completeRun(progress, processed, e);
+            throw e;
         }
+        this.jobRunProgressWritePlatformService.completeRun(progress, processed, null);
 
+        final long elapsedMillis = Math.max(1L, System.currentTimeMillis() - startTime);
+        LOG.info("Updated organization running balance of {} journal entries in {} ms ({} entries/s)", processed, elapsedMillis,
+                processed * 1000L / elapsedMillis);
     }
 
     private void updateRunningBalance(Long officeId, Date entityDate) {
+        if (entityDate == null) {
+            return;
+        }
         Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
 
         List<Map<String, Object>> list = jdbcTemplate.queryForList(officeRunningBalanceSql, officeId, entityDate, officeId, entityDate);
@@ -219,17 +254,25 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
                 runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
             }
         }
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper,
-                new Object[] { officeId, entityDate });
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
-        for (JournalEntryData entryData : entryDatas) {
-            BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry je SET je.office_running_balance=" + runningBalance + " WHERE  je.id="
-                    + entryData.getId();
-            updateSql[i++] = sql;
-        }
-        this.jdbcTemplate.batchUpdate(updateSql);
+
+        LocalDate lastEntryDate = new LocalDate(entityDate);
+        Long lastId = 0L;
+        List<JournalEntryData> entryDatas;
+        do {
+            entryDatas = this.jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper,
+                    new Object[] { officeId, lastEntryDate.toDate(), lastEntryDate.toDate(), lastId, RUNNING_BALANCE_PAGE_SIZE });
+            final List<Object[]> batch = new ArrayList<>(entryDatas.size());
+            for (final JournalEntryData entryData : entryDatas) {
+                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
+                batch.add(new Object[] { runningBalance, entryData.getId() });
+            }
+            if (!batch.isEmpty()) {
+                this.jdbcTemplate.batchUpdate(UPDATE_OFFICE_RUNNING_BALANCE_SQL, batch);
+                final JournalEntryData lastEntry = entryDatas.get(entryDatas.size() - 1);
+                lastEntryDate = lastEntry.getTransactionDate();
+                lastId = lastEntry.getId();
+            }
+        } while (entryDatas.size() == RUNNING_BALANCE_PAGE_SIZE);
     }
 
     private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
@@ -278,18 +321,21 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
 
+        // both schemas page forward from the (entry_date, id) of the last
+        // entry of the previous page
         public String officeRunningBalanceSchema() {
             return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
+                    + "glAccount.classification_enum as classification,je.office_id as officeId,je.entry_date as entryDate "
                     + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
+                    + "and je.office_id=? and (je.entry_date > ? or (je.entry_date = ? and je.id > ?)) "
+                    + "order by je.entry_date,je.id limit ?";
         }
 
         public String organizationRunningBalanceSchema() {
             return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
+                    + "glAccount.classification_enum as classification,je.office_id as officeId,je.entry_date as entryDate "
                     + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+                    + "and (je.entry_date > ? or (je.entry_date = ? and je.id > ?)) order by je.entry_date,je.id limit ?";
         }
 
         @Override
@@ -303,9 +349,10 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             final BigDecimal amount = rs.getBigDecimal("amount");
             final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
             final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
+            final LocalDate entryDate = JdbcSupport.getLocalDate(rs, "entryDate");
 
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null);
+            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, entryDate, entryType, amount, null, null,
+                    null, null, null, null, null, null, null, null, null, null, null, null, null);
         }
     }
 
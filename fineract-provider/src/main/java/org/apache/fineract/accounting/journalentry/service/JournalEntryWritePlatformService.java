@@ -20,6 +20,7 @@ package org.apache.fineract.accounting.journalentry.service;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import org.apache.fineract.accounting.provisioning.domain.ProvisioningEntry;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
@@ -33,6 +34,11 @@ public interface JournalEntryWritePlatformService {
 
     void createJournalEntriesForLoan(Map<String, Object> accountingBridgeData);
 
+    /**
+     * Batched variant of {@link #createJournalEntriesForLoan(Map)} for periodic accrual transactions of many loans.
+     */
+    void createJournalEntriesForLoanAccruals(List<Map<String, Object>> accountingBridgeDatas);
+
     void createJournalEntriesForSavings(Map<String, Object> accountingBridgeData);
 
     void createJournalEntriesForClientTransactions(Map<String, Object> accountingBridgeData);
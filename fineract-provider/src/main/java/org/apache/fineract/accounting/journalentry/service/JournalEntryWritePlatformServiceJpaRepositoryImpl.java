@@ -108,6 +108,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
     private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper;
     private final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions;
+    private final AccrualBasedAccountingBatchProcessorForLoan accrualBasedAccountingBatchProcessorForLoan;
 
     @Autowired
     public JournalEntryWritePlatformServiceJpaRepositoryImpl(final GLClosureRepository glClosureRepository,
@@ -121,7 +122,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             final OrganisationCurrencyRepositoryWrapper organisationCurrencyRepository, final PlatformSecurityContext context,
             final PaymentDetailWritePlatformService paymentDetailWritePlatformService,
             final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper,
-            final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions) {
+            final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions,
+            final AccrualBasedAccountingBatchProcessorForLoan accrualBasedAccountingBatchProcessorForLoan) {
         this.glClosureRepository = glClosureRepository;
         this.officeRepositoryWrapper = officeRepositoryWrapper;
         this.glJournalEntryRepository = glJournalEntryRepository;
@@ -138,6 +140,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
         this.paymentDetailWritePlatformService = paymentDetailWritePlatformService;
         this.financialActivityAccountRepositoryWrapper = financialActivityAccountRepositoryWrapper;
         this.accountingProcessorForClientTransactions = accountingProcessorForClientTransactions;
+        this.accrualBasedAccountingBatchProcessorForLoan = accrualBasedAccountingBatchProcessorForLoan;
     }
 
     @Transactional
@@ -515,6 +518,20 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
         }
     }
 
+    @Transactional
+    @Override
+    public void createJournalEntriesForLoanAccruals(final List<Map<String, Object>> accountingBridgeDatas) {
+        final List<LoanDTO> loanDTOs = new ArrayList<>(accountingBridgeDatas.size());
+        for (final Map<String, Object> accountingBridgeData : accountingBridgeDatas) {
+            if ((Boolean) accountingBridgeData.get("periodicAccrualBasedAccountingEnabled")) {
+                loanDTOs.add(this.helper.populateLoanDtoFromMap(accountingBridgeData, false, false, true));
+            }
+        }
+        if (!loanDTOs.isEmpty()) {
+            this.accrualBasedAccountingBatchProcessorForLoan.createJournalEntriesForAccruals(loanDTOs);
+        }
+    }
+
     @Transactional
     @Override
     public void createJournalEntriesForSavings(final Map<String, Object> accountingBridgeData) {
@@ -26,6 +26,7 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import javax.ws.rs.Consumes;
@@ -36,6 +37,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.apache.fineract.batch.domain.BatchRequest;
 import org.apache.fineract.batch.domain.BatchResponse;
@@ -136,4 +139,32 @@ public class BatchApiResource {
         return this.toApiJsonSerializer.serialize(result);
 
     }
+
+    /**
+     * Rest assured POST method that reads the {@link BatchRequest}s one at a time and streams back each
+     * {@link BatchResponse} as soon as it is available
+     *
+     * @param requestStream
+     * @param uriInfo
+     * @return streamed JSON
+     */
+    @POST
+    @Path("stream")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Stream batch requests", description = "Executes a batch without enclosing transaction while it is still being uploaded, for large data migration batches. Every request is executed as soon as it has been read and the request it refers to, if any, has completed, so a request can only refer to a request that comes before it in the array. Each response is written as soon as it is available, which means that the responses are in order of completion and have to be matched to the requests by their requestId.\n"
+            + "\n"
+            + "If the rest of the request array cannot be read, the requests read until then are still completed and a final response without requestId and with a '400' status code describes the error.")
+    @RequestBody(required = true, content = @Content(schema = @Schema(implementation = BatchApiResourceSwagger.PostBatchesRequest.class, description = "request body")))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Success", content = @Content(schema = @Schema(implementation = BatchResponse.class))) })
+    public Response handleBatchRequestsStreaming(@Parameter(hidden = true) final InputStream requestStream, @Context UriInfo uriInfo) {
+
+        // Handles user authentication
+        this.context.authenticatedUser();
+
+        final StreamingOutput result = this.service.handleBatchRequestsStreaming(requestStream, uriInfo);
+
+        return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
+    }
 }
@@ -18,9 +18,14 @@
  */
 package org.apache.fineract.batch.serialization;
 
+import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.fineract.batch.domain.BatchRequest;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.springframework.stereotype.Component;
@@ -48,4 +53,22 @@ public class BatchRequestJsonHelper extends FromJsonHelper {
         final List<BatchRequest> requests = super.getGsonConverter().fromJson(json, listType);
         return requests;
     }
+
+    /**
+     * De-serializes the batchRequests of the input JSON array one at a time, handing each to the consumer before the
+     * next one is read, so that only the request at hand is held in memory.
+     *
+     * @param json
+     * @param consumer
+     * @throws IOException
+     */
+    public void extractEach(final Reader json, final Consumer<BatchRequest> consumer) throws IOException {
+        final Gson gson = super.getGsonConverter();
+        final JsonReader reader = new JsonReader(json);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            consumer.accept(gson.fromJson(reader, BatchRequest.class));
+        }
+        reader.endArray();
+    }
 }
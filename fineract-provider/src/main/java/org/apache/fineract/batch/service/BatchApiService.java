@@ -18,7 +18,9 @@
  */
 package org.apache.fineract.batch.service;
 
+import java.io.InputStream;
 import java.util.List;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.apache.fineract.batch.domain.BatchRequest;
 import org.apache.fineract.batch.domain.BatchResponse;
@@ -56,4 +58,18 @@ public interface BatchApiService {
      * @return List&lt;BatchResponse&gt;
      */
     List<BatchResponse> handleBatchRequestsWithEnclosingTransaction(List<BatchRequest> requestList, UriInfo uriInfo);
+
+    /**
+     * Returns the {@link org.apache.fineract.batch.domain.BatchResponse}s of the JSON array of
+     * {@link org.apache.fineract.batch.domain.BatchRequest}s as a JSON array that is written while the requests are
+     * still being read. Every request is executed as soon as it has been read and its parent, if any, has completed,
+     * and its response is written as soon as it is available, so the responses are in order of completion rather than
+     * of request id. A request can refer to one of the 1000 requests before it, whose responses are the only ones kept
+     * in memory. There is no enclosing transaction.
+     *
+     * @param requestStream
+     * @param uriInfo
+     * @return StreamingOutput
+     */
+    StreamingOutput handleBatchRequestsStreaming(InputStream requestStream, UriInfo uriInfo);
 }
@@ -19,12 +19,27 @@
 package org.apache.fineract.batch.service;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.apache.fineract.batch.command.CommandContext;
 import org.apache.fineract.batch.command.CommandStrategy;
@@ -34,7 +49,11 @@ import org.apache.fineract.batch.domain.BatchResponse;
 import org.apache.fineract.batch.exception.ClientDetailsNotFoundException;
 import org.apache.fineract.batch.exception.ErrorHandler;
 import org.apache.fineract.batch.exception.ErrorInfo;
+import org.apache.fineract.batch.serialization.BatchRequestJsonHelper;
 import org.apache.fineract.batch.service.ResolutionHelper.BatchRequestNode;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.NonTransientDataAccessException;
 import org.springframework.stereotype.Service;
@@ -56,9 +75,18 @@ import org.springframework.transaction.support.TransactionTemplate;
 @Service
 public class BatchApiServiceImpl implements BatchApiService {
 
+    private static final int MAX_IN_FLIGHT_REQUESTS_PER_THREAD = 2;
+    // the requests of a streamed batch can refer to this many requests
+    // before them, the responses of older ones are released
+    static final int MAX_REFERENCEABLE_RESPONSES = 1000;
+
     private final CommandStrategyProvider strategyProvider;
     private final ResolutionHelper resolutionHelper;
     private final TransactionTemplate transactionTemplate;
+    private final ConfigurationDomainService configurationDomainService;
+    private final BatchRequestExecutor batchRequestExecutor;
+    private final BatchRequestJsonHelper batchRequestJsonHelper;
+    private final ToApiJsonSerializer<BatchResponse> toApiJsonSerializer;
 
     /**
      * Constructs a 'BatchApiServiceImpl' with an argument of
@@ -67,13 +95,23 @@ public class BatchApiServiceImpl implements BatchApiService {
      * @param strategyProvider
      * @param resolutionHelper
      * @param transactionTemplate
+     * @param configurationDomainService
+     * @param batchRequestExecutor
+     * @param batchRequestJsonHelper
+     * @param toApiJsonSerializer
      */
     @Autowired
     public BatchApiServiceImpl(final CommandStrategyProvider strategyProvider, final ResolutionHelper resolutionHelper,
-            final TransactionTemplate transactionTemplate) {
+            final TransactionTemplate transactionTemplate, final ConfigurationDomainService configurationDomainService,
+            final BatchRequestExecutor batchRequestExecutor, final BatchRequestJsonHelper batchRequestJsonHelper,
+            final ToApiJsonSerializer<BatchResponse> toApiJsonSerializer) {
         this.strategyProvider = strategyProvider;
         this.resolutionHelper = resolutionHelper;
         this.transactionTemplate = transactionTemplate;
+        this.configurationDomainService = configurationDomainService;
+        this.batchRequestExecutor = batchRequestExecutor;
+        this.batchRequestJsonHelper = batchRequestJsonHelper;
+        this.toApiJsonSerializer = toApiJsonSerializer;
     }
 
     /**
@@ -90,11 +128,7 @@ public class BatchApiServiceImpl implements BatchApiService {
 
         final List<BatchRequestNode> batchRequestNodes = this.resolutionHelper.getDependingRequests(requestList);
         if (batchRequestNodes.isEmpty()) {
-            final BatchResponse response = new BatchResponse();
-            ErrorInfo ex = ErrorHandler.handler(new ClientDetailsNotFoundException());
-            response.setStatusCode(500);
-            response.setBody(ex.getMessage());
-            responseList.add(response);
+            responseList.add(requestsNotFoundResponse());
             return responseList;
         }
         for (BatchRequestNode rootNode : batchRequestNodes) {
@@ -122,54 +156,124 @@ public class BatchApiServiceImpl implements BatchApiService {
     private List<BatchResponse> processChildRequests(final BatchRequestNode rootRequest, BatchResponse rootResponse, UriInfo uriInfo) {
 
         final List<BatchResponse> childResponses = new ArrayList<>();
-        if (rootRequest.getChildRequests().size() > 0) {
+        for (BatchRequestNode childNode : rootRequest.getChildRequests()) {
+            final BatchResponse childResponse = this.processChildRequest(childNode.getRequest(), rootResponse, uriInfo);
+            childResponses.addAll(this.processChildRequests(childNode, childResponse, uriInfo));
+            childResponses.add(childResponse);
+        }
 
-            for (BatchRequestNode childNode : rootRequest.getChildRequests()) {
+        return childResponses;
+    }
 
-                BatchRequest childRequest = childNode.getRequest();
-                BatchResponse childResponse;
+    private BatchResponse processChildRequest(BatchRequest childRequest, final BatchResponse rootResponse, final UriInfo uriInfo) {
 
-                try {
+        BatchResponse childResponse;
+        try {
 
-                    if (rootResponse.getStatusCode().equals(200)) {
-                        childRequest = this.resolutionHelper.resoluteRequest(childRequest, rootResponse);
-                        final CommandStrategy commandStrategy = this.strategyProvider.getCommandStrategy(
-                                CommandContext.resource(childRequest.getRelativeUrl()).method(childRequest.getMethod()).build());
+            if (rootResponse.getStatusCode().equals(200)) {
+                childRequest = this.resolutionHelper.resoluteRequest(childRequest, rootResponse);
+                final CommandStrategy commandStrategy = this.strategyProvider.getCommandStrategy(
+                        CommandContext.resource(childRequest.getRelativeUrl()).method(childRequest.getMethod()).build());
 
-                        childResponse = commandStrategy.execute(childRequest, uriInfo);
+                childResponse = commandStrategy.execute(childRequest, uriInfo);
 
-                    } else {
-                        // Something went wrong with the parent request, create
-                        // a response with status code 409
-                        childResponse = new BatchResponse();
-                        childResponse.setRequestId(childRequest.getRequestId());
-                        childResponse.setStatusCode(Status.CONFLICT.getStatusCode());
+            } else {
+                // Something went wrong with the parent request, create
+                // a response with status code 409
+                childResponse = new BatchResponse();
+                childResponse.setRequestId(childRequest.getRequestId());
+                childResponse.setStatusCode(Status.CONFLICT.getStatusCode());
 
-                        // Some detail information about the error
-                        final ErrorInfo conflictError = new ErrorInfo(Status.CONFLICT.getStatusCode(), 8001,
-                                "Parent request with id " + rootResponse.getRequestId() + " was erroneous!");
-                        childResponse.setBody(conflictError.getMessage());
-                    }
-                    childResponses.addAll(this.processChildRequests(childNode, childResponse, uriInfo));
+                // Some detail information about the error
+                final ErrorInfo conflictError = new ErrorInfo(Status.CONFLICT.getStatusCode(), 8001,
+                        "Parent request with id " + rootResponse.getRequestId() + " was erroneous!");
+                childResponse.setBody(conflictError.getMessage());
+            }
 
-                } catch (Throwable ex) {
+        } catch (Throwable ex) {
 
-                    childResponse = new BatchResponse();
-                    childResponse.setRequestId(childRequest.getRequestId());
-                    childResponse.setStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
-                    childResponse.setBody(ex.getMessage());
-                }
+            childResponse = new BatchResponse();
+            childResponse.setRequestId(childRequest.getRequestId());
+            childResponse.setStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            childResponse.setBody(ex.getMessage());
+        }
 
-                childResponses.add(childResponse);
-            }
+        return childResponse;
+    }
+
+    /**
+     * Runs the request trees on the tenant's batch pool: every root request is started right away and every child
+     * request as soon as its parent has completed, so that independent requests run concurrently while a child still
+     * sees the response of its parent. The responses are returned in request id order, as by
+     * {@link #handleBatchRequests(List, UriInfo)}.
+     */
+    private List<BatchResponse> handleBatchRequestsConcurrently(final List<BatchRequest> requestList, final UriInfo uriInfo,
+            final int parallelism) {
+
+        final List<BatchRequestNode> batchRequestNodes = this.resolutionHelper.getDependingRequests(requestList);
+        if (batchRequestNodes.isEmpty()) {
+            return handleBatchRequests(requestList, uriInfo);
         }
 
-        return childResponses;
+        final Executor executor = this.batchRequestExecutor.retrieveExecutor(parallelism);
+        final List<CompletableFuture<BatchResponse>> pendingResponses = new ArrayList<>(requestList.size());
+        for (BatchRequestNode rootNode : batchRequestNodes) {
+            final CompletableFuture<BatchResponse> rootResponse = CompletableFuture.supplyAsync(
+                    this.batchRequestExecutor.inRequestContext(() -> processRootRequest(rootNode.getRequest(), uriInfo)), executor);
+            pendingResponses.add(rootResponse);
+            scheduleChildRequests(rootNode, rootResponse, executor, uriInfo, pendingResponses);
+        }
+
+        final List<BatchResponse> responseList = new ArrayList<>(pendingResponses.size());
+        for (CompletableFuture<BatchResponse> pendingResponse : pendingResponses) {
+            responseList.add(pendingResponse.join());
+        }
+        responseList.sort(Comparator.comparing(BatchResponse::getRequestId));
+
+        return responseList;
+    }
+
+    private void scheduleChildRequests(final BatchRequestNode parentNode, final CompletableFuture<BatchResponse> parentResponse,
+            final Executor executor, final UriInfo uriInfo, final List<CompletableFuture<BatchResponse>> pendingResponses) {
+        for (BatchRequestNode childNode : parentNode.getChildRequests()) {
+            final CompletableFuture<BatchResponse> childResponse = parentResponse.thenApplyAsync(this.batchRequestExecutor
+                    .inRequestContext(response -> processChildRequest(childNode.getRequest(), response, uriInfo)), executor);
+            pendingResponses.add(childResponse);
+            scheduleChildRequests(childNode, childResponse, executor, uriInfo, pendingResponses);
+        }
+    }
+
+    private BatchResponse processRootRequest(final BatchRequest rootRequest, final UriInfo uriInfo) {
+        try {
+            final CommandStrategy commandStrategy = this.strategyProvider
+                    .getCommandStrategy(CommandContext.resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
+            return commandStrategy.execute(rootRequest, uriInfo);
+        } catch (Throwable ex) {
+            // a root request running on its own must not fail the requests
+            // of the other trees
+            final BatchResponse rootResponse = new BatchResponse();
+            rootResponse.setRequestId(rootRequest.getRequestId());
+            rootResponse.setStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            rootResponse.setBody(ex.getMessage());
+            return rootResponse;
+        }
+    }
+
+    private BatchResponse requestsNotFoundResponse() {
+        final BatchResponse response = new BatchResponse();
+        ErrorInfo ex = ErrorHandler.handler(new ClientDetailsNotFoundException());
+        response.setStatusCode(500);
+        response.setBody(ex.getMessage());
+        return response;
     }
 
     @Override
     public List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(final List<BatchRequest> requestList, UriInfo uriInfo) {
 
+        final int parallelism = this.configurationDomainService.retrieveBatchApiParallelism();
+        if (parallelism > 1) {
+            return handleBatchRequestsConcurrently(requestList, uriInfo, parallelism);
+        }
         return handleBatchRequests(requestList, uriInfo);
     }
 
@@ -233,4 +337,125 @@ public class BatchApiServiceImpl implements BatchApiService {
             return errResponseList;
         }
     }
+
+    @Override
+    public StreamingOutput handleBatchRequestsStreaming(final InputStream requestStream, final UriInfo uriInfo) {
+        return output -> {
+            final int parallelism = this.configurationDomainService.retrieveBatchApiParallelism();
+            final Executor executor = parallelism > 1 ? this.batchRequestExecutor.retrieveExecutor(parallelism) : null;
+            // holds back reading further requests while the pool is busy
+            final int maxInFlightRequests = parallelism * MAX_IN_FLIGHT_REQUESTS_PER_THREAD;
+            final Semaphore inFlightRequests = new Semaphore(maxInFlightRequests);
+            // kept for the requests that refer to them, whose bodies are
+            // resolved against the response body of their parent
+            final Map<Long, CompletableFuture<BatchResponse>> responses = new ReferenceableResponses();
+            final BatchResponseWriter writer = new BatchResponseWriter(output);
+
+            BatchResponse parseErrorResponse = null;
+            try {
+                this.batchRequestJsonHelper.extractEach(new InputStreamReader(requestStream, StandardCharsets.UTF_8), request -> {
+                    inFlightRequests.acquireUninterruptibly();
+                    final CompletableFuture<BatchResponse> response = scheduleRequest(request, responses, executor, uriInfo);
+                    responses.put(request.getRequestId(), response);
+                    response.thenAccept(writer::write).whenComplete((ignored, ex) -> inFlightRequests.release());
+                });
+            } catch (JsonParseException | IOException ex) {
+                ErrorInfo e = ErrorHandler.handler(new PlatformApiDataValidationException("validation.msg.batch.request.invalid",
+                        "The batch requests could not be read: " + ex.getMessage(), Collections.emptyList()));
+                parseErrorResponse = new BatchResponse();
+                parseErrorResponse.setStatusCode(e.getStatusCode());
+                parseErrorResponse.setBody(e.getMessage());
+            }
+
+            inFlightRequests.acquireUninterruptibly(maxInFlightRequests);
+            if (parseErrorResponse != null) {
+                writer.write(parseErrorResponse);
+            } else if (responses.isEmpty()) {
+                writer.write(requestsNotFoundResponse());
+            }
+            writer.finish();
+        };
+    }
+
+    private CompletableFuture<BatchResponse> scheduleRequest(final BatchRequest request,
+            final Map<Long, CompletableFuture<BatchResponse>> responses, final Executor executor, final UriInfo uriInfo) {
+        if (request.getReference() == null) {
+            if (executor == null) {
+                return CompletableFuture.completedFuture(processRootRequest(request, uriInfo));
+            }
+            return CompletableFuture.supplyAsync(this.batchRequestExecutor.inRequestContext(() -> processRootRequest(request, uriInfo)),
+                    executor);
+        }
+
+        final CompletableFuture<BatchResponse> parentResponse = responses.get(request.getReference());
+        if (parentResponse == null) {
+            final BatchResponse response = new BatchResponse();
+            response.setRequestId(request.getRequestId());
+            response.setStatusCode(Status.CONFLICT.getStatusCode());
+            final ErrorInfo conflictError = new ErrorInfo(Status.CONFLICT.getStatusCode(), 8001,
+                    "Parent request with id " + request.getReference() + " was not found among the " + MAX_REFERENCEABLE_RESPONSES
+                            + " requests before this request!");
+            response.setBody(conflictError.getMessage());
+            return CompletableFuture.completedFuture(response);
+        }
+        if (executor == null) {
+            return CompletableFuture.completedFuture(processChildRequest(request, parentResponse.join(), uriInfo));
+        }
+        return parentResponse.thenApplyAsync(
+                this.batchRequestExecutor.inRequestContext(response -> processChildRequest(request, response, uriInfo)), executor);
+    }
+
+    /**
+     * The responses of the latest requests of a streamed batch, in the order the requests were read. Only the last
+     * {@link #MAX_REFERENCEABLE_RESPONSES} are kept, so that a batch of any length is streamed in bounded memory.
+     */
+    private static final class ReferenceableResponses extends LinkedHashMap<Long, CompletableFuture<BatchResponse>> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, CompletableFuture<BatchResponse>> eldest) {
+            return size() > MAX_REFERENCEABLE_RESPONSES;
+        }
+    }
+
+    /**
+     * Writes the responses of a streamed batch as the elements of one JSON array, flushing after every response so
+     * that the client receives it right away. A write failure, usually a client that went away, ends the writing.
+     */
+    private final class BatchResponseWriter {
+
+        private final Writer writer;
+        private boolean firstResponse = true;
+        private IOException failure;
+
+        BatchResponseWriter(final OutputStream output) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            this.writer.write('[');
+        }
+
+        synchronized void write(final BatchResponse response) {
+            if (this.failure != null) {
+                return;
+            }
+            try {
+                if (!this.firstResponse) {
+                    this.writer.write(',');
+                }
+                this.firstResponse = false;
+                this.writer.write(BatchApiServiceImpl.this.toApiJsonSerializer.serialize(response));
+                this.writer.flush();
+            } catch (IOException e) {
+                this.failure = e;
+            }
+        }
+
+        synchronized void finish() throws IOException {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            this.writer.write(']');
+            this.writer.flush();
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provides the per tenant thread pools that the requests of a batch without enclosing transaction run on, so that all
+ * concurrent batches of a tenant together never run more requests at a time than the tenant's batch-api-parallelism.
+ * Idle pool threads are released after a minute.
+ */
+@Component
+public class BatchRequestExecutor {
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+    private final ConcurrentMap<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the pool of the current tenant, resized to the given parallelism if that has been changed since.
+     */
+    public Executor retrieveExecutor(final int parallelism) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final ThreadPoolExecutor executor = this.executors.computeIfAbsent(tenantIdentifier,
+                key -> createExecutor(tenantIdentifier, parallelism));
+        synchronized (executor) {
+            // the core size may never exceed the maximum size in between
+            if (executor.getMaximumPoolSize() < parallelism) {
+                executor.setMaximumPoolSize(parallelism);
+                executor.setCorePoolSize(parallelism);
+            } else if (executor.getMaximumPoolSize() > parallelism) {
+                executor.setCorePoolSize(parallelism);
+                executor.setMaximumPoolSize(parallelism);
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Wraps the task so that it runs with the tenant, authenticated user and auth token of the calling request.
+     */
+    public <T> Supplier<T> inRequestContext(final Supplier<T> task) {
+        final Function<Void, T> function = inRequestContext(ignored -> task.get());
+        return () -> function.apply(null);
+    }
+
+    /**
+     * Wraps the task so that it runs with the tenant, authenticated user and auth token of the calling request.
+     */
+    public <T, R> Function<T, R> inRequestContext(final Function<T, R> task) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String authToken = ThreadLocalContextUtil.getAuthToken();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return input -> {
+            ThreadLocalContextUtil.setTenant(tenant);
+            ThreadLocalContextUtil.setAuthToken(authToken);
+            final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+            securityContext.setAuthentication(authentication);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                return task.apply(input);
+            } finally {
+                SecurityContextHolder.clearContext();
+                ThreadLocalContextUtil.setAuthToken(null);
+                ThreadLocalContextUtil.clearTenant();
+            }
+        };
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (final ThreadPoolExecutor executor : this.executors.values()) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor(final String tenantIdentifier, final int parallelism) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable, "batch-" + tenantIdentifier + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -100,6 +100,10 @@ public final class AuditData {
         return this.commandAsJson;
     }
 
+    public Long getId() {
+        return this.id;
+    }
+
     public String getEntityName() {
         return this.entityName;
     }
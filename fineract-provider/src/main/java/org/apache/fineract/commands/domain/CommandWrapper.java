@@ -282,7 +282,7 @@ public class CommandWrapper {
     }
 
     public String taskPermissionName() {
-        return this.actionName + "_" + this.entityName;
+        return this.taskPermissionName;
     }
 
     public String getTaskPermissionName() {
@@ -322,7 +322,7 @@ public class CommandWrapper {
     }
 
     public String commandName() {
-        return this.actionName + "_" + this.entityName;
+        return this.taskPermissionName;
     }
 
     public boolean isLoanDisburseDetailResource() {
@@ -19,10 +19,13 @@
 package org.apache.fineract.commands.provider;
 
 import com.google.common.base.Preconditions;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.commands.annotation.CommandType;
+import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.exception.UnsupportedCommandException;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
 import org.slf4j.Logger;
@@ -30,14 +33,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Scope;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
 
 /**
  * {@link CommandHandlerProvider} provides {@link NewCommandSourceHandler}s for a given entity and action. <br>
  * <br>
  * A {@link NewCommandSourceHandler} can be registered and the annotation {@link CommandType} is used to determine the
- * entity and the action the handler is capable to process.
+ * entity and the action the handler is capable to process. The handlers are looked up in the application context once,
+ * when it has been refreshed, so that dispatching a command is a single map lookup.
  *
  * @author Markus Geiss
  * @version 1.0
@@ -47,12 +53,49 @@ import org.springframework.stereotype.Component;
  */
 @Component
 @Scope("singleton")
-public class CommandHandlerProvider implements ApplicationContextAware {
+public class CommandHandlerProvider implements ApplicationContextAware, ApplicationListener<ContextRefreshedEvent> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CommandHandlerProvider.class);
 
+    // commands of these resources are not told apart by entity and action
+    // alone, see getHandler(CommandWrapper); their keys do not share the
+    // key space of the @CommandType handlers
+    private static final HandlerKey CREATE_DATATABLE = new HandlerKey("DATATABLE", "CREATE");
+    private static final HandlerKey DELETE_DATATABLE = new HandlerKey("DATATABLE", "DELETE");
+    private static final HandlerKey UPDATE_DATATABLE = new HandlerKey("DATATABLE", "UPDATE");
+    private static final HandlerKey REGISTER_DATATABLE = new HandlerKey("DATATABLE", "REGISTER");
+    private static final HandlerKey CREATE_DATATABLE_ENTRY = new HandlerKey("DATATABLE_ENTRY", "CREATE");
+    private static final HandlerKey UPDATE_ONE_TO_MANY_DATATABLE_ENTRY = new HandlerKey("DATATABLE_ENTRY", "UPDATE_ONE_TO_MANY");
+    private static final HandlerKey UPDATE_ONE_TO_ONE_DATATABLE_ENTRY = new HandlerKey("DATATABLE_ENTRY", "UPDATE_ONE_TO_ONE");
+    private static final HandlerKey DELETE_ONE_TO_MANY_DATATABLE_ENTRY = new HandlerKey("DATATABLE_ENTRY", "DELETE_ONE_TO_MANY");
+    private static final HandlerKey DELETE_ONE_TO_ONE_DATATABLE_ENTRY = new HandlerKey("DATATABLE_ENTRY", "DELETE_ONE_TO_ONE");
+    private static final HandlerKey CREATE_NOTE = new HandlerKey("NOTE", "CREATE");
+    private static final HandlerKey UPDATE_NOTE = new HandlerKey("NOTE", "UPDATE");
+    private static final HandlerKey DELETE_NOTE = new HandlerKey("NOTE", "DELETE");
+    private static final HandlerKey REGISTER_SURVEY = new HandlerKey("SURVEY", "REGISTER");
+    private static final HandlerKey FULFIL_SURVEY = new HandlerKey("SURVEY", "CREATE");
+    private static final HandlerKey UPDATE_DISBURSEMENT_DATE = new HandlerKey("DISBURSEMENTDETAIL", "UPDATE");
+    private static final HandlerKey ADD_AND_DELETE_DISBURSEMENT_DETAILS = new HandlerKey("DISBURSEMENTDETAIL", "UPDATE_ALL");
+    private static final HandlerKey UNSUPPORTED = new HandlerKey("", "");
+
+    private static final Map<HandlerKey, String> SPECIAL_HANDLER_NAMES = Map.ofEntries(
+            Map.entry(CREATE_DATATABLE, "createDatatableCommandHandler"), Map.entry(DELETE_DATATABLE, "deleteDatatableCommandHandler"),
+            Map.entry(UPDATE_DATATABLE, "updateDatatableCommandHandler"), Map.entry(REGISTER_DATATABLE, "registerDatatableCommandHandler"),
+            Map.entry(CREATE_DATATABLE_ENTRY, "createDatatableEntryCommandHandler"),
+            Map.entry(UPDATE_ONE_TO_MANY_DATATABLE_ENTRY, "updateOneToManyDatatableEntryCommandHandler"),
+            Map.entry(UPDATE_ONE_TO_ONE_DATATABLE_ENTRY, "updateOneToOneDatatableEntryCommandHandler"),
+            Map.entry(DELETE_ONE_TO_MANY_DATATABLE_ENTRY, "deleteOneToManyDatatableEntryCommandHandler"),
+            Map.entry(DELETE_ONE_TO_ONE_DATATABLE_ENTRY, "deleteOneToOneDatatableEntryCommandHandler"),
+            Map.entry(CREATE_NOTE, "createNoteCommandHandler"), Map.entry(UPDATE_NOTE, "updateNoteCommandHandler"),
+            Map.entry(DELETE_NOTE, "deleteNoteCommandHandler"), Map.entry(REGISTER_SURVEY, "registerSurveyCommandHandler"),
+            Map.entry(FULFIL_SURVEY, "fullFilSurveyCommandHandler"),
+            Map.entry(UPDATE_DISBURSEMENT_DATE, "updateLoanDisbuseDateCommandHandler"),
+            Map.entry(ADD_AND_DELETE_DISBURSEMENT_DETAILS, "addAndDeleteLoanDisburseDetailsCommandHandler"));
+
     private ApplicationContext applicationContext;
-    private HashMap<String, String> registeredHandlers;
+    private HashMap<HandlerKey, String> registeredHandlers;
+    private volatile Map<HandlerKey, NewCommandSourceHandler> handlers;
+    private volatile Map<HandlerKey, NewCommandSourceHandler> specialHandlers;
 
     CommandHandlerProvider() {
 
@@ -73,11 +116,83 @@ public class CommandHandlerProvider implements ApplicationContextAware {
         Preconditions.checkArgument(StringUtils.isNoneEmpty(entity), "An entity must be given!");
         Preconditions.checkArgument(StringUtils.isNoneEmpty(action), "An action must be given!");
 
-        final String key = entity + "|" + action;
-        if (!this.registeredHandlers.containsKey(key)) {
-            throw new UnsupportedCommandException(key);
+        final NewCommandSourceHandler handler = handlers().get(new HandlerKey(entity, action));
+        if (handler == null) {
+            throw new UnsupportedCommandException(entity + "|" + action);
+        }
+        return handler;
+    }
+
+    /**
+     * Returns the handler for the given command.<br>
+     * <br>
+     * Datatable, note, survey and disbursement detail commands are told apart by their resource URL and ids as well;
+     * every other command is looked up by its entity and action as by {@link #getHandler(String, String)}.
+     *
+     * @param wrapper
+     *            the command to lookup the handler.
+     */
+    public NewCommandSourceHandler getHandler(final CommandWrapper wrapper) {
+        final HandlerKey specialKey = specialHandlerKey(wrapper);
+        if (specialKey == null) {
+            return getHandler(wrapper.entityName(), wrapper.actionName());
         }
-        return (NewCommandSourceHandler) this.applicationContext.getBean(this.registeredHandlers.get(key));
+        // resolves the special handlers as well
+        handlers();
+        final NewCommandSourceHandler handler = this.specialHandlers.get(specialKey);
+        if (handler == null) {
+            throw new UnsupportedCommandException(wrapper.commandName());
+        }
+        return handler;
+    }
+
+    private static HandlerKey specialHandlerKey(final CommandWrapper wrapper) {
+        if (wrapper.isDatatableResource()) {
+            if (wrapper.isCreateDatatable()) {
+                return CREATE_DATATABLE;
+            } else if (wrapper.isDeleteDatatable()) {
+                return DELETE_DATATABLE;
+            } else if (wrapper.isUpdateDatatable()) {
+                return UPDATE_DATATABLE;
+            } else if (wrapper.isCreate()) {
+                return CREATE_DATATABLE_ENTRY;
+            } else if (wrapper.isUpdateMultiple()) {
+                return UPDATE_ONE_TO_MANY_DATATABLE_ENTRY;
+            } else if (wrapper.isUpdateOneToOne()) {
+                return UPDATE_ONE_TO_ONE_DATATABLE_ENTRY;
+            } else if (wrapper.isDeleteMultiple()) {
+                return DELETE_ONE_TO_MANY_DATATABLE_ENTRY;
+            } else if (wrapper.isDeleteOneToOne()) {
+                return DELETE_ONE_TO_ONE_DATATABLE_ENTRY;
+            } else if (wrapper.isRegisterDatatable()) {
+                return REGISTER_DATATABLE;
+            }
+            return UNSUPPORTED;
+        } else if (wrapper.isNoteResource()) {
+            if (wrapper.isCreate()) {
+                return CREATE_NOTE;
+            } else if (wrapper.isUpdate()) {
+                return UPDATE_NOTE;
+            } else if (wrapper.isDelete()) {
+                return DELETE_NOTE;
+            }
+            return UNSUPPORTED;
+        } else if (wrapper.isSurveyResource()) {
+            if (wrapper.isRegisterSurvey()) {
+                return REGISTER_SURVEY;
+            } else if (wrapper.isFullFilSurvey()) {
+                return FULFIL_SURVEY;
+            }
+            return UNSUPPORTED;
+        } else if (wrapper.isLoanDisburseDetailResource()) {
+            if (wrapper.isUpdateDisbursementDate()) {
+                return UPDATE_DISBURSEMENT_DATE;
+            } else if (wrapper.addAndDeleteDisbursementDetails()) {
+                return ADD_AND_DELETE_DISBURSEMENT_DETAILS;
+            }
+            return UNSUPPORTED;
+        }
+        return null;
     }
 
     private void initializeHandlerRegistry() {
@@ -90,7 +205,12 @@ public class CommandHandlerProvider implements ApplicationContextAware {
                     LOGGER.info("Register command handler '{}' ...", commandHandlerName);
                     final CommandType commandType = this.applicationContext.findAnnotationOnBean(commandHandlerName, CommandType.class);
                     try {
-                        this.registeredHandlers.put(commandType.entity() + "|" + commandType.action(), commandHandlerName);
+                        final String previousHandlerName = this.registeredHandlers
+                                .put(new HandlerKey(commandType.entity(), commandType.action()), commandHandlerName);
+                        if (previousHandlerName != null) {
+                            LOGGER.error("Command handlers '{}' and '{}' are both registered for {}|{}, '{}' is used", previousHandlerName,
+                                    commandHandlerName, commandType.entity(), commandType.action(), commandHandlerName);
+                        }
                     } catch (final Throwable th) {
                         LOGGER.error("Unable to register command handler '{}'!", commandHandlerName, th);
                     }
@@ -99,9 +219,85 @@ public class CommandHandlerProvider implements ApplicationContextAware {
         }
     }
 
+    /**
+     * Returns the handler instances, which are looked up in the application context only once. This normally happens
+     * when the context has been refreshed, see {@link #onApplicationEvent(ContextRefreshedEvent)}.
+     */
+    private Map<HandlerKey, NewCommandSourceHandler> handlers() {
+        Map<HandlerKey, NewCommandSourceHandler> resolvedHandlers = this.handlers;
+        if (resolvedHandlers == null) {
+            synchronized (this) {
+                resolvedHandlers = this.handlers;
+                if (resolvedHandlers == null) {
+                    this.specialHandlers = resolveHandlers(SPECIAL_HANDLER_NAMES);
+                    resolvedHandlers = resolveHandlers(this.registeredHandlers);
+                    this.handlers = resolvedHandlers;
+                }
+            }
+        }
+        return resolvedHandlers;
+    }
+
+    private Map<HandlerKey, NewCommandSourceHandler> resolveHandlers(final Map<HandlerKey, String> handlerNames) {
+        final Map<HandlerKey, NewCommandSourceHandler> resolvedHandlers = new HashMap<>();
+        for (final Map.Entry<HandlerKey, String> handlerName : handlerNames.entrySet()) {
+            try {
+                resolvedHandlers.put(handlerName.getKey(),
+                        this.applicationContext.getBean(handlerName.getValue(), NewCommandSourceHandler.class));
+            } catch (final BeansException e) {
+                // the commands of the handler are rejected as unsupported
+                LOGGER.error("Unable to resolve command handler '{}' for {}|{}!", handlerName.getValue(), handlerName.getKey().entity,
+                        handlerName.getKey().action, e);
+            }
+        }
+        return Collections.unmodifiableMap(resolvedHandlers);
+    }
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
         this.initializeHandlerRegistry();
     }
+
+    @Override
+    public void onApplicationEvent(final ContextRefreshedEvent event) {
+        if (event.getApplicationContext() == this.applicationContext && this.handlers == null) {
+            final Map<HandlerKey, NewCommandSourceHandler> resolvedHandlers = handlers();
+            LOGGER.info("Resolved {} of {} command handlers and {} of {} special command handlers", resolvedHandlers.size(),
+                    this.registeredHandlers.size(), this.specialHandlers.size(), SPECIAL_HANDLER_NAMES.size());
+        }
+    }
+
+    /**
+     * The entity and action a command handler is registered for.
+     */
+    private static final class HandlerKey {
+
+        private final String entity;
+        private final String action;
+        private final int hashCode;
+
+        HandlerKey(final String entity, final String action) {
+            this.entity = entity;
+            this.action = action;
+            this.hashCode = 31 * entity.hashCode() + action.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof HandlerKey)) {
+                return false;
+            }
+            final HandlerKey other = (HandlerKey) obj;
+            return this.entity.equals(other.entity) && this.action.equals(other.action);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
 }
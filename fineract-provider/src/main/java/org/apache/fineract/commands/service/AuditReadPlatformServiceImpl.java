@@ -40,6 +40,7 @@ import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PageCursor;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
@@ -198,6 +199,10 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         final String hierarchy = currentUser.getOffice().getHierarchy();
 
         final AuditMapper rm = new AuditMapper();
+        if (parameters.isSeekPaged()) {
+            return retrieveSeekPageOfAuditEntries(rm, extraCriteria, includeJson, hierarchy, parameters);
+        }
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(rm.schema(includeJson, hierarchy));
@@ -220,6 +225,27 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), extraCriteria.getArguments(), rm);
     }
 
+    private Page<AuditData> retrieveSeekPageOfAuditEntries(final AuditMapper rm, final SQLBuilder extraCriteria, final boolean includeJson,
+            final String hierarchy, final PaginationParameters parameters) {
+        String sqlCountRows = null;
+        if (parameters.isTotalCountRequested()) {
+            sqlCountRows = "select count(*) from (select " + rm.schema(false, hierarchy) + ' ' + extraCriteria.getSQLTemplate()
+                    + ") filtered_audits";
+        }
+        final Object[] countArgs = extraCriteria.getArguments();
+
+        // seek pages follow the default order, newest entries first
+        final PageCursor cursor = parameters.getCursor();
+        if (cursor != null) {
+            extraCriteria.addCriteria("aud.id <", cursor.getId());
+        }
+        final String sqlFetchRows = "select " + rm.schema(includeJson, hierarchy) + ' ' + extraCriteria.getSQLTemplate()
+                + " order by aud.id DESC";
+
+        return this.paginationHelper.fetchSeekPage(this.jdbcTemplate, sqlFetchRows, extraCriteria.getArguments(), sqlCountRows,
+                countArgs, parameters.getLimit(), rm, audit -> PageCursor.of(audit.getId()));
+    }
+
     @Override
     public Collection<AuditData> retrieveAllEntriesToBeChecked(final SQLBuilder extraCriteria, final boolean includeJson) {
         extraCriteria.addCriteria("aud.processing_result_enum = ", 2);
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import java.util.List;
+import org.apache.fineract.commands.data.CommandSourceLogRecord;
+
+/**
+ * Writes the records of the command audit log to <code>m_portfolio_command_source</code> of the current tenant.
+ */
+public interface CommandSourceLogWritePlatformService {
+
+    /**
+     * Inserts the records, in their order, with multi-row inserts in the current transaction, or in a new one if there
+     * is none. When a segment name is given it is remembered in the same transaction, so that the segment is not
+     * written a second time after a crash.
+     */
+    void write(String segmentName, List<CommandSourceLogRecord> records);
+
+    boolean isSegmentWritten(String segmentName);
+
+    void forgetSegment(String segmentName);
+}
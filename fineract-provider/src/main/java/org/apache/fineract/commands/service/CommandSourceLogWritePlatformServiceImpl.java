@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.apache.fineract.commands.data.CommandSourceLogRecord;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class CommandSourceLogWritePlatformServiceImpl implements CommandSourceLogWritePlatformService {
+
+    static final int MAX_ROWS_PER_INSERT = 100;
+
+    private static final String INSERT_SQL = "insert into m_portfolio_command_source (action_name, entity_name, office_id, group_id, "
+            + "client_id, loan_id, savings_account_id, api_get_url, resource_id, subresource_id, command_as_json, maker_id, "
+            + "made_on_date, processing_result_enum, product_id, transaction_id, creditbureau_id, organisation_creditbureau_id) values ";
+    private static final String INSERT_ROW_SQL = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CommandSourceLogWritePlatformServiceImpl(final RoutingDataSource dataSource) {
+        this(new JdbcTemplate(dataSource));
+    }
+
+    CommandSourceLogWritePlatformServiceImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void write(final String segmentName, final List<CommandSourceLogRecord> records) {
+        for (int fromIndex = 0; fromIndex < records.size(); fromIndex += MAX_ROWS_PER_INSERT) {
+            final List<CommandSourceLogRecord> rows = records.subList(fromIndex, Math.min(fromIndex + MAX_ROWS_PER_INSERT, records.size()));
+            final List<Object> args = new ArrayList<>(rows.size() * 18);
+            for (final CommandSourceLogRecord row : rows) {
+                args.add(row.getActionName());
+                args.add(row.getEntityName());
+                args.add(row.getOfficeId());
+                args.add(row.getGroupId());
+                args.add(row.getClientId());
+                args.add(row.getLoanId());
+                args.add(row.getSavingsId());
+                args.add(row.getResourceGetUrl());
+                args.add(row.getResourceId());
+                args.add(row.getSubresourceId());
+                args.add(row.getCommandAsJson());
+                args.add(row.getMakerId());
+                args.add(new Timestamp(row.getMadeOnDate()));
+                args.add(row.getProcessingResult());
+                args.add(row.getProductId());
+                args.add(row.getTransactionId());
+                args.add(row.getCreditBureauId());
+                args.add(row.getOrganisationCreditBureauId());
+            }
+            this.jdbcTemplate.update(INSERT_SQL + String.join(", ", Collections.nCopies(rows.size(), INSERT_ROW_SQL)), args.toArray());
+        }
+        if (segmentName != null) {
+            this.jdbcTemplate.update("insert into m_portfolio_command_source_log_segment (segment_name, flushed_date) values (?, ?)",
+                    segmentName, new Date());
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean isSegmentWritten(final String segmentName) {
+        final Integer count = this.jdbcTemplate.queryForObject(
+                "select count(*) from m_portfolio_command_source_log_segment where segment_name = ?", Integer.class, segmentName);
+        return count != null && count > 0;
+    }
+
+    @Override
+    @Transactional
+    public void forgetSegment(final String segmentName) {
+        this.jdbcTemplate.update("delete from m_portfolio_command_source_log_segment where segment_name = ?", segmentName);
+    }
+}
@@ -0,0 +1,579 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.commands.data.CommandSourceLogRecord;
+import org.apache.fineract.commands.domain.CommandSource;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Write-behind log of the audit entries of commands, used instead of saving the {@link CommandSource} in the transaction
+ * of the command when the <code>async-command-audit</code> configuration is enabled.
+ *
+ * Right before the command commits, its entry is appended to the active segment file of the tenant and forced to disk.
+ * Appends that wait for the disk at the same time share one force, which runs outside of the lock that orders the
+ * appends. If the command rolls back after all, an abort marker is appended to the same segment. A crash between the
+ * append and the commit leaves the outcome unknown; such an entry is written as if its command had committed.
+ *
+ * A single flush thread seals the active segment every second. Once the outcome of all its entries is known, it writes
+ * a sealed segment, in the order the segments were appended, to <code>m_portfolio_command_source</code> with multi-row
+ * inserts. The name of a written segment is recorded in the same transaction before the file is deleted, so segments
+ * left behind by a crash are written exactly once.
+ *
+ * Each node appends to its own directory under <code>~/.fineract/&lt;tenant&gt;/command-audit-log</code>, or under the
+ * directory named by the <code>FINERACT_COMMAND_AUDIT_LOG_DIR</code> environment variable, and holds a file lock for
+ * it while it runs. Every minute, the directories whose lock is free, left behind by a node that stopped or crashed,
+ * are written and removed, so several nodes can share the log directory. Entries show up in the audit API about a
+ * second after the command.
+ */
+@Component
+public class CommandSourceWriteBehindLog {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandSourceWriteBehindLog.class);
+
+    static final long FLUSH_INTERVAL_MILLIS = 1000;
+    static final int FLUSHES_PER_RECOVERY = 60;
+    static final String LOG_DIRECTORY_NAME = "command-audit-log";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String LOCK_SUFFIX = ".lock";
+    private static final byte[] LINE_BREAK = { '\n' };
+
+    private final CommandSourceLogWritePlatformService commandSourceLogWritePlatformService;
+    private final TenantDetailsService tenantDetailsService;
+    private final TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
+
+    private final Gson gson = new Gson();
+    private final Path baseDirectory;
+    // segment names sort in the order they were started, also across restarts,
+    // and are unique across the nodes writing to the same tenant database
+    private final String nodeName = String.format("%013d-%s", System.currentTimeMillis(), UUID.randomUUID().toString().substring(0, 8));
+    private final AtomicLong segmentNumber = new AtomicLong();
+    private final AtomicLong entryNumber = new AtomicLong();
+    private final ConcurrentMap<String, TenantLog> tenantLogs = new ConcurrentHashMap<>();
+    private int flushNumber;
+    private ScheduledExecutorService flushExecutor;
+
+    @Autowired
+    public CommandSourceWriteBehindLog(final CommandSourceLogWritePlatformService commandSourceLogWritePlatformService,
+            final TenantDetailsService tenantDetailsService, final TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
+        this(commandSourceLogWritePlatformService, tenantDetailsService, tenantDatabaseUpgradeService, configuredBaseDirectory());
+    }
+
+    CommandSourceWriteBehindLog(final CommandSourceLogWritePlatformService commandSourceLogWritePlatformService,
+            final TenantDetailsService tenantDetailsService, final TenantDatabaseUpgradeService tenantDatabaseUpgradeService,
+            final Path baseDirectory) {
+        this.commandSourceLogWritePlatformService = commandSourceLogWritePlatformService;
+        this.tenantDetailsService = tenantDetailsService;
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
+        this.baseDirectory = baseDirectory;
+    }
+
+    private static Path configuredBaseDirectory() {
+        final String logDirectory = System.getenv("FINERACT_COMMAND_AUDIT_LOG_DIR");
+        return Paths.get(logDirectory == null || logDirectory.isEmpty() ? FileSystemContentRepository.FINERACT_BASE_DIR : logDirectory);
+    }
+
+    @PostConstruct
+    public void start() {
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "command-audit-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushExecutor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.flushExecutor.shutdown();
+        try {
+            if (this.flushExecutor.awaitTermination(FLUSH_INTERVAL_MILLIS * 10, TimeUnit.MILLISECONDS)) {
+                // what cannot be written now is recovered by another node or on the next start
+                flush();
+                for (final TenantLog tenantLog : this.tenantLogs.values()) {
+                    tenantLog.unlock();
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appends the audit entry of the command to the log of the current tenant right before the transaction of the command
+     * commits, and marks it as aborted if the transaction rolls back after all.
+     *
+     * If the append fails, the entry is written to the database in the transaction of the command instead, so that the
+     * command fails if that does too.
+     */
+    public void appendBeforeCommit(final CommandSource commandSource) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final CommandSourceLogRecord record = CommandSourceLogRecord.from(commandSource);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            final PendingEntry entry = append(tenant, record);
+            if (entry != null) {
+                entry.complete(true);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            private PendingEntry entry;
+
+            @Override
+            public void beforeCommit(final boolean readOnly) {
+                this.entry = append(tenant, record);
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                if (this.entry != null) {
+                    this.entry.complete(status == TransactionSynchronization.STATUS_COMMITTED);
+                }
+            }
+        });
+    }
+
+    private PendingEntry append(final FineractPlatformTenant tenant, final CommandSourceLogRecord record) {
+        try {
+            return tenantLog(tenant).append(record);
+        } catch (final IOException e) {
+            LOG.warn("{}: appending to the command audit log failed, writing the {} {} entry directly", tenant.getName(),
+                    record.getEntityName(), record.getActionName(), e);
+            this.commandSourceLogWritePlatformService.write(null, Collections.singletonList(record));
+            return null;
+        }
+    }
+
+    private TenantLog tenantLog(final FineractPlatformTenant tenant) {
+        return this.tenantLogs.computeIfAbsent(tenant.getTenantIdentifier(), tenantIdentifier -> new TenantLog(tenant));
+    }
+
+    private Path tenantDirectory(final String tenantIdentifier) {
+        return this.baseDirectory.resolve(tenantIdentifier).resolve(LOG_DIRECTORY_NAME);
+    }
+
+    private String newSegmentName() {
+        return this.nodeName + String.format("-%010d", this.segmentNumber.incrementAndGet()) + SEGMENT_SUFFIX;
+    }
+
+    private byte[] toLine(final LogEntry entry) {
+        return (this.gson.toJson(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    void flush() {
+        try {
+            if (this.flushNumber++ % FLUSHES_PER_RECOVERY == 0) {
+                recover();
+            }
+            for (final TenantLog tenantLog : this.tenantLogs.values()) {
+                final FineractPlatformTenant tenant = tenantLog.tenant;
+                if (this.tenantDatabaseUpgradeService.isTenantReady(tenant.getTenantIdentifier())) {
+                    tenantLog.seal();
+                    writeSegments(tenant, tenantLog.sealedSegments());
+                }
+            }
+        } catch (final RuntimeException e) {
+            LOG.error("Flushing the command audit log failed", e);
+        }
+    }
+
+    /**
+     * Writes and removes the directories of the nodes that stopped or crashed, including earlier runs of this one.
+     */
+    private void recover() {
+        for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            final Path tenantDirectory = tenantDirectory(tenant.getTenantIdentifier());
+            if (!Files.isDirectory(tenantDirectory) || !this.tenantDatabaseUpgradeService.isTenantReady(tenant.getTenantIdentifier())) {
+                continue;
+            }
+            try (DirectoryStream<Path> lockFiles = Files.newDirectoryStream(tenantDirectory, "*" + LOCK_SUFFIX)) {
+                for (final Path lockFile : lockFiles) {
+                    final String lockFileName = lockFile.getFileName().toString();
+                    final String otherNodeName = lockFileName.substring(0, lockFileName.length() - LOCK_SUFFIX.length());
+                    if (!otherNodeName.equals(this.nodeName)) {
+                        recover(tenant, lockFile, tenantDirectory.resolve(otherNodeName));
+                    }
+                }
+            } catch (final IOException e) {
+                LOG.error("{}: recovering the command audit log in {} failed", tenant.getName(), tenantDirectory, e);
+            }
+        }
+    }
+
+    private void recover(final FineractPlatformTenant tenant, final Path lockFile, final Path nodeDirectory) throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.WRITE); FileLock lock = lockChannel.tryLock()) {
+            // the lock is held by a running node, or the directory was just
+            // recovered by another one
+            if (lock == null || !Files.exists(lockFile)) {
+                return;
+            }
+            final List<Path> segments = listSegments(nodeDirectory);
+            if (!segments.isEmpty()) {
+                LOG.info("{}: recovering the command audit log in {}", tenant.getName(), nodeDirectory);
+            }
+            if (writeSegments(tenant, segments)) {
+                Files.deleteIfExists(nodeDirectory);
+                Files.delete(lockFile);
+            }
+        } catch (final NoSuchFileException e) {
+            LOG.debug("{}: command audit log directory {} was already recovered", tenant.getName(), nodeDirectory);
+        } catch (final OverlappingFileLockException e) {
+            LOG.debug("{}: command audit log directory {} is in use by this process", tenant.getName(), nodeDirectory);
+        }
+    }
+
+    /**
+     * Writes the segments in their order and deletes them, stopping at the first one that fails so that entries keep
+     * their order; returns whether all of them were written.
+     */
+    private boolean writeSegments(final FineractPlatformTenant tenant, final List<Path> segments) {
+        if (segments.isEmpty()) {
+            return true;
+        }
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            for (final Path segment : segments) {
+                final String segmentName = segment.getFileName().toString();
+                if (this.commandSourceLogWritePlatformService.isSegmentWritten(segmentName)) {
+                    LOG.info("{}: command audit log segment {} was already written", tenant.getName(), segmentName);
+                } else {
+                    this.commandSourceLogWritePlatformService.write(segmentName, readSegment(tenant, segment));
+                }
+                Files.delete(segment);
+                this.commandSourceLogWritePlatformService.forgetSegment(segmentName);
+            }
+            return true;
+        } catch (final IOException | RuntimeException e) {
+            LOG.error("{}: writing the command audit log failed, retrying in {} ms", tenant.getName(), FLUSH_INTERVAL_MILLIS, e);
+            return false;
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private List<CommandSourceLogRecord> readSegment(final FineractPlatformTenant tenant, final Path segment) throws IOException {
+        final Map<Long, CommandSourceLogRecord> records = new LinkedHashMap<>();
+        int lineNumber = 0;
+        for (final String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                final LogEntry entry = this.gson.fromJson(line, LogEntry.class);
+                if (entry.aborted) {
+                    records.remove(entry.id);
+                } else {
+                    records.put(entry.id, entry.command);
+                }
+            } catch (final JsonParseException e) {
+                // an entry whose append was cut short by a crash; its command
+                // did not commit
+                LOG.warn("{}: skipping unreadable line {} of command audit log segment {}", tenant.getName(), lineNumber, segment, e);
+            }
+        }
+        return new ArrayList<>(records.values());
+    }
+
+    private static List<Path> listSegments(final Path directory) throws IOException {
+        final List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (final Path segment : stream) {
+                segments.add(segment);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * One line of a segment: an audit entry, or the abort marker of an earlier entry of the same segment.
+     */
+    private static final class LogEntry {
+
+        private final long id;
+        private final CommandSourceLogRecord command;
+        private final boolean aborted;
+
+        LogEntry(final long id, final CommandSourceLogRecord command, final boolean aborted) {
+            this.id = id;
+            this.command = command;
+            this.aborted = aborted;
+        }
+    }
+
+    /**
+     * An appended entry whose transaction has not completed yet; it keeps its segment from being written.
+     */
+    private static final class PendingEntry {
+
+        private final TenantLog tenantLog;
+        private final Segment segment;
+        private final long id;
+
+        PendingEntry(final TenantLog tenantLog, final Segment segment, final long id) {
+            this.tenantLog = tenantLog;
+            this.segment = segment;
+            this.id = id;
+        }
+
+        void complete(final boolean committed) {
+            this.tenantLog.complete(this.segment, this.id, committed);
+        }
+    }
+
+    /**
+     * A segment file that is still open, either because it is active or because some of its entries are pending.
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicLong writtenSize = new AtomicLong();
+        private long forcedSize;
+        // guarded by the tenant log
+        private int pendingEntries;
+        private boolean sealed;
+
+        Segment(final Path path, final FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        /**
+         * Writes the line and returns the size of the segment after it; the caller holds the lock of the tenant log.
+         */
+        long write(final byte[] line) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+            return this.writtenSize.addAndGet(line.length);
+        }
+
+        /**
+         * Forces the segment to disk up to the given size. The first append to get here also forces the lines written by
+         * the appends that are still waiting, so those return without forcing again.
+         */
+        synchronized void force(final long size) throws IOException {
+            if (this.forcedSize < size) {
+                final long currentSize = this.writtenSize.get();
+                this.channel.force(false);
+                this.forcedSize = currentSize;
+            }
+        }
+    }
+
+    private final class TenantLog {
+
+        private final FineractPlatformTenant tenant;
+        private final Path tenantDirectory;
+        private final Path directory;
+        private final Path lockFile;
+        private final Set<Path> openSegments = new HashSet<>();
+        private FileChannel lockChannel;
+        private Segment activeSegment;
+
+        TenantLog(final FineractPlatformTenant tenant) {
+            this.tenant = tenant;
+            this.tenantDirectory = tenantDirectory(tenant.getTenantIdentifier());
+            this.directory = this.tenantDirectory.resolve(CommandSourceWriteBehindLog.this.nodeName);
+            this.lockFile = this.tenantDirectory.resolve(CommandSourceWriteBehindLog.this.nodeName + LOCK_SUFFIX);
+        }
+
+        PendingEntry append(final CommandSourceLogRecord record) throws IOException {
+            final long id = CommandSourceWriteBehindLog.this.entryNumber.incrementAndGet();
+            final byte[] line = toLine(new LogEntry(id, record, false));
+            final Segment segment;
+            final long size;
+            synchronized (this) {
+                segment = activeSegment();
+                try {
+                    size = segment.write(line);
+                } catch (final IOException e) {
+                    // a partly written line must not run into the next entry
+                    seal();
+                    throw e;
+                }
+                segment.pendingEntries++;
+            }
+            try {
+                segment.force(size);
+            } catch (final IOException e) {
+                complete(segment, id, false);
+                throw e;
+            }
+            return new PendingEntry(this, segment, id);
+        }
+
+        void complete(final Segment segment, final long id, final boolean committed) {
+            if (!committed) {
+                try {
+                    final long size;
+                    synchronized (this) {
+                        // starts on a new line in case a failed append left a partial one
+                        segment.write(LINE_BREAK);
+                        size = segment.write(toLine(new LogEntry(id, null, true)));
+                    }
+                    segment.force(size);
+                } catch (final IOException e) {
+                    LOG.error("{}: marking entry {} of command audit log segment {} as aborted failed, it will be written anyway",
+                            this.tenant.getName(), id, segment.path, e);
+                }
+            }
+            synchronized (this) {
+                segment.pendingEntries--;
+                closeIfDone(segment);
+            }
+        }
+
+        /**
+         * Ends the active segment; the next append starts a new one.
+         */
+        synchronized void seal() {
+            if (this.activeSegment != null) {
+                this.activeSegment.sealed = true;
+                closeIfDone(this.activeSegment);
+                this.activeSegment = null;
+            }
+        }
+
+        /**
+         * The segments of this node that can be written: sealed, with the outcome of all their entries known, and
+         * started before any segment that is not.
+         */
+        synchronized List<Path> sealedSegments() {
+            try {
+                final List<Path> sealedSegments = new ArrayList<>();
+                for (final Path segment : listSegments(this.directory)) {
+                    if (this.openSegments.contains(segment)) {
+                        // later segments wait for it so that they are written in the order they were appended
+                        break;
+                    }
+                    sealedSegments.add(segment);
+                }
+                return sealedSegments;
+            } catch (final IOException e) {
+                LOG.error("{}: listing the command audit log in {} failed", this.tenant.getName(), this.directory, e);
+                return Collections.emptyList();
+            }
+        }
+
+        synchronized void unlock() {
+            if (this.lockChannel != null) {
+                try {
+                    this.lockChannel.close();
+                } catch (final IOException e) {
+                    LOG.warn("{}: releasing the lock of the command audit log in {} failed", this.tenant.getName(), this.directory, e);
+                }
+                this.lockChannel = null;
+            }
+        }
+
+        private Segment activeSegment() throws IOException {
+            if (this.activeSegment == null) {
+                lock();
+                Files.createDirectories(this.directory);
+                final Path path = this.directory.resolve(newSegmentName());
+                this.activeSegment = new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+                this.openSegments.add(path);
+            }
+            return this.activeSegment;
+        }
+
+        /**
+         * Takes the lock of the directory of this node, held until the node stops so that no other node recovers it.
+         */
+        private void lock() throws IOException {
+            while (this.lockChannel == null) {
+                Files.createDirectories(this.tenantDirectory);
+                final FileChannel channel = FileChannel.open(this.lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                try {
+                    channel.lock();
+                } catch (final IOException e) {
+                    channel.close();
+                    throw e;
+                }
+                if (Files.exists(this.lockFile)) {
+                    this.lockChannel = channel;
+                } else {
+                    // another node took the lock of the file just created and
+                    // removed it as an abandoned one
+                    channel.close();
+                }
+            }
+        }
+
+        private void closeIfDone(final Segment segment) {
+            if (segment.sealed && segment.pendingEntries == 0) {
+                try {
+                    segment.channel.close();
+                } catch (final IOException e) {
+                    LOG.warn("{}: closing command audit log segment {} failed", this.tenant.getName(), segment.path, e);
+                }
+                this.openSegments.remove(segment.path);
+            }
+        }
+    }
+}
@@ -23,7 +23,6 @@ import org.apache.fineract.commands.domain.CommandSource;
 import org.apache.fineract.commands.domain.CommandSourceRepository;
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.exception.RollbackTransactionAsCommandIsNotApprovedByCheckerException;
-import org.apache.fineract.commands.exception.UnsupportedCommandException;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
 import org.apache.fineract.commands.provider.CommandHandlerProvider;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
@@ -34,40 +33,55 @@ import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.hooks.event.HookEvent;
 import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.processor.HookDeliveryDispatcher;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.search.SearchConstants;
+import org.apache.fineract.portfolio.search.service.SearchIndexWritePlatformService;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class SynchronousCommandProcessingService implements CommandProcessingService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(SynchronousCommandProcessingService.class);
+
     private PlatformSecurityContext context;
-    private final ApplicationContext applicationContext;
     private final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer;
     private final ToApiJsonSerializer<CommandProcessingResult> toApiResultJsonSerializer;
     private CommandSourceRepository commandSourceRepository;
     private final ConfigurationDomainService configurationDomainService;
     private final CommandHandlerProvider commandHandlerProvider;
+    private final HookDeliveryDispatcher hookDeliveryDispatcher;
+    private final SearchIndexWritePlatformService searchIndexWritePlatformService;
+    private final CommandSourceWriteBehindLog commandSourceWriteBehindLog;
 
     @Autowired
-    public SynchronousCommandProcessingService(final PlatformSecurityContext context, final ApplicationContext applicationContext,
+    public SynchronousCommandProcessingService(final PlatformSecurityContext context,
             final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer,
             final ToApiJsonSerializer<CommandProcessingResult> toApiResultJsonSerializer,
             final CommandSourceRepository commandSourceRepository, final ConfigurationDomainService configurationDomainService,
-            final CommandHandlerProvider commandHandlerProvider) {
+            final CommandHandlerProvider commandHandlerProvider, final HookDeliveryDispatcher hookDeliveryDispatcher,
+            final SearchIndexWritePlatformService searchIndexWritePlatformService,
+            final CommandSourceWriteBehindLog commandSourceWriteBehindLog) {
         this.context = context;
         this.context = context;
-        this.applicationContext = applicationContext;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.toApiResultJsonSerializer = toApiResultJsonSerializer;
         this.commandSourceRepository = commandSourceRepository;
         this.commandSourceRepository = commandSourceRepository;
         this.configurationDomainService = configurationDomainService;
         this.commandHandlerProvider = commandHandlerProvider;
+        this.hookDeliveryDispatcher = hookDeliveryDispatcher;
+        this.searchIndexWritePlatformService = searchIndexWritePlatformService;
+        this.commandSourceWriteBehindLog = commandSourceWriteBehindLog;
     }
 
     @Transactional
@@ -77,7 +91,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
         final boolean rollbackTransaction = this.configurationDomainService.isMakerCheckerEnabledForTask(wrapper.taskPermissionName());
 
-        final NewCommandSourceHandler handler = findCommandHandler(wrapper);
+        final NewCommandSourceHandler handler = this.commandHandlerProvider.getHandler(wrapper);
 
         final CommandProcessingResult result = handler.processCommand(command);
 
@@ -106,7 +120,13 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         }
 
         if (commandSourceResult.hasJson()) {
-            this.commandSourceRepository.save(commandSourceResult);
+            // entries of maker checker commands need their id right away
+            if (command.commandId() == null && !rollbackTransaction && !result.isRollbackTransaction()
+                    && this.configurationDomainService.isAsyncCommandAuditEnabled()) {
+                this.commandSourceWriteBehindLog.appendBeforeCommit(commandSourceResult);
+            } else {
+                this.commandSourceRepository.save(commandSourceResult);
+            }
         }
 
         if ((rollbackTransaction || result.isRollbackTransaction()) && !isApprovedByChecker) {
@@ -125,6 +145,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         result.setRollbackTransaction(null);
 
         publishEvent(wrapper.entityName(), wrapper.actionName(), result);
+        updateSearchIndex(wrapper.entityName(), result);
 
         return result;
     }
@@ -140,64 +161,6 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
                 .withEntityId(commandSourceResult.getResourceId()).build();
     }
 
-    private NewCommandSourceHandler findCommandHandler(final CommandWrapper wrapper) {
-        NewCommandSourceHandler handler = null;
-
-        if (wrapper.isDatatableResource()) {
-            if (wrapper.isCreateDatatable()) {
-                handler = this.applicationContext.getBean("createDatatableCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDeleteDatatable()) {
-                handler = this.applicationContext.getBean("deleteDatatableCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateDatatable()) {
-                handler = this.applicationContext.getBean("updateDatatableCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateMultiple()) {
-                handler = this.applicationContext.getBean("updateOneToManyDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateOneToOne()) {
-                handler = this.applicationContext.getBean("updateOneToOneDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDeleteMultiple()) {
-                handler = this.applicationContext.getBean("deleteOneToManyDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDeleteOneToOne()) {
-                handler = this.applicationContext.getBean("deleteOneToOneDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isRegisterDatatable()) {
-                handler = this.applicationContext.getBean("registerDatatableCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isNoteResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createNoteCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateNoteCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteNoteCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isSurveyResource()) {
-            if (wrapper.isRegisterSurvey()) {
-                handler = this.applicationContext.getBean("registerSurveyCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isFullFilSurvey()) {
-                handler = this.applicationContext.getBean("fullFilSurveyCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isLoanDisburseDetailResource()) {
-            if (wrapper.isUpdateDisbursementDate()) {
-                handler = this.applicationContext.getBean("updateLoanDisbuseDateCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.addAndDeleteDisbursementDetails()) {
-                handler = this.applicationContext.getBean("addAndDeleteLoanDisburseDetailsCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else {
-            handler = this.commandHandlerProvider.getHandler(wrapper.entityName(), wrapper.actionName());
-        }
-
-        return handler;
-    }
-
     @Override
     public boolean validateCommand(final CommandWrapper commandWrapper, final AppUser user) {
         boolean rollbackTransaction = this.configurationDomainService.isMakerCheckerEnabledForTask(commandWrapper.taskPermissionName());
@@ -205,6 +168,33 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         return rollbackTransaction;
     }
 
+    private void updateSearchIndex(final String entityName, final CommandProcessingResult result) {
+        if (!SearchConstants.INDEXED_COMMAND_ENTITIES.contains(entityName)) {
+            return;
+        }
+        final Runnable reindex = () -> {
+            try {
+                this.searchIndexWritePlatformService.reindex(entityName, result);
+            } catch (final RuntimeException e) {
+                // the next run of the Rebuild Search Index job corrects the index
+                LOG.warn("Failed to update the search index after {} command {}", entityName, result.commandId(), e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                        reindex.run();
+                    }
+                }
+            });
+        } else {
+            reindex.run();
+        }
+    }
+
     private void publishEvent(final String entityName, final String actionName, final CommandProcessingResult result) {
 
         final String authToken = ThreadLocalContextUtil.getAuthToken();
@@ -217,6 +207,6 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
         final HookEvent applicationEvent = new HookEvent(hookEventSource, serializedResult, tenantIdentifier, appUser, authToken);
 
-        applicationContext.publishEvent(applicationEvent);
+        this.hookDeliveryDispatcher.dispatch(applicationEvent);
     }
 }
@@ -83,7 +83,11 @@ public interface ConfigurationDomainService {
 
     Long getDailyTPTLimit();
 
-    void removeGlobalConfigurationPropertyDataFromCache(String propertyName);
+    /**
+     * Records, in the current transaction, that c_configuration or the maker-checker flags of m_permission have been
+     * changed so that every node reloads its cached copy of them.
+     */
+    void configurationChanged();
 
     boolean isSMSOTPDeliveryEnabled();
 
@@ -98,4 +102,16 @@ public interface ConfigurationDomainService {
     boolean isFirstRepaymentDateAfterRescheduleAllowedOnHoliday();
 
     boolean isInterestToBeAppropriatedEquallyWhenGreaterThanEMI();
+
+    /**
+     * The number of requests of a batch without enclosing transaction that the tenant may run at the same time; 1 when
+     * the batch-api-parallelism configuration is disabled.
+     */
+    int retrieveBatchApiParallelism();
+
+    /**
+     * Whether the audit entries of commands that are not subject to maker checker are written to
+     * m_portfolio_command_source after the command commits instead of in its transaction.
+     */
+    boolean isAsyncCommandAuditEnabled();
 }
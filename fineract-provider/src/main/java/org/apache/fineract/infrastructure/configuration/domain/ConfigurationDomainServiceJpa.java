@@ -21,16 +21,22 @@ package org.apache.fineract.infrastructure.configuration.domain;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCache;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCacheRepository;
 import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.TenantCacheEviction;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.useradministration.domain.Permission;
 import org.apache.fineract.useradministration.domain.PermissionRepository;
 import org.apache.fineract.useradministration.exception.PermissionNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -40,14 +46,24 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     private final PermissionRepository permissionRepository;
     private final GlobalConfigurationRepositoryWrapper globalConfigurationRepository;
     private final PlatformCacheRepository cacheTypeRepository;
-    private static Map<String, GlobalConfigurationPropertyData> configurations = new HashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * How long a node trusts its snapshot of a tenant before checking c_configuration_version again, which bounds how
+     * long a change made on another node can go unnoticed.
+     */
+    private static final long VERSION_CHECK_INTERVAL_MILLIS = 5000L;
+
+    private final ConcurrentMap<String, ConfigurationSnapshot> snapshots = new ConcurrentHashMap<>();
 
     @Autowired
     public ConfigurationDomainServiceJpa(final PermissionRepository permissionRepository,
-            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository) {
+            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository,
+            final RoutingDataSource dataSource) {
         this.permissionRepository = permissionRepository;
         this.globalConfigurationRepository = globalConfigurationRepository;
         this.cacheTypeRepository = cacheTypeRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
     @Override
@@ -56,15 +72,21 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
             throw new PermissionNotFoundException(taskPermissionCode);
         }
 
-        final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
-        if (thisTask == null) {
-            throw new PermissionNotFoundException(taskPermissionCode);
+        Boolean taskMakerCheckerEnabled = snapshot().isMakerCheckerEnabled(taskPermissionCode);
+        if (taskMakerCheckerEnabled == null) {
+            final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
+            if (thisTask == null) {
+                throw new PermissionNotFoundException(taskPermissionCode);
+            }
+            // added after the snapshot was taken
+            evictSnapshot();
+            taskMakerCheckerEnabled = thisTask.hasMakerCheckerEnabled();
         }
 
         final String makerCheckerConfigurationProperty = "maker-checker";
         final GlobalConfigurationPropertyData property = getGlobalConfigurationPropertyData(makerCheckerConfigurationProperty);
 
-        return thisTask.hasMakerCheckerEnabled() && property.isEnabled();
+        return taskMakerCheckerEnabled && property.isEnabled();
     }
 
     @Override
@@ -299,10 +321,11 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     }
 
     @Override
-    public void removeGlobalConfigurationPropertyDataFromCache(final String propertyName) {
-        String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        String key = identifier + "_" + propertyName;
-        configurations.remove(key);
+    public void configurationChanged() {
+        this.jdbcTemplate.update("update c_configuration_version set version = version + 1 where id = 1");
+        // a reload before the change commits may have picked up the uncommitted (or rolled back) rows
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        TenantCacheEviction.evictNowAndAfterCompletion(() -> this.snapshots.remove(tenantIdentifier));
     }
 
     @Override
@@ -343,14 +366,84 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         return value;
     }
 
+    @Override
+    public int retrieveBatchApiParallelism() {
+        final String propertyName = "batch-api-parallelism";
+        final GlobalConfigurationPropertyData property = getGlobalConfigurationPropertyData(propertyName);
+        if (!property.isEnabled() || property.getValue() == null || property.getValue() < 1) {
+            return 1;
+        }
+        return property.getValue().intValue();
+    }
+
+    @Override
+    public boolean isAsyncCommandAuditEnabled() {
+        final String propertyName = "async-command-audit";
+        final GlobalConfigurationPropertyData property = getGlobalConfigurationPropertyData(propertyName);
+        return property.isEnabled();
+    }
+
     private GlobalConfigurationPropertyData getGlobalConfigurationPropertyData(final String propertyName) {
-        String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        String key = identifier + "_" + propertyName;
-        if (!configurations.containsKey(key)) {
-            GlobalConfigurationProperty configuration = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-            configurations.put(key, configuration.toData());
+        final GlobalConfigurationPropertyData property = snapshot().getConfiguration(propertyName);
+        if (property != null) {
+            return property;
+        }
+        final GlobalConfigurationProperty configuration = this.globalConfigurationRepository
+                .findOneByNameWithNotFoundDetection(propertyName);
+        // added after the snapshot was taken
+        evictSnapshot();
+        return configuration.toData();
+    }
+
+    /**
+     * Returns the configuration snapshot of the current tenant, reloading it when c_configuration_version shows that it
+     * has been changed since it was taken. The version is only read once every {@link #VERSION_CHECK_INTERVAL_MILLIS}.
+     */
+    private ConfigurationSnapshot snapshot() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final ConfigurationSnapshot snapshot = this.snapshots.get(tenantIdentifier);
+        if (snapshot != null && !snapshot.isVersionCheckDue(VERSION_CHECK_INTERVAL_MILLIS)) {
+            return snapshot;
+        }
+
+        // the version is read before the rows, so a change that commits in between is picked up by the next check
+        final long version = this.jdbcTemplate.queryForObject("select version from c_configuration_version where id = 1",
+                Long.class);
+        if (snapshot != null && snapshot.getVersion() == version) {
+            snapshot.versionChecked();
+            return snapshot;
         }
-        return configurations.get(key);
+
+        final ConfigurationSnapshot reloaded = loadSnapshot(version);
+        this.snapshots.put(tenantIdentifier, reloaded);
+        return reloaded;
+    }
+
+    private ConfigurationSnapshot loadSnapshot(final long version) {
+        final Map<String, GlobalConfigurationPropertyData> configurations = new HashMap<>();
+        final SqlRowSet configurationRows = this.jdbcTemplate
+                .queryForRowSet("select id, name, enabled, value, date_value, description, is_trap_door from c_configuration");
+        while (configurationRows.next()) {
+            final String name = configurationRows.getString("name");
+            final Object value = configurationRows.getObject("value");
+            configurations.put(name,
+                    new GlobalConfigurationPropertyData(name, configurationRows.getBoolean("enabled"),
+                            value == null ? null : configurationRows.getLong("value"), configurationRows.getDate("date_value"),
+                            configurationRows.getLong("id"), configurationRows.getString("description"),
+                            configurationRows.getBoolean("is_trap_door")));
+        }
+
+        final Map<String, Boolean> makerCheckerByPermissionCode = new HashMap<>();
+        final SqlRowSet permissionRows = this.jdbcTemplate.queryForRowSet("select code, can_maker_checker from m_permission");
+        while (permissionRows.next()) {
+            makerCheckerByPermissionCode.put(permissionRows.getString("code"), permissionRows.getBoolean("can_maker_checker"));
+        }
+
+        return new ConfigurationSnapshot(version, configurations, makerCheckerByPermissionCode);
+    }
+
+    private void evictSnapshot() {
+        this.snapshots.remove(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
     }
 
     @Override
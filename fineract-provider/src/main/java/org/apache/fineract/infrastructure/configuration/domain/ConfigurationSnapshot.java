@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.configuration.domain;
+
+import java.util.Collections;
+import java.util.Map;
+import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+
+/**
+ * Immutable copy of the c_configuration rows and the m_permission maker-checker flags of one tenant, together with the
+ * c_configuration_version it was loaded at.
+ */
+final class ConfigurationSnapshot {
+
+    private final long version;
+    private final Map<String, GlobalConfigurationPropertyData> configurations;
+    private final Map<String, Boolean> makerCheckerByPermissionCode;
+    private volatile long checkedAt;
+
+    ConfigurationSnapshot(final long version, final Map<String, GlobalConfigurationPropertyData> configurations,
+            final Map<String, Boolean> makerCheckerByPermissionCode) {
+        this.version = version;
+        this.configurations = Collections.unmodifiableMap(configurations);
+        this.makerCheckerByPermissionCode = Collections.unmodifiableMap(makerCheckerByPermissionCode);
+        this.checkedAt = System.currentTimeMillis();
+    }
+
+    long getVersion() {
+        return this.version;
+    }
+
+    boolean isVersionCheckDue(final long intervalMillis) {
+        return System.currentTimeMillis() - this.checkedAt >= intervalMillis;
+    }
+
+    void versionChecked() {
+        this.checkedAt = System.currentTimeMillis();
+    }
+
+    GlobalConfigurationPropertyData getConfiguration(final String name) {
+        return this.configurations.get(name);
+    }
+
+    /**
+     * @return whether maker-checker is enabled on the permission, or null when there is no permission with this code
+     */
+    Boolean isMakerCheckerEnabled(final String permissionCode) {
+        return this.makerCheckerByPermissionCode.get(permissionCode);
+    }
+}
@@ -72,8 +72,8 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
             final Map<String, Object> changes = configItemForUpdate.update(command);
 
             if (!changes.isEmpty()) {
-                this.configurationDomainService.removeGlobalConfigurationPropertyDataFromCache(configItemForUpdate.getName());
                 this.repository.save(configItemForUpdate);
+                this.configurationDomainService.configurationChanged();
             }
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(configId).with(changes).build();
@@ -92,6 +92,7 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
         try {
             final GlobalConfigurationProperty ppi = GlobalConfigurationProperty.newSurveyConfiguration(name);
             this.repository.save(ppi);
+            this.configurationDomainService.configurationChanged();
         } catch (final JpaSystemException | DataIntegrityViolationException dve) {
             final Throwable throwable = dve.getMostSpecificCause();
             handleDataIntegrityIssues(throwable, dve);
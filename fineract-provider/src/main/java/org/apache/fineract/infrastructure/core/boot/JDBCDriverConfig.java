@@ -30,10 +30,13 @@ public class JDBCDriverConfig {
     private static final String DRIVER_CLASS_PROPERTYNAME = "DRIVERCLASS_NAME";
     private static final String PROTOCOL_PROPERTYNAME = "PROTOCOL";
     private static final String SUBPROTOCOL_PROPERTYNAME = "SUB_PROTOCOL";
+    private static final String READ_REPLICA_MAX_LAG_SECONDS_PROPERTYNAME = "READ_REPLICA_MAX_LAG_SECONDS";
+    private static final int DEFAULT_READ_REPLICA_MAX_LAG_SECONDS = 5;
 
     private String driverClassName;
     private String protocol;
     private String subProtocol;
+    private int readReplicaMaxLagSeconds;
 
     @Autowired
     ApplicationContext context;
@@ -44,12 +47,18 @@ public class JDBCDriverConfig {
         driverClassName = environment.getProperty(DRIVER_CLASS_PROPERTYNAME);
         protocol = environment.getProperty(PROTOCOL_PROPERTYNAME);
         subProtocol = environment.getProperty(SUBPROTOCOL_PROPERTYNAME);
+        readReplicaMaxLagSeconds = environment.getProperty(READ_REPLICA_MAX_LAG_SECONDS_PROPERTYNAME, Integer.class,
+                DEFAULT_READ_REPLICA_MAX_LAG_SECONDS);
     }
 
     public String getDriverClassName() {
         return this.driverClassName;
     }
 
+    public int getReadReplicaMaxLagSeconds() {
+        return this.readReplicaMaxLagSeconds;
+    }
+
     public String constructProtocol(String schemaServer, String schemaServerPort, String schemaName, String schemaConnectionParameters) {
         StringBuilder sb = new StringBuilder(protocol).append(":").append(subProtocol).append("://").append(schemaServer).append(":")
                 .append(schemaServerPort).append('/').append(schemaName);
@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.core.data;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.service.PageCursor;
 
 /**
  * <p>
@@ -32,23 +33,37 @@ public final class PaginationParameters {
     private final Integer limit;
     private final String orderBy;
     private final String sortOrder;
+    private final String cursor;
+    private final boolean totalCountRequested;
 
     public static PaginationParameters instance(Boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder) {
+        return instance(paged, offset, limit, orderBy, sortOrder, null, null);
+    }
+
+    /**
+     * Passing a cursor asks for seek paging, see {@link org.apache.fineract.infrastructure.core.service.SearchParameters#withCursor}.
+     */
+    public static PaginationParameters instance(Boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder,
+            String cursor, Boolean countTotal) {
         if (null == paged) {
             paged = false;
         }
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
 
-        return new PaginationParameters(paged, offset, maxLimitAllowed, orderBy, sortOrder);
+        return new PaginationParameters(paged || cursor != null, offset, maxLimitAllowed, orderBy, sortOrder, cursor,
+                cursor == null || countTotal == null || countTotal);
     }
 
-    private PaginationParameters(boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder) {
+    private PaginationParameters(boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder, String cursor,
+            boolean totalCountRequested) {
         this.paged = paged;
         this.offset = offset;
         this.limit = limit;
         this.orderBy = orderBy;
         this.sortOrder = sortOrder;
+        this.cursor = cursor;
+        this.totalCountRequested = totalCountRequested;
     }
 
     public static Integer getCheckedLimit(final Integer limit) {
@@ -87,6 +102,21 @@ public final class PaginationParameters {
         return this.sortOrder;
     }
 
+    public boolean isSeekPaged() {
+        return this.cursor != null;
+    }
+
+    /**
+     * @return the position to continue a seek paged query after, or null for its first page
+     */
+    public PageCursor getCursor() {
+        return PageCursor.decode(this.cursor);
+    }
+
+    public boolean isTotalCountRequested() {
+        return this.totalCountRequested;
+    }
+
     public boolean isOrderByRequested() {
         return StringUtils.isNotBlank(this.orderBy);
     }
@@ -25,14 +25,21 @@ public class FineractPlatformTenant {
     private final String name;
     private final String timezoneId;
     private final FineractPlatformTenantConnection connection;
+    private final FineractPlatformTenantConnection readReplicaConnection;
 
     public FineractPlatformTenant(final Long id, final String tenantIdentifier, final String name, final String timezoneId,
             final FineractPlatformTenantConnection connection) {
+        this(id, tenantIdentifier, name, timezoneId, connection, null);
+    }
+
+    public FineractPlatformTenant(final Long id, final String tenantIdentifier, final String name, final String timezoneId,
+            final FineractPlatformTenantConnection connection, final FineractPlatformTenantConnection readReplicaConnection) {
         this.id = id;
         this.tenantIdentifier = tenantIdentifier;
         this.name = name;
         this.timezoneId = timezoneId;
         this.connection = connection;
+        this.readReplicaConnection = readReplicaConnection;
     }
 
     public Long getId() {
@@ -54,4 +61,12 @@ public class FineractPlatformTenant {
     public FineractPlatformTenantConnection getConnection() {
         return connection;
     }
+
+    /**
+     * The connection of the tenant's reporting database, when it is a different one from the OLTP connection. Read-only
+     * transactions of API reads may be served from it, see {@link org.apache.fineract.infrastructure.core.service.RoutingDataSource}.
+     */
+    public FineractPlatformTenantConnection getReadReplicaConnection() {
+        return this.readReplicaConnection;
+    }
 }
@@ -18,6 +18,8 @@
  */
 package org.apache.fineract.infrastructure.core.domain;
 
+import java.util.Objects;
+
 /**
  * Holds Tenant's DB server connection connection details.
  */
@@ -172,6 +174,19 @@ public class FineractPlatformTenantConnection {
         return schemaName;
     }
 
+    /**
+     * Whether a connection pool built from this connection can also serve the other one, i.e. both point to the same
+     * schema with the same credentials and pool sizes.
+     */
+    public boolean hasSamePoolSettingsAs(final FineractPlatformTenantConnection other) {
+        return Objects.equals(this.schemaServer, other.schemaServer) && Objects.equals(this.schemaServerPort, other.schemaServerPort)
+                && Objects.equals(this.schemaName, other.schemaName)
+                && Objects.equals(this.schemaConnectionParameters, other.schemaConnectionParameters)
+                && Objects.equals(this.schemaUsername, other.schemaUsername) && Objects.equals(this.schemaPassword, other.schemaPassword)
+                && this.initialSize == other.initialSize && this.maxActive == other.maxActive
+                && this.validationInterval == other.validationInterval;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(this.schemaName).append(":").append(this.schemaServer).append(":")
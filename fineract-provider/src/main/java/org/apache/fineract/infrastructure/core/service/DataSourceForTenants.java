@@ -41,4 +41,9 @@ public class DataSourceForTenants implements RoutingDataSourceService {
         return this.tenantDataSource;
     }
 
+    @Override
+    public DataSource retrieveReadReplicaDataSource() {
+        return null;
+    }
+
 }
@@ -23,18 +23,36 @@ import java.util.List;
 
 public class Page<E> implements Serializable {
 
+    /**
+     * Reported instead of a count when a seek paged query was asked not to count its rows.
+     */
+    public static final int TOTAL_NOT_COUNTED = -1;
+
     private final int totalFilteredRecords;
     private final List<E> pageItems;
+    private final String nextCursor;
 
     public Page(final List<E> pageItems, final int totalFilteredRecords) {
+        this(pageItems, totalFilteredRecords, null);
+    }
+
+    public Page(final List<E> pageItems, final int totalFilteredRecords, final String nextCursor) {
         this.pageItems = pageItems;
         this.totalFilteredRecords = totalFilteredRecords;
+        this.nextCursor = nextCursor;
     }
 
     public int getTotalFilteredRecords() {
         return this.totalFilteredRecords;
     }
 
+    /**
+     * @return the cursor of the page after this one of a seek paged query, or null when this is the last page
+     */
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+
     public List<E> getPageItems() {
         return this.pageItems;
     }
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+
+/**
+ * Position of a seek (keyset) paged query: the sort key value and id of the last row of the previous page. Clients only
+ * ever see it as the opaque token returned in {@link Page#getNextCursor()}.
+ */
+public final class PageCursor {
+
+    private static final char SEPARATOR = ',';
+
+    private final String sortValue;
+    private final Long id;
+
+    private PageCursor(final String sortValue, final Long id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public static PageCursor of(final Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(final Object sortValue, final Long id) {
+        return new PageCursor(sortValue == null ? null : sortValue.toString(), id);
+    }
+
+    /**
+     * @return the cursor of the token, or null for a blank token, which asks for the first page
+     */
+    public static PageCursor decode(final String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            final int separatorIndex = value.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                return new PageCursor(null, Long.valueOf(value));
+            }
+            return new PageCursor(value.substring(0, separatorIndex), Long.valueOf(value.substring(separatorIndex + 1)));
+        } catch (final IllegalArgumentException e) {
+            final ApiParameterError error = ApiParameterError.parameterError("validation.msg.cursor.invalid",
+                    "The cursor `" + token + "` is not valid.", "cursor", token);
+            throw new PlatformApiDataValidationException(Arrays.asList(error), e);
+        }
+    }
+
+    public String encode() {
+        final String value = this.sortValue == null ? String.valueOf(this.id) : this.sortValue + SEPARATOR + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortValue() {
+        return this.sortValue;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+}
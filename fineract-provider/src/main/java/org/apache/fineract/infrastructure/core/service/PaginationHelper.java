@@ -18,13 +18,25 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
 public class PaginationHelper<E> {
 
+    /**
+     * How long the row count of a seek paged query is reused for later pages of the same query.
+     */
+    private static final long CACHED_COUNT_TIME_TO_LIVE_MILLIS = 60000L;
+    private static final int MAX_CACHED_COUNTS = 1000;
+
+    private static final ConcurrentMap<String, CachedCount> CACHED_COUNTS = new ConcurrentHashMap<>();
+
     public Page<E> fetchPage(final JdbcTemplate jt, final String sqlCountRows, final String sqlFetchRows, final Object[] args,
             final RowMapper<E> rowMapper) {
 
@@ -44,4 +56,68 @@ public class PaginationHelper<E> {
 
         return new Page<>(items, ObjectUtils.defaultIfNull(totalFilteredRecords, 0));
     }
+
+    /**
+     * Fetches one page of a seek paged query.
+     *
+     * @param sqlFetchRows
+     *            the query, already restricted to the rows after the cursor and ordered by its sort key and id, without a
+     *            limit
+     * @param sqlCountRows
+     *            a query counting all rows matching the filter (ignoring the cursor) with the same arguments, or null to
+     *            report {@link Page#TOTAL_NOT_COUNTED}; its result is reused for a while for every page of the query
+     * @param countArgs
+     *            the arguments of the count query
+     * @param limit
+     *            the page size, or null for all remaining rows
+     * @param cursorOf
+     *            gives the cursor of a row, used for the last row of the page
+     */
+    public Page<E> fetchSeekPage(final JdbcTemplate jt, final String sqlFetchRows, final Object[] args, final String sqlCountRows,
+            final Object[] countArgs, final Integer limit, final RowMapper<E> rowMapper, final Function<E, PageCursor> cursorOf) {
+        // one extra row tells whether there is a next page
+        final String sql = limit == null ? sqlFetchRows : sqlFetchRows + " limit " + (limit + 1);
+        final List<E> rows = jt.query(sql, args, rowMapper);
+
+        String nextCursor = null;
+        List<E> items = rows;
+        if (limit != null && rows.size() > limit) {
+            items = rows.subList(0, limit);
+            nextCursor = cursorOf.apply(items.get(limit - 1)).encode();
+        }
+
+        final int totalFilteredRecords = sqlCountRows == null ? Page.TOTAL_NOT_COUNTED : countRows(jt, sqlCountRows, countArgs);
+        return new Page<>(items, totalFilteredRecords, nextCursor);
+    }
+
+    private static int countRows(final JdbcTemplate jt, final String sqlCountRows, final Object[] countArgs) {
+        final long now = System.currentTimeMillis();
+        final String key = ThreadLocalContextUtil.getTenant().getTenantIdentifier() + " " + sqlCountRows + " "
+                + Arrays.deepToString(countArgs);
+        final CachedCount cachedCount = CACHED_COUNTS.get(key);
+        if (cachedCount != null && now - cachedCount.countedAt < CACHED_COUNT_TIME_TO_LIVE_MILLIS) {
+            return cachedCount.count;
+        }
+
+        final Integer count = jt.queryForObject(sqlCountRows, countArgs, Integer.class);
+        if (CACHED_COUNTS.size() >= MAX_CACHED_COUNTS) {
+            CACHED_COUNTS.values().removeIf(entry -> now - entry.countedAt >= CACHED_COUNT_TIME_TO_LIVE_MILLIS);
+            if (CACHED_COUNTS.size() >= MAX_CACHED_COUNTS) {
+                CACHED_COUNTS.clear();
+            }
+        }
+        CACHED_COUNTS.put(key, new CachedCount(ObjectUtils.defaultIfNull(count, 0), now));
+        return ObjectUtils.defaultIfNull(count, 0);
+    }
+
+    private static final class CachedCount {
+
+        private final int count;
+        private final long countedAt;
+
+        CachedCount(final int count, final long countedAt) {
+            this.count = count;
+            this.countedAt = countedAt;
+        }
+    }
 }
@@ -25,6 +25,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.datasource.AbstractDataSource;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Based on springs {@link AbstractRoutingDataSource} idea, this is a {@link DataSource} that routes or delegates to
@@ -34,6 +35,10 @@ import org.springframework.stereotype.Service;
  *
  * The {@link RoutingDataSourceService} is responsible for returning the appropriate {@link DataSource} for the tenant
  * of this request.
+ *
+ * Connections of read-only transactions are taken from the tenant's read replica while the request allows it, see
+ * {@link ThreadLocalContextUtil#isReadReplicaAllowed()}; everything else, and every read when the replica is not usable,
+ * goes to the primary.
  */
 @Service(value = "routingDataSource")
 public class RoutingDataSource extends AbstractDataSource {
@@ -47,7 +52,14 @@ public class RoutingDataSource extends AbstractDataSource {
     }
 
     private DataSource determineTargetDataSource() {
-        return this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource();
+        final RoutingDataSourceService dataSourceService = this.dataSourceServiceFactory.determineDataSourceService();
+        if (ThreadLocalContextUtil.isReadReplicaAllowed() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            final DataSource readReplicaDataSource = dataSourceService.retrieveReadReplicaDataSource();
+            if (readReplicaDataSource != null) {
+                return readReplicaDataSource;
+            }
+        }
+        return dataSourceService.retrieveDataSource();
     }
 
     @Override
@@ -26,4 +26,11 @@ import javax.sql.DataSource;
 public interface RoutingDataSourceService {
 
     DataSource retrieveDataSource();
+
+    /**
+     * @return the pool of the read replica that read-only transactions of the current request may use, or
+     *         <code>null</code> when there is none or it is currently not usable, in which case the
+     *         {@link #retrieveDataSource() primary} is used
+     */
+    DataSource retrieveReadReplicaDataSource();
 }
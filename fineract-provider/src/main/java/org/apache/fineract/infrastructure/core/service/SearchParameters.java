@@ -49,6 +49,8 @@ public final class SearchParameters {
     private final Long productId;
     private final Long categoryId;
     private final boolean isSelfUser;
+    private final String cursor;
+    private final boolean totalCountRequested;
 
     public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
@@ -268,6 +270,8 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
+        this.cursor = null;
+        this.totalCountRequested = true;
         this.status = null;
 
     }
@@ -297,6 +301,8 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
+        this.cursor = null;
+        this.totalCountRequested = true;
         this.status = status;
 
     }
@@ -326,6 +332,8 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
+        this.cursor = null;
+        this.totalCountRequested = true;
         this.status = null;
     }
 
@@ -352,6 +360,8 @@ public final class SearchParameters {
         this.productId = productId;
         this.categoryId = categoryId;
         this.isSelfUser = false;
+        this.cursor = null;
+        this.totalCountRequested = true;
         this.status = null;
 
     }
@@ -381,10 +391,51 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = false;
+        this.cursor = null;
+        this.totalCountRequested = true;
         this.status = null;
 
     }
 
+    private SearchParameters(final SearchParameters searchParameters, final String cursor, final boolean totalCountRequested) {
+        this.sqlSearch = searchParameters.sqlSearch;
+        this.officeId = searchParameters.officeId;
+        this.externalId = searchParameters.externalId;
+        this.name = searchParameters.name;
+        this.hierarchy = searchParameters.hierarchy;
+        this.firstname = searchParameters.firstname;
+        this.lastname = searchParameters.lastname;
+        this.status = searchParameters.status;
+        this.offset = searchParameters.offset;
+        this.limit = searchParameters.limit;
+        this.orderBy = searchParameters.orderBy;
+        this.sortOrder = searchParameters.sortOrder;
+        this.accountNo = searchParameters.accountNo;
+        this.currencyCode = searchParameters.currencyCode;
+        this.staffId = searchParameters.staffId;
+        this.loanId = searchParameters.loanId;
+        this.savingsId = searchParameters.savingsId;
+        this.orphansOnly = searchParameters.orphansOnly;
+        this.provisioningEntryId = searchParameters.provisioningEntryId;
+        this.productId = searchParameters.productId;
+        this.categoryId = searchParameters.categoryId;
+        this.isSelfUser = searchParameters.isSelfUser;
+        this.cursor = cursor;
+        this.totalCountRequested = totalCountRequested;
+    }
+
+    /**
+     * Switches to seek paging when a cursor is passed: rows are then returned in the natural order of the query after the
+     * position of the cursor (from the start for an empty cursor) instead of by offset, and order by and offset are not
+     * used. Counting the matching rows is optional in this mode.
+     */
+    public SearchParameters withCursor(final String cursor, final Boolean countTotal) {
+        if (cursor == null) {
+            return this;
+        }
+        return new SearchParameters(this, cursor, countTotal == null || countTotal);
+    }
+
     public boolean isOrderByRequested() {
         return StringUtils.isNotBlank(this.orderBy);
     }
@@ -544,6 +595,21 @@ public final class SearchParameters {
         return this.isSelfUser;
     }
 
+    public boolean isSeekPaged() {
+        return this.cursor != null;
+    }
+
+    /**
+     * @return the position to continue a seek paged query after, or null for its first page
+     */
+    public PageCursor getCursor() {
+        return PageCursor.decode(this.cursor);
+    }
+
+    public boolean isTotalCountRequested() {
+        return this.totalCountRequested;
+    }
+
     /**
      * creates an instance of the SearchParameters from a request for the report mailing job run history
      *
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs independent reads of a single API request concurrently on a bounded pool shared by all requests.
+ *
+ * Each read runs with the tenant, read replica permission, auth token and security context of the submitting thread,
+ * in its own transaction(s) as opened by the read service it calls. When the pool is saturated reads run on the
+ * submitting thread instead, so a busy node degrades to sequential reads rather than rejecting requests.
+ */
+@Component
+public class TenantAwareReadExecutor {
+
+    private static final int READ_THREADS = 16;
+    private static final int MAX_QUEUED_READS = 256;
+
+    private ThreadPoolExecutor readExecutor;
+
+    @PostConstruct
+    public void start() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.readExecutor = new ThreadPoolExecutor(READ_THREADS, READ_THREADS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_READS), runnable -> {
+                    final Thread thread = new Thread(runnable, "tenant-read-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.readExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.readExecutor.shutdownNow();
+    }
+
+    public ReadBatch newBatch() {
+        return new ReadBatch();
+    }
+
+    /**
+     * The reads of one request. Records how long each named read took, measured on the thread that ran it.
+     */
+    public final class ReadBatch {
+
+        private final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        private final boolean readReplicaAllowed = ThreadLocalContextUtil.isReadReplicaAllowed();
+        private final String authToken = ThreadLocalContextUtil.getAuthToken();
+        private final SecurityContext securityContext = SecurityContextHolder.getContext();
+        private final Map<String, Long> timings = new LinkedHashMap<>();
+
+        private ReadBatch() {
+
+        }
+
+        public <T> Future<T> submit(final String name, final Callable<T> read) {
+            final Thread submittingThread = Thread.currentThread();
+            return TenantAwareReadExecutor.this.readExecutor.submit(() -> {
+                if (Thread.currentThread() == submittingThread) {
+                    // run by the caller because the pool is saturated; its context is already in place
+                    return timed(name, read);
+                }
+                ThreadLocalContextUtil.setTenant(this.tenant);
+                ThreadLocalContextUtil.setReadReplicaAllowed(this.readReplicaAllowed);
+                ThreadLocalContextUtil.setAuthToken(this.authToken);
+                SecurityContextHolder.setContext(this.securityContext);
+                try {
+                    return timed(name, read);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    ThreadLocalContextUtil.setAuthToken(null);
+                    ThreadLocalContextUtil.clearReadReplicaAllowed();
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            });
+        }
+
+        /**
+         * Waits for a submitted read and returns its result, rethrowing an unchecked exception of the read as is so that
+         * API error handling is the same as for a read made on the request thread.
+         */
+        public <T> T get(final Future<T> future) {
+            try {
+                return future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+
+        /**
+         * @return elapsed milliseconds per read name, in the order the reads completed
+         */
+        public Map<String, Long> getTimings() {
+            synchronized (this.timings) {
+                return new LinkedHashMap<>(this.timings);
+            }
+        }
+
+        private <T> T timed(final String name, final Callable<T> read) throws Exception {
+            final long start = System.nanoTime();
+            try {
+                return read.call();
+            } finally {
+                final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                synchronized (this.timings) {
+                    this.timings.put(name, elapsedMillis);
+                }
+            }
+        }
+    }
+}
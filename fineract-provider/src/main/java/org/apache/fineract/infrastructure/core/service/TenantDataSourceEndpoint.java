@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing the connection pool of every tenant: active, idle, total and waiting connections and the
+ * time taken to acquire a connection. Like the other actuator endpoints it has to be exposed with
+ * <code>management.endpoints.web.exposure.include=tenantdatasources</code> to be reachable over HTTP.
+ */
+@Component
+@Endpoint(id = "tenantdatasources")
+public class TenantDataSourceEndpoint {
+
+    private final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService;
+
+    @Autowired
+    public TenantDataSourceEndpoint(final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService) {
+        this.dataSourcePerTenantService = dataSourcePerTenantService;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> tenantDataSources() {
+        final MeterRegistry meterRegistry = this.dataSourcePerTenantService.getMeterRegistry();
+        final Map<String, Map<String, Object>> pools = new TreeMap<>();
+        for (final HikariDataSource dataSource : this.dataSourcePerTenantService.retrieveTenantDataSources()) {
+            final Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+            final HikariPoolMXBean poolMXBean = dataSource.getHikariPoolMXBean();
+            if (poolMXBean != null) {
+                pool.put("active", poolMXBean.getActiveConnections());
+                pool.put("idle", poolMXBean.getIdleConnections());
+                pool.put("total", poolMXBean.getTotalConnections());
+                pool.put("waiting", poolMXBean.getThreadsAwaitingConnection());
+            }
+            if (meterRegistry != null) {
+                final Timer acquireTimer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", dataSource.getPoolName()).timer();
+                if (acquireTimer != null) {
+                    pool.put("acquireCount", acquireTimer.count());
+                    pool.put("acquireTimeMeanMillis", acquireTimer.mean(TimeUnit.MILLISECONDS));
+                    pool.put("acquireTimeMaxMillis", acquireTimer.max(TimeUnit.MILLISECONDS));
+                }
+            }
+            pools.put(dataSource.getPoolName(), pool);
+        }
+        return pools;
+    }
+}
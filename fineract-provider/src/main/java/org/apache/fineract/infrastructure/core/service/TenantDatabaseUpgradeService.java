@@ -18,8 +18,23 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.boot.JDBCDriverConfig;
@@ -33,20 +48,34 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 
 /**
  * A service that picks up on tenants that are configured to auto-update their specific schema on application startup.
+ *
+ * The tenant schemas are upgraded in the background on a pool of <code>FINERACT_TENANT_UPGRADE_THREADS</code> threads
+ * (4 by default), so that each tenant can be served as soon as its own schema is upgraded, see
+ * {@link #isTenantReady(String)}. A schema whose applied migrations already match the packaged ones is not handed to
+ * Flyway at all.
  */
 @Service
 public class TenantDatabaseUpgradeService {
 
     private static final Logger LOG = LoggerFactory.getLogger(TenantDatabaseUpgradeService.class);
 
+    private static final String CORE_DB_LOCATION = "sql/migrations/core_db";
+    private static final Pattern MIGRATION_FILE_NAME_PATTERN = Pattern.compile("V(\\d+(?:_\\d+)*)__.*\\.sql");
+
     private final TenantDetailsService tenantDetailsService;
     protected final DataSource tenantDataSource;
+    private final ConcurrentMap<String, UpgradeStatus> upgradeStatuses = new ConcurrentHashMap<>();
+    private final Map<String, List<Runnable>> readinessTasks = new HashMap<>();
+    private Map<String, Integer> packagedChecksums;
 
     @Autowired
     private JDBCDriverConfig driverConfig;
@@ -61,37 +90,217 @@ public class TenantDatabaseUpgradeService {
     @PostConstruct
     public void upgradeAllTenants() {
         upgradeTenantDB();
-        final List<FineractPlatformTenant> tenants = this.tenantDetailsService.findAllTenants();
+        final List<FineractPlatformTenant> tenants = new ArrayList<>();
+        for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            if (tenant.getConnection().isAutoUpdateEnabled()) {
+                markPending(tenant.getTenantIdentifier());
+                tenants.add(tenant);
+            }
+        }
+        if (tenants.isEmpty()) {
+            return;
+        }
+
+        final int threadCount = Math.min(Math.max(1, Integer.parseInt(getEnvVar("FINERACT_TENANT_UPGRADE_THREADS", "4"))), tenants.size());
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService upgradeExecutor = Executors.newFixedThreadPool(threadCount,
+                runnable -> new Thread(runnable, "tenant-upgrade-" + threadNumber.incrementAndGet()));
         for (final FineractPlatformTenant tenant : tenants) {
-            final FineractPlatformTenantConnection connection = tenant.getConnection();
-            if (connection.isAutoUpdateEnabled()) {
+            upgradeExecutor.execute(() -> upgradeTenant(tenant));
+        }
+        // the pool threads end once every tenant has been upgraded
+        upgradeExecutor.shutdown();
+        LOG.info("Upgrading {} tenant schemas on {} threads", tenants.size(), threadCount);
+    }
+
+    /**
+     * Whether requests for the tenant may be served, that is whether its schema is not (or no longer) being upgraded.
+     * Tenants without auto update are always ready.
+     */
+    public boolean isTenantReady(final String tenantIdentifier) {
+        final UpgradeStatus status = this.upgradeStatuses.get(tenantIdentifier);
+        return status == null || status.isReady();
+    }
+
+    /**
+     * Runs the task right away if the tenant is ready, otherwise on the upgrade thread once the tenant's schema has been
+     * upgraded. The task is dropped if the upgrade fails.
+     */
+    public void whenTenantReady(final String tenantIdentifier, final Runnable task) {
+        synchronized (this.readinessTasks) {
+            if (!isTenantReady(tenantIdentifier)) {
+                this.readinessTasks.computeIfAbsent(tenantIdentifier, key -> new ArrayList<>()).add(task);
+                return;
+            }
+        }
+        task.run();
+    }
+
+    public Map<String, UpgradeStatus> retrieveUpgradeStatuses() {
+        return new TreeMap<>(this.upgradeStatuses);
+    }
 
-                String connectionProtocol = driverConfig.constructProtocol(connection.getSchemaServer(), connection.getSchemaServerPort(),
-                        connection.getSchemaName(), connection.getSchemaConnectionParameters());
-                DriverDataSource source = new DriverDataSource(Thread.currentThread().getContextClassLoader(),
-                        driverConfig.getDriverClassName(), connectionProtocol, connection.getSchemaUsername(),
-                        connection.getSchemaPassword());
+    void markPending(final String tenantIdentifier) {
+        this.upgradeStatuses.put(tenantIdentifier, UpgradeStatus.PENDING);
+    }
 
-                final Flyway flyway = Flyway.configure().dataSource(source).locations("sql/migrations/core_db").outOfOrder(true)
-                        .placeholderReplacement(false).configuration(Map.of("flyway.table", "schema_version")) // FINERACT-979
-                        .load();
+    private void upgradeTenant(final FineractPlatformTenant tenant) {
+        this.upgradeStatuses.put(tenant.getTenantIdentifier(), UpgradeStatus.UPGRADING);
+        final long startTime = System.currentTimeMillis();
+        final UpgradeStatus status;
+        try {
+            status = upgradeTenantSchema(tenant.getConnection());
+        } catch (final RuntimeException e) {
+            LOG.error("{}: upgrading the tenant schema failed, requests for the tenant are refused", tenant.getName(), e);
+            upgradeFailed(tenant);
+            return;
+        }
+        LOG.info("{}: tenant schema {} in {} ms", tenant.getName(), status == UpgradeStatus.UP_TO_DATE ? "already up to date" : "upgraded",
+                System.currentTimeMillis() - startTime);
+        upgradeCompleted(tenant, status);
+    }
 
-                // Should be removed later when all instances are stabilized
-                // :FINERACT-1008
-                repairFlywayVersionSkip(flyway.getConfiguration().getDataSource());
+    void upgradeFailed(final FineractPlatformTenant tenant) {
+        final String tenantIdentifier = tenant.getTenantIdentifier();
+        this.upgradeStatuses.put(tenantIdentifier, UpgradeStatus.FAILED);
+        synchronized (this.readinessTasks) {
+            this.readinessTasks.remove(tenantIdentifier);
+        }
+    }
 
+    /**
+     * Marks the tenant as ready and runs the tasks that were waiting for it, on the calling upgrade thread.
+     */
+    void upgradeCompleted(final FineractPlatformTenant tenant, final UpgradeStatus status) {
+        final String tenantIdentifier = tenant.getTenantIdentifier();
+        final List<Runnable> tasks;
+        synchronized (this.readinessTasks) {
+            this.upgradeStatuses.put(tenantIdentifier, status);
+            tasks = this.readinessTasks.remove(tenantIdentifier);
+        }
+        if (tasks != null) {
+            for (final Runnable task : tasks) {
                 try {
-                    flyway.repair();
-                    flyway.migrate();
-                } catch (FlywayException e) {
-                    String betterMessage = e.getMessage() + "; for Tenant DB URL: " + connectionProtocol + ", username: "
-                            + connection.getSchemaUsername();
-                    throw new FlywayException(betterMessage, e);
+                    task.run();
+                } catch (final RuntimeException e) {
+                    LOG.error("{}: running a task awaiting the tenant schema upgrade failed", tenant.getName(), e);
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
                 }
             }
         }
     }
 
+    private UpgradeStatus upgradeTenantSchema(final FineractPlatformTenantConnection connection) {
+        String connectionProtocol = driverConfig.constructProtocol(connection.getSchemaServer(), connection.getSchemaServerPort(),
+                connection.getSchemaName(), connection.getSchemaConnectionParameters());
+        DriverDataSource source = new DriverDataSource(Thread.currentThread().getContextClassLoader(), driverConfig.getDriverClassName(),
+                connectionProtocol, connection.getSchemaUsername(), connection.getSchemaPassword());
+
+        // Should be removed later when all instances are stabilized
+        // :FINERACT-1008
+        repairFlywayVersionSkip(source);
+
+        if (isSchemaUpToDate(source)) {
+            return UpgradeStatus.UP_TO_DATE;
+        }
+
+        final Flyway flyway = Flyway.configure().dataSource(source).locations(CORE_DB_LOCATION).outOfOrder(true)
+                .placeholderReplacement(false).configuration(Map.of("flyway.table", "schema_version")) // FINERACT-979
+                .load();
+        try {
+            flyway.repair();
+            flyway.migrate();
+        } catch (FlywayException e) {
+            String betterMessage = e.getMessage() + "; for Tenant DB URL: " + connectionProtocol + ", username: "
+                    + connection.getSchemaUsername();
+            throw new FlywayException(betterMessage, e);
+        }
+        return UpgradeStatus.UPGRADED;
+    }
+
+    /**
+     * Whether every packaged core_db migration has been applied successfully with an unchanged checksum, and nothing else
+     * has, in which case Flyway's validation of all scripts against the schema can be skipped. Anything else, including a
+     * checksum that Flyway would calculate differently, falls back to the full repair and migrate.
+     */
+    private boolean isSchemaUpToDate(final DataSource source) {
+        final Map<String, Integer> packagedChecksums = retrievePackagedChecksums();
+        if (packagedChecksums.isEmpty()) {
+            return false;
+        }
+        final Map<String, Integer> appliedChecksums = new HashMap<>();
+        try {
+            final SqlRowSet rs = new JdbcTemplate(source)
+                    .queryForRowSet("select version, checksum, success from schema_version where type = 'SQL'");
+            while (rs.next()) {
+                if (!rs.getBoolean("success")) {
+                    return false;
+                }
+                final int checksum = rs.getInt("checksum");
+                appliedChecksums.put(rs.getString("version"), rs.wasNull() ? null : checksum);
+            }
+        } catch (final DataAccessException e) {
+            // no schema_version table yet
+            return false;
+        }
+        return isSchemaUpToDate(packagedChecksums, appliedChecksums);
+    }
+
+    /**
+     * Compares the checksums of the packaged migrations with those of the applied ones, both by version.
+     */
+    static boolean isSchemaUpToDate(final Map<String, Integer> packagedChecksums, final Map<String, Integer> appliedChecksums) {
+        return !packagedChecksums.isEmpty() && packagedChecksums.equals(appliedChecksums);
+    }
+
+    synchronized Map<String, Integer> retrievePackagedChecksums() {
+        if (this.packagedChecksums == null) {
+            Map<String, Integer> checksums;
+            try {
+                checksums = calculateChecksums(new PathMatchingResourcePatternResolver(Thread.currentThread().getContextClassLoader())
+                        .getResources("classpath*:" + CORE_DB_LOCATION + "/*.sql"));
+            } catch (final IOException e) {
+                LOG.warn("Reading the packaged migrations failed, tenant schemas are validated by Flyway instead", e);
+                checksums = new HashMap<>();
+            }
+            this.packagedChecksums = checksums;
+        }
+        return this.packagedChecksums;
+    }
+
+    /**
+     * The checksums of the versioned migrations among the resources, by version as Flyway records it.
+     */
+    static Map<String, Integer> calculateChecksums(final Resource[] resources) throws IOException {
+        final Map<String, Integer> checksums = new HashMap<>();
+        for (final Resource resource : resources) {
+            final Matcher matcher = MIGRATION_FILE_NAME_PATTERN.matcher(resource.getFilename());
+            if (matcher.matches()) {
+                checksums.put(matcher.group(1).replace('_', '.'), calculateChecksum(resource));
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * The checksum Flyway records for an SQL migration: the CRC32 of its lines, without line breaks and byte order mark.
+     */
+    static int calculateChecksum(final Resource resource) throws IOException {
+        final CRC32 crc32 = new CRC32();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line != null && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            while (line != null) {
+                crc32.update(line.getBytes(StandardCharsets.UTF_8));
+                line = reader.readLine();
+            }
+        }
+        return (int) crc32.getValue();
+    }
+
     /**
      * Initializes, and if required upgrades (using Flyway) the Tenant DB itself.
      */
@@ -162,4 +371,19 @@ public class TenantDatabaseUpgradeService {
             LOG.info("repairFlywayVersionSkip: The schema_version table does not exist, aborting repair");
         }
     }
+
+    public enum UpgradeStatus {
+
+        PENDING(false), UPGRADING(false), UP_TO_DATE(true), UPGRADED(true), FAILED(false);
+
+        private final boolean ready;
+
+        UpgradeStatus(final boolean ready) {
+            this.ready = ready;
+        }
+
+        public boolean isReady() {
+            return this.ready;
+        }
+    }
 }
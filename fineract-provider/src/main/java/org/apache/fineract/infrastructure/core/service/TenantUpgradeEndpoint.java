@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService.UpgradeStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing the schema upgrade status of every tenant with auto update, so that a rolling deployment can
+ * tell which tenants a node already serves. It has to be exposed with
+ * <code>management.endpoints.web.exposure.include=tenantupgrades</code> to be reachable over HTTP.
+ */
+@Component
+@Endpoint(id = "tenantupgrades")
+public class TenantUpgradeEndpoint {
+
+    private final TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
+
+    @Autowired
+    public TenantUpgradeEndpoint(final TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
+    }
+
+    @ReadOperation
+    public Map<String, UpgradeStatus> tenantUpgrades() {
+        return this.tenantDatabaseUpgradeService.retrieveUpgradeStatuses();
+    }
+}
@@ -38,6 +38,8 @@ public final class ThreadLocalContextUtil {
 
     private static final ThreadLocal<String> authTokenContext = new ThreadLocal<>();
 
+    private static final ThreadLocal<Boolean> readReplicaContext = new ThreadLocal<>();
+
     public static void setTenant(final FineractPlatformTenant tenant) {
         Assert.notNull(tenant, "tenant cannot be null");
         tenantcontext.set(tenant);
@@ -71,4 +73,20 @@ public final class ThreadLocalContextUtil {
         return authTokenContext.get();
     }
 
+    /**
+     * Allows read-only transactions of the current request to be served from the tenant's read replica. Cleared once the
+     * request starts a read-write transaction, so that later reads of the same request see its own writes.
+     */
+    public static void setReadReplicaAllowed(final boolean readReplicaAllowed) {
+        readReplicaContext.set(readReplicaAllowed);
+    }
+
+    public static boolean isReadReplicaAllowed() {
+        return Boolean.TRUE.equals(readReplicaContext.get());
+    }
+
+    public static void clearReadReplicaAllowed() {
+        readReplicaContext.remove();
+    }
+
 }
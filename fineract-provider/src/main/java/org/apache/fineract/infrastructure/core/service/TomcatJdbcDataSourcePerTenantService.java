@@ -20,12 +20,27 @@ package org.apache.fineract.infrastructure.core.service;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
-import java.util.HashMap;
-import java.util.Map;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.boot.JDBCDriverConfig;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -35,16 +50,37 @@ import org.springframework.stereotype.Service;
  * {@link ThreadLocal} variable for this request.
  *
  * {@link ThreadLocalContextUtil} is used to retrieve the {@link FineractPlatformTenant} for the request.
+ *
+ * Looking up an existing pool does not lock. A pool is created at most once per tenant connection, under a lock held
+ * only by requests of that tenant, and is replaced when the tenant_server_connections row it was built from changes;
+ * the replaced pool is closed in the background once its borrowed connections have been returned. Tenants are cached in
+ * tenantsById for a minute, so a changed row takes effect within that time.
+ *
+ * The report connection of a tenant doubles as its read replica. Whether it can be used is checked at most every ten
+ * seconds per connection, so a replica that is down or lagging costs a request no more than the check itself.
  */
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private static final Logger LOG = LoggerFactory.getLogger(TomcatJdbcDataSourcePerTenantService.class);
+
+    private static final long READ_REPLICA_CHECK_INTERVAL_MILLIS = 10000L;
+
+    private final ConcurrentMap<Long, TenantDataSource> tenantToDataSourceMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, ReadReplicaStatus> readReplicaStatuses = new ConcurrentHashMap<>();
+    private final ExecutorService retiredDataSourceCloser = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "tenant-datasource-closer");
+        thread.setDaemon(true);
+        return thread;
+    });
     private final DataSource tenantDataSource;
 
     @Autowired
     private JDBCDriverConfig driverConfig;
 
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
     @Autowired
     public TomcatJdbcDataSourcePerTenantService(final @Qualifier("hikariTenantDataSource") DataSource tenantDataSource) {
         this.tenantDataSource = tenantDataSource;
@@ -53,37 +89,182 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
     @Override
     public DataSource retrieveDataSource() {
         // default to tenant database datasource
-        DataSource tenantDataSource = this.tenantDataSource;
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) {
+            return this.tenantDataSource;
+        }
 
+        // if tenantConnection information available switch to the
+        // appropriate datasource for that tenant.
+        return dataSourceFor(tenant.getConnection());
+    }
+
+    @Override
+    public DataSource retrieveReadReplicaDataSource() {
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
-        if (tenant != null) {
-            final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
-
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to the
-                // appropriate datasource for that tenant.
-                DataSource possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                if (possibleDS != null) {
-                    tenantDataSource = possibleDS;
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
+        if (tenant == null || tenant.getReadReplicaConnection() == null) {
+            return null;
+        }
+
+        final FineractPlatformTenantConnection replicaConnection = tenant.getReadReplicaConnection();
+        final ReadReplicaStatus status = this.readReplicaStatuses.computeIfAbsent(replicaConnection.getConnectionId(),
+                connectionId -> new ReadReplicaStatus());
+        // one request re-checks the replica once the last check is stale,
+        // the others keep using its outcome in the meantime
+        if (status.isDue() && status.checking.compareAndSet(false, true)) {
+            try {
+                status.update(isReadReplicaUsable(replicaConnection));
+            } finally {
+                status.checking.set(false);
+            }
+        }
+        return status.usable ? dataSourceFor(replicaConnection) : null;
+    }
+
+    private DataSource dataSourceFor(final FineractPlatformTenantConnection tenantConnection) {
+        TenantDataSource possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+        while (possibleDS == null || !possibleDS.isFor(tenantConnection)) {
+            if (possibleDS == null) {
+                possibleDS = this.tenantToDataSourceMap.putIfAbsent(tenantConnection.getConnectionId(),
+                        new TenantDataSource(tenantConnection, 0));
+            } else {
+                final TenantDataSource replacement = new TenantDataSource(tenantConnection, possibleDS.generation + 1);
+                if (this.tenantToDataSourceMap.replace(tenantConnection.getConnectionId(), possibleDS, replacement)) {
+                    retire(tenantConnection, possibleDS);
+                }
+            }
+            possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+        }
+        return possibleDS.getDataSource(tenantConnection);
+    }
+
+    /**
+     * A replica is usable while it replicates from its primary and is at most READ_REPLICA_MAX_LAG_SECONDS behind it. A
+     * database that does not replicate at all (no row in SHOW SLAVE STATUS) is a reporting copy, not a replica, and is
+     * never used for API reads.
+     */
+    private boolean isReadReplicaUsable(final FineractPlatformTenantConnection replicaConnection) {
+        try (Connection connection = dataSourceFor(replicaConnection).getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SHOW SLAVE STATUS")) {
+            if (!resultSet.next()) {
+                LOG.debug("Report database {} of tenant is not a replica, reads stay on the primary", replicaConnection.getSchemaName());
+                return false;
+            }
+            final long secondsBehindMaster = resultSet.getLong("Seconds_Behind_Master");
+            if (resultSet.wasNull()) {
+                LOG.warn("Replication to {} is not running, reads stay on the primary", replicaConnection.getSchemaName());
+                return false;
+            }
+            if (secondsBehindMaster > this.driverConfig.getReadReplicaMaxLagSeconds()) {
+                LOG.warn("Replica {} is {} seconds behind, reads stay on the primary", replicaConnection.getSchemaName(),
+                        secondsBehindMaster);
+                return false;
+            }
+            return true;
+        } catch (final SQLException | RuntimeException e) {
+            LOG.warn("Replica {} is not reachable, reads stay on the primary", replicaConnection.getSchemaName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * @return the pools that have been created so far, one per tenant connection
+     */
+    public Collection<HikariDataSource> retrieveTenantDataSources() {
+        final List<HikariDataSource> dataSources = new ArrayList<>(this.tenantToDataSourceMap.size());
+        for (final TenantDataSource tenantDataSource : this.tenantToDataSourceMap.values()) {
+            if (tenantDataSource.dataSource != null) {
+                dataSources.add(tenantDataSource.dataSource);
+            }
+        }
+        return dataSources;
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return this.meterRegistry;
+    }
+
+    @PreDestroy
+    public void closeDataSources() {
+        this.retiredDataSourceCloser.shutdown();
+        for (final HikariDataSource dataSource : retrieveTenantDataSources()) {
+            dataSource.close();
+        }
+    }
+
+    private void retire(final FineractPlatformTenantConnection tenantConnection, final TenantDataSource retired) {
+        LOG.info("Connection settings of tenant schema {} changed, replacing its connection pool", tenantConnection.getSchemaName());
+        if (retired.dataSource != null) {
+            // closing waits for borrowed connections to be returned
+            this.retiredDataSourceCloser.execute(retired.dataSource::close);
+        }
+    }
+
+    /**
+     * Pool of one tenant connection, created on first use so that building it only holds up requests of that tenant.
+     */
+    private final class TenantDataSource {
+
+        private final FineractPlatformTenantConnection connection;
+        private final int generation;
+        private volatile HikariDataSource dataSource;
+
+        TenantDataSource(final FineractPlatformTenantConnection connection, final int generation) {
+            this.connection = connection;
+            this.generation = generation;
+        }
+
+        boolean isFor(final FineractPlatformTenantConnection currentConnection) {
+            // the same cached tenant is passed in until tenantsById expires
+            return this.connection == currentConnection || this.connection.hasSamePoolSettingsAs(currentConnection);
+        }
+
+        DataSource getDataSource(final FineractPlatformTenantConnection tenantConnection) {
+            HikariDataSource result = this.dataSource;
+            if (result == null) {
+                synchronized (this) {
+                    result = this.dataSource;
+                    if (result == null) {
+                        result = createNewDataSourceFor(tenantConnection, this.generation);
+                        this.dataSource = result;
+                    }
                 }
             }
+            return result;
         }
+    }
 
-        return tenantDataSource;
+    /**
+     * Outcome of the last check of one read replica connection.
+     */
+    private static final class ReadReplicaStatus {
+
+        private final AtomicBoolean checking = new AtomicBoolean();
+        private volatile long checkedAt;
+        private volatile boolean usable;
+
+        boolean isDue() {
+            return System.currentTimeMillis() - this.checkedAt >= READ_REPLICA_CHECK_INTERVAL_MILLIS;
+        }
+
+        void update(final boolean currentlyUsable) {
+            this.usable = currentlyUsable;
+            this.checkedAt = System.currentTimeMillis();
+        }
     }
 
     // creates the tenant data source for the oltp and report database
-    private DataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj) {
+    private HikariDataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj, final int generation) {
         String jdbcUrl = this.driverConfig.constructProtocol(tenantConnectionObj.getSchemaServer(),
                 tenantConnectionObj.getSchemaServerPort(), tenantConnectionObj.getSchemaName(),
                 tenantConnectionObj.getSchemaConnectionParameters());
 
         HikariConfig config = new HikariConfig();
         config.setDriverClassName(this.driverConfig.getDriverClassName());
-        config.setPoolName(tenantConnectionObj.getSchemaName() + "_pool");
+        // a replacement pool gets its own name so its MBean and metrics do not
+        // clash with those of the pool it replaces while that one is closing
+        config.setPoolName(tenantConnectionObj.getSchemaName() + "_pool" + (generation == 0 ? "" : "_" + generation));
         config.setJdbcUrl(jdbcUrl);
         config.setUsername(tenantConnectionObj.getSchemaUsername());
         config.setPassword(tenantConnectionObj.getSchemaPassword());
@@ -95,6 +276,11 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         // https://github.com/brettwooldridge/HikariCP/wiki/MBean-(JMX)-Monitoring-and-Management
         config.setRegisterMbeans(true);
+        if (this.meterRegistry != null) {
+            // publishes the hikaricp.connections.* meters (active, idle,
+            // pending, acquire time) tagged with the pool name
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(this.meterRegistry));
+        }
 
         // https://github.com/brettwooldridge/HikariCP/wiki/MySQL-Configuration
         // These are the properties for each Tenant DB; the same configuration
@@ -34,4 +34,7 @@ public final class DataTableApiConstant {
     public static final String localParamName = "locale";
     public static final String DATATABLE_RESOURCE_NAME = "dataTables";
 
+    public static final String apptableIdsParamName = "apptableIds";
+    public static final int MAX_BULK_READ_APPTABLE_IDS = 5000;
+
 }
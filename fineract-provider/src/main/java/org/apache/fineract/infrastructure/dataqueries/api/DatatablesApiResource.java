@@ -39,6 +39,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
@@ -251,6 +253,28 @@ public class DatatablesApiResource {
         return json;
     }
 
+    @POST
+    @Path("{datatable}/query")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Retrieve Entries from Data Table for many Application Table rows", description = "Gets the entries of a data "
+            + "table for up to " + DataTableApiConstant.MAX_BULK_READ_APPTABLE_IDS + " application table rows in one call, for "
+            + "example for all clients of a center. The same permission and data scoping checks apply as when reading the entries of "
+            + "a single application table row; the entries are returned as one JSON array ordered by application table id.\n" + "\n"
+            + "Example Requests:\n" + "\n" + "datatables/extra_client_details/query with body {\"apptableIds\": [1, 2, 3]}\n" + "\n"
+            + "\n" + "datatables/extra_family_details/query?order=`Date of Birth` desc")
+    @RequestBody(required = true, content = @Content(schema = @Schema(implementation = DatatablesApiResourceSwagger.PostDataTablesQueryRequest.class)))
+    public Response queryDatatableEntries(@PathParam("datatable") @Parameter(description = "datatable") final String datatable,
+            @QueryParam("order") @Parameter(description = "order") final String order,
+            @Parameter(hidden = true) final String apiRequestBodyAsJson) {
+
+        this.context.authenticatedUser().validateHasDatatableReadPermission(datatable);
+
+        final StreamingOutput result = this.readWriteNonCoreDataService.retrieveDataTableEntries(datatable, apiRequestBodyAsJson, order);
+
+        return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
+    }
+
     @GET
     @Path("{datatable}/{apptableId}/{datatableId}")
     @Consumes({ MediaType.APPLICATION_JSON })
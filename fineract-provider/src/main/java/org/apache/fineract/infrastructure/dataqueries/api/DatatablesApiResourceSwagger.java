@@ -181,6 +181,17 @@ final class DatatablesApiResourceSwagger {
         public String locale;
     }
 
+    @Schema(description = "PostDataTablesQueryRequest")
+    public static final class PostDataTablesQueryRequest {
+
+        private PostDataTablesQueryRequest() {
+
+        }
+
+        @Schema(example = "[1, 2, 3]")
+        public List<Long> apptableIds;
+    }
+
     @Schema(description = "PostDataTablesAppTableIdResponse ")
     public static final class PostDataTablesAppTableIdResponse {
 
@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.UriInfo;
+import org.apache.fineract.infrastructure.core.api.ApiParameterHelper;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportRunData;
+import org.apache.fineract.infrastructure.dataqueries.exception.ReportRunNotFoundException;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunConstants;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunDispatcher;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunReadPlatformService;
+import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("/reportruns")
+@Component
+@Scope("singleton")
+@Tag(name = "Report Runs", description = "Runs stretchy reports in the background. A run is submitted, polled until it has completed and "
+        + "its gzip compressed CSV or JSON result is then downloaded, optionally in byte ranges.")
+public class ReportRunsApiResource {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d{0,18})-(\\d{0,18})");
+    private static final String GZIP_MEDIA_TYPE = "application/gzip";
+
+    private final PlatformSecurityContext context;
+    private final ReportRunDispatcher reportRunDispatcher;
+    private final ReportRunReadPlatformService reportRunReadPlatformService;
+    private final ToApiJsonSerializer<ReportRunData> toApiJsonSerializer;
+
+    @Autowired
+    public ReportRunsApiResource(final PlatformSecurityContext context, final ReportRunDispatcher reportRunDispatcher,
+            final ReportRunReadPlatformService reportRunReadPlatformService, final ToApiJsonSerializer<ReportRunData> toApiJsonSerializer) {
+        this.context = context;
+        this.reportRunDispatcher = reportRunDispatcher;
+        this.reportRunReadPlatformService = reportRunReadPlatformService;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+    }
+
+    @POST
+    @Path("{reportName}")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Submit a Report Run", description = "Queues a run of a stretchy report and returns its id straight away. "
+            + "Report parameters are passed as R_ query parameters, as for runreports.\n\n" + "Example Requests:\n\n"
+            + "reportruns/Client%20Listing?R_officeId=1\n\n" + "reportruns/Client%20Listing?R_officeId=1&output-type=JSON")
+    public Response submitReportRun(@PathParam("reportName") @Parameter(description = "reportName") final String reportName,
+            @Context final UriInfo uriInfo,
+            @DefaultValue("CSV") @QueryParam("output-type") @Parameter(description = "CSV or JSON") final String outputType,
+            @DefaultValue("false") @QueryParam("isSelfServiceUserReport") @Parameter(description = "isSelfServiceUserReport") final boolean isSelfServiceUserReport) {
+
+        final MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
+        final boolean parameterType = ApiParameterHelper.parameterType(queryParams);
+
+        // Anyone can run a 'report' that is simply getting possible parameter
+        // (dropdown listbox) values.
+        final AppUser currentUser = this.context.authenticatedUser();
+        if (!parameterType && currentUser.hasNotPermissionForReport(reportName)) {
+            throw new NoAuthorizationException("Not authorised to run report: " + reportName);
+        }
+
+        final String reportType = parameterType ? ReportRunConstants.REPORT_TYPE_PARAMETER : ReportRunConstants.REPORT_TYPE_REPORT;
+        final Long reportRunId = this.reportRunDispatcher.submit(reportName, reportType, outputType.toUpperCase(),
+                RunreportsApiResource.getReportParams(queryParams), isSelfServiceUserReport, currentUser);
+
+        final ReportRunData reportRun = this.reportRunReadPlatformService.retrieveReportRun(reportRunId);
+        return Response.status(Response.Status.ACCEPTED).entity(this.toApiJsonSerializer.serialize(reportRun))
+                .type(MediaType.APPLICATION_JSON).build();
+    }
+
+    @GET
+    @Path("{reportRunId}")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Retrieve a Report Run", description = "Returns the status of a report run submitted by the current user.")
+    public String retrieveReportRun(@PathParam("reportRunId") @Parameter(description = "reportRunId") final Long reportRunId,
+            @Context final UriInfo uriInfo) {
+
+        final boolean prettyPrint = ApiParameterHelper.prettyPrint(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serializePretty(prettyPrint, retrieveOwnReportRun(reportRunId));
+    }
+
+    @GET
+    @Path("{reportRunId}/attachment")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ GZIP_MEDIA_TYPE, MediaType.APPLICATION_JSON })
+    @Operation(summary = "Download the Result of a Report Run", description = "Returns the gzip compressed result of a completed report "
+            + "run. A single byte range may be requested with the Range header, e.g. \"Range: bytes=0-1048575\", to download large "
+            + "results in parts or resume an interrupted download.")
+    public Response downloadReportRunFile(@PathParam("reportRunId") @Parameter(description = "reportRunId") final Long reportRunId,
+            @HeaderParam("Range") final String range) {
+
+        final ReportRunData reportRun = retrieveOwnReportRun(reportRunId);
+        if (!ReportRunConstants.STATUS_COMPLETED.equals(reportRun.getStatus())) {
+            throw new PlatformDataIntegrityException("error.msg.report.run.not.completed",
+                    "Report run with identifier " + reportRunId + " has not completed", reportRunId);
+        }
+
+        final long fileSize = reportRun.getFileSize();
+        long firstByte = 0;
+        long lastByte = fileSize - 1;
+        final Matcher matcher = range == null ? null : RANGE_PATTERN.matcher(range.trim());
+        final boolean partial = matcher != null && matcher.matches();
+        if (partial) {
+            final String first = matcher.group(1);
+            final String last = matcher.group(2);
+            if (first.isEmpty()) {
+                // suffix range, the last n bytes
+                firstByte = last.isEmpty() ? fileSize : Math.max(0, fileSize - Long.parseLong(last));
+            } else {
+                firstByte = Long.parseLong(first);
+                if (!last.isEmpty()) {
+                    lastByte = Math.min(lastByte, Long.parseLong(last));
+                }
+            }
+            if (firstByte >= fileSize || firstByte > lastByte) {
+                return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE).header("Content-Range", "bytes */" + fileSize)
+                        .build();
+            }
+        }
+
+        final InputStream content = this.reportRunReadPlatformService.retrieveReportRunFile(reportRun, firstByte, lastByte);
+        final ResponseBuilder response = Response.status(partial ? Response.Status.PARTIAL_CONTENT : Response.Status.OK).entity(content)
+                .type(GZIP_MEDIA_TYPE).header("Accept-Ranges", "bytes").header("Content-Length", lastByte - firstByte + 1)
+                .header("Content-Disposition", "attachment; filename=\"" + reportRun.getFileName() + "\"");
+        if (partial) {
+            response.header("Content-Range", "bytes " + firstByte + "-" + lastByte + "/" + fileSize);
+        }
+        return response.build();
+    }
+
+    private ReportRunData retrieveOwnReportRun(final Long reportRunId) {
+        final AppUser currentUser = this.context.authenticatedUser();
+        final ReportRunData reportRun = this.reportRunReadPlatformService.retrieveReportRun(reportRunId);
+        // runs of other users are reported as not found rather than forbidden
+        if (!currentUser.getId().equals(reportRun.getRunAsUserId())) {
+            throw new ReportRunNotFoundException(reportRunId);
+        }
+        return reportRun;
+    }
+}
@@ -47,7 +47,6 @@ import org.apache.fineract.infrastructure.core.api.ApiParameterHelper;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
-import org.apache.fineract.infrastructure.dataqueries.service.GenericDataService;
 import org.apache.fineract.infrastructure.dataqueries.service.ReadReportingService;
 import org.apache.fineract.infrastructure.report.provider.ReportingProcessServiceProvider;
 import org.apache.fineract.infrastructure.report.service.ReportingProcessService;
@@ -68,16 +67,14 @@ public class RunreportsApiResource {
     private final PlatformSecurityContext context;
     private final ToApiJsonSerializer<ReportData> toApiJsonSerializer;
     private final ReadReportingService readExtraDataAndReportingService;
-    private final GenericDataService genericDataService;
     private final ReportingProcessServiceProvider reportingProcessServiceProvider;
 
     @Autowired
     public RunreportsApiResource(final PlatformSecurityContext context, final ReadReportingService readExtraDataAndReportingService,
-            final GenericDataService genericDataService, final ToApiJsonSerializer<ReportData> toApiJsonSerializer,
+            final ToApiJsonSerializer<ReportData> toApiJsonSerializer,
             final ReportingProcessServiceProvider reportingProcessServiceProvider) {
         this.context = context;
         this.readExtraDataAndReportingService = readExtraDataAndReportingService;
-        this.genericDataService = genericDataService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.reportingProcessServiceProvider = reportingProcessServiceProvider;
     }
@@ -151,22 +148,19 @@ public class RunreportsApiResource {
         if (!exportCsv) {
             final Map<String, String> reportParams = getReportParams(queryParams);
 
-            final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
-                    parameterTypeValue, reportParams, isSelfServiceUserReport);
-
-            String json = "";
             final boolean genericResultSetIsPassed = ApiParameterHelper.genericResultSetPassed(uriInfo.getQueryParameters());
             final boolean genericResultSet = ApiParameterHelper.genericResultSet(uriInfo.getQueryParameters());
-            if (genericResultSetIsPassed) {
-                if (genericResultSet) {
-                    json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
-                } else {
-                    json = this.genericDataService.generateJsonFromGenericResultsetData(result);
-                }
-            } else {
-                json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
+            if (genericResultSetIsPassed && !genericResultSet) {
+                final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportJSON(reportName, parameterTypeValue,
+                        reportParams, isSelfServiceUserReport);
+                return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
             }
 
+            final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
+                    parameterTypeValue, reportParams, isSelfServiceUserReport);
+
+            final String json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
+
             return Response.ok().entity(json).type(MediaType.APPLICATION_JSON).build();
         }
 
@@ -191,7 +185,7 @@ public class RunreportsApiResource {
         }
     }
 
-    private Map<String, String> getReportParams(final MultivaluedMap<String, String> queryParams) {
+    static Map<String, String> getReportParams(final MultivaluedMap<String, String> queryParams) {
 
         final Map<String, String> reportParams = new HashMap<>();
         final Set<String> keys = queryParams.keySet();
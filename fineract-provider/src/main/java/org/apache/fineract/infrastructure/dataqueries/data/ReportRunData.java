@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.data;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * An asynchronous run of a stretchy report, as kept in <code>m_report_run</code>. The transient fields are needed to
+ * execute the run and fetch its result but are not returned to API clients.
+ */
+public final class ReportRunData {
+
+    private final Long id;
+    private final String reportName;
+    private final String outputType;
+    private final String status;
+    private final Long rowCount;
+    private final Long fileSize;
+    private final String errorMessage;
+    private final Date submittedDate;
+    private final Date startedDate;
+    private final Date completedDate;
+
+    private final transient String reportType;
+    private final transient boolean selfServiceUserReport;
+    private final transient Map<String, String> reportParameters;
+    private final transient Long runAsUserId;
+    private final transient Integer storageType;
+    private final transient String location;
+
+    public ReportRunData(final Long id, final String reportName, final String reportType, final String outputType,
+            final boolean selfServiceUserReport, final Map<String, String> reportParameters, final String status, final Long runAsUserId,
+            final Long rowCount, final Long fileSize, final Integer storageType, final String location, final String errorMessage,
+            final Date submittedDate, final Date startedDate, final Date completedDate) {
+        this.id = id;
+        this.reportName = reportName;
+        this.reportType = reportType;
+        this.outputType = outputType;
+        this.selfServiceUserReport = selfServiceUserReport;
+        this.reportParameters = reportParameters;
+        this.status = status;
+        this.runAsUserId = runAsUserId;
+        this.rowCount = rowCount;
+        this.fileSize = fileSize;
+        this.storageType = storageType;
+        this.location = location;
+        this.errorMessage = errorMessage;
+        this.submittedDate = submittedDate;
+        this.startedDate = startedDate;
+        this.completedDate = completedDate;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getReportName() {
+        return this.reportName;
+    }
+
+    public String getReportType() {
+        return this.reportType;
+    }
+
+    public String getOutputType() {
+        return this.outputType;
+    }
+
+    public boolean isSelfServiceUserReport() {
+        return this.selfServiceUserReport;
+    }
+
+    public Map<String, String> getReportParameters() {
+        return this.reportParameters;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public Long getRunAsUserId() {
+        return this.runAsUserId;
+    }
+
+    public Long getRowCount() {
+        return this.rowCount;
+    }
+
+    public Long getFileSize() {
+        return this.fileSize;
+    }
+
+    public Integer getStorageType() {
+        return this.storageType;
+    }
+
+    public String getLocation() {
+        return this.location;
+    }
+
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+
+    /**
+     * Name of the compressed result file, derived from the report name and output type.
+     */
+    public String getFileName() {
+        return this.reportName.replaceAll("[^a-zA-Z0-9\\-_]", "") + "." + this.outputType.toLowerCase() + ".gz";
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a generic resultset as CSV: numeric values as they are, everything else in double quotes with embedded double
+ * quotes doubled.
+ */
+public class CsvResultsetRowWriter implements ResultsetRowWriter {
+
+    private static final String DOUBLE_QUOTE = "\"";
+    private static final String TWO_DOUBLE_QUOTES = DOUBLE_QUOTE + DOUBLE_QUOTE;
+
+    private final Writer writer;
+    private List<ResultsetColumnHeaderData> columnHeaders;
+
+    public CsvResultsetRowWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.columnHeaders = columnHeaders;
+        for (int i = 0; i < columnHeaders.size(); i++) {
+            if (i > 0) {
+                this.writer.write(',');
+            }
+            writeQuoted(columnHeaders.get(i).getColumnName());
+        }
+        this.writer.write('\n');
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+        for (int i = 0; i < row.size(); i++) {
+            if (i > 0) {
+                this.writer.write(',');
+            }
+            final String value = row.get(i);
+            if (value != null) {
+                if (isNumeric(this.columnHeaders.get(i).getColumnType())) {
+                    this.writer.write(value);
+                } else {
+                    writeQuoted(value);
+                }
+            }
+        }
+        this.writer.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.writer.flush();
+    }
+
+    private void writeQuoted(final String value) throws IOException {
+        this.writer.write(DOUBLE_QUOTE);
+        this.writer.write(StringUtils.replace(value, DOUBLE_QUOTE, TWO_DOUBLE_QUOTES));
+        this.writer.write(DOUBLE_QUOTE);
+    }
+
+    private static boolean isNumeric(final String columnType) {
+        return columnType.equals("DECIMAL") || columnType.equals("DOUBLE") || columnType.equals("BIGINT") || columnType.equals("SMALLINT")
+                || columnType.equals("INT");
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import org.apache.fineract.infrastructure.core.service.TenantCacheEviction;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnValueData;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tenant scoped cache of the schema metadata that every datatable read and write needs: the column headers read from
+ * <code>INFORMATION_SCHEMA.COLUMNS</code>, the application table a datatable is registered against in
+ * <code>x_registered_table</code> and the code values offered for code columns.
+ *
+ * Column headers embed their code values, so any datatable or code change drops all metadata of the tenant through
+ * {@link #evict()}. Failed lookups, such as an unknown datatable, are not cached.
+ */
+@Component
+public class DatatableMetadataCache {
+
+    private final ConcurrentMap<String, TenantMetadata> tenantMetadata = new ConcurrentHashMap<>();
+
+    public List<ResultsetColumnHeaderData> getColumnHeaders(final String datatable,
+            final Function<String, List<ResultsetColumnHeaderData>> loader) {
+        return get(tenantMetadata().columnHeaders, datatable, key -> Collections.unmodifiableList(loader.apply(key)));
+    }
+
+    public String getApplicationTableName(final String datatable, final Function<String, String> loader) {
+        return get(tenantMetadata().applicationTableNames, datatable, loader);
+    }
+
+    public List<ResultsetColumnValueData> getCodeValues(final String codeName,
+            final Function<String, List<ResultsetColumnValueData>> loader) {
+        return get(tenantMetadata().codeValuesByName, codeName, key -> Collections.unmodifiableList(loader.apply(key)));
+    }
+
+    public List<ResultsetColumnValueData> getCodeValues(final Integer codeId,
+            final Function<Integer, List<ResultsetColumnValueData>> loader) {
+        return get(tenantMetadata().codeValuesById, codeId, key -> Collections.unmodifiableList(loader.apply(key)));
+    }
+
+    /**
+     * Drops the metadata of the current tenant, now and again once the current transaction completes, as a read between
+     * now and the commit would otherwise cache the old schema again.
+     */
+    public void evict() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        TenantCacheEviction.evictNowAndAfterCompletion(() -> this.tenantMetadata.remove(tenantIdentifier));
+    }
+
+    private TenantMetadata tenantMetadata() {
+        return this.tenantMetadata.computeIfAbsent(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), key -> new TenantMetadata());
+    }
+
+    private static <K, V> V get(final ConcurrentMap<K, V> cache, final K key, final Function<K, V> loader) {
+        // loaded outside of the map so that a slow lookup does not block others
+        V value = cache.get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                final V existing = cache.putIfAbsent(key, value);
+                if (existing != null) {
+                    value = existing;
+                }
+            }
+        }
+        return value;
+    }
+
+    private static final class TenantMetadata {
+
+        private final ConcurrentMap<String, List<ResultsetColumnHeaderData>> columnHeaders = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, String> applicationTableNames = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, List<ResultsetColumnValueData>> codeValuesByName = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Integer, List<ResultsetColumnValueData>> codeValuesById = new ConcurrentHashMap<>();
+    }
+}
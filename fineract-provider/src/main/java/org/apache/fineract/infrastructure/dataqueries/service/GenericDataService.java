@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import java.io.IOException;
 import java.util.List;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
@@ -26,6 +27,27 @@ public interface GenericDataService {
 
     GenericResultsetData fillGenericResultSet(String sql);
 
+    /**
+     * Runs the query as a prepared statement with the given bind parameters.
+     */
+    GenericResultsetData fillGenericResultSet(String sql, Object[] args);
+
+    /**
+     * Hands each row of the query to the writer, so memory use does not grow with the size of the result. With a driver
+     * that streams rows, the query runs on a forward-only cursor and is cancelled when the writer fails, e.g. because
+     * the client went away. Otherwise the result of the select is stored in a temporary table once and read back in
+     * pages by row number.
+     *
+     * @return the number of rows written
+     */
+    long writeGenericResultSet(String sql, ResultsetRowWriter writer) throws IOException;
+
+    /**
+     * Like {@link #writeGenericResultSet(String, ResultsetRowWriter)}, running the query as a prepared statement with the
+     * given bind parameters.
+     */
+    long writeGenericResultSet(String sql, Object[] args, ResultsetRowWriter writer) throws IOException;
+
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
     String replace(String str, String pattern, String replace);
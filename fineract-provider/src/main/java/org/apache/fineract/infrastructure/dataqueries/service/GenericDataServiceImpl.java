@@ -18,9 +18,17 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
-import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
@@ -28,35 +36,57 @@ import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeader
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnValueData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetRowData;
 import org.apache.fineract.infrastructure.dataqueries.exception.DatatableNotFoundException;
-import org.joda.time.LocalDate;
-import org.joda.time.LocalDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class GenericDataServiceImpl implements GenericDataService {
 
     private final JdbcTemplate jdbcTemplate;
-    private final DataSource dataSource;
+    private final DatatableMetadataCache datatableMetadataCache;
+    private final boolean pagesThroughTemporaryTable;
     private static final Logger LOG = LoggerFactory.getLogger(GenericDataServiceImpl.class);
 
+    // rows asked of the server at a time by drivers that do not stream
+    static final int RESULT_FETCH_SIZE = 1000;
+    // rows read per query from the temporary table of a result that is paged
+    static final int RESULT_PAGE_SIZE = 10000;
+    static final String RESULT_ROWS_TABLE = "tmp_result_rows";
+    static final String RESULT_ROW_NUMBER = "tmp_result_row_number";
+    static final String PAGE_THROUGH_TEMPORARY_TABLE_PROPERTY = "fineract.report.pageThroughTemporaryTable";
+
     @Autowired
-    public GenericDataServiceImpl(final RoutingDataSource dataSource) {
-        this.dataSource = dataSource;
-        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+    public GenericDataServiceImpl(final RoutingDataSource dataSource, final DatatableMetadataCache datatableMetadataCache) {
+        this(new JdbcTemplate(dataSource), datatableMetadataCache, Boolean.getBoolean(PAGE_THROUGH_TEMPORARY_TABLE_PROPERTY));
+    }
 
+    GenericDataServiceImpl(final JdbcTemplate jdbcTemplate, final DatatableMetadataCache datatableMetadataCache,
+            final boolean pagesThroughTemporaryTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.datatableMetadataCache = datatableMetadataCache;
+        this.pagesThroughTemporaryTable = pagesThroughTemporaryTable;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public GenericResultsetData fillGenericResultSet(final String sql) {
+        return fillGenericResultSet(sql, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GenericResultsetData fillGenericResultSet(final String sql, final Object[] args) {
         try {
-            final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
+            final SqlRowSet rs = args == null ? this.jdbcTemplate.queryForRowSet(sql) : this.jdbcTemplate.queryForRowSet(sql, args);
 
             final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
             final List<ResultsetRowData> resultsetDataRows = new ArrayList<>();
@@ -120,82 +150,204 @@ public class GenericDataServiceImpl implements GenericDataService {
     }
 
     @Override
-    public String generateJsonFromGenericResultsetData(final GenericResultsetData grs) {
-
-        final StringBuilder writer = new StringBuilder();
-
-        writer.append("[");
+    public long writeGenericResultSet(final String sql, final ResultsetRowWriter writer) throws IOException {
+        return writeResultSet(sql, null, writer);
+    }
 
-        final List<ResultsetColumnHeaderData> columnHeaders = grs.getColumnHeaders();
+    @Override
+    public long writeGenericResultSet(final String sql, final Object[] args, final ResultsetRowWriter writer) throws IOException {
+        return writeResultSet(sql, args, writer);
+    }
 
-        final List<ResultsetRowData> data = grs.getData();
-        List<String> row;
-        Integer rSize;
-        final String doubleQuote = "\"";
-        final String slashDoubleQuote = "\\\"";
-        String currColType;
-        String currVal;
+    private long writeResultSet(final String sql, final Object[] args, final ResultsetRowWriter writer) throws IOException {
+        try {
+            return this.jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                if (streamsRows(connection)) {
+                    return writeFetchedRows(connection, sql, args, Integer.MIN_VALUE, writer);
+                }
+                if (this.pagesThroughTemporaryTable) {
+                    return writePagedRows(connection, sql, args, writer);
+                }
+                return writeFetchedRows(connection, sql, args, RESULT_FETCH_SIZE, writer);
+            });
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        } catch (final DataAccessException e) {
+            throw new PlatformDataIntegrityException("error.msg.report.unknown.data.integrity.issue", e.getClass().getName(), e);
+        }
+    }
 
-        for (int i = 0; i < data.size(); i++) {
-            writer.append("\n{");
+    /**
+     * Whether the driver hands out the rows of a result one by one as they arrive. MySQL and MariaDB Connector/J do so
+     * for a fetch size of {@link Integer#MIN_VALUE}; other drivers, such as the default Drizzle one, may read the whole
+     * result into memory first.
+     */
+    private static boolean streamsRows(final Connection connection) throws SQLException {
+        final String driverName = connection.getMetaData().getDriverName();
+        return driverName != null && (driverName.startsWith("MySQL Connector") || driverName.startsWith("MariaDB Connector"));
+    }
 
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
+    /**
+     * Reads the result through a forward only cursor, asking the driver for the given number of rows at a time, and
+     * writes each row as it is read.
+     */
+    private static long writeFetchedRows(final Connection connection, final String sql, final Object[] args, final int fetchSize,
+            final ResultsetRowWriter writer) throws SQLException {
+        try (Statement statement = createStatement(connection, sql, args)) {
+            statement.setFetchSize(fetchSize);
+            try (ResultSet rs = executeQuery(statement, sql)) {
+                writeColumnHeaders(rs.getMetaData(), 1, writer);
+                final long rowCount = writeRows(rs, writer, statement);
+                finish(writer);
+                return rowCount;
+            }
+        }
+    }
 
-                writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
-                currColType = columnHeaders.get(j).getColumnDisplayType();
-                final String colType = columnHeaders.get(j).getColumnType();
-                if (currColType == null && colType.equalsIgnoreCase("INT")) {
-                    currColType = "INTEGER";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
-                    currColType = "VARCHAR";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("DATE")) {
-                    currColType = "DATE";
-                }
-                currVal = row.get(j);
-                if (currVal != null && currColType != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
-                        writer.append(currVal);
-                    } else {
-                        if (currColType.equals("DATE")) {
-                            final LocalDate localDate = new LocalDate(currVal);
-                            writer.append(
-                                    "[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth() + "]");
-                        } else if (currColType.equals("DATETIME")) {
-                            final LocalDateTime localDateTime = new LocalDateTime(currVal);
-                            writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthOfYear() + ", "
-                                    + localDateTime.getDayOfMonth() + " " + localDateTime.getHourOfDay() + ", "
-                                    + localDateTime.getMinuteOfHour() + ", " + localDateTime.getSecondOfMinute() + ", "
-                                    + localDateTime.getMillisOfSecond() + "]");
-                        } else {
-                            writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
-                        }
+    /**
+     * Runs the query once into a temporary table that numbers its rows, and reads that back in pages keyed by the row
+     * number, so that only one page is held in memory with drivers that do not stream. Only used when enabled with the
+     * {@value #PAGE_THROUGH_TEMPORARY_TABLE_PROPERTY} system property, as it needs the CREATE TEMPORARY TABLES privilege
+     * and fails for results with duplicate column labels.
+     */
+    private static long writePagedRows(final Connection connection, final String sql, final Object[] args,
+            final ResultsetRowWriter writer) throws SQLException {
+        dropResultRowsTable(connection);
+        final String createSql = "create temporary table " + RESULT_ROWS_TABLE + " (" + RESULT_ROW_NUMBER
+                + " bigint not null auto_increment primary key) " + sql;
+        try (Statement statement = createStatement(connection, createSql, args)) {
+            execute(statement, createSql);
+        }
+        try (PreparedStatement statement = connection.prepareStatement("select * from " + RESULT_ROWS_TABLE + " where "
+                + RESULT_ROW_NUMBER + " > ? order by " + RESULT_ROW_NUMBER + " limit " + RESULT_PAGE_SIZE)) {
+            long rowCount = 0;
+            long lastRowNumber = 0;
+            int pageRowCount = RESULT_PAGE_SIZE;
+            while (pageRowCount == RESULT_PAGE_SIZE) {
+                statement.setLong(1, lastRowNumber);
+                try (ResultSet rs = statement.executeQuery()) {
+                    final ResultSetMetaData rsmd = rs.getMetaData();
+                    if (lastRowNumber == 0) {
+                        // the first column is the row number
+                        writeColumnHeaders(rsmd, 2, writer);
+                    }
+                    final int columnCount = rsmd.getColumnCount();
+                    final List<String> row = new ArrayList<>(columnCount);
+                    pageRowCount = 0;
+                    while (rs.next()) {
+                        lastRowNumber = rs.getLong(1);
+                        writeRow(rs, 2, columnCount, row, writer);
+                        pageRowCount++;
                     }
-                } else {
-                    writer.append("null");
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",\n");
                 }
+                rowCount += pageRowCount;
             }
+            finish(writer);
+            return rowCount;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            dropResultRowsTable(connection);
+        }
+    }
+
+    private static void dropResultRowsTable(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop temporary table if exists " + RESULT_ROWS_TABLE);
+        }
+    }
+
+    private static Statement createStatement(final Connection connection, final String sql, final Object[] args) throws SQLException {
+        if (args == null) {
+            return connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        }
+        final PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        new ArgumentPreparedStatementSetter(args).setValues(statement);
+        return statement;
+    }
 
-            if (i < (data.size() - 1)) {
-                writer.append("},");
-            } else {
-                writer.append("}");
+    private static ResultSet executeQuery(final Statement statement, final String sql) throws SQLException {
+        return statement instanceof PreparedStatement ? ((PreparedStatement) statement).executeQuery() : statement.executeQuery(sql);
+    }
+
+    private static void execute(final Statement statement, final String sql) throws SQLException {
+        if (statement instanceof PreparedStatement) {
+            ((PreparedStatement) statement).execute();
+        } else {
+            statement.execute(sql);
+        }
+    }
+
+    private static void writeColumnHeaders(final ResultSetMetaData rsmd, final int firstColumn, final ResultsetRowWriter writer)
+            throws SQLException {
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>(rsmd.getColumnCount());
+        for (int i = firstColumn; i <= rsmd.getColumnCount(); i++) {
+            columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnLabel(i), rsmd.getColumnTypeName(i)));
+        }
+        try {
+            writer.writeColumnHeaders(columnHeaders);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long writeRows(final ResultSet rs, final ResultsetRowWriter writer, final Statement statement) throws SQLException {
+        final int columnCount = rs.getMetaData().getColumnCount();
+        final List<String> row = new ArrayList<>(columnCount);
+        long rowCount = 0;
+        try {
+            while (rs.next()) {
+                writeRow(rs, 1, columnCount, row, writer);
+                rowCount++;
             }
+            return rowCount;
+        } catch (final IOException e) {
+            // otherwise closing the result set would still read the rest of it from the server
+            statement.cancel();
+            throw new UncheckedIOException(e);
         }
+    }
+
+    private static void writeRow(final ResultSet rs, final int firstColumn, final int columnCount, final List<String> row,
+            final ResultsetRowWriter writer) throws SQLException, IOException {
+        row.clear();
+        for (int i = firstColumn; i <= columnCount; i++) {
+            row.add(rs.getString(i));
+        }
+        writer.writeRow(row);
+    }
 
-        writer.append("\n]");
-        return writer.toString();
+    private static void finish(final ResultsetRowWriter writer) {
+        try {
+            writer.finish();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    @Override
+    public String generateJsonFromGenericResultsetData(final GenericResultsetData grs) {
+        final StringWriter json = new StringWriter();
+        try {
+            final ResultsetRowWriter writer = new JsonResultsetRowWriter(json);
+            writer.writeColumnHeaders(grs.getColumnHeaders());
+            for (final ResultsetRowData row : grs.getData()) {
+                writer.writeRow(row.getRow());
+            }
+            writer.finish();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toString();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable) {
+        return this.datatableMetadataCache.getColumnHeaders(datatable, this::retrieveResultsetColumnHeaders);
+    }
+
+    private List<ResultsetColumnHeaderData> retrieveResultsetColumnHeaders(final String datatable) {
 
         LOG.debug("::3 Was inside the fill ResultSetColumnHeader");
 
@@ -222,7 +374,7 @@ public class GenericDataServiceImpl implements GenericDataService {
                 if (codePosition > 0) {
                     codeName = columnName.substring(0, codePosition);
 
-                    columnValues = retreiveColumnValues(codeName);
+                    columnValues = this.datatableMetadataCache.getCodeValues(codeName, this::retreiveColumnValues);
                 }
 
             } else if ("int".equalsIgnoreCase(columnType)) {
@@ -230,7 +382,7 @@ public class GenericDataServiceImpl implements GenericDataService {
                 final int codePosition = columnName.indexOf("_cd");
                 if (codePosition > 0) {
                     codeName = columnName.substring(0, codePosition);
-                    columnValues = retreiveColumnValues(codeName);
+                    columnValues = this.datatableMetadataCache.getCodeValues(codeName, this::retreiveColumnValues);
                 }
             }
             if (codeName == null) {
@@ -240,7 +392,9 @@ public class GenericDataServiceImpl implements GenericDataService {
                     codeId = rsValues.getInt("id");
                     codeName = rsValues.getString("code_name");
                 }
-                columnValues = retreiveColumnValues(codeId);
+                if (codeId != null) {
+                    columnValues = this.datatableMetadataCache.getCodeValues(codeId, this::retreiveColumnValues);
+                }
 
             }
 
@@ -253,9 +407,6 @@ public class GenericDataServiceImpl implements GenericDataService {
         return columnHeaders;
     }
 
-    /*
-     * Candidate for using caching there to get allowed 'column values' from code/codevalue tables
-     */
     private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
 
         final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+
+/**
+ * Writes a generic resultset as a JSON array with one object per row, keyed by column name. Dates are written as
+ * [year, month, day] arrays.
+ */
+public class JsonResultsetRowWriter implements ResultsetRowWriter {
+
+    private static final String DOUBLE_QUOTE = "\"";
+    private static final String SLASH_DOUBLE_QUOTE = "\\\"";
+
+    private final Writer writer;
+    private List<ResultsetColumnHeaderData> columnHeaders;
+    private boolean firstRow = true;
+
+    public JsonResultsetRowWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.columnHeaders = columnHeaders;
+        this.writer.write("[");
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+        if (!this.firstRow) {
+            this.writer.write(",");
+        }
+        this.firstRow = false;
+        this.writer.write("\n{");
+
+        for (int j = 0; j < row.size(); j++) {
+            final ResultsetColumnHeaderData columnHeader = this.columnHeaders.get(j);
+            this.writer.write(DOUBLE_QUOTE + columnHeader.getColumnName() + DOUBLE_QUOTE + ": ");
+            String currColType = columnHeader.getColumnDisplayType();
+            final String colType = columnHeader.getColumnType();
+            if (currColType == null && colType.equalsIgnoreCase("INT")) {
+                currColType = "INTEGER";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
+                currColType = "VARCHAR";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("DATE")) {
+                currColType = "DATE";
+            }
+            final String currVal = row.get(j);
+            if (currVal != null && currColType != null) {
+                if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
+                    this.writer.write(currVal);
+                } else if (currColType.equals("DATE")) {
+                    final LocalDate localDate = new LocalDate(currVal);
+                    this.writer.write(
+                            "[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth() + "]");
+                } else if (currColType.equals("DATETIME")) {
+                    final LocalDateTime localDateTime = new LocalDateTime(currVal);
+                    this.writer.write("[" + localDateTime.getYear() + ", " + localDateTime.getMonthOfYear() + ", "
+                            + localDateTime.getDayOfMonth() + " " + localDateTime.getHourOfDay() + ", " + localDateTime.getMinuteOfHour()
+                            + ", " + localDateTime.getSecondOfMinute() + ", " + localDateTime.getMillisOfSecond() + "]");
+                } else {
+                    this.writer.write(DOUBLE_QUOTE + StringUtils.replace(currVal, DOUBLE_QUOTE, SLASH_DOUBLE_QUOTE) + DOUBLE_QUOTE);
+                }
+            } else {
+                this.writer.write("null");
+            }
+            if (j < (row.size() - 1)) {
+                this.writer.write(",\n");
+            }
+        }
+
+        this.writer.write("}");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.writer.write("\n]");
+        this.writer.flush();
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.dataqueries.service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
@@ -32,6 +33,21 @@ public interface ReadReportingService {
 
     StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport);
 
+    /**
+     * Streams the report as a JSON array of row objects, like
+     * {@link GenericDataService#generateJsonFromGenericResultsetData(GenericResultsetData)} does for a resultset read
+     * into memory.
+     */
+    StreamingOutput retrieveReportJSON(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport);
+
+    /**
+     * Runs the report in the calling thread, handing its rows to the writer as they are read.
+     *
+     * @return the number of rows written
+     */
+    long writeReport(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport,
+            ResultsetRowWriter writer) throws IOException;
+
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams,
             boolean isSelfServiceUserReport);
 
@@ -39,6 +55,12 @@ public interface ReadReportingService {
 
     String getReportType(String reportName, boolean isSelfServiceUserReport);
 
+    /**
+     * Drops the parsed report SQL cached for the current tenant, now and again once the current transaction completes, so
+     * the next run reads the changed definitions.
+     */
+    void evictReportSqlTemplates();
+
     Collection<ReportData> retrieveReportList();
 
     Collection<ReportParameterData> getAllowedParameters();
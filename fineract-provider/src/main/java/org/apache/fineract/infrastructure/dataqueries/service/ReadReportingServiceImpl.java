@@ -22,27 +22,38 @@ import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
-import java.io.ByteArrayInputStream;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.TenantCacheEviction;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportParameterData;
@@ -63,12 +74,17 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ReadReportingServiceImpl implements ReadReportingService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ReadReportingServiceImpl.class);
     private static final String REPORT_NAME_REGEX_PATTERN = "^[a-zA-Z][a-zA-Z0-9\\-_\\s]{0,48}[a-zA-Z0-9\\s](\\([a-zA-Z]*\\))?$";
+    // bounds how long a report changed on another node keeps running with its old SQL here
+    private static final long REPORT_SQL_TEMPLATE_TTL_MILLIS = 60_000L;
+    static final String REPORT_EXECUTION_METER = "fineract.reports.execution";
+    static final String REPORT_ROWS_METER = "fineract.reports.rows";
 
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
@@ -76,6 +92,10 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     private final GenericDataService genericDataService;
     private final ReportingProcessServiceProvider reportingProcessServiceProvider;
     private final ColumnValidator columnValidator;
+    private final ConcurrentMap<String, ReportSqlTemplate> reportSqlTemplates = new ConcurrentHashMap<>();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
 
     @Autowired
     public ReadReportingServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
@@ -93,138 +113,132 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
+        final ReportStatement statement = getStatementToRun(name, type, queryParams, isSelfServiceUserReport);
+        return out -> writeReport(name, type, statement, new CsvResultsetRowWriter(newWriter(out)));
+    }
 
-        return new StreamingOutput() {
-
-            @Override
-            public void write(final OutputStream out) {
-                try {
-
-                    final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams, isSelfServiceUserReport);
-                    final StringBuilder sb = generateCsvFileBuffer(result);
-
-                    final InputStream in = new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
-
-                    final byte[] outputByte = new byte[4096];
-                    Integer readLen = in.read(outputByte, 0, 4096);
-
-                    while (readLen != -1) {
-                        out.write(outputByte, 0, readLen);
-                        readLen = in.read(outputByte, 0, 4096);
-                    }
-                    // in.close();
-                    // out.flush();
-                    // out.close();
-                } catch (final Exception e) {
-                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
-                }
-            }
-        };
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport) {
+        final ReportStatement statement = getStatementToRun(name, type, queryParams, isSelfServiceUserReport);
+        return out -> writeReport(name, type, statement, new JsonResultsetRowWriter(newWriter(out)));
+    }
 
+    @Override
+    public long writeReport(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport, final ResultsetRowWriter writer) throws IOException {
+        return writeReport(name, type, getStatementToRun(name, type, queryParams, isSelfServiceUserReport), writer);
     }
 
-    private StringBuilder generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuilder writer = new StringBuilder();
+    private long writeReport(final String name, final String type, final ReportStatement statement, final ResultsetRowWriter writer)
+            throws IOException {
+        final long startTime = System.currentTimeMillis();
+        LOG.info("STARTING REPORT: {}   Type: {}", name, type);
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        LOG.info("NO. of Columns: {}", columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
-            }
-        }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        LOG.info("NO. of Rows: {}", data.size());
-        for (int i = 0; i < data.size(); i++) {
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
-                if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
-                    } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
-                    }
+        final long rowCount = statement.args == null ? this.genericDataService.writeGenericResultSet(statement.sql, writer)
+                : this.genericDataService.writeGenericResultSet(statement.sql, statement.args, writer);
 
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
-                }
-            }
-            writer.append('\n');
-        }
+        final long elapsed = System.currentTimeMillis() - startTime;
+        recordExecution(name, type, elapsed, rowCount);
+        LOG.info("FINISHING Report/Request Name: {} - {}     Rows: {}     Elapsed Time: {}", name, type, rowCount, elapsed);
+        return rowCount;
+    }
 
-        return writer;
+    private static Writer newWriter(final OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public GenericResultsetData retrieveGenericResultset(final String name, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
 
         final long startTime = System.currentTimeMillis();
         LOG.info("STARTING REPORT: {}   Type: {}", name, type);
 
-        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
+        final ReportStatement statement = getStatementToRun(name, type, queryParams, isSelfServiceUserReport);
 
-        final GenericResultsetData result = this.genericDataService.fillGenericResultSet(sql);
+        final GenericResultsetData result = fillGenericResultSet(statement);
 
         final long elapsed = System.currentTimeMillis() - startTime;
+        recordExecution(name, type, elapsed, result.getData().size());
         LOG.info("FINISHING Report/Request Name: {} - {}     Elapsed Time: {}", new Object[] { name, type, elapsed });
         return result;
     }
 
-    private String getSQLtoRun(final String name, final String type, final Map<String, String> queryParams,
+    private ReportStatement getStatementToRun(final String name, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
 
-        String sql = getSql(name, type);
-
-        final Set<String> keys = queryParams.keySet();
-        for (final String key : keys) {
-            final String pValue = queryParams.get(key);
-            // LOG.info("({} : {})", key, pValue);
-            sql = this.genericDataService.replace(sql, key, pValue);
-        }
+        final ReportSqlTemplate template = getSqlTemplate(name, type);
 
+        final Map<String, String> values = new HashMap<>(queryParams);
         final AppUser currentUser = this.context.authenticatedUser();
         // Allows sql query to restrict data by office hierarchy if required
-        sql = this.genericDataService.replace(sql, "${currentUserHierarchy}", currentUser.getOffice().getHierarchy());
+        values.put("${currentUserHierarchy}", currentUser.getOffice().getHierarchy());
         // Allows sql query to restrict data by current user Id if required
         // (typically used to return report lists containing only reports
         // permitted to be run by the user
-        sql = this.genericDataService.replace(sql, "${currentUserId}", currentUser.getId().toString());
+        values.put("${currentUserId}", currentUser.getId().toString());
 
-        sql = this.genericDataService.replace(sql, "${isSelfServiceUser}", Integer.toString(isSelfServiceUserReport ? 1 : 0));
+        values.put("${isSelfServiceUser}", Integer.toString(isSelfServiceUserReport ? 1 : 0));
 
-        sql = this.genericDataService.wrapSQL(sql);
+        return toStatement(template, values);
+    }
 
-        return sql;
+    private ReportStatement toStatement(final ReportSqlTemplate template, final Map<String, String> values) {
+        final Object[] args = template.bind(values);
+        if (args != null) {
+            return new ReportStatement(this.genericDataService.wrapSQL(template.getSql(values)), args);
+        }
+
+        String sql = template.getRawSql();
+        for (final Map.Entry<String, String> value : values.entrySet()) {
+            sql = this.genericDataService.replace(sql, value.getKey(), value.getValue());
+        }
+        return new ReportStatement(this.genericDataService.wrapSQL(sql), null);
+    }
+
+    private GenericResultsetData fillGenericResultSet(final ReportStatement statement) {
+        return statement.args == null ? this.genericDataService.fillGenericResultSet(statement.sql)
+                : this.genericDataService.fillGenericResultSet(statement.sql, statement.args);
+    }
 
+    private ReportSqlTemplate getSqlTemplate(final String name, final String type) {
+        final String key = ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":" + type + ":" + name;
+        ReportSqlTemplate template = this.reportSqlTemplates.get(key);
+        if (template == null || template.isOlderThan(REPORT_SQL_TEMPLATE_TTL_MILLIS)) {
+            template = ReportSqlTemplate.compile(getSql(name, type));
+            this.reportSqlTemplates.put(key, template);
+        }
+        return template;
+    }
+
+    @Override
+    public void evictReportSqlTemplates() {
+        final String tenantPrefix = ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":";
+        TenantCacheEviction.evictNowAndAfterCompletion(
+                () -> this.reportSqlTemplates.keySet().removeIf(key -> key.startsWith(tenantPrefix)));
+    }
+
+    private void recordExecution(final String name, final String type, final long elapsed, final long rowCount) {
+        if (this.meterRegistry != null) {
+            final String tenant = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+            Timer.builder(REPORT_EXECUTION_METER).tag("tenant", tenant).tag("report", name).tag("type", type).publishPercentiles(0.5, 0.99)
+                    .register(this.meterRegistry).record(elapsed, TimeUnit.MILLISECONDS);
+            DistributionSummary.builder(REPORT_ROWS_METER).tag("tenant", tenant).tag("report", name).tag("type", type)
+                    .register(this.meterRegistry).record(rowCount);
+        }
     }
 
     private String getSql(final String name, final String type) {
 
-        final String inputSql = "select " + type + "_sql as the_sql from stretchy_" + type + " where " + type + "_name = '" + name + "'";
+        final String inputSql = "select " + type + "_sql as the_sql from stretchy_" + type + " where " + type + "_name = ?";
         validateReportName(name);
 
         final String inputSqlWrapped = this.genericDataService.wrapSQL(inputSql);
 
         // the return statement contains the exact sql required
-        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(inputSqlWrapped);
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(inputSqlWrapped, name);
 
         if (rs.next() && rs.getString("the_sql") != null) {
             return rs.getString("the_sql");
@@ -251,6 +265,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public String retrieveReportPDF(final String reportName, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
 
@@ -318,6 +333,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ReportData retrieveReport(final Long id) {
         final Collection<ReportData> reports = retrieveReports(id);
 
@@ -328,6 +344,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<ReportData> retrieveReportList() {
         return retrieveReports(null);
     }
@@ -511,18 +528,23 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         final long startTime = System.currentTimeMillis();
         LOG.info("STARTING REPORT: {}   Type: {}", name, type);
 
-        final String sql = sqlToRunForSmsEmailCampaign(name, type, queryParams);
+        final Map<String, String> values = new HashMap<>();
+        for (final Map.Entry<String, String> queryParam : queryParams.entrySet()) {
+            values.put("${" + queryParam.getKey() + "}", queryParam.getValue());
+        }
+        final ReportStatement statement = toStatement(getSqlTemplate(name, type), values);
 
-        final GenericResultsetData result = this.genericDataService.fillGenericResultSet(sql);
+        final GenericResultsetData result = fillGenericResultSet(statement);
 
         final long elapsed = System.currentTimeMillis() - startTime;
+        recordExecution(name, type, elapsed, result.getData().size());
         LOG.info("FINISHING Report/Request Name: {} - {}     Elapsed Time: {}", new Object[] { name, type, elapsed });
         return result;
     }
 
     @Override
     public String sqlToRunForSmsEmailCampaign(final String name, final String type, final Map<String, String> queryParams) {
-        String sql = getSql(name, type);
+        String sql = getSqlTemplate(name, type).getRawSql();
 
         final Set<String> keys = queryParams.keySet();
         for (String key : keys) {
@@ -604,4 +626,15 @@ public class ReadReportingServiceImpl implements ReadReportingService {
             throw new SQLInjectionException();
         }
     }
+
+    private static final class ReportStatement {
+
+        private final String sql;
+        private final Object[] args;
+
+        ReportStatement(final String sql, final Object[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+    }
 }
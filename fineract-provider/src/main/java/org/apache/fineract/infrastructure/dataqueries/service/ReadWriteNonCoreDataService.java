@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.dataqueries.service;
 
 import java.util.List;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.dataqueries.data.DatatableData;
@@ -45,6 +46,13 @@ public interface ReadWriteNonCoreDataService {
 
     GenericResultsetData retrieveDataTableGenericResultSet(String datatable, Long appTableId, String order, Long id);
 
+    /**
+     * Reads the entries of a datatable for many application table rows at once, e.g. all clients of a center. The
+     * application table ids are passed as an <code>apptableIds</code> JSON array. Data scoping is checked for all ids
+     * before anything is written; the rows are then streamed as JSON, ordered by application table id.
+     */
+    StreamingOutput retrieveDataTableEntries(String datatable, String json, String order);
+
     CommandProcessingResult createDatatable(JsonCommand command);
 
     void updateDatatable(String datatableName, JsonCommand command);
@@ -24,17 +24,24 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import javax.persistence.PersistenceException;
 import javax.sql.DataSource;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -111,6 +118,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
     private final DataTableValidator dataTableValidator;
     private final ColumnValidator columnValidator;
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final DatatableMetadataCache datatableMetadataCache;
 
     // private final GlobalConfigurationWritePlatformServiceJpaRepositoryImpl
     // configurationWriteService;
@@ -120,7 +128,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             final FromJsonHelper fromJsonHelper, final GenericDataService genericDataService,
             final DatatableCommandFromApiJsonDeserializer fromApiJsonDeserializer, final CodeReadPlatformService codeReadPlatformService,
             final ConfigurationDomainService configurationDomainService, final DataTableValidator dataTableValidator,
-            final ColumnValidator columnValidator) {
+            final ColumnValidator columnValidator, final DatatableMetadataCache datatableMetadataCache) {
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.context = context;
@@ -134,6 +142,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         this.columnValidator = columnValidator;
         // this.configurationWriteService = configurationWriteService;
         this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.datatableMetadataCache = datatableMetadataCache;
     }
 
     @Override
@@ -249,6 +258,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         validateAppTable(applicationTableName);
         validateDatatableName(dataTableName);
         assertDataTableExists(dataTableName);
+        this.datatableMetadataCache.evict();
 
         Map<String, Object> paramMap = new HashMap<>(3);
         final String registerDatatableSql = "insert into x_registered_table (registered_table_name, application_table_name,category) values ( :dataTableName, :applicationTableName, :category)";
@@ -362,6 +372,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         sqlArray[3] = deleteFromConfigurationSql;
 
         this.jdbcTemplate.batchUpdate(sqlArray);
+        this.datatableMetadataCache.evict();
     }
 
     @Transactional
@@ -563,6 +574,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         try {
             this.context.authenticatedUser();
+            this.datatableMetadataCache.evict();
             this.fromApiJsonDeserializer.validateForCreate(command.json());
 
             final JsonElement element = this.fromJsonHelper.parse(command.json());
@@ -881,6 +893,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         try {
             this.context.authenticatedUser();
+            this.datatableMetadataCache.evict();
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
 
             final JsonElement element = this.fromJsonHelper.parse(command.json());
@@ -1061,6 +1074,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         try {
             this.context.authenticatedUser();
+            this.datatableMetadataCache.evict();
             if (!isRegisteredDataTable(datatableName)) {
                 throw new DatatableNotFoundException(datatableName);
             }
@@ -1241,6 +1255,81 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         return new GenericResultsetData(columnHeaders, result);
     }
 
+    @Override
+    public StreamingOutput retrieveDataTableEntries(final String dataTableName, final String json, final String order) {
+
+        final String appTable = queryForApplicationTableName(dataTableName);
+        final List<Long> appTableIds = extractAppTableIds(json);
+
+        checkMainResourcesExistWithinScope(appTable, appTableIds);
+
+        final List<ResultsetColumnHeaderData> columnHeaders = this.genericDataService.fillResultsetColumnHeaders(dataTableName);
+
+        final String fkField = getFKField(appTable);
+        String sql = "select * from `" + dataTableName + "` where " + fkField + " in ("
+                + StringUtils.repeat("?", ",", appTableIds.size()) + ")";
+        if (StringUtils.isNotBlank(order)) {
+            this.columnValidator.validateSqlInjection(sql, order);
+            sql = sql + " order by " + fkField + ", " + order;
+        } else {
+            sql = sql + " order by " + fkField;
+        }
+
+        final String entriesSql = sql;
+        final Object[] args = appTableIds.toArray();
+        return out -> {
+            final ResultsetRowWriter jsonWriter = new JsonResultsetRowWriter(
+                    new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            // rows are written with the datatable's own column headers, as for a single entity, so that code values
+            // and dates come out the same
+            this.genericDataService.writeGenericResultSet(entriesSql, args, new ResultsetRowWriter() {
+
+                @Override
+                public void writeColumnHeaders(final List<ResultsetColumnHeaderData> resultsetColumnHeaders) throws IOException {
+                    jsonWriter.writeColumnHeaders(columnHeaders);
+                }
+
+                @Override
+                public void writeRow(final List<String> row) throws IOException {
+                    jsonWriter.writeRow(row);
+                }
+
+                @Override
+                public void finish() throws IOException {
+                    jsonWriter.finish();
+                }
+            });
+        };
+    }
+
+    private List<Long> extractAppTableIds(final String json) {
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+        final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors).resource("datatable");
+
+        final JsonElement element = StringUtils.isBlank(json) ? null : this.fromJsonHelper.parse(json);
+        final JsonArray array = element == null || !element.isJsonObject() ? null
+                : this.fromJsonHelper.extractJsonArrayNamed(DataTableApiConstant.apptableIdsParamName, element);
+        final Set<Long> appTableIds = new LinkedHashSet<>();
+        if (array != null) {
+            for (final JsonElement appTableId : array) {
+                if (appTableId.isJsonPrimitive() && appTableId.getAsJsonPrimitive().isNumber()) {
+                    appTableIds.add(appTableId.getAsLong());
+                } else {
+                    baseDataValidator.reset().parameter(DataTableApiConstant.apptableIdsParamName).value(appTableId.toString())
+                            .failWithCode("not.a.number");
+                }
+            }
+        }
+        baseDataValidator.reset().parameter(DataTableApiConstant.apptableIdsParamName).value(array).notNull();
+        if (array != null) {
+            baseDataValidator.reset().parameter(DataTableApiConstant.apptableIdsParamName).value(appTableIds.size())
+                    .integerGreaterThanZero().notGreaterThanMax(DataTableApiConstant.MAX_BULK_READ_APPTABLE_IDS);
+        }
+        throwExceptionIfValidationWarningsExist(dataValidationErrors);
+
+        return new ArrayList<>(appTableIds);
+    }
+
     private GenericResultsetData retrieveDataTableGenericResultSetForUpdate(final String appTable, final String dataTableName,
             final Long appTableId, final Long id) {
 
@@ -1265,7 +1354,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     private CommandProcessingResult checkMainResourceExistsWithinScope(final String appTable, final Long appTableId) {
 
-        final String sql = dataScopedSQL(appTable, appTableId);
+        final String sql = dataScopedSQL(appTable, "= " + appTableId);
         LOG.info("data scoped sql: {}", sql);
         final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
 
@@ -1293,6 +1382,43 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
                 .build();
     }
 
+    private void checkMainResourcesExistWithinScope(final String appTable, final List<Long> appTableIds) {
+
+        final String sql = dataScopedSQL(appTable, "in (" + StringUtils.join(appTableIds, ",") + ")");
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
+
+        final String idColumn = dataScopedIdColumn(appTable);
+        final Set<Long> appTableIdsInScope = new HashSet<>();
+        while (rs.next()) {
+            appTableIdsInScope.add(rs.getLong(idColumn));
+        }
+
+        for (final Long appTableId : appTableIds) {
+            if (!appTableIdsInScope.contains(appTableId)) {
+                throw new DatatableNotFoundException(appTable, appTableId);
+            }
+        }
+    }
+
+    private String dataScopedIdColumn(final String appTable) {
+        if (appTable.equalsIgnoreCase("m_loan")) {
+            return "loanId";
+        }
+        if (appTable.equalsIgnoreCase("m_savings_account")) {
+            return "savingsId";
+        }
+        if (appTable.equalsIgnoreCase("m_client")) {
+            return "clientId";
+        }
+        if (appTable.equalsIgnoreCase("m_group") || appTable.equalsIgnoreCase("m_center")) {
+            return "groupId";
+        }
+        if (appTable.equalsIgnoreCase("m_office")) {
+            return "officeId";
+        }
+        return "entityId";
+    }
+
     private Long getLongSqlRowSet(final SqlRowSet rs, final String column) {
         Long val = rs.getLong(column);
         if (val == 0) {
@@ -1301,7 +1427,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         return val;
     }
 
-    private String dataScopedSQL(final String appTable, final Long appTableId) {
+    private String dataScopedSQL(final String appTable, final String appTableIdCondition) {
         /*
          * unfortunately have to, one way or another, be able to restrict data to the users office hierarchy. Here, a
          * few key tables are done. But if additional fields are needed on other tables the same pattern applies
@@ -1317,38 +1443,38 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             scopedSQL = "select  distinctrow x.* from ("
                     + " (select o.id as officeId, l.group_id as groupId, l.client_id as clientId, null as savingsId, l.id as loanId, null as entityId from m_loan l "
                     + " join m_client c on c.id = l.client_id " + " join m_office o on o.id = c.office_id and o.hierarchy like '"
-                    + currentUser.getOffice().getHierarchy() + "%'" + " where l.id = " + appTableId + ")" + " union all "
+                    + currentUser.getOffice().getHierarchy() + "%'" + " where l.id " + appTableIdCondition + ")" + " union all "
                     + " (select o.id as officeId, l.group_id as groupId, l.client_id as clientId, null as savingsId, l.id as loanId, null as entityId from m_loan l "
                     + " join m_group g on g.id = l.group_id " + " join m_office o on o.id = g.office_id and o.hierarchy like '"
-                    + currentUser.getOffice().getHierarchy() + "%'" + " where l.id = " + appTableId + ")" + " ) x";
+                    + currentUser.getOffice().getHierarchy() + "%'" + " where l.id " + appTableIdCondition + ")" + " ) x";
         }
         if (appTable.equalsIgnoreCase("m_savings_account")) {
             scopedSQL = "select  distinctrow x.* from ("
                     + " (select o.id as officeId, s.group_id as groupId, s.client_id as clientId, s.id as savingsId, null as loanId, null as entityId from m_savings_account s "
                     + " join m_client c on c.id = s.client_id " + " join m_office o on o.id = c.office_id and o.hierarchy like '"
-                    + currentUser.getOffice().getHierarchy() + "%'" + " where s.id = " + appTableId + ")" + " union all "
+                    + currentUser.getOffice().getHierarchy() + "%'" + " where s.id " + appTableIdCondition + ")" + " union all "
                     + " (select o.id as officeId, s.group_id as groupId, s.client_id as clientId, s.id as savingsId, null as loanId, null as entityId from m_savings_account s "
                     + " join m_group g on g.id = s.group_id " + " join m_office o on o.id = g.office_id and o.hierarchy like '"
-                    + currentUser.getOffice().getHierarchy() + "%'" + " where s.id = " + appTableId + ")" + " ) x";
+                    + currentUser.getOffice().getHierarchy() + "%'" + " where s.id " + appTableIdCondition + ")" + " ) x";
         }
         if (appTable.equalsIgnoreCase("m_client")) {
             scopedSQL = "select o.id as officeId, null as groupId, c.id as clientId, null as savingsId, null as loanId, null as entityId from m_client c "
                     + " join m_office o on o.id = c.office_id and o.hierarchy like '" + currentUser.getOffice().getHierarchy() + "%'"
-                    + " where c.id = " + appTableId;
+                    + " where c.id " + appTableIdCondition;
         }
         if (appTable.equalsIgnoreCase("m_group") || appTable.equalsIgnoreCase("m_center")) {
             scopedSQL = "select o.id as officeId, g.id as groupId, null as clientId, null as savingsId, null as loanId, null as entityId from m_group g "
                     + " join m_office o on o.id = g.office_id and o.hierarchy like '" + currentUser.getOffice().getHierarchy() + "%'"
-                    + " where g.id = " + appTableId;
+                    + " where g.id " + appTableIdCondition;
         }
         if (appTable.equalsIgnoreCase("m_office")) {
             scopedSQL = "select o.id as officeId, null as groupId, null as clientId, null as savingsId, null as loanId, null as entityId from m_office o "
-                    + " where o.hierarchy like '" + currentUser.getOffice().getHierarchy() + "%'" + " and o.id = " + appTableId;
+                    + " where o.hierarchy like '" + currentUser.getOffice().getHierarchy() + "%'" + " and o.id " + appTableIdCondition;
         }
 
         if (appTable.equalsIgnoreCase("m_product_loan") || appTable.equalsIgnoreCase("m_savings_product")) {
             scopedSQL = "select null as officeId, null as groupId, null as clientId, null as savingsId, null as loanId, p.id as entityId from "
-                    + appTable + " as p WHERE p.id = " + appTableId;
+                    + appTable + " as p WHERE p.id " + appTableIdCondition;
         }
 
         if (scopedSQL == null) {
@@ -1423,6 +1549,10 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     private String queryForApplicationTableName(final String datatable) {
         SQLInjectionValidator.validateSQLInput(datatable);
+        return this.datatableMetadataCache.getApplicationTableName(datatable, this::retrieveApplicationTableName);
+    }
+
+    private String retrieveApplicationTableName(final String datatable) {
         final String sql = "SELECT application_table_name FROM x_registered_table where registered_table_name = '" + datatable + "'";
 
         final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
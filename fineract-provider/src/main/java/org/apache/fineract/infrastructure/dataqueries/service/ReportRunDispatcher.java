@@ -0,0 +1,384 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportRunData;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepository;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.apache.fineract.infrastructure.documentmanagement.domain.StorageType;
+import org.apache.fineract.infrastructure.documentmanagement.exception.ContentManagementException;
+import org.apache.fineract.infrastructure.report.provider.ReportingProcessServiceProvider;
+import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.apache.fineract.useradministration.exception.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Executes stretchy reports outside of the request that asked for them and spools their output as a gzip file to the
+ * document content repository of the tenant.
+ *
+ * Runs submitted over the API are queued in <code>m_report_run</code> and executed on a fixed pool of threads shared by
+ * all tenants, as the user who submitted them. On each node a tenant gets at most {@link #MAX_RUNS_PER_TENANT} runs at a
+ * time and a report at most {@link #MAX_RUNS_PER_REPORT}; runs over these limits wait in the queue. A sweep every few
+ * seconds picks up runs left behind by a full pool or submitted on another node, keeps the runs of this node from being
+ * taken as stalled and removes runs, and their files, older than {@link #RETENTION_DAYS} days.
+ *
+ * Scheduled jobs that need a report file, such as report mailing, execute the report in their own thread with
+ * {@link #runNow(String, String, Map, AppUser)}, which waits for the same limits.
+ */
+@Service
+public class ReportRunDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReportRunDispatcher.class);
+
+    private static final int RUN_THREADS = 8;
+    private static final int MAX_QUEUED_TASKS = 1000;
+    static final int MAX_RUNS_PER_TENANT = 2;
+    static final int MAX_RUNS_PER_REPORT = 1;
+    private static final int CLAIM_CANDIDATES = 20;
+    static final int RETENTION_DAYS = 7;
+    private static final int EXPIRED_RUN_BATCH_SIZE = 100;
+    private static final long SWEEP_INTERVAL_SECONDS = 30;
+
+    private final ReportRunWritePlatformService reportRunWritePlatformService;
+    private final ReportRunReadPlatformService reportRunReadPlatformService;
+    private final ReadReportingService readReportingService;
+    private final ReportingProcessServiceProvider reportingProcessServiceProvider;
+    private final ContentRepositoryFactory contentRepositoryFactory;
+    private final AppUserRepository appUserRepository;
+    private final TenantDetailsService tenantDetailsService;
+    private final TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
+
+    private final ConcurrentMap<String, TenantRuns> tenantRuns = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor runExecutor;
+    private ScheduledExecutorService sweepExecutor;
+
+    @Autowired
+    public ReportRunDispatcher(final ReportRunWritePlatformService reportRunWritePlatformService,
+            final ReportRunReadPlatformService reportRunReadPlatformService, final ReadReportingService readReportingService,
+            final ReportingProcessServiceProvider reportingProcessServiceProvider, final ContentRepositoryFactory contentRepositoryFactory,
+            final AppUserRepository appUserRepository, final TenantDetailsService tenantDetailsService,
+            final TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
+        this.reportRunWritePlatformService = reportRunWritePlatformService;
+        this.reportRunReadPlatformService = reportRunReadPlatformService;
+        this.readReportingService = readReportingService;
+        this.reportingProcessServiceProvider = reportingProcessServiceProvider;
+        this.contentRepositoryFactory = contentRepositoryFactory;
+        this.appUserRepository = appUserRepository;
+        this.tenantDetailsService = tenantDetailsService;
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
+    }
+
+    @PostConstruct
+    public void start() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.runExecutor = new ThreadPoolExecutor(RUN_THREADS, RUN_THREADS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_TASKS), runnable -> {
+                    final Thread thread = new Thread(runnable, "report-run-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.runExecutor.allowCoreThreadTimeOut(true);
+        this.sweepExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "report-run-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweepExecutor.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.sweepExecutor.shutdownNow();
+        // runs cut short here are failed by the sweep of another node once they stall
+        this.runExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues a run of the report for the given user and returns its id.
+     */
+    public Long submit(final String reportName, final String reportType, final String outputType, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport, final AppUser runAsUser) {
+        validate(reportName, reportType, outputType, isSelfServiceUserReport);
+        final Long reportRunId = this.reportRunWritePlatformService.enqueue(reportName, reportType, outputType, isSelfServiceUserReport,
+                queryParams, runAsUser.getId());
+        scheduleDrain(ThreadLocalContextUtil.getTenant());
+        return reportRunId;
+    }
+
+    /**
+     * Executes a run of the report in the calling thread, once the limits of the tenant and the report allow it.
+     *
+     * @return the run as completed or failed
+     */
+    public ReportRunData runNow(final String reportName, final String outputType, final Map<String, String> queryParams,
+            final AppUser runAsUser) {
+        final String reportType = ReportRunConstants.REPORT_TYPE_REPORT;
+        validate(reportName, reportType, outputType, false);
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final TenantRuns runs = tenantRuns(tenant);
+        final Semaphore reportSlots = runs.reportSlots(reportName);
+        try {
+            runs.slots.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlatformDataIntegrityException("error.msg.report.run.interrupted", "Interrupted while waiting to run report",
+                    reportName, e);
+        }
+        try {
+            reportSlots.acquireUninterruptibly();
+            try {
+                final Long reportRunId = this.reportRunWritePlatformService.createRunning(reportName, reportType, outputType, false,
+                        queryParams, runAsUser.getId());
+                final ReportRunData run = new ReportRunData(reportRunId, reportName, reportType, outputType, false, queryParams,
+                        ReportRunConstants.STATUS_RUNNING, runAsUser.getId(), null, null, null, null, null, null, null, null);
+                return execute(runs, run);
+            } finally {
+                reportSlots.release();
+            }
+        } finally {
+            runs.slots.release();
+            if (runs.pending.get()) {
+                scheduleDrain(tenant);
+            }
+        }
+    }
+
+    private void validate(final String reportName, final String reportType, final String outputType,
+            final boolean isSelfServiceUserReport) {
+        if (!ReportRunConstants.OUTPUT_TYPE_CSV.equals(outputType) && !ReportRunConstants.OUTPUT_TYPE_JSON.equals(outputType)) {
+            throw new PlatformDataIntegrityException("error.msg.report.run.output.type.invalid",
+                    "Report runs can be written as CSV or JSON only", "outputType", outputType);
+        }
+        if (ReportRunConstants.REPORT_TYPE_REPORT.equals(reportType)) {
+            final String type = this.readReportingService.getReportType(reportName, isSelfServiceUserReport);
+            if (this.reportingProcessServiceProvider.findReportingProcessService(type) != null) {
+                throw new PlatformDataIntegrityException("error.msg.report.run.type.not.supported",
+                        "Only stretchy reports can be run asynchronously", "reportName", reportName);
+            }
+        }
+    }
+
+    private void scheduleDrain(final FineractPlatformTenant tenant) {
+        final TenantRuns runs = tenantRuns(tenant);
+        runs.pending.set(true);
+        if (!runs.slots.tryAcquire()) {
+            // a running drain of the tenant goes round once more
+            return;
+        }
+        try {
+            this.runExecutor.execute(() -> runForTenant(tenant, () -> drain(tenant, runs)));
+        } catch (final RejectedExecutionException e) {
+            // the runs stay queued for the next sweep
+            runs.slots.release();
+        }
+    }
+
+    private void drain(final FineractPlatformTenant tenant, final TenantRuns runs) {
+        try {
+            while (runs.pending.getAndSet(false)) {
+                ReportRunData run;
+                while ((run = claimNext(runs)) != null) {
+                    try {
+                        execute(runs, run);
+                    } finally {
+                        runs.reportSlots(run.getReportName()).release();
+                    }
+                }
+            }
+        } catch (final RuntimeException e) {
+            LOG.error("{}: executing queued report runs failed", tenant.getName(), e);
+        } finally {
+            runs.slots.release();
+        }
+        if (runs.pending.get()) {
+            scheduleDrain(tenant);
+        }
+    }
+
+    private ReportRunData claimNext(final TenantRuns runs) {
+        for (final ReportRunData run : this.reportRunWritePlatformService.retrieveQueuedRuns(CLAIM_CANDIDATES)) {
+            final Semaphore reportSlots = runs.reportSlots(run.getReportName());
+            if (!reportSlots.tryAcquire()) {
+                // the drain running this report picks the run up when it is done
+                continue;
+            }
+            if (this.reportRunWritePlatformService.claim(run.getId())) {
+                return run;
+            }
+            reportSlots.release();
+        }
+        return null;
+    }
+
+    private ReportRunData execute(final TenantRuns runs, final ReportRunData run) {
+        final long startTime = System.currentTimeMillis();
+        runs.activeRunIds.add(run.getId());
+        final SecurityContext previousContext = SecurityContextHolder.getContext();
+        File spool = null;
+        try {
+            final AppUser runAsUser = this.appUserRepository.findById(run.getRunAsUserId())
+                    .orElseThrow(() -> new UserNotFoundException(run.getRunAsUserId()));
+            if (ReportRunConstants.REPORT_TYPE_REPORT.equals(run.getReportType())
+                    && runAsUser.hasNotPermissionForReport(run.getReportName())) {
+                throw new NoAuthorizationException("Not authorised to run report: " + run.getReportName());
+            }
+            final SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(
+                    new UsernamePasswordAuthenticationToken(runAsUser, runAsUser.getPassword(), runAsUser.getAuthorities()));
+            SecurityContextHolder.setContext(context);
+
+            spool = File.createTempFile("report-run-" + run.getId() + "-", ".gz");
+            final long rowCount;
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(spool)), StandardCharsets.UTF_8))) {
+                rowCount = this.readReportingService.writeReport(run.getReportName(), run.getReportType(), run.getReportParameters(),
+                        run.isSelfServiceUserReport(), newRowWriter(run.getOutputType(), writer));
+            }
+
+            final ContentRepository contentRepository = this.contentRepositoryFactory.getRepository();
+            final String location;
+            try (InputStream content = new FileInputStream(spool)) {
+                location = contentRepository.saveReportRunFile(content, spool.length(), run.getId(), run.getFileName());
+            }
+            this.reportRunWritePlatformService.markCompleted(run.getId(), rowCount, spool.length(), contentRepository.getStorageType(),
+                    location);
+            LOG.info("{}: report run {} of {} completed with {} rows in {} ms", ThreadLocalContextUtil.getTenant().getName(), run.getId(),
+                    run.getReportName(), rowCount, System.currentTimeMillis() - startTime);
+        } catch (final IOException | RuntimeException e) {
+            LOG.error("{}: report run {} of {} failed", ThreadLocalContextUtil.getTenant().getName(), run.getId(), run.getReportName(), e);
+            this.reportRunWritePlatformService.markFailed(run.getId(), e.toString());
+        } finally {
+            SecurityContextHolder.setContext(previousContext);
+            if (spool != null && !spool.delete()) {
+                LOG.warn("Unable to delete report spool file {}", spool);
+            }
+            runs.activeRunIds.remove(run.getId());
+        }
+        return this.reportRunReadPlatformService.retrieveReportRun(run.getId());
+    }
+
+    private static ResultsetRowWriter newRowWriter(final String outputType, final Writer writer) {
+        if (ReportRunConstants.OUTPUT_TYPE_JSON.equals(outputType)) {
+            return new JsonResultsetRowWriter(writer);
+        }
+        return new CsvResultsetRowWriter(writer);
+    }
+
+    private void sweep() {
+        try {
+            for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+                if (!this.tenantDatabaseUpgradeService.isTenantReady(tenant.getTenantIdentifier())) {
+                    continue;
+                }
+                runForTenant(tenant, () -> {
+                    final TenantRuns runs = tenantRuns(tenant);
+                    this.reportRunWritePlatformService.touch(new ArrayList<>(runs.activeRunIds));
+                    final int failed = this.reportRunWritePlatformService.failStalledRuns();
+                    if (failed > 0) {
+                        LOG.warn("{}: failed {} stalled report runs", tenant.getName(), failed);
+                    }
+                    if (this.reportRunWritePlatformService.hasQueuedRuns()) {
+                        scheduleDrain(tenant);
+                    }
+                    removeExpiredRuns(tenant);
+                });
+            }
+        } catch (final RuntimeException e) {
+            LOG.error("Sweeping the report run queues failed", e);
+        }
+    }
+
+    private void removeExpiredRuns(final FineractPlatformTenant tenant) {
+        for (final ReportRunData run : this.reportRunWritePlatformService.retrieveExpiredRuns(RETENTION_DAYS, EXPIRED_RUN_BATCH_SIZE)) {
+            if (run.getLocation() != null) {
+                try {
+                    this.contentRepositoryFactory.getRepository(StorageType.fromInt(run.getStorageType())).deleteFile(run.getFileName(),
+                            run.getLocation());
+                } catch (final ContentManagementException e) {
+                    LOG.warn("{}: unable to delete the file of report run {} at {}", tenant.getName(), run.getId(), run.getLocation());
+                }
+            }
+            this.reportRunWritePlatformService.delete(run.getId());
+        }
+    }
+
+    private TenantRuns tenantRuns(final FineractPlatformTenant tenant) {
+        return this.tenantRuns.computeIfAbsent(tenant.getTenantIdentifier(), key -> new TenantRuns());
+    }
+
+    private static void runForTenant(final FineractPlatformTenant tenant, final Runnable task) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            task.run();
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private static final class TenantRuns {
+
+        private final Semaphore slots = new Semaphore(MAX_RUNS_PER_TENANT);
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final ConcurrentMap<String, Semaphore> reportSlots = new ConcurrentHashMap<>();
+        private final Set<Long> activeRunIds = ConcurrentHashMap.newKeySet();
+
+        Semaphore reportSlots(final String reportName) {
+            return this.reportSlots.computeIfAbsent(reportName, key -> new Semaphore(MAX_RUNS_PER_REPORT));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import com.google.gson.Gson;
+import java.io.InputStream;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportRunData;
+import org.apache.fineract.infrastructure.dataqueries.exception.ReportRunNotFoundException;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunWritePlatformServiceImpl.ReportRunMapper;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.apache.fineract.infrastructure.documentmanagement.domain.StorageType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ReportRunReadPlatformServiceImpl implements ReportRunReadPlatformService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentRepositoryFactory contentRepositoryFactory;
+    private final ReportRunMapper reportRunMapper = new ReportRunMapper(new Gson());
+
+    @Autowired
+    public ReportRunReadPlatformServiceImpl(final RoutingDataSource dataSource, final ContentRepositoryFactory contentRepositoryFactory) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.contentRepositoryFactory = contentRepositoryFactory;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReportRunData retrieveReportRun(final Long reportRunId) {
+        final List<ReportRunData> reportRuns = this.jdbcTemplate.query("select " + this.reportRunMapper.schema() + " where r.id = ?",
+                this.reportRunMapper, reportRunId);
+        if (reportRuns.isEmpty()) {
+            throw new ReportRunNotFoundException(reportRunId);
+        }
+        return reportRuns.get(0);
+    }
+
+    @Override
+    public InputStream retrieveReportRunFile(final ReportRunData reportRun, final long firstByte, final long lastByte) {
+        return this.contentRepositoryFactory.getRepository(StorageType.fromInt(reportRun.getStorageType()))
+                .fetchFileRange(reportRun.getLocation(), firstByte, lastByte);
+    }
+}
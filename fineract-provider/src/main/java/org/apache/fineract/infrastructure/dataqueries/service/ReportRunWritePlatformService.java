@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportRunData;
+import org.apache.fineract.infrastructure.documentmanagement.domain.StorageType;
+
+/**
+ * Maintains the <code>m_report_run</code> queue of asynchronous report runs of the current tenant.
+ *
+ * A queued run is claimed by moving it to the running status with a conditional update, so that several application
+ * nodes can work on the same tenant without executing a run twice. The node executing a run keeps touching it; a
+ * running run that has not been touched for a while is taken to belong to a node that went away and is failed.
+ */
+public interface ReportRunWritePlatformService {
+
+    Long enqueue(String reportName, String reportType, String outputType, boolean isSelfServiceUserReport,
+            Map<String, String> reportParameters, Long runAsUserId);
+
+    /**
+     * Records a run that is executed straight away by the caller instead of going through the queue.
+     */
+    Long createRunning(String reportName, String reportType, String outputType, boolean isSelfServiceUserReport,
+            Map<String, String> reportParameters, Long runAsUserId);
+
+    boolean hasQueuedRuns();
+
+    List<ReportRunData> retrieveQueuedRuns(int limit);
+
+    boolean claim(Long reportRunId);
+
+    void markCompleted(Long reportRunId, long rowCount, long fileSize, StorageType storageType, String location);
+
+    void markFailed(Long reportRunId, String error);
+
+    void touch(Collection<Long> reportRunIds);
+
+    int failStalledRuns();
+
+    List<ReportRunData> retrieveExpiredRuns(int retentionDays, int limit);
+
+    void delete(Long reportRunId);
+}
@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.apache.fineract.infrastructure.dataqueries.service.ReportRunConstants.STATUS_COMPLETED;
+import static org.apache.fineract.infrastructure.dataqueries.service.ReportRunConstants.STATUS_FAILED;
+import static org.apache.fineract.infrastructure.dataqueries.service.ReportRunConstants.STATUS_QUEUED;
+import static org.apache.fineract.infrastructure.dataqueries.service.ReportRunConstants.STATUS_RUNNING;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportRunData;
+import org.apache.fineract.infrastructure.documentmanagement.domain.StorageType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ReportRunWritePlatformServiceImpl implements ReportRunWritePlatformService {
+
+    private static final int STALLED_RUN_MINUTES = 5;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final Type REPORT_PARAMETERS_TYPE = new TypeToken<Map<String, String>>() {}.getType();
+
+    private static final String INSERT_RUN_SQL = "insert into m_report_run (report_name, report_type, output_type, "
+            + "is_self_service_user_report, report_parameters, status, run_as_userid, submitted_date, started_date, lastmodified_date) "
+            + "values (?, ?, ?, ?, ?, ?, ?, NOW(), ?, NOW())";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final Gson gson = new Gson();
+
+    @Autowired
+    public ReportRunWritePlatformServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    @Transactional
+    public Long enqueue(final String reportName, final String reportType, final String outputType, final boolean isSelfServiceUserReport,
+            final Map<String, String> reportParameters, final Long runAsUserId) {
+        return insert(reportName, reportType, outputType, isSelfServiceUserReport, reportParameters, runAsUserId, STATUS_QUEUED);
+    }
+
+    @Override
+    @Transactional
+    public Long createRunning(final String reportName, final String reportType, final String outputType,
+            final boolean isSelfServiceUserReport, final Map<String, String> reportParameters, final Long runAsUserId) {
+        return insert(reportName, reportType, outputType, isSelfServiceUserReport, reportParameters, runAsUserId, STATUS_RUNNING);
+    }
+
+    private Long insert(final String reportName, final String reportType, final String outputType, final boolean isSelfServiceUserReport,
+            final Map<String, String> reportParameters, final Long runAsUserId, final String status) {
+        final String parameters = this.gson.toJson(reportParameters, REPORT_PARAMETERS_TYPE);
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(connection -> {
+            final PreparedStatement ps = connection.prepareStatement(INSERT_RUN_SQL, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, reportName);
+            ps.setString(2, reportType);
+            ps.setString(3, outputType);
+            ps.setBoolean(4, isSelfServiceUserReport);
+            ps.setString(5, parameters);
+            ps.setString(6, status);
+            ps.setLong(7, runAsUserId);
+            ps.setTimestamp(8, STATUS_RUNNING.equals(status) ? new Timestamp(System.currentTimeMillis()) : null);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasQueuedRuns() {
+        return !this.jdbcTemplate.queryForList("select id from m_report_run where status = ? limit 1", Long.class, STATUS_QUEUED)
+                .isEmpty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReportRunData> retrieveQueuedRuns(final int limit) {
+        final ReportRunMapper rm = new ReportRunMapper(this.gson);
+        return this.jdbcTemplate.query("select " + rm.schema() + " where r.status = ? order by r.id limit ?", rm, STATUS_QUEUED, limit);
+    }
+
+    @Override
+    @Transactional
+    public boolean claim(final Long reportRunId) {
+        return this.jdbcTemplate.update("update m_report_run set status = ?, started_date = NOW(), lastmodified_date = NOW() "
+                + "where id = ? and status = ?", STATUS_RUNNING, reportRunId, STATUS_QUEUED) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void markCompleted(final Long reportRunId, final long rowCount, final long fileSize, final StorageType storageType,
+            final String location) {
+        this.jdbcTemplate.update("update m_report_run set status = ?, row_count = ?, file_size = ?, storage_type_enum = ?, location = ?, "
+                + "completed_date = NOW(), lastmodified_date = NOW() where id = ?", STATUS_COMPLETED, rowCount, fileSize,
+                storageType.getValue(), location, reportRunId);
+    }
+
+    @Override
+    @Transactional
+    public void markFailed(final Long reportRunId, final String error) {
+        this.jdbcTemplate.update("update m_report_run set status = ?, error_message = ?, completed_date = NOW(), lastmodified_date = NOW() "
+                + "where id = ?", STATUS_FAILED, StringUtils.abbreviate(error, MAX_ERROR_LENGTH), reportRunId);
+    }
+
+    @Override
+    @Transactional
+    public void touch(final Collection<Long> reportRunIds) {
+        if (reportRunIds.isEmpty()) {
+            return;
+        }
+        final MapSqlParameterSource parameters = new MapSqlParameterSource("ids", reportRunIds).addValue("status", STATUS_RUNNING);
+        this.namedParameterJdbcTemplate
+                .update("update m_report_run set lastmodified_date = NOW() where id in (:ids) and status = :status", parameters);
+    }
+
+    @Override
+    @Transactional
+    public int failStalledRuns() {
+        return this.jdbcTemplate.update("update m_report_run set status = ?, error_message = ?, completed_date = NOW(), "
+                + "lastmodified_date = NOW() where status = ? and lastmodified_date < DATE_SUB(NOW(), INTERVAL ? MINUTE)", STATUS_FAILED,
+                "The node executing the report run stopped", STATUS_RUNNING, STALLED_RUN_MINUTES);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReportRunData> retrieveExpiredRuns(final int retentionDays, final int limit) {
+        final ReportRunMapper rm = new ReportRunMapper(this.gson);
+        return this.jdbcTemplate.query("select " + rm.schema() + " where r.status in (?, ?) "
+                + "and r.completed_date < DATE_SUB(NOW(), INTERVAL ? DAY) order by r.id limit ?", rm, STATUS_COMPLETED, STATUS_FAILED,
+                retentionDays, limit);
+    }
+
+    @Override
+    @Transactional
+    public void delete(final Long reportRunId) {
+        this.jdbcTemplate.update("delete from m_report_run where id = ?", reportRunId);
+    }
+
+    static final class ReportRunMapper implements RowMapper<ReportRunData> {
+
+        private final Gson gson;
+
+        ReportRunMapper(final Gson gson) {
+            this.gson = gson;
+        }
+
+        public String schema() {
+            return " r.id as id, r.report_name as reportName, r.report_type as reportType, r.output_type as outputType, "
+                    + "r.is_self_service_user_report as isSelfServiceUserReport, r.report_parameters as reportParameters, "
+                    + "r.status as status, r.run_as_userid as runAsUserId, r.row_count as rowCount, r.file_size as fileSize, "
+                    + "r.storage_type_enum as storageType, r.location as location, r.error_message as errorMessage, "
+                    + "r.submitted_date as submittedDate, r.started_date as startedDate, r.completed_date as completedDate "
+                    + "from m_report_run r";
+        }
+
+        @Override
+        public ReportRunData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Map<String, String> reportParameters = this.gson.fromJson(rs.getString("reportParameters"), REPORT_PARAMETERS_TYPE);
+            return new ReportRunData(rs.getLong("id"), rs.getString("reportName"), rs.getString("reportType"), rs.getString("outputType"),
+                    rs.getBoolean("isSelfServiceUserReport"), reportParameters, rs.getString("status"), rs.getLong("runAsUserId"),
+                    JdbcSupport.getLong(rs, "rowCount"), JdbcSupport.getLong(rs, "fileSize"), JdbcSupport.getInteger(rs, "storageType"),
+                    rs.getString("location"), rs.getString("errorMessage"), rs.getTimestamp("submittedDate"),
+                    rs.getTimestamp("startedDate"), rs.getTimestamp("completedDate"));
+        }
+    }
+}
@@ -0,0 +1,398 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The SQL of a stretchy report or parameter, parsed once into a statement with positional bind parameters so the
+ * statement text stays the same from one run to the next.
+ *
+ * Every <code>${name}</code> placeholder becomes a <code>?</code>. A placeholder inside a quoted literal is bound as
+ * text, and any other text of that literal is kept around it with <code>concat()</code>; a bare placeholder is bound as a
+ * number. Runs fall back to substituting the values into the text when that would change the meaning of the SQL: for a
+ * placeholder inside an identifier or a comment, and for a bare placeholder whose value is not a number.
+ *
+ * Two positions keep their placeholder in the statement and have the value substituted into it on each run, once it
+ * has been validated: a bare placeholder that is a whole item of an <code>ORDER BY</code> or <code>GROUP BY</code>,
+ * where a number is a column position rather than a constant and must be digits only, and a placeholder inside a
+ * literal that takes no bind parameter, such as <code>DATE '${x}'</code> or <code>_utf8'${x}'</code>, where the value
+ * must not contain quotes or backslashes. A run with any other value falls back to substitution.
+ */
+final class ReportSqlTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{[a-zA-Z0-9_]+\\}");
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+    private static final Pattern COLUMN_POSITION = Pattern.compile("\\d+");
+    private static final Pattern LITERAL_TEXT = Pattern.compile("[^'\"\\\\]*");
+    private static final int MAX_LONG_DIGITS = 18;
+    // keywords that end an ORDER BY or GROUP BY list at the same nesting level
+    private static final Set<String> END_OF_LIST_KEYWORDS = new HashSet<>(
+            Arrays.asList("having", "limit", "union", "window", "for", "lock", "into", "procedure"));
+    // keywords that make the literal after them a typed literal, which cannot be a bind parameter
+    private static final Set<String> TYPED_LITERAL_KEYWORDS = new HashSet<>(Arrays.asList("date", "time", "timestamp"));
+
+    private final String rawSql;
+    private final String sql;
+    private final List<Placeholder> placeholders;
+    private final boolean substituted;
+    private final long compiledAt;
+
+    private ReportSqlTemplate(final String rawSql, final String sql, final List<Placeholder> placeholders) {
+        this.rawSql = rawSql;
+        this.sql = sql;
+        this.placeholders = Collections.unmodifiableList(placeholders);
+        this.substituted = placeholders.stream().anyMatch(placeholder -> placeholder.substituted);
+        this.compiledAt = System.currentTimeMillis();
+    }
+
+    static ReportSqlTemplate compile(final String rawSql) {
+        final StringBuilder sql = new StringBuilder(rawSql.length());
+        final List<Placeholder> placeholders = new ArrayList<>();
+        final Matcher placeholder = PLACEHOLDER.matcher(rawSql);
+        final int length = rawSql.length();
+        boolean bindable = true;
+        int depth = 0;
+        // nesting level of the ORDER BY or GROUP BY list being read, -1 outside of one
+        int listDepth = -1;
+        String lastWord = null;
+        int i = 0;
+        while (i < length) {
+            final char c = rawSql.charAt(i);
+            if (c == '\'' || c == '"') {
+                final int end = endOfLiteral(rawSql, i);
+                if (isTypedLiteralAt(rawSql, i)) {
+                    bindable &= appendTypedLiteral(rawSql, i, end, sql, placeholders);
+                } else {
+                    bindable &= appendLiteral(rawSql, i, end, sql, placeholders);
+                }
+                i = end;
+            } else if (c == '`' || rawSql.startsWith("/*", i) || c == '#' || isLineCommentAt(rawSql, i)) {
+                // identifiers and comments are copied as they are, a placeholder in them can only be substituted
+                final int end = endOfUnbindable(rawSql, i);
+                bindable &= !containsPlaceholder(placeholder, i, end);
+                sql.append(rawSql, i, end);
+                i = end;
+            } else if (placeholder.region(i, length).lookingAt()) {
+                final int end = placeholder.end();
+                if (isIdentifierPart(rawSql, i - 1) || isIdentifierPart(rawSql, end)) {
+                    bindable = false;
+                }
+                if (depth == listDepth && isListItem(rawSql, i, end)) {
+                    placeholders.add(new Placeholder(placeholder.group(), false, true));
+                    sql.append(placeholder.group());
+                } else {
+                    placeholders.add(new Placeholder(placeholder.group(), false, false));
+                    sql.append('?');
+                }
+                i = end;
+            } else if (isWordPart(c) && !isIdentifierPart(rawSql, i - 1)) {
+                int end = i + 1;
+                while (end < length && isWordPart(rawSql.charAt(end))) {
+                    end++;
+                }
+                final String word = rawSql.substring(i, end);
+                if ("by".equalsIgnoreCase(word) && ("order".equalsIgnoreCase(lastWord) || "group".equalsIgnoreCase(lastWord))) {
+                    listDepth = depth;
+                } else if (depth == listDepth && END_OF_LIST_KEYWORDS.contains(word.toLowerCase(Locale.ROOT))) {
+                    listDepth = -1;
+                }
+                lastWord = word;
+                sql.append(word);
+                i = end;
+            } else {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                    if (depth < listDepth) {
+                        listDepth = -1;
+                    }
+                } else if (c == ';') {
+                    listDepth = -1;
+                }
+                sql.append(c);
+                i++;
+            }
+        }
+        return new ReportSqlTemplate(rawSql, bindable ? sql.toString() : null, placeholders);
+    }
+
+    /**
+     * Returns the bind parameters of the statement for the given placeholder values, keyed by <code>${name}</code>, or
+     * null when this run has to substitute the values into {@link #getRawSql()} instead.
+     */
+    Object[] bind(final Map<String, String> values) {
+        if (this.sql == null) {
+            return null;
+        }
+        final List<Object> args = new ArrayList<>(this.placeholders.size());
+        for (final Placeholder placeholder : this.placeholders) {
+            final String value = values.get(placeholder.name);
+            if (placeholder.substituted) {
+                if (!placeholder.accepts(value)) {
+                    return null;
+                }
+            } else if (placeholder.quoted) {
+                // a placeholder without a value is left in the text by substitution, so it is bound as it is written
+                args.add(value == null ? placeholder.name : value);
+            } else if (value != null && NUMBER.matcher(value).matches()) {
+                args.add(value.indexOf('.') < 0 && value.length() <= MAX_LONG_DIGITS ? (Object) Long.valueOf(value)
+                        : new BigDecimal(value));
+            } else {
+                return null;
+            }
+        }
+        return args.toArray();
+    }
+
+    String getRawSql() {
+        return this.rawSql;
+    }
+
+    /**
+     * The statement with bind parameters, null when the SQL can only be run by substituting the values.
+     */
+    String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * The statement with bind parameters and the values of the placeholders it keeps substituted, which must have been
+     * accepted by {@link #bind(Map)}.
+     */
+    String getSql(final Map<String, String> values) {
+        if (!this.substituted) {
+            return this.sql;
+        }
+        // the statement has no placeholders left but the substituted ones
+        final Matcher placeholder = PLACEHOLDER.matcher(this.sql);
+        final StringBuilder sql = new StringBuilder(this.sql.length());
+        int textStart = 0;
+        while (placeholder.find()) {
+            final String value = values.get(placeholder.group());
+            sql.append(this.sql, textStart, placeholder.start()).append(value == null ? placeholder.group() : value);
+            textStart = placeholder.end();
+        }
+        return sql.append(this.sql, textStart, this.sql.length()).toString();
+    }
+
+    boolean isOlderThan(final long millis) {
+        return System.currentTimeMillis() - this.compiledAt > millis;
+    }
+
+    private static boolean appendLiteral(final String rawSql, final int start, final int end, final StringBuilder sql,
+            final List<Placeholder> placeholders) {
+        final char quote = rawSql.charAt(start);
+        final boolean terminated = end - start >= 2 && rawSql.charAt(end - 1) == quote;
+        final int contentEnd = terminated ? end - 1 : end;
+        final Matcher placeholder = PLACEHOLDER.matcher(rawSql).region(start + 1, contentEnd);
+        if (!placeholder.find()) {
+            sql.append(rawSql, start, end);
+            return true;
+        }
+        if (!terminated) {
+            sql.append(rawSql, start, end);
+            return false;
+        }
+        if (placeholder.start() == start + 1 && placeholder.end() == contentEnd) {
+            placeholders.add(new Placeholder(placeholder.group(), true, false));
+            sql.append('?');
+            return true;
+        }
+
+        boolean bindable = true;
+        sql.append("concat(");
+        int textStart = start + 1;
+        do {
+            if (placeholder.start() > textStart) {
+                bindable &= appendText(rawSql, quote, textStart, placeholder.start(), sql);
+                sql.append(", ");
+            }
+            placeholders.add(new Placeholder(placeholder.group(), true, false));
+            sql.append('?');
+            textStart = placeholder.end();
+            if (textStart < contentEnd) {
+                sql.append(", ");
+            }
+        } while (placeholder.find());
+        if (textStart < contentEnd) {
+            bindable &= appendText(rawSql, quote, textStart, contentEnd, sql);
+        }
+        sql.append(')');
+        return bindable;
+    }
+
+    private static boolean appendTypedLiteral(final String rawSql, final int start, final int end, final StringBuilder sql,
+            final List<Placeholder> placeholders) {
+        final char quote = rawSql.charAt(start);
+        sql.append(rawSql, start, end);
+        if (end - start < 2 || rawSql.charAt(end - 1) != quote) {
+            return !PLACEHOLDER.matcher(rawSql).region(start + 1, end).find();
+        }
+        final Matcher placeholder = PLACEHOLDER.matcher(rawSql).region(start + 1, end - 1);
+        while (placeholder.find()) {
+            placeholders.add(new Placeholder(placeholder.group(), true, true));
+        }
+        return true;
+    }
+
+    private static boolean appendText(final String rawSql, final char quote, final int start, final int end, final StringBuilder sql) {
+        sql.append(quote).append(rawSql, start, end).append(quote);
+        // a trailing backslash would now escape the closing quote
+        int backslashes = 0;
+        while (end - backslashes > start && rawSql.charAt(end - backslashes - 1) == '\\') {
+            backslashes++;
+        }
+        return backslashes % 2 == 0;
+    }
+
+    private static int endOfLiteral(final String rawSql, final int start) {
+        final char quote = rawSql.charAt(start);
+        int i = start + 1;
+        while (i < rawSql.length()) {
+            final char c = rawSql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < rawSql.length() && rawSql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return rawSql.length();
+    }
+
+    private static int endOfUnbindable(final String rawSql, final int start) {
+        final int end;
+        if (rawSql.charAt(start) == '`') {
+            end = indexAfter(rawSql, "`", start + 1);
+        } else if (rawSql.startsWith("/*", start)) {
+            end = indexAfter(rawSql, "*/", start + 2);
+        } else {
+            end = indexAfter(rawSql, "\n", start);
+        }
+        return end;
+    }
+
+    private static int indexAfter(final String rawSql, final String token, final int from) {
+        final int index = rawSql.indexOf(token, from);
+        return index < 0 ? rawSql.length() : index + token.length();
+    }
+
+    private static boolean isLineCommentAt(final String rawSql, final int i) {
+        // MySQL only starts a comment at -- when it is followed by whitespace
+        return rawSql.startsWith("--", i) && (i + 2 == rawSql.length() || Character.isWhitespace(rawSql.charAt(i + 2)));
+    }
+
+    /**
+     * Whether the literal starting at the given quote follows a type keyword, as in <code>DATE '2020-01-01'</code>, or
+     * a character set introducer or prefix, as in <code>_utf8'text'</code>, <code>N'text'</code> or <code>X'0A'</code>.
+     */
+    private static boolean isTypedLiteralAt(final String rawSql, final int start) {
+        int wordEnd = start;
+        while (wordEnd > 0 && Character.isWhitespace(rawSql.charAt(wordEnd - 1))) {
+            wordEnd--;
+        }
+        int wordStart = wordEnd;
+        while (wordStart > 0 && isWordPart(rawSql.charAt(wordStart - 1))) {
+            wordStart--;
+        }
+        if (wordStart == wordEnd || isIdentifierPart(rawSql, wordStart - 1)) {
+            return false;
+        }
+        final String word = rawSql.substring(wordStart, wordEnd);
+        return word.charAt(0) == '_' || TYPED_LITERAL_KEYWORDS.contains(word.toLowerCase(Locale.ROOT))
+                || wordEnd == start && word.length() == 1 && "nNxXbB".indexOf(word.charAt(0)) >= 0;
+    }
+
+    /**
+     * Whether the placeholder is a whole item of a list, with a comma or <code>BY</code> before it and the end of the
+     * item after it.
+     */
+    private static boolean isListItem(final String rawSql, final int start, final int end) {
+        int before = start;
+        while (before > 0 && Character.isWhitespace(rawSql.charAt(before - 1))) {
+            before--;
+        }
+        final boolean startsItem = before > 0 && rawSql.charAt(before - 1) == ','
+                || before >= 2 && rawSql.regionMatches(true, before - 2, "by", 0, 2) && !isIdentifierPart(rawSql, before - 3);
+        int after = end;
+        while (after < rawSql.length() && Character.isWhitespace(rawSql.charAt(after))) {
+            after++;
+        }
+        final boolean endsItem = after == rawSql.length() || ",);".indexOf(rawSql.charAt(after)) >= 0
+                || Character.isLetter(rawSql.charAt(after));
+        return startsItem && endsItem;
+    }
+
+    private static boolean containsPlaceholder(final Matcher placeholder, final int start, final int end) {
+        return placeholder.region(start, end).find();
+    }
+
+    private static boolean isIdentifierPart(final String rawSql, final int i) {
+        if (i < 0 || i >= rawSql.length()) {
+            return false;
+        }
+        final char c = rawSql.charAt(i);
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    private static boolean isWordPart(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static final class Placeholder {
+
+        private final String name;
+        private final boolean quoted;
+        private final boolean substituted;
+
+        Placeholder(final String name, final boolean quoted, final boolean substituted) {
+            this.name = name;
+            this.quoted = quoted;
+            this.substituted = substituted;
+        }
+
+        /**
+         * Whether the value can be substituted into the statement text at this placeholder.
+         */
+        boolean accepts(final String value) {
+            if (this.quoted) {
+                // left in the literal as it is written without a value, as by substitution
+                return value == null || LITERAL_TEXT.matcher(value).matches();
+            }
+            return value != null && COLUMN_POSITION.matcher(value).matches();
+        }
+    }
+}
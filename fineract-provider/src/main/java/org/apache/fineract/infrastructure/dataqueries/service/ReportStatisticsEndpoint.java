@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing, for every tenant and stretchy report run since startup, the number of runs, the median and
+ * 99th percentile run time and the rows returned. Like the other actuator endpoints it has to be exposed with
+ * <code>management.endpoints.web.exposure.include=reportstatistics</code> to be reachable over HTTP.
+ */
+@Component
+@Endpoint(id = "reportstatistics")
+public class ReportStatisticsEndpoint {
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> reportStatistics() {
+        final Map<String, Map<String, Object>> reports = new TreeMap<>();
+        if (this.meterRegistry == null) {
+            return reports;
+        }
+        for (final Timer timer : this.meterRegistry.find(ReadReportingServiceImpl.REPORT_EXECUTION_METER).timers()) {
+            final String tenant = timer.getId().getTag("tenant");
+            final String report = timer.getId().getTag("report");
+            final String type = timer.getId().getTag("type");
+
+            final Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("count", timer.count());
+            for (final ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                statistics.put("p" + Math.round(percentile.percentile() * 100) + "Millis", percentile.value(TimeUnit.MILLISECONDS));
+            }
+            statistics.put("maxMillis", timer.max(TimeUnit.MILLISECONDS));
+            final DistributionSummary rows = this.meterRegistry.find(ReadReportingServiceImpl.REPORT_ROWS_METER).tag("tenant", tenant)
+                    .tag("report", report).tag("type", type).summary();
+            if (rows != null) {
+                statistics.put("rowsTotal", (long) rows.totalAmount());
+                statistics.put("rowsMean", rows.mean());
+                statistics.put("rowsMax", (long) rows.max());
+            }
+            reports.put(tenant + "/" + type + "/" + report, statistics);
+        }
+        return reports;
+    }
+}
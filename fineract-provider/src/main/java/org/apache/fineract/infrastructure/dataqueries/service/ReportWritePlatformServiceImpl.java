@@ -95,6 +95,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
             final Permission permission = new Permission("report", report.getReportName(), "READ");
             this.permissionRepository.save(permission);
+            this.readReportingService.evictReportSqlTemplates();
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -133,6 +134,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
             if (!changes.isEmpty()) {
                 this.reportRepository.saveAndFlush(report);
+                this.readReportingService.evictReportSqlTemplates();
             }
 
             return new CommandProcessingResultBuilder() //
@@ -168,6 +170,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
         this.reportRepository.delete(report);
         this.permissionRepository.delete(permission);
+        this.readReportingService.evictReportSqlTemplates();
 
         return new CommandProcessingResultBuilder() //
                 .withEntityId(reportId) //
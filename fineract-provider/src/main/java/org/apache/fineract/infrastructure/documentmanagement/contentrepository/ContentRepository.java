@@ -38,6 +38,19 @@ public interface ContentRepository {
 
     void deleteFile(String fileName, String documentPath);
 
+    /**
+     * Stores the spooled result of an asynchronous report run. Unlike uploaded documents it is not held to the upload
+     * size limit.
+     *
+     * @return the location of the stored file
+     */
+    String saveReportRunFile(InputStream content, long size, Long reportRunId, String fileName);
+
+    /**
+     * Reads the bytes from firstByte to lastByte, both inclusive, of a file stored by this repository.
+     */
+    InputStream fetchFileRange(String location, long firstByte, long lastByte);
+
     FileData fetchFile(DocumentData documentData);
 
     String saveImage(InputStream uploadedInputStream, Long resourceId, String imageName, Long fileSize);
@@ -21,10 +21,13 @@ package org.apache.fineract.infrastructure.documentmanagement.contentrepository;
 import com.google.common.io.Files;
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Base64;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.fineract.infrastructure.core.domain.Base64EncodedImage;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.documentmanagement.command.DocumentCommand;
@@ -54,6 +57,29 @@ public class FileSystemContentRepository implements ContentRepository {
         return fileLocation;
     }
 
+    @Override
+    public String saveReportRunFile(final InputStream content, final long size, final Long reportRunId, final String fileName) {
+        final String fileLocation = generateReportRunParentDirectory(reportRunId) + File.separator + fileName;
+        writeFileToFileSystem(fileName, content, fileLocation);
+        return fileLocation;
+    }
+
+    @Override
+    public InputStream fetchFileRange(final String location, final long firstByte, final long lastByte) {
+        try {
+            final InputStream content = new FileInputStream(location);
+            try {
+                IOUtils.skipFully(content, firstByte);
+            } catch (final IOException e) {
+                content.close();
+                throw e;
+            }
+            return new BoundedInputStream(content, lastByte - firstByte + 1);
+        } catch (final IOException e) {
+            throw new ContentManagementException(location, e.getMessage(), e);
+        }
+    }
+
     @Override
     public String saveImage(final InputStream uploadedInputStream, final Long resourceId, final String imageName, final Long fileSize) {
         ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(fileSize, imageName);
@@ -126,6 +152,15 @@ public class FileSystemContentRepository implements ContentRepository {
                 + entityType + File.separator + entityId + File.separator + ContentRepositoryUtils.generateRandomString();
     }
 
+    /**
+     * Generate the directory path for storing the result of a report run
+     */
+    private String generateReportRunParentDirectory(final Long reportRunId) {
+        return FileSystemContentRepository.FINERACT_BASE_DIR + File.separator
+                + ThreadLocalContextUtil.getTenant().getName().replaceAll(" ", "").trim() + File.separator + "reports" + File.separator
+                + reportRunId;
+    }
+
     /**
      * Generate directory path for storing new Image
      */
@@ -34,6 +34,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.util.Base64;
 import org.apache.fineract.infrastructure.core.domain.Base64EncodedImage;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.documentmanagement.command.DocumentCommand;
 import org.apache.fineract.infrastructure.documentmanagement.data.DocumentData;
 import org.apache.fineract.infrastructure.documentmanagement.data.FileData;
@@ -75,6 +76,29 @@ public class S3ContentRepository implements ContentRepository {
         deleteObject(documentPath);
     }
 
+    @Override
+    public String saveReportRunFile(final InputStream content, final long size, final Long reportRunId, final String fileName) {
+        final String fileLocation = "reports" + File.separator + ThreadLocalContextUtil.getTenant().getTenantIdentifier() + File.separator
+                + reportRunId + File.separator + fileName;
+        // with the length known up front the client streams the file instead of buffering it in memory
+        final ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(size);
+        putObject(fileName, content, fileLocation, metadata);
+        return fileLocation;
+    }
+
+    @Override
+    public InputStream fetchFileRange(final String location, final long firstByte, final long lastByte) {
+        try {
+            return this.s3Client.getObject(new GetObjectRequest(this.s3BucketName, location).withRange(firstByte, lastByte))
+                    .getObjectContent();
+        } catch (final AmazonServiceException ase) {
+            throw new ContentManagementException(location, ase.getMessage(), ase);
+        } catch (final AmazonClientException ace) {
+            throw new ContentManagementException(location, ace.getMessage(), ace);
+        }
+    }
+
     @Override
     public String saveImage(final InputStream toUploadInputStream, final Long resourceId, final String imageName, final Long fileSize) {
         ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(fileSize, imageName);
@@ -140,9 +164,14 @@ public class S3ContentRepository implements ContentRepository {
 
     private void putObject(final String filename, final InputStream inputStream, final String s3UploadLocation)
             throws ContentManagementException {
+        putObject(filename, inputStream, s3UploadLocation, new ObjectMetadata());
+    }
+
+    private void putObject(final String filename, final InputStream inputStream, final String s3UploadLocation,
+            final ObjectMetadata metadata) throws ContentManagementException {
         try {
             LOG.info("Uploading a new object to S3 {}", s3UploadLocation);
-            this.s3Client.putObject(new PutObjectRequest(this.s3BucketName, s3UploadLocation, inputStream, new ObjectMetadata()));
+            this.s3Client.putObject(new PutObjectRequest(this.s3BucketName, s3UploadLocation, inputStream, metadata));
         } catch (AmazonServiceException ase) {
             throw new ContentManagementException(filename, ase.getMessage(), ase);
         } catch (final AmazonClientException ace) {
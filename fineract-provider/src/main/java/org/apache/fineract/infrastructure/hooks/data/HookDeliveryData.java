@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.data;
+
+/**
+ * One queued delivery of a command result to a web hook, as claimed from <code>m_hook_delivery</code>.
+ */
+public final class HookDeliveryData {
+
+    private final Long id;
+    private final Long hookId;
+    private final String entityName;
+    private final String actionName;
+    private final String payload;
+    private final int attemptCount;
+
+    public HookDeliveryData(final Long id, final Long hookId, final String entityName, final String actionName, final String payload,
+            final int attemptCount) {
+        this.id = id;
+        this.hookId = hookId;
+        this.entityName = entityName;
+        this.actionName = actionName;
+        this.payload = payload;
+        this.attemptCount = attemptCount;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Long getHookId() {
+        return this.hookId;
+    }
+
+    public String getEntityName() {
+        return this.entityName;
+    }
+
+    public String getActionName() {
+        return this.actionName;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public int getAttemptCount() {
+        return this.attemptCount;
+    }
+}
@@ -137,6 +137,10 @@ public class Hook extends AbstractAuditableCustom {
         return this.config;
     }
 
+    public boolean isActive() {
+        return this.isActive != null && this.isActive;
+    }
+
     public Map<String, Object> update(final JsonCommand command) {
 
         final Map<String, Object> actualChanges = new LinkedHashMap<>(5);
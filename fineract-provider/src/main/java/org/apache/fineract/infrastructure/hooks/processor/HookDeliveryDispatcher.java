@@ -0,0 +1,317 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.processor;
+
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.webTemplateName;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryWritePlatformService;
+import org.apache.fineract.infrastructure.hooks.service.HookReadPlatformService;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands the {@link HookEvent} of a processed command to the hooks listening to it.
+ *
+ * Web hook deliveries are written to the <code>m_hook_delivery</code> queue in the transaction of the command, so they
+ * are sent only if the command commits and survive a restart. After the commit the affected hooks are drained by a fixed
+ * pool of delivery threads: deliveries of one hook are sent in order, one hook at a time, over the shared connection
+ * pool of the tenant. A sweep every few seconds picks up retries whose backoff has passed and deliveries left behind by a
+ * full pool or by another node.
+ *
+ * Deliveries of the other hook templates need the credentials of the user who ran the command, which are not written to
+ * the database; they are sent once from the delivery pool after the commit.
+ *
+ * Each delivery is recorded in the <code>fineract.hooks.delivery</code> timer, tagged with tenant, hook and outcome;
+ * deliveries given up on count towards <code>fineract.hooks.delivery.dead</code>.
+ */
+@Service
+public class HookDeliveryDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HookDeliveryDispatcher.class);
+
+    private static final int DELIVERY_THREADS = 8;
+    private static final int MAX_QUEUED_TASKS = 1000;
+    private static final int DELIVERY_BATCH_SIZE = 50;
+    private static final long SWEEP_INTERVAL_SECONDS = 15;
+
+    private final HookReadPlatformService hookReadPlatformService;
+    private final HookRepository hookRepository;
+    private final HookProcessorProvider hookProcessorProvider;
+    private final HookDeliveryWritePlatformService hookDeliveryWritePlatformService;
+    private final TenantDetailsService tenantDetailsService;
+    private final TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
+
+    private final ConcurrentMap<String, AtomicBoolean> activeDrains = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor deliveryExecutor;
+    private ScheduledExecutorService sweepExecutor;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public HookDeliveryDispatcher(final HookReadPlatformService hookReadPlatformService, final HookRepository hookRepository,
+            final HookProcessorProvider hookProcessorProvider, final HookDeliveryWritePlatformService hookDeliveryWritePlatformService,
+            final TenantDetailsService tenantDetailsService, final TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
+        this.hookReadPlatformService = hookReadPlatformService;
+        this.hookRepository = hookRepository;
+        this.hookProcessorProvider = hookProcessorProvider;
+        this.hookDeliveryWritePlatformService = hookDeliveryWritePlatformService;
+        this.tenantDetailsService = tenantDetailsService;
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
+    }
+
+    @PostConstruct
+    public void start() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.deliveryExecutor = new ThreadPoolExecutor(DELIVERY_THREADS, DELIVERY_THREADS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_TASKS), runnable -> {
+                    final Thread thread = new Thread(runnable, "hook-delivery-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.deliveryExecutor.allowCoreThreadTimeOut(true);
+        this.sweepExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "hook-delivery-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweepExecutor.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.sweepExecutor.shutdownNow();
+        // deliveries still queued are picked up again by the next sweep
+        this.deliveryExecutor.shutdownNow();
+    }
+
+    public void dispatch(final HookEvent event) {
+        final HookEventSource hookEventSource = event.getSource();
+        final List<Hook> hooks = this.hookReadPlatformService.retrieveHooksByEvent(hookEventSource.getEntityName(),
+                hookEventSource.getActionName());
+        if (hooks.isEmpty()) {
+            return;
+        }
+
+        final List<Long> webHookIds = new ArrayList<>(hooks.size());
+        final List<Hook> otherHooks = new ArrayList<>();
+        for (final Hook hook : hooks) {
+            if (webTemplateName.equals(hook.getHookTemplate().getName())) {
+                webHookIds.add(hook.getId());
+            } else {
+                otherHooks.add(hook);
+            }
+        }
+        if (!webHookIds.isEmpty()) {
+            this.hookDeliveryWritePlatformService.enqueue(webHookIds, hookEventSource.getEntityName(), hookEventSource.getActionName(),
+                    event.getPayload());
+        }
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Runnable afterCommit = () -> {
+            for (final Long hookId : webHookIds) {
+                scheduleDrain(tenant, hookId);
+            }
+            for (final Hook hook : otherHooks) {
+                submitDirectDelivery(tenant, hook, event);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                        afterCommit.run();
+                    }
+                }
+            });
+        } else {
+            afterCommit.run();
+        }
+    }
+
+    private void submitDirectDelivery(final FineractPlatformTenant tenant, final Hook hook, final HookEvent event) {
+        final HookEventSource hookEventSource = event.getSource();
+        try {
+            this.deliveryExecutor.execute(() -> runForTenant(tenant, () -> {
+                final HookProcessor processor = this.hookProcessorProvider.getProcessor(hook);
+                if (processor != null) {
+                    processor.process(hook, event.getAppUser(), event.getPayload(), hookEventSource.getEntityName(),
+                            hookEventSource.getActionName(), event.getTenantIdentifier(), event.getAuthToken());
+                }
+            }));
+        } catch (final RejectedExecutionException e) {
+            LOG.error("Hook delivery pool is full, dropped {} {} event for hook {}", hookEventSource.getEntityName(),
+                    hookEventSource.getActionName(), hook.getId());
+        }
+    }
+
+    private void scheduleDrain(final FineractPlatformTenant tenant, final Long hookId) {
+        final String key = tenant.getTenantIdentifier() + " " + hookId;
+        final AtomicBoolean pending = new AtomicBoolean(true);
+        final AtomicBoolean activeDrain = this.activeDrains.putIfAbsent(key, pending);
+        if (activeDrain != null) {
+            // the running drain goes round once more
+            activeDrain.set(true);
+            return;
+        }
+        try {
+            this.deliveryExecutor.execute(() -> runForTenant(tenant, () -> drain(tenant, hookId, key, pending)));
+        } catch (final RejectedExecutionException e) {
+            // the deliveries stay queued for the next sweep
+            this.activeDrains.remove(key, pending);
+        }
+    }
+
+    private void drain(final FineractPlatformTenant tenant, final Long hookId, final String key, final AtomicBoolean pending) {
+        try {
+            while (pending.getAndSet(false)) {
+                deliverDueDeliveries(tenant, hookId);
+            }
+        } catch (final RuntimeException e) {
+            LOG.error("{}: delivering to hook {} failed", tenant.getName(), hookId, e);
+        } finally {
+            this.activeDrains.remove(key, pending);
+        }
+        if (pending.get()) {
+            scheduleDrain(tenant, hookId);
+        }
+    }
+
+    private void deliverDueDeliveries(final FineractPlatformTenant tenant, final Long hookId) {
+        List<HookDeliveryData> deliveries;
+        do {
+            deliveries = this.hookDeliveryWritePlatformService.claimDueDeliveries(hookId, DELIVERY_BATCH_SIZE);
+            if (deliveries.isEmpty()) {
+                return;
+            }
+
+            final List<Long> deliveryIds = new ArrayList<>(deliveries.size());
+            for (final HookDeliveryData delivery : deliveries) {
+                deliveryIds.add(delivery.getId());
+            }
+            final Hook hook = this.hookRepository.findById(hookId).orElse(null);
+            final HookProcessor processor = hook == null || !hook.isActive() ? null : this.hookProcessorProvider.getProcessor(hook);
+            if (processor == null) {
+                this.hookDeliveryWritePlatformService.markDead(deliveryIds, "Hook is no longer active");
+                countDead(tenant, hookId, deliveryIds.size());
+                continue;
+            }
+
+            for (int index = 0; index < deliveries.size(); index++) {
+                final HookDeliveryData delivery = deliveries.get(index);
+                final List<Long> remainingIds = deliveryIds.subList(index + 1, deliveryIds.size());
+                final long startTime = System.nanoTime();
+                try {
+                    processor.process(hook, null, delivery.getPayload(), delivery.getEntityName(), delivery.getActionName(),
+                            tenant.getTenantIdentifier(), null);
+                    recordDelivery(tenant, hookId, "success", startTime);
+                } catch (final RuntimeException e) {
+                    recordDelivery(tenant, hookId, "failure", startTime);
+                    LOG.warn("{}: delivery {} to hook {} failed: {}", tenant.getName(), delivery.getId(), hookId, e.getMessage());
+                    if (this.hookDeliveryWritePlatformService.markFailed(delivery, e.toString())) {
+                        countDead(tenant, hookId, 1);
+                    }
+                    // the endpoint is most likely down, the rest waits for the
+                    // retry of this delivery
+                    this.hookDeliveryWritePlatformService.releaseDeliveries(remainingIds, delivery.getId());
+                    return;
+                }
+                this.hookDeliveryWritePlatformService.completeDelivery(delivery.getId(), remainingIds);
+            }
+        } while (deliveries.size() == DELIVERY_BATCH_SIZE);
+    }
+
+    private void sweep() {
+        try {
+            for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+                if (!this.tenantDatabaseUpgradeService.isTenantReady(tenant.getTenantIdentifier())) {
+                    continue;
+                }
+                runForTenant(tenant, () -> {
+                    final int requeued = this.hookDeliveryWritePlatformService.requeueStalledDeliveries();
+                    if (requeued > 0) {
+                        LOG.warn("{}: requeued {} stalled hook deliveries", tenant.getName(), requeued);
+                    }
+                    for (final Long hookId : this.hookDeliveryWritePlatformService.retrieveHookIdsWithDueDeliveries()) {
+                        scheduleDrain(tenant, hookId);
+                    }
+                });
+            }
+        } catch (final RuntimeException e) {
+            LOG.error("Sweeping the hook delivery queues failed", e);
+        }
+    }
+
+    private static void runForTenant(final FineractPlatformTenant tenant, final Runnable task) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            task.run();
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private void recordDelivery(final FineractPlatformTenant tenant, final Long hookId, final String outcome, final long startTime) {
+        if (this.meterRegistry != null) {
+            Timer.builder("fineract.hooks.delivery").tag("tenant", tenant.getTenantIdentifier()).tag("hook", hookId.toString())
+                    .tag("outcome", outcome).register(this.meterRegistry).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void countDead(final FineractPlatformTenant tenant, final Long hookId, final int count) {
+        LOG.error("{}: gave up on {} deliveries to hook {}", tenant.getName(), count, hookId);
+        if (this.meterRegistry != null) {
+            Counter.builder("fineract.hooks.delivery.dead").tag("tenant", tenant.getTenantIdentifier()).tag("hook", hookId.toString())
+                    .register(this.meterRegistry).increment(count);
+        }
+    }
+}
@@ -18,30 +18,34 @@
  */
 package org.apache.fineract.infrastructure.hooks.processor;
 
+import com.squareup.okhttp.ConnectionPool;
 import com.squareup.okhttp.OkHttpClient;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.springframework.stereotype.Service;
-import retrofit.Callback;
 import retrofit.RestAdapter;
-import retrofit.RetrofitError;
 import retrofit.client.OkClient;
-import retrofit.client.Response;
 
 @Service
 public final class ProcessorHelper {
 
-    private static final Logger LOG = LoggerFactory.getLogger(ProcessorHelper.class);
+    private static final int MAX_IDLE_CONNECTIONS_PER_TENANT = 5;
+    private static final long KEEP_ALIVE_MILLIS = 5 * 60 * 1000L;
+    private static final int CONNECT_TIMEOUT_SECONDS = 10;
+    private static final int READ_TIMEOUT_SECONDS = 30;
 
     /**
      * Configure HTTP client to be "insecure", as in skipping host SSL certificate verification. While this can be
@@ -51,6 +55,11 @@ public final class ProcessorHelper {
     private final boolean insecureHttpClient = Boolean.getBoolean("fineract.insecureHttpClient");
     private final SSLContext insecureSSLContext;
 
+    // one client, and so one connection pool, per tenant; the services built
+    // on top of it are kept per tenant and hook URL
+    private final ConcurrentMap<String, OkHttpClient> clientsByTenant = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, WebHookService> webHookServices = new ConcurrentHashMap<>();
+
     public ProcessorHelper() throws KeyManagementException, NoSuchAlgorithmException {
         if (insecureHttpClient) {
             insecureSSLContext = createInsecureSSLContext();
@@ -61,6 +70,10 @@ public final class ProcessorHelper {
 
     private OkHttpClient createClient() {
         final OkHttpClient client = new OkHttpClient();
+        client.setConnectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS_PER_TENANT, KEEP_ALIVE_MILLIS));
+        client.setConnectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        client.setReadTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        client.setWriteTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
         if (insecureHttpClient) {
             configureInsecureClient(client);
         }
@@ -100,25 +113,17 @@ public final class ProcessorHelper {
         return insecureSSLContext;
     }
 
-    @SuppressWarnings("rawtypes")
-    public Callback createCallback(final String url) {
-        return new Callback() {
-
-            @Override
-            public void success(final Object o, final Response response) {
-                LOG.info("URL: {} - Status: {}", url, response.getStatus());
-            }
-
-            @Override
-            public void failure(final RetrofitError retrofitError) {
-                LOG.error("URL: {} - RetrofitError occured", url, retrofitError);
-            }
-        };
-    }
-
+    /**
+     * Returns the synchronous {@link WebHookService} for the given URL, sharing the connection pool of the current
+     * tenant; calls of a failed delivery throw a {@link retrofit.RetrofitError}.
+     */
     public WebHookService createWebHookService(final String url) {
-        final OkHttpClient client = createClient();
-        final RestAdapter restAdapter = new RestAdapter.Builder().setEndpoint(url).setClient(new OkClient(client)).build();
-        return restAdapter.create(WebHookService.class);
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String tenantIdentifier = tenant == null ? "" : tenant.getTenantIdentifier();
+        return this.webHookServices.computeIfAbsent(tenantIdentifier + " " + url, key -> {
+            final OkHttpClient client = this.clientsByTenant.computeIfAbsent(tenantIdentifier, identifier -> createClient());
+            final RestAdapter restAdapter = new RestAdapter.Builder().setEndpoint(url).setClient(new OkClient(client)).build();
+            return restAdapter.create(WebHookService.class);
+        });
     }
 }
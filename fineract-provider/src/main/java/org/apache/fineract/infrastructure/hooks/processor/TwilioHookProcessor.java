@@ -39,7 +39,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import retrofit.Callback;
+import retrofit.RetrofitError;
+import retrofit.client.Response;
 
 @Service
 public class TwilioHookProcessor implements HookProcessor {
@@ -70,14 +71,11 @@ public class TwilioHookProcessor implements HookProcessor {
         sendRequest(smsProviderData, payload, entityName, actionName, tenantIdentifier, authToken, hook);
     }
 
-    @SuppressWarnings("unchecked")
     private void sendRequest(final SmsProviderData smsProviderData, final String payload, String entityName, String actionName,
             final String tenantIdentifier, final String authToken, final Hook hook) {
 
-        final WebHookService service = processorHelper.createWebHookService(smsProviderData.getUrl());
-
-        @SuppressWarnings("rawtypes")
-        final Callback callback = processorHelper.createCallback(smsProviderData.getUrl());
+        final String url = smsProviderData.getUrl();
+        final WebHookService service = processorHelper.createWebHookService(url);
 
         String apiKey = this.hookConfigurationRepository.findOneByHookIdAndFieldName(hook.getId(), apiKeyName);
         if (apiKey == null) {
@@ -102,7 +100,12 @@ public class TwilioHookProcessor implements HookProcessor {
             } else {
                 json = JsonParser.parseString(payload).getAsJsonObject();
             }
-            service.sendSmsBridgeRequest(entityName, actionName, tenantIdentifier, apiKey, json, callback);
+            try {
+                final Response response = service.sendSmsBridgeRequest(entityName, actionName, tenantIdentifier, apiKey, json);
+                LOG.info("URL: {} - Status: {}", url, response.getStatus());
+            } catch (final RetrofitError retrofitError) {
+                LOG.error("URL: {} - RetrofitError occured", url, retrofitError);
+            }
         }
 
     }
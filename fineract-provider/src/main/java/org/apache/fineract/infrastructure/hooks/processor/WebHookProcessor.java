@@ -30,13 +30,17 @@ import java.util.Set;
 import org.apache.fineract.infrastructure.hooks.domain.Hook;
 import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
 import org.apache.fineract.useradministration.domain.AppUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import retrofit.Callback;
+import retrofit.client.Response;
 
 @Service
 public class WebHookProcessor implements HookProcessor {
 
+    private static final Logger LOG = LoggerFactory.getLogger(WebHookProcessor.class);
+
     private final ProcessorHelper processorHelper;
 
     @Autowired
@@ -66,6 +70,10 @@ public class WebHookProcessor implements HookProcessor {
         sendRequest(url, contentType, payload, entityName, actionName, tenantIdentifier, authToken);
     }
 
+    /**
+     * Sends the payload synchronously; a delivery the hook's URL did not accept ends in a
+     * {@link retrofit.RetrofitError}.
+     */
     @SuppressWarnings("unchecked")
     private void sendRequest(final String url, final String contentType, final String payload, final String entityName,
             final String actionName, final String tenantIdentifier, @SuppressWarnings("unused") final String authToken) {
@@ -73,16 +81,15 @@ public class WebHookProcessor implements HookProcessor {
         final String fineractEndpointUrl = System.getProperty("baseUrl");
         final WebHookService service = processorHelper.createWebHookService(url);
 
-        @SuppressWarnings("rawtypes")
-        final Callback callback = processorHelper.createCallback(url);
-
+        final Response response;
         if (contentType.equalsIgnoreCase("json") || contentType.contains("json")) {
             final JsonObject json = JsonParser.parseString(payload).getAsJsonObject();
-            service.sendJsonRequest(entityName, actionName, tenantIdentifier, fineractEndpointUrl, json, callback);
+            response = service.sendJsonRequest(entityName, actionName, tenantIdentifier, fineractEndpointUrl, json);
         } else {
             Map<String, String> map = new HashMap<>();
             map = new Gson().fromJson(payload, map.getClass());
-            service.sendFormRequest(entityName, actionName, tenantIdentifier, fineractEndpointUrl, map, callback);
+            response = service.sendFormRequest(entityName, actionName, tenantIdentifier, fineractEndpointUrl, map);
         }
+        LOG.debug("URL: {} - Status: {}", url, response.getStatus());
     }
 }
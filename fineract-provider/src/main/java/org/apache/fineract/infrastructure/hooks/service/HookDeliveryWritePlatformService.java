@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+
+/**
+ * Maintains the <code>m_hook_delivery</code> queue of outbound web hook calls of the current tenant.
+ *
+ * Deliveries are claimed in batches per hook with a claim token, so that several application nodes can work on the same
+ * tenant without sending a delivery twice. A hook has at most one batch claimed at a time, which keeps its deliveries in
+ * order. Delivered rows are removed; a failed delivery is retried with an exponential
+ * backoff until it runs out of attempts and is moved to the dead-letter status.
+ */
+public interface HookDeliveryWritePlatformService {
+
+    void enqueue(Collection<Long> hookIds, String entityName, String actionName, String payload);
+
+    Collection<Long> retrieveHookIdsWithDueDeliveries();
+
+    List<HookDeliveryData> claimDueDeliveries(Long hookId, int limit);
+
+    /**
+     * Removes a delivery that has been sent and renews the claim on the rest of its batch, so that a batch that is still
+     * being sent is not requeued as a stalled one.
+     */
+    void completeDelivery(Long deliveryId, Collection<Long> remainingDeliveryIds);
+
+    /**
+     * @return true when the delivery has been moved to the dead-letter status, false when it will be retried
+     */
+    boolean markFailed(HookDeliveryData delivery, String error);
+
+    void releaseDeliveries(Collection<Long> deliveryIds, Long failedDeliveryId);
+
+    void markDead(Collection<Long> deliveryIds, String error);
+
+    /**
+     * Returns the deliveries of batches whose claim has not been renewed for a few minutes to the queue.
+     */
+    int requeueStalledDeliveries();
+}
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class HookDeliveryWritePlatformServiceImpl implements HookDeliveryWritePlatformService {
+
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_SENDING = "SENDING";
+    private static final String STATUS_DEAD = "DEAD";
+
+    private static final int MAX_ATTEMPTS = 10;
+    private static final int INITIAL_BACKOFF_SECONDS = 10;
+    private static final int MAX_BACKOFF_SECONDS = 3600;
+    // the claim of a batch is renewed after each delivery, so a batch whose claim is
+    // this old belongs to a node that went away, however many deliveries it holds
+    static final int STALLED_DELIVERY_MINUTES = 5;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String INSERT_DELIVERY_SQL = "insert into m_hook_delivery (hook_id, entity_name, action_name, payload, status, "
+            + "attempt_count, next_attempt_time, created_date, lastmodified_date) values (?, ?, ?, ?, '" + STATUS_PENDING
+            + "', 0, NOW(), NOW(), NOW())";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public HookDeliveryWritePlatformServiceImpl(final RoutingDataSource dataSource) {
+        this(new JdbcTemplate(dataSource));
+    }
+
+    HookDeliveryWritePlatformServiceImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(final Collection<Long> hookIds, final String entityName, final String actionName, final String payload) {
+        final List<Object[]> batchArgs = new ArrayList<>(hookIds.size());
+        for (final Long hookId : hookIds) {
+            batchArgs.add(new Object[] { hookId, entityName, actionName, payload });
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_DELIVERY_SQL, batchArgs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Long> retrieveHookIdsWithDueDeliveries() {
+        return this.jdbcTemplate.queryForList(
+                "select distinct hook_id from m_hook_delivery where status = ? and next_attempt_time <= NOW()", Long.class,
+                STATUS_PENDING);
+    }
+
+    @Override
+    @Transactional
+    public List<HookDeliveryData> claimDueDeliveries(final Long hookId, final int limit) {
+        // serializes the claims of the hook across nodes until this transaction ends
+        this.jdbcTemplate.queryForList("select id from m_hook where id = ? for update", Long.class, hookId);
+        final Integer sendingCount = this.jdbcTemplate.queryForObject(
+                "select count(*) from m_hook_delivery where hook_id = ? and status = ?", Integer.class, hookId, STATUS_SENDING);
+        if (sendingCount != null && sendingCount > 0) {
+            // a batch of the hook is still being sent, its later deliveries wait for it to keep their order
+            return Collections.emptyList();
+        }
+
+        final String claimToken = UUID.randomUUID().toString();
+        final int claimed = this.jdbcTemplate.update("update m_hook_delivery set status = ?, claim_token = ?, lastmodified_date = NOW() "
+                + "where hook_id = ? and status = ? and next_attempt_time <= NOW() order by id limit ?", STATUS_SENDING, claimToken, hookId,
+                STATUS_PENDING, limit);
+        if (claimed == 0) {
+            return Collections.emptyList();
+        }
+
+        final HookDeliveryMapper rm = new HookDeliveryMapper();
+        return this.jdbcTemplate.query("select " + rm.schema() + " where d.claim_token = ? order by d.id", rm, claimToken);
+    }
+
+    @Override
+    @Transactional
+    public void completeDelivery(final Long deliveryId, final Collection<Long> remainingDeliveryIds) {
+        this.jdbcTemplate.update("delete from m_hook_delivery where id = ?", deliveryId);
+        if (remainingDeliveryIds.isEmpty()) {
+            return;
+        }
+        this.namedParameterJdbcTemplate.update(
+                "update m_hook_delivery set lastmodified_date = NOW() where id in (:ids) and status = :status",
+                new MapSqlParameterSource("ids", remainingDeliveryIds).addValue("status", STATUS_SENDING));
+    }
+
+    @Override
+    @Transactional
+    public boolean markFailed(final HookDeliveryData delivery, final String error) {
+        final int attemptCount = delivery.getAttemptCount() + 1;
+        if (attemptCount >= MAX_ATTEMPTS) {
+            this.jdbcTemplate.update("update m_hook_delivery set status = ?, attempt_count = ?, claim_token = null, last_error = ?, "
+                    + "lastmodified_date = NOW() where id = ?", STATUS_DEAD, attemptCount, abbreviate(error), delivery.getId());
+            return true;
+        }
+
+        this.jdbcTemplate.update("update m_hook_delivery set status = ?, attempt_count = ?, claim_token = null, last_error = ?, "
+                + "next_attempt_time = DATE_ADD(NOW(), INTERVAL ? SECOND), lastmodified_date = NOW() where id = ?", STATUS_PENDING,
+                attemptCount, abbreviate(error), backoffSeconds(attemptCount), delivery.getId());
+        return false;
+    }
+
+    @Override
+    @Transactional
+    public void releaseDeliveries(final Collection<Long> deliveryIds, final Long failedDeliveryId) {
+        if (deliveryIds.isEmpty()) {
+            return;
+        }
+        // retried together with the delivery that failed before them, so the
+        // hook receives them in their original order
+        final Date nextAttemptTime = this.jdbcTemplate.queryForObject("select next_attempt_time from m_hook_delivery where id = ?",
+                Date.class, failedDeliveryId);
+        this.namedParameterJdbcTemplate.update("update m_hook_delivery set status = :status, claim_token = null, "
+                + "next_attempt_time = greatest(:nextAttemptTime, NOW()), lastmodified_date = NOW() where id in (:ids)",
+                new MapSqlParameterSource("status", STATUS_PENDING).addValue("nextAttemptTime", nextAttemptTime).addValue("ids",
+                        deliveryIds));
+    }
+
+    @Override
+    @Transactional
+    public void markDead(final Collection<Long> deliveryIds, final String error) {
+        if (deliveryIds.isEmpty()) {
+            return;
+        }
+        this.namedParameterJdbcTemplate.update("update m_hook_delivery set status = :status, claim_token = null, last_error = :error, "
+                + "lastmodified_date = NOW() where id in (:ids)",
+                new MapSqlParameterSource("status", STATUS_DEAD).addValue("error", abbreviate(error)).addValue("ids", deliveryIds));
+    }
+
+    @Override
+    @Transactional
+    public int requeueStalledDeliveries() {
+        return this.jdbcTemplate.update("update m_hook_delivery set status = ?, claim_token = null, lastmodified_date = NOW() "
+                + "where status = ? and lastmodified_date < DATE_SUB(NOW(), INTERVAL ? MINUTE)", STATUS_PENDING, STATUS_SENDING,
+                STALLED_DELIVERY_MINUTES);
+    }
+
+    private static int backoffSeconds(final int attemptCount) {
+        final long backoff = (long) INITIAL_BACKOFF_SECONDS << Math.min(attemptCount - 1, 20);
+        return (int) Math.min(backoff, MAX_BACKOFF_SECONDS);
+    }
+
+    private static String abbreviate(final String error) {
+        return StringUtils.abbreviate(error, MAX_ERROR_LENGTH);
+    }
+
+    private static final class HookDeliveryMapper implements RowMapper<HookDeliveryData> {
+
+        public String schema() {
+            return " d.id as id, d.hook_id as hookId, d.entity_name as entityName, d.action_name as actionName, d.payload as payload, "
+                    + "d.attempt_count as attemptCount from m_hook_delivery d";
+        }
+
+        @Override
+        public HookDeliveryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new HookDeliveryData(rs.getLong("id"), rs.getLong("hookId"), rs.getString("entityName"), rs.getString("actionName"),
+                    rs.getString("payload"), rs.getInt("attemptCount"));
+        }
+    }
+}
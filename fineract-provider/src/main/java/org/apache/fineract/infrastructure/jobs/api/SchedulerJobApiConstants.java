@@ -55,6 +55,7 @@ public final class SchedulerJobApiConstants {
     public static final String COMMAND = "command";
     public static final String JOB_ID = "jobId";
     public static final String JOB_RUN_HISTORY = "runhistory";
+    public static final String JOB_RUN_PROGRESS = "runprogress";
     public static final String SCHEDULER_STATUS_PATH = "scheduler";
 
     static final Set<String> JOB_DETAIL_RESPONSE_DATA_PARAMETERS = new HashSet<>(
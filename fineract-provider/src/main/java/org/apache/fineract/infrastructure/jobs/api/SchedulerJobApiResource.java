@@ -53,6 +53,7 @@ import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailData;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailHistoryData;
+import org.apache.fineract.infrastructure.jobs.data.JobRunProgressData;
 import org.apache.fineract.infrastructure.jobs.service.JobRegisterService;
 import org.apache.fineract.infrastructure.jobs.service.SchedulerJobRunnerReadService;
 import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
@@ -72,6 +73,7 @@ public class SchedulerJobApiResource {
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final ToApiJsonSerializer<JobDetailData> toApiJsonSerializer;
     private final ToApiJsonSerializer<JobDetailHistoryData> jobHistoryToApiJsonSerializer;
+    private final ToApiJsonSerializer<JobRunProgressData> jobRunProgressToApiJsonSerializer;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final PlatformSecurityContext context;
 
@@ -80,11 +82,13 @@ public class SchedulerJobApiResource {
             final JobRegisterService jobRegisterService, final ToApiJsonSerializer<JobDetailData> toApiJsonSerializer,
             final ApiRequestParameterHelper apiRequestParameterHelper,
             final ToApiJsonSerializer<JobDetailHistoryData> jobHistoryToApiJsonSerializer,
+            final ToApiJsonSerializer<JobRunProgressData> jobRunProgressToApiJsonSerializer,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService, final PlatformSecurityContext context) {
         this.schedulerJobRunnerReadService = schedulerJobRunnerReadService;
         this.jobRegisterService = jobRegisterService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.jobHistoryToApiJsonSerializer = jobHistoryToApiJsonSerializer;
+        this.jobRunProgressToApiJsonSerializer = jobRunProgressToApiJsonSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.context = context;
@@ -135,6 +139,20 @@ public class SchedulerJobApiResource {
                 SchedulerJobApiConstants.JOB_HISTORY_RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("{" + SchedulerJobApiConstants.JOB_ID + "}/" + SchedulerJobApiConstants.JOB_RUN_PROGRESS)
+    @Operation(summary = "Retrieve Job Run Progress", description = "Returns the progress of each id range of the latest run of a job, "
+            + "including the number of records processed per second.\n" + "\n" + "Example Requests:\n" + "\n" + "jobs/5/runprogress")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = SchedulerJobApiResourceSwagger.GetJobsJobIDJobRunProgressResponse.class)))) })
+    public String retrieveRunProgress(@Context final UriInfo uriInfo,
+            @PathParam(SchedulerJobApiConstants.JOB_ID) @Parameter(description = "jobId") final Long jobId) {
+        this.context.authenticatedUser().validateHasReadPermission(SchedulerJobApiConstants.SCHEDULER_RESOURCE_NAME);
+        final List<JobRunProgressData> jobRunProgressData = this.schedulerJobRunnerReadService.retrieveJobRunProgress(jobId);
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.jobRunProgressToApiJsonSerializer.serialize(settings, jobRunProgressData);
+    }
+
     @POST
     @Path("{" + SchedulerJobApiConstants.JOB_ID + "}")
     @Operation(summary = "Run a Job", description = "Manually Execute Specific Job.")
@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.jobs.api;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailHistoryData;
@@ -100,4 +101,36 @@ final class SchedulerJobApiResourceSwagger {
         public List<JobDetailHistoryDataSwagger> pageItems;
 
     }
+
+    @Schema(description = "GetJobsJobIDJobRunProgressResponse")
+    public static final class GetJobsJobIDJobRunProgressResponse {
+
+        private GetJobsJobIDJobRunProgressResponse() {
+
+        }
+
+        @Schema(example = "12")
+        public Long version;
+        @Schema(example = "1")
+        public Integer chunkNumber;
+        @Schema(example = "1")
+        public Long startId;
+        @Schema(example = "500000")
+        public Long endId;
+        @Schema(example = "500000")
+        public Integer totalCount;
+        @Schema(example = "120000")
+        public Integer processedCount;
+        @Schema(example = "0")
+        public Integer failedCount;
+        @Schema(example = "running")
+        public String status;
+        @Schema(example = "Jul 16, 2013 12:00:00 PM")
+        public Date startTime;
+        @Schema(example = "Jul 16, 2013 12:10:00 PM")
+        public Date endTime;
+        @Schema(example = "4000.00")
+        public BigDecimal throughputPerSecond;
+        public String errorMessage;
+    }
 }
@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.data;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Progress of one id range of the latest run of a job, with the rate it has been processed at so far.
+ */
+public class JobRunProgressData {
+
+    @SuppressWarnings("unused")
+    private final Long version;
+
+    @SuppressWarnings("unused")
+    private final Integer chunkNumber;
+
+    @SuppressWarnings("unused")
+    private final Long startId;
+
+    @SuppressWarnings("unused")
+    private final Long endId;
+
+    @SuppressWarnings("unused")
+    private final Integer totalCount;
+
+    @SuppressWarnings("unused")
+    private final Integer processedCount;
+
+    @SuppressWarnings("unused")
+    private final Integer failedCount;
+
+    @SuppressWarnings("unused")
+    private final String status;
+
+    @SuppressWarnings("unused")
+    private final Date startTime;
+
+    @SuppressWarnings("unused")
+    private final Date endTime;
+
+    @SuppressWarnings("unused")
+    private final BigDecimal throughputPerSecond;
+
+    @SuppressWarnings("unused")
+    private final String errorMessage;
+
+    public JobRunProgressData(final Long version, final Integer chunkNumber, final Long startId, final Long endId, final Integer totalCount,
+            final Integer processedCount, final Integer failedCount, final String status, final Date startTime, final Date endTime,
+            final BigDecimal throughputPerSecond, final String errorMessage) {
+        this.version = version;
+        this.chunkNumber = chunkNumber;
+        this.startId = startId;
+        this.endId = endId;
+        this.totalCount = totalCount;
+        this.processedCount = processedCount;
+        this.failedCount = failedCount;
+        this.status = status;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.throughputPerSecond = throughputPerSecond;
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.domain;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.jobs.service.SchedulerServiceConstants;
+import org.joda.time.LocalDate;
+
+/**
+ * Durable position of a keyset-paginated job run: the highest account id whose work has been committed. A run is
+ * identified by the job name and the tenant business date it was started on; an unfinished run for the same date is
+ * resumed after this id, any other run starts from the beginning.
+ */
+@Entity
+@Table(name = "job_checkpoint", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "job_name" }, name = "uq_job_checkpoint_job_name") })
+public class JobCheckpoint extends AbstractPersistableCustom {
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "run_date", nullable = false)
+    @Temporal(TemporalType.DATE)
+    private Date runDate;
+
+    @Column(name = "last_processed_id", nullable = false)
+    private Long lastProcessedId;
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "lastmodified_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastModifiedDate;
+
+    protected JobCheckpoint() {
+
+    }
+
+    public static JobCheckpoint newCheckpoint(final String jobName, final LocalDate runDate) {
+        final JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.jobName = jobName;
+        checkpoint.restart(runDate);
+        return checkpoint;
+    }
+
+    public boolean isResumableFor(final LocalDate runDate) {
+        return SchedulerServiceConstants.STATUS_RUNNING.equals(this.status) && runDate.toDate().equals(this.runDate);
+    }
+
+    public void restart(final LocalDate runDate) {
+        this.runDate = runDate.toDate();
+        this.lastProcessedId = 0L;
+        this.processedCount = 0L;
+        this.status = SchedulerServiceConstants.STATUS_RUNNING;
+        this.lastModifiedDate = new Date();
+    }
+
+    public void advanceTo(final Long lastProcessedId, final int processedCount) {
+        this.lastProcessedId = lastProcessedId;
+        this.processedCount = this.processedCount + processedCount;
+        this.lastModifiedDate = new Date();
+    }
+
+    public void complete() {
+        this.status = SchedulerServiceConstants.STATUS_SUCCESS;
+        this.lastModifiedDate = new Date();
+    }
+
+    public String getJobName() {
+        return this.jobName;
+    }
+
+    public Long getLastProcessedId() {
+        return this.lastProcessedId;
+    }
+
+    public Long getProcessedCount() {
+        return this.processedCount;
+    }
+}
@@ -16,11 +16,12 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.listener;
+package org.apache.fineract.infrastructure.jobs.domain;
 
-import org.apache.fineract.infrastructure.hooks.event.HookEvent;
-import org.springframework.context.ApplicationListener;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface HookListener extends ApplicationListener<HookEvent> {
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, Long>, JpaSpecificationExecutor<JobCheckpoint> {
 
+    JobCheckpoint findByJobName(String jobName);
 }
@@ -28,4 +28,7 @@ public interface JobParameterRepository extends JpaRepository<JobParameter, Long
 
     @Query("select jobParameter from JobParameter jobParameter where jobParameter.jobId=:jobId")
     List<JobParameter> findJobParametersByJobId(@Param("jobId") Long jobId);
+
+    @Query("select jobParameter from JobParameter jobParameter, ScheduledJobDetail jobDetail where jobParameter.jobId = jobDetail.id and jobDetail.jobName = :jobName")
+    List<JobParameter> findJobParametersByJobName(@Param("jobName") String jobName);
 }
@@ -34,6 +34,9 @@ public interface ScheduledJobDetailRepository
     @Query("select jobDetail from ScheduledJobDetail jobDetail where jobDetail.id=:jobId")
     ScheduledJobDetail findByJobId(@Param("jobId") Long jobId);
 
+    @Query("select jobDetail from ScheduledJobDetail jobDetail where jobDetail.jobName = :jobName")
+    ScheduledJobDetail findByJobName(@Param("jobName") String jobName);
+
     @Lock(value = LockModeType.PESSIMISTIC_WRITE)
     @Query("select jobDetail from ScheduledJobDetail jobDetail where jobDetail.jobKey = :jobKey")
     ScheduledJobDetail findByJobKeyWithLock(@Param("jobKey") String jobKey);
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.domain;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.jobs.service.SchedulerServiceConstants;
+
+/**
+ * Progress of one account-id range of a partitioned job run. Rows share the job id and version of the
+ * {@link ScheduledJobRunHistory} entry that is written when the run completes.
+ */
+@Entity
+@Table(name = "job_run_chunk_history")
+public class ScheduledJobRunChunkHistory extends AbstractPersistableCustom {
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "chunk_number", nullable = false)
+    private Integer chunkNumber;
+
+    @Column(name = "start_account_id", nullable = false)
+    private Long startAccountId;
+
+    @Column(name = "end_account_id", nullable = false)
+    private Long endAccountId;
+
+    @Column(name = "account_count", nullable = false)
+    private Integer accountCount;
+
+    @Column(name = "processed_count", nullable = false)
+    private Integer processedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private Integer failedCount;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "start_time", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startTime;
+
+    @Column(name = "end_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date endTime;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "error_log")
+    private String errorLog;
+
+    protected ScheduledJobRunChunkHistory() {
+
+    }
+
+    private ScheduledJobRunChunkHistory(final Long jobId, final Long version, final Integer chunkNumber, final Long startAccountId,
+            final Long endAccountId, final Integer accountCount, final Date startTime) {
+        this.jobId = jobId;
+        this.version = version;
+        this.chunkNumber = chunkNumber;
+        this.startAccountId = startAccountId;
+        this.endAccountId = endAccountId;
+        this.accountCount = accountCount;
+        this.processedCount = 0;
+        this.failedCount = 0;
+        this.status = SchedulerServiceConstants.STATUS_RUNNING;
+        this.startTime = startTime;
+    }
+
+    public static ScheduledJobRunChunkHistory started(final Long jobId, final Long version, final Integer chunkNumber,
+            final Long startAccountId, final Long endAccountId, final Integer accountCount) {
+        return new ScheduledJobRunChunkHistory(jobId, version, chunkNumber, startAccountId, endAccountId, accountCount, new Date());
+    }
+
+    public void updateProgress(final int processedCount, final int failedCount) {
+        this.processedCount = processedCount;
+        this.failedCount = failedCount;
+    }
+
+    public void complete(final String errorMessage, final String errorLog) {
+        this.endTime = new Date();
+        this.errorMessage = errorMessage;
+        this.errorLog = errorLog;
+        if (this.failedCount > 0) {
+            this.status = SchedulerServiceConstants.STATUS_FAILED;
+        } else {
+            this.status = SchedulerServiceConstants.STATUS_SUCCESS;
+        }
+    }
+
+    public Integer getChunkNumber() {
+        return this.chunkNumber;
+    }
+
+    public Long getStartAccountId() {
+        return this.startAccountId;
+    }
+
+    public Long getEndAccountId() {
+        return this.endAccountId;
+    }
+
+    public Integer getProcessedCount() {
+        return this.processedCount;
+    }
+
+    public Integer getFailedCount() {
+        return this.failedCount;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.jobs.domain.JobCheckpoint;
+import org.joda.time.LocalDate;
+
+/**
+ * Keeps the durable position of keyset-paginated jobs so that a crashed or restarted run continues after the last
+ * committed account instead of starting again from the first one.
+ */
+public interface JobCheckpointWritePlatformService {
+
+    /**
+     * Returns the unfinished checkpoint of the job for the given run date, or a fresh checkpoint positioned before the
+     * first account.
+     */
+    JobCheckpoint startOrResume(JobName jobName, LocalDate runDate);
+
+    /**
+     * Processes the given ascending account ids and advances the checkpoint past the last of them in one transaction;
+     * if any account fails nothing of the batch is committed.
+     */
+    JobCheckpoint processBatch(JobCheckpoint checkpoint, List<Long> accountIds, Consumer<Long> accountProcessor);
+
+    JobCheckpoint advance(JobCheckpoint checkpoint, Long lastProcessedId, int processedCount);
+
+    void complete(JobCheckpoint checkpoint);
+}
@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.jobs.domain.JobCheckpoint;
+import org.apache.fineract.infrastructure.jobs.domain.JobCheckpointRepository;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class JobCheckpointWritePlatformServiceImpl implements JobCheckpointWritePlatformService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobCheckpointWritePlatformServiceImpl.class);
+
+    private final JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    public JobCheckpointWritePlatformServiceImpl(final JobCheckpointRepository jobCheckpointRepository) {
+        this.jobCheckpointRepository = jobCheckpointRepository;
+    }
+
+    @Transactional
+    @Override
+    public JobCheckpoint startOrResume(final JobName jobName, final LocalDate runDate) {
+        JobCheckpoint checkpoint = this.jobCheckpointRepository.findByJobName(jobName.toString());
+        if (checkpoint == null) {
+            checkpoint = JobCheckpoint.newCheckpoint(jobName.toString(), runDate);
+        } else if (checkpoint.isResumableFor(runDate)) {
+            LOG.info("Resuming {} after account {} ({} accounts already processed)", jobName, checkpoint.getLastProcessedId(),
+                    checkpoint.getProcessedCount());
+            return checkpoint;
+        } else {
+            checkpoint.restart(runDate);
+        }
+        return this.jobCheckpointRepository.saveAndFlush(checkpoint);
+    }
+
+    @Transactional
+    @Override
+    public JobCheckpoint processBatch(final JobCheckpoint checkpoint, final List<Long> accountIds, final Consumer<Long> accountProcessor) {
+        for (final Long accountId : accountIds) {
+            accountProcessor.accept(accountId);
+        }
+        return advance(checkpoint, accountIds.get(accountIds.size() - 1), accountIds.size());
+    }
+
+    @Transactional
+    @Override
+    public JobCheckpoint advance(final JobCheckpoint checkpoint, final Long lastProcessedId, final int processedCount) {
+        checkpoint.advanceTo(lastProcessedId, processedCount);
+        return this.jobCheckpointRepository.saveAndFlush(checkpoint);
+    }
+
+    @Transactional
+    @Override
+    public void complete(final JobCheckpoint checkpoint) {
+        checkpoint.complete();
+        this.jobCheckpointRepository.saveAndFlush(checkpoint);
+    }
+}
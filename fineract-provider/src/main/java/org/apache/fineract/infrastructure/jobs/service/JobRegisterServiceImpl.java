@@ -27,9 +27,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.PostConstruct;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser;
 import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser.ClassMethodNamesPair;
@@ -80,8 +83,11 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     private SchedulerStopListener schedulerStopListener;
     private SchedulerTriggerListener globalSchedulerTriggerListener;
     private JobParameterRepository jobParameterRepository;
+    private TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
 
-    private final HashMap<String, Scheduler> schedulers = new HashMap<>(4);
+    // tenants are loaded on the tenant upgrade threads while request and job
+    // threads of the tenants that are ready already use their schedulers
+    private final ConcurrentMap<String, Scheduler> schedulers = new ConcurrentHashMap<>(4);
 
     @Autowired
     public void setApplicationContext(ApplicationContext applicationContext) {
@@ -118,22 +124,33 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         this.jobParameterRepository = jobParameterRepository;
     }
 
+    @Autowired
+    public void setTenantDatabaseUpgradeService(TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
+    }
+
     @PostConstruct
     public void loadAllJobs() {
         final List<FineractPlatformTenant> allTenants = this.tenantDetailsService.findAllTenants();
         for (final FineractPlatformTenant tenant : allTenants) {
-            ThreadLocalContextUtil.setTenant(tenant);
-            final List<ScheduledJobDetail> scheduledJobDetails = this.schedularWritePlatformService.retrieveAllJobs();
-            for (final ScheduledJobDetail jobDetails : scheduledJobDetails) {
-                scheduleJob(jobDetails);
-                jobDetails.updateTriggerMisfired(false);
-                this.schedularWritePlatformService.saveOrUpdate(jobDetails);
-            }
-            final SchedulerDetail schedulerDetail = this.schedularWritePlatformService.retriveSchedulerDetail();
-            if (schedulerDetail.isResetSchedulerOnBootup()) {
-                schedulerDetail.updateSuspendedState(false);
-                this.schedularWritePlatformService.updateSchedulerDetail(schedulerDetail);
-            }
+            // the jobs of a tenant whose schema is still being upgraded are
+            // loaded by the upgrade thread once it is done
+            this.tenantDatabaseUpgradeService.whenTenantReady(tenant.getTenantIdentifier(), () -> loadJobs(tenant));
+        }
+    }
+
+    private synchronized void loadJobs(final FineractPlatformTenant tenant) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        final List<ScheduledJobDetail> scheduledJobDetails = this.schedularWritePlatformService.retrieveAllJobs();
+        for (final ScheduledJobDetail jobDetails : scheduledJobDetails) {
+            scheduleJob(jobDetails);
+            jobDetails.updateTriggerMisfired(false);
+            this.schedularWritePlatformService.saveOrUpdate(jobDetails);
+        }
+        final SchedulerDetail schedulerDetail = this.schedularWritePlatformService.retriveSchedulerDetail();
+        if (schedulerDetail.isResetSchedulerOnBootup()) {
+            schedulerDetail.updateSuspendedState(false);
+            this.schedularWritePlatformService.updateSchedulerDetail(schedulerDetail);
         }
     }
 
@@ -297,7 +314,7 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         }
     }
 
-    private Scheduler getScheduler(final ScheduledJobDetail scheduledJobDetail) throws Exception {
+    private synchronized Scheduler getScheduler(final ScheduledJobDetail scheduledJobDetail) throws Exception {
         final String schedulername = getSchedulerName(scheduledJobDetail);
         Scheduler scheduler = this.schedulers.get(schedulername);
         if (scheduler == null) {
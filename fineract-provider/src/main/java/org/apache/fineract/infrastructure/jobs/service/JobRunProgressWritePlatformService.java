@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunkHistory;
+
+/**
+ * Records the progress of a job that walks a single id range, such as the accounting running balance update, as one
+ * <code>job_run_chunk_history</code> row so it can be followed through <code>jobs/{jobId}/runprogress</code> while
+ * the job runs.
+ */
+public interface JobRunProgressWritePlatformService {
+
+    /**
+     * @return the progress row, or null when the job is not registered for the current tenant
+     */
+    ScheduledJobRunChunkHistory startRun(JobName jobName, Long firstId, Long lastId, int totalCount);
+
+    void updateProgress(ScheduledJobRunChunkHistory progress, int processedCount);
+
+    void completeRun(ScheduledJobRunChunkHistory progress, int processedCount, Throwable error);
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetailRepository;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunkHistory;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunkHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class JobRunProgressWritePlatformServiceImpl implements JobRunProgressWritePlatformService {
+
+    private final ScheduledJobDetailRepository scheduledJobDetailRepository;
+    private final ScheduledJobRunChunkHistoryRepository scheduledJobRunChunkHistoryRepository;
+    private final SchedularWritePlatformService schedularWritePlatformService;
+
+    @Autowired
+    public JobRunProgressWritePlatformServiceImpl(final ScheduledJobDetailRepository scheduledJobDetailRepository,
+            final ScheduledJobRunChunkHistoryRepository scheduledJobRunChunkHistoryRepository,
+            final SchedularWritePlatformService schedularWritePlatformService) {
+        this.scheduledJobDetailRepository = scheduledJobDetailRepository;
+        this.scheduledJobRunChunkHistoryRepository = scheduledJobRunChunkHistoryRepository;
+        this.schedularWritePlatformService = schedularWritePlatformService;
+    }
+
+    @Override
+    public ScheduledJobRunChunkHistory startRun(final JobName jobName, final Long firstId, final Long lastId, final int totalCount) {
+        final ScheduledJobDetail scheduledJobDetail = this.scheduledJobDetailRepository.findByJobName(jobName.toString());
+        if (scheduledJobDetail == null || scheduledJobDetail.getJobKey() == null) {
+            return null;
+        }
+        // shares the version that SchedulerJobListener assigns to the run
+        // history entry once this run completes
+        final Long version = this.schedularWritePlatformService.fetchMaxVersionBy(scheduledJobDetail.getJobKey()) + 1;
+        return this.scheduledJobRunChunkHistoryRepository
+                .save(ScheduledJobRunChunkHistory.started(scheduledJobDetail.getId(), version, 1, firstId, lastId, totalCount));
+    }
+
+    @Override
+    public void updateProgress(final ScheduledJobRunChunkHistory progress, final int processedCount) {
+        if (progress != null) {
+            progress.updateProgress(processedCount, 0);
+            this.scheduledJobRunChunkHistoryRepository.save(progress);
+        }
+    }
+
+    @Override
+    public void completeRun(final ScheduledJobRunChunkHistory progress, final int processedCount, final Throwable error) {
+        if (progress == null) {
+            return;
+        }
+        if (error == null) {
+            progress.updateProgress(processedCount, 0);
+            progress.complete(null, null);
+        } else {
+            progress.updateProgress(processedCount, 1);
+            progress.complete(error.getMessage(), error.toString());
+        }
+        this.scheduledJobRunChunkHistoryRepository.save(progress);
+    }
+}
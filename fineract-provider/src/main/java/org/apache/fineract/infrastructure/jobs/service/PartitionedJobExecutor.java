@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+
+/**
+ * Runs the per-account work of a {@link org.apache.fineract.infrastructure.jobs.annotation.CronTarget} job in account-id
+ * ranges on a worker pool.
+ *
+ * The pool size and range size are read from the <code>partition-thread-count</code> and
+ * <code>partition-chunk-size</code> job parameters of the job, so a job opts in by handing its existing per-account call
+ * to {@link #execute(JobName, Collection, AccountProcessor)}. Each account is still processed in its own transaction by the
+ * given processor.
+ *
+ * Jobs that can also process a whole range in one set-based call pass a bulk processor as well; it is used instead of
+ * the per-account processor when the <code>bulk-mode</code> job parameter is 1. If a bulk call fails, the accounts of
+ * that range are retried one at a time with the per-account processor so a single bad account cannot hold back the
+ * rest of the range.
+ */
+public interface PartitionedJobExecutor {
+
+    void execute(JobName jobName, Collection<Long> accountIds, AccountProcessor accountProcessor) throws JobExecutionException;
+
+    void execute(JobName jobName, Collection<Long> accountIds, BulkProcessor bulkProcessor, AccountProcessor accountProcessor)
+            throws JobExecutionException;
+
+    @FunctionalInterface
+    interface AccountProcessor {
+
+        void process(Long accountId) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface BulkProcessor {
+
+        void process(List<Long> accountIds) throws Exception;
+    }
+}
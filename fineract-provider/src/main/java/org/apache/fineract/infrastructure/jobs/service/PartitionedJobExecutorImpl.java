@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameter;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameterRepository;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetailRepository;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunkHistory;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunkHistoryRepository;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PartitionedJobExecutorImpl implements PartitionedJobExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionedJobExecutorImpl.class);
+
+    private static final int PROGRESS_UPDATE_INTERVAL = 100;
+
+    private final ScheduledJobDetailRepository scheduledJobDetailRepository;
+    private final ScheduledJobRunChunkHistoryRepository scheduledJobRunChunkHistoryRepository;
+    private final JobParameterRepository jobParameterRepository;
+    private final SchedularWritePlatformService schedularWritePlatformService;
+
+    @Autowired
+    public PartitionedJobExecutorImpl(final ScheduledJobDetailRepository scheduledJobDetailRepository,
+            final ScheduledJobRunChunkHistoryRepository scheduledJobRunChunkHistoryRepository,
+            final JobParameterRepository jobParameterRepository, final SchedularWritePlatformService schedularWritePlatformService) {
+        this.scheduledJobDetailRepository = scheduledJobDetailRepository;
+        this.scheduledJobRunChunkHistoryRepository = scheduledJobRunChunkHistoryRepository;
+        this.jobParameterRepository = jobParameterRepository;
+        this.schedularWritePlatformService = schedularWritePlatformService;
+    }
+
+    @Override
+    public void execute(final JobName jobName, final Collection<Long> accountIds, final AccountProcessor accountProcessor)
+            throws JobExecutionException {
+        execute(jobName, accountIds, null, accountProcessor);
+    }
+
+    @Override
+    public void execute(final JobName jobName, final Collection<Long> accountIds, final BulkProcessor bulkProcessor,
+            final AccountProcessor accountProcessor) throws JobExecutionException {
+        if (accountIds == null || accountIds.isEmpty()) {
+            return;
+        }
+
+        int threadCount = SchedulerServiceConstants.DEFAULT_PARTITION_THREAD_COUNT;
+        int chunkSize = SchedulerServiceConstants.DEFAULT_PARTITION_CHUNK_SIZE;
+        boolean bulkMode = false;
+        Long version = null;
+        final ScheduledJobDetail scheduledJobDetail = this.scheduledJobDetailRepository.findByJobName(jobName.toString());
+        if (scheduledJobDetail != null) {
+            for (final JobParameter jobParameter : this.jobParameterRepository.findJobParametersByJobId(scheduledJobDetail.getId())) {
+                if (SchedulerServiceConstants.PARTITION_THREAD_COUNT_PARAMETER.equals(jobParameter.getParameterName())) {
+                    threadCount = Math.max(1, Integer.parseInt(jobParameter.getParameterValue()));
+                } else if (SchedulerServiceConstants.PARTITION_CHUNK_SIZE_PARAMETER.equals(jobParameter.getParameterName())) {
+                    chunkSize = Math.max(1, Integer.parseInt(jobParameter.getParameterValue()));
+                } else if (SchedulerServiceConstants.BULK_MODE_PARAMETER.equals(jobParameter.getParameterName())) {
+                    bulkMode = Integer.parseInt(jobParameter.getParameterValue()) == 1;
+                }
+            }
+            if (scheduledJobDetail.getJobKey() != null) {
+                // chunks share the version that SchedulerJobListener assigns
+                // to the run history entry once this run completes
+                version = this.schedularWritePlatformService.fetchMaxVersionBy(scheduledJobDetail.getJobKey()) + 1;
+            }
+        }
+
+        final BulkProcessor chunkBulkProcessor = bulkMode ? bulkProcessor : null;
+        final List<List<Long>> chunks = partition(accountIds, chunkSize);
+        final List<Throwable> errors = new ArrayList<>();
+        final long startTime = System.currentTimeMillis();
+        if (threadCount == 1 || chunks.size() == 1) {
+            int chunkNumber = 0;
+            for (final List<Long> chunk : chunks) {
+                errors.addAll(processChunk(jobName, scheduledJobDetail, version, ++chunkNumber, chunk, chunkBulkProcessor,
+                        accountProcessor));
+            }
+        } else {
+            final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+            final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            final List<Callable<List<Throwable>>> tasks = new ArrayList<>(chunks.size());
+            int chunkNumber = 0;
+            for (final List<Long> chunk : chunks) {
+                final int currentChunkNumber = ++chunkNumber;
+                tasks.add(() -> {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+                    securityContext.setAuthentication(authentication);
+                    SecurityContextHolder.setContext(securityContext);
+                    try {
+                        return processChunk(jobName, scheduledJobDetail, version, currentChunkNumber, chunk, chunkBulkProcessor,
+                                accountProcessor);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        ThreadLocalContextUtil.clearTenant();
+                    }
+                });
+            }
+
+            final ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threadCount, chunks.size()));
+            try {
+                for (final Future<List<Throwable>> response : executorService.invokeAll(tasks)) {
+                    try {
+                        errors.addAll(response.get());
+                    } catch (final ExecutionException e) {
+                        errors.add(e.getCause());
+                    }
+                }
+            } catch (final InterruptedException e) {
+                LOG.error("Interrupted while executing job {}", jobName, e);
+                Thread.currentThread().interrupt();
+                errors.add(e);
+            } finally {
+                executorService.shutdownNow();
+            }
+        }
+
+        LOG.info("{}: {} processed {} accounts in {} chunks on {} threads{} in {} ms with {} failures",
+                ThreadLocalContextUtil.getTenant().getName(), jobName, accountIds.size(), chunks.size(),
+                Math.min(threadCount, chunks.size()), chunkBulkProcessor == null ? "" : " in bulk mode",
+                System.currentTimeMillis() - startTime, errors.size());
+
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private List<Throwable> processChunk(final JobName jobName, final ScheduledJobDetail scheduledJobDetail, final Long version,
+            final int chunkNumber, final List<Long> accountIds, final BulkProcessor bulkProcessor,
+            final AccountProcessor accountProcessor) {
+        ScheduledJobRunChunkHistory chunkHistory = null;
+        if (version != null) {
+            chunkHistory = this.scheduledJobRunChunkHistoryRepository.save(ScheduledJobRunChunkHistory.started(scheduledJobDetail.getId(),
+                    version, chunkNumber, accountIds.get(0), accountIds.get(accountIds.size() - 1), accountIds.size()));
+        }
+
+        final List<Throwable> errors = new ArrayList<>();
+        int processed = 0;
+        if (bulkProcessor != null) {
+            try {
+                bulkProcessor.process(accountIds);
+                processed = accountIds.size();
+            } catch (final Exception e) {
+                LOG.warn("{} failed in bulk for accounts {} to {}, retrying them one at a time", jobName, accountIds.get(0),
+                        accountIds.get(accountIds.size() - 1), e);
+            }
+        }
+        for (final Long accountId : accountIds.subList(processed, accountIds.size())) {
+            try {
+                accountProcessor.process(accountId);
+            } catch (final Exception e) {
+                LOG.error("{} failed for account {}", jobName, accountId, e);
+                errors.add(e);
+            }
+            processed++;
+            if (chunkHistory != null && processed % PROGRESS_UPDATE_INTERVAL == 0 && processed < accountIds.size()) {
+                chunkHistory.updateProgress(processed, errors.size());
+                chunkHistory = this.scheduledJobRunChunkHistoryRepository.save(chunkHistory);
+            }
+        }
+
+        if (chunkHistory != null) {
+            chunkHistory.updateProgress(processed, errors.size());
+            if (errors.isEmpty()) {
+                chunkHistory.complete(null, null);
+            } else {
+                final Throwable firstError = errors.get(0);
+                chunkHistory.complete(firstError.getMessage(), getStackTraceAsString(firstError));
+            }
+            this.scheduledJobRunChunkHistoryRepository.save(chunkHistory);
+        }
+        return errors;
+    }
+
+    /**
+     * Splits the distinct account ids, in ascending order, into contiguous ranges of at most chunkSize accounts.
+     */
+    static List<List<Long>> partition(final Collection<Long> accountIds, final int chunkSize) {
+        final List<Long> sortedIds = new ArrayList<>(new TreeSet<>(accountIds));
+        final List<List<Long>> chunks = new ArrayList<>((sortedIds.size() + chunkSize - 1) / chunkSize);
+        for (int fromIndex = 0; fromIndex < sortedIds.size(); fromIndex += chunkSize) {
+            chunks.add(sortedIds.subList(fromIndex, Math.min(fromIndex + chunkSize, sortedIds.size())));
+        }
+        return chunks;
+    }
+
+    private String getStackTraceAsString(final Throwable throwable) {
+        final StringBuilder sb = new StringBuilder(throwable.toString());
+        for (final StackTraceElement element : throwable.getStackTrace()) {
+            sb.append("\n \t at ").append(element.getClassName()).append(".").append(element.getMethodName()).append("(")
+                    .append(element.getLineNumber()).append(")");
+        }
+        return sb.toString();
+    }
+}
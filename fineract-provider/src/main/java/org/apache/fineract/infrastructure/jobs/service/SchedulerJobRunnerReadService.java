@@ -23,6 +23,7 @@ import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailData;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailHistoryData;
+import org.apache.fineract.infrastructure.jobs.data.JobRunProgressData;
 
 public interface SchedulerJobRunnerReadService {
 
@@ -32,6 +33,8 @@ public interface SchedulerJobRunnerReadService {
 
     Page<JobDetailHistoryData> retrieveJobHistory(Long jobId, SearchParameters searchParameters);
 
+    List<JobRunProgressData> retrieveJobRunProgress(Long jobId);
+
     boolean isUpdatesAllowed();
 
 }
@@ -18,6 +18,8 @@
  */
 package org.apache.fineract.infrastructure.jobs.service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Date;
@@ -28,6 +30,7 @@ import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailData;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailHistoryData;
+import org.apache.fineract.infrastructure.jobs.data.JobRunProgressData;
 import org.apache.fineract.infrastructure.jobs.exception.JobNotFoundException;
 import org.apache.fineract.infrastructure.jobs.exception.OperationNotAllowedException;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
@@ -102,6 +105,18 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
                 jobHistoryMapper);
     }
 
+    @Override
+    public List<JobRunProgressData> retrieveJobRunProgress(final Long jobId) {
+        if (!isJobExist(jobId)) {
+            throw new JobNotFoundException(String.valueOf(jobId));
+        }
+        final JobRunProgressMapper jobRunProgressMapper = new JobRunProgressMapper();
+        final String sql = "select " + jobRunProgressMapper.schema()
+                + " where chunk.job_id=? and chunk.version=(select max(version) from job_run_chunk_history where job_id=?)"
+                + " order by chunk.chunk_number";
+        return this.jdbcTemplate.query(sql, jobRunProgressMapper, new Object[] { jobId, jobId });
+    }
+
     @Override
     public boolean isUpdatesAllowed() {
         final String sql = "select job.display_name from job job where job.currently_running=true and job.updates_allowed=false";
@@ -196,4 +211,40 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
 
     }
 
+    private static final class JobRunProgressMapper implements RowMapper<JobRunProgressData> {
+
+        private final StringBuilder sqlBuilder = new StringBuilder(200).append(
+                " chunk.version,chunk.chunk_number as chunkNumber,chunk.start_account_id as startId,chunk.end_account_id as endId,")
+                .append(" chunk.account_count as totalCount,chunk.processed_count as processedCount,chunk.failed_count as failedCount,")
+                .append(" chunk.`status`,chunk.start_time as startTime,chunk.end_time as endTime,chunk.error_message as errorMessage ")
+                .append(" from job_run_chunk_history chunk");
+
+        public String schema() {
+            return this.sqlBuilder.toString();
+        }
+
+        @Override
+        public JobRunProgressData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long version = rs.getLong("version");
+            final Integer chunkNumber = rs.getInt("chunkNumber");
+            final Long startId = rs.getLong("startId");
+            final Long endId = rs.getLong("endId");
+            final Integer totalCount = rs.getInt("totalCount");
+            final Integer processedCount = rs.getInt("processedCount");
+            final Integer failedCount = rs.getInt("failedCount");
+            final String status = rs.getString("status");
+            final Date startTime = rs.getTimestamp("startTime");
+            final Date endTime = rs.getTimestamp("endTime");
+            final String errorMessage = rs.getString("errorMessage");
+
+            BigDecimal throughputPerSecond = null;
+            final long elapsedMillis = (endTime == null ? System.currentTimeMillis() : endTime.getTime()) - startTime.getTime();
+            if (elapsedMillis > 0) {
+                throughputPerSecond = BigDecimal.valueOf(processedCount * 1000L).divide(BigDecimal.valueOf(elapsedMillis), 2,
+                        RoundingMode.HALF_UP);
+            }
+            return new JobRunProgressData(version, chunkNumber, startId, endId, totalCount, processedCount, failedCount, status, startTime,
+                    endTime, throughputPerSecond, errorMessage);
+        }
+    }
 }
@@ -29,6 +29,7 @@ public interface SchedulerServiceConstants {
     String JOB_METHOD_INVOCATION_FAILED_EXCEPTION = "JobMethodInvocationFailedException";
     String STATUS_SUCCESS = "success";
     String STATUS_FAILED = "failed";
+    String STATUS_RUNNING = "running";
     String DEFAULT_LISTENER_NAME = "Global Listener";
     int STACK_TRACE_LEVEL = 7;
     String TENANT_IDENTIFIER = "tenantIdentifier";
@@ -37,5 +38,12 @@ public interface SchedulerServiceConstants {
     int DEFAULT_THREAD_COUNT = 7;
     int GROUP_THREAD_COUNT = 1;
     String SCHEDULER_NAME = "schedulerName";
+    String PARTITION_THREAD_COUNT_PARAMETER = "partition-thread-count";
+    String PARTITION_CHUNK_SIZE_PARAMETER = "partition-chunk-size";
+    int DEFAULT_PARTITION_THREAD_COUNT = 1;
+    int DEFAULT_PARTITION_CHUNK_SIZE = 500;
+    String BATCH_SIZE_PARAMETER = "batch-size";
+    int DEFAULT_BATCH_SIZE = 100;
+    String BULK_MODE_PARAMETER = "bulk-mode";
 
 }
@@ -23,6 +23,7 @@ import java.sql.SQLException;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
 import org.apache.commons.logging.LogFactory;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.openjpa.persistence.FetchPlan;
 import org.apache.openjpa.persistence.OpenJPAEntityManager;
 import org.apache.openjpa.persistence.OpenJPAPersistence;
@@ -70,6 +71,10 @@ public class OpenJpaDialect extends DefaultJpaDialect {
             // participants using the connection (such as JdbcTemplate) run in a
             // transaction.
             openJpaEntityManager.beginStore();
+
+            // Keep the rest of the request on the primary database so that
+            // it reads its own writes rather than a lagging read replica.
+            ThreadLocalContextUtil.setReadReplicaAllowed(false);
         }
 
         // Custom implementation for OpenJPA savepoint handling
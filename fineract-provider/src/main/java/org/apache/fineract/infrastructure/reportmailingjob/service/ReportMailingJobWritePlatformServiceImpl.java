@@ -23,21 +23,31 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportRunData;
 import org.apache.fineract.infrastructure.dataqueries.domain.Report;
 import org.apache.fineract.infrastructure.dataqueries.domain.ReportRepositoryWrapper;
 import org.apache.fineract.infrastructure.dataqueries.service.ReadReportingService;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunConstants;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunDispatcher;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunReadPlatformService;
 import org.apache.fineract.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
@@ -86,6 +96,8 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
     private final ReadReportingService readReportingService;
     private final ReportingProcessServiceProvider reportingProcessServiceProvider;
     private final ReportMailingJobRunHistoryRepository reportMailingJobRunHistoryRepository;
+    private final ReportRunDispatcher reportRunDispatcher;
+    private final ReportRunReadPlatformService reportRunReadPlatformService;
     private static final String DATETIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
     @Autowired
@@ -95,7 +107,8 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
             final ReportMailingJobRepository reportMailingJobRepository, final PlatformSecurityContext platformSecurityContext,
             final ReportMailingJobEmailService reportMailingJobEmailService, final ReadReportingService readReportingService,
             final ReportMailingJobRunHistoryRepository reportMailingJobRunHistoryRepository,
-            final ReportingProcessServiceProvider reportingProcessServiceProvider) {
+            final ReportingProcessServiceProvider reportingProcessServiceProvider, final ReportRunDispatcher reportRunDispatcher,
+            final ReportRunReadPlatformService reportRunReadPlatformService) {
         this.reportRepositoryWrapper = reportRepositoryWrapper;
         this.reportMailingJobValidator = reportMailingJobValidator;
         this.reportMailingJobRepositoryWrapper = reportMailingJobRepositoryWrapper;
@@ -105,6 +118,8 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
         this.readReportingService = readReportingService;
         this.reportMailingJobRunHistoryRepository = reportMailingJobRunHistoryRepository;
         this.reportingProcessServiceProvider = reportingProcessServiceProvider;
+        this.reportRunDispatcher = reportRunDispatcher;
+        this.reportRunReadPlatformService = reportRunReadPlatformService;
     }
 
     @Override
@@ -471,6 +486,35 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
                 } else {
                     errorLog.append("Response object entity is not equal to ByteArrayOutputStream ---------- ");
                 }
+            } else if (ReportMailingJobEmailAttachmentFileFormat.CSV.equals(emailAttachmentFileFormat)) {
+                // stretchy reports are run by the report run engine, which spools
+                // the rows to the content repository instead of into memory
+                final Map<String, String> stretchyReportParams = new HashMap<>();
+                for (final Map.Entry<String, List<String>> entry : reportParams.entrySet()) {
+                    stretchyReportParams.put("${" + StringUtils.removeStart(entry.getKey(), "R_") + "}", entry.getValue().get(0));
+                }
+                final ReportRunData reportRun = this.reportRunDispatcher.runNow(reportName, ReportRunConstants.OUTPUT_TYPE_CSV,
+                        stretchyReportParams, reportMailingJob.getRunAsUser());
+
+                if (ReportRunConstants.STATUS_COMPLETED.equals(reportRun.getStatus())) {
+                    final String fileLocation = FileSystemContentRepository.FINERACT_BASE_DIR;
+                    if (!new File(fileLocation).isDirectory()) {
+                        new File(fileLocation).mkdirs();
+                    }
+                    final File file = new File(fileLocation + File.separator + reportName + "." + emailAttachmentFileFormat.getValue());
+
+                    // decompress the spooled rows straight into the attachment
+                    try (InputStream content = new GZIPInputStream(
+                            this.reportRunReadPlatformService.retrieveReportRunFile(reportRun, 0, reportRun.getFileSize() - 1));
+                            OutputStream outputStream = new FileOutputStream(file)) {
+                        IOUtils.copy(content, outputStream);
+                    }
+
+                    // send the file to email recipients
+                    this.sendReportFileToEmailRecipients(reportMailingJob, file);
+                } else {
+                    errorLog.append("Report run " + reportRun.getId() + " failed: " + reportRun.getErrorMessage() + " ---------- ");
+                }
             } else {
                 errorLog.append("ReportingProcessService object is null ---------- ");
             }
@@ -492,19 +536,12 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
      */
     private void sendReportFileToEmailRecipients(final ReportMailingJob reportMailingJob, final String fileName,
             final ByteArrayOutputStream byteArrayOutputStream, final StringBuilder errorLog) {
-        final Set<String> emailRecipients = this.reportMailingJobValidator.validateEmailRecipients(reportMailingJob.getEmailRecipients());
-
         try {
             final File file = new File(fileName);
             final FileOutputStream outputStream = new FileOutputStream(file);
             byteArrayOutputStream.writeTo(outputStream);
 
-            for (String emailRecipient : emailRecipients) {
-                final ReportMailingJobEmailData reportMailingJobEmailData = new ReportMailingJobEmailData(emailRecipient,
-                        reportMailingJob.getEmailMessage(), reportMailingJob.getEmailSubject(), file);
-
-                this.reportMailingJobEmailService.sendEmailWithAttachment(reportMailingJobEmailData);
-            }
+            this.sendReportFileToEmailRecipients(reportMailingJob, file);
 
             outputStream.close();
 
@@ -513,4 +550,21 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
                     + "exception: " + e + " ---------- ");
         }
     }
+
+    /**
+     * send report file to email recipients
+     *
+     * @param reportMailingJob
+     * @param file
+     */
+    private void sendReportFileToEmailRecipients(final ReportMailingJob reportMailingJob, final File file) {
+        final Set<String> emailRecipients = this.reportMailingJobValidator.validateEmailRecipients(reportMailingJob.getEmailRecipients());
+
+        for (String emailRecipient : emailRecipients) {
+            final ReportMailingJobEmailData reportMailingJobEmailData = new ReportMailingJobEmailData(emailRecipient,
+                    reportMailingJob.getEmailMessage(), reportMailingJob.getEmailSubject(), file);
+
+            this.reportMailingJobEmailService.sendEmailWithAttachment(reportMailingJobEmailData);
+        }
+    }
 }
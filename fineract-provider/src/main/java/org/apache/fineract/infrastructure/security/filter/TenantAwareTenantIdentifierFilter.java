@@ -31,6 +31,7 @@ import org.apache.fineract.infrastructure.cache.service.CacheWritePlatformServic
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.data.PlatformRequestLog;
 import org.apache.fineract.infrastructure.security.exception.InvalidTenantIdentiferException;
@@ -59,12 +60,14 @@ import org.springframework.web.filter.GenericFilterBean;
 public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
 
     private static boolean firstRequestProcessed = false;
+    private static final String TENANT_UPGRADE_RETRY_AFTER_SECONDS = "30";
     private static final Logger LOG = LoggerFactory.getLogger(TenantAwareTenantIdentifierFilter.class);
 
     private final BasicAuthTenantDetailsService basicAuthTenantDetailsService;
     private final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer;
     private final ConfigurationDomainService configurationDomainService;
     private final CacheWritePlatformService cacheWritePlatformService;
+    private final TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
 
     private final String tenantRequestHeader = "Fineract-Platform-TenantId";
     private final boolean exceptionIfHeaderMissing = true;
@@ -73,11 +76,12 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
     @Autowired
     public TenantAwareTenantIdentifierFilter(final BasicAuthTenantDetailsService basicAuthTenantDetailsService,
             final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer, final ConfigurationDomainService configurationDomainService,
-            final CacheWritePlatformService cacheWritePlatformService) {
+            final CacheWritePlatformService cacheWritePlatformService, final TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
         this.basicAuthTenantDetailsService = basicAuthTenantDetailsService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.configurationDomainService = configurationDomainService;
         this.cacheWritePlatformService = cacheWritePlatformService;
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
     }
 
     @Override
@@ -120,8 +124,16 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
                     isReportRequest = true;
                 }
                 final FineractPlatformTenant tenant = this.basicAuthTenantDetailsService.loadTenantById(tenantIdentifier, isReportRequest);
+                if (!this.tenantDatabaseUpgradeService.isTenantReady(tenant.getTenantIdentifier())) {
+                    response.addHeader("Retry-After", TENANT_UPGRADE_RETRY_AFTER_SECONDS);
+                    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "The tenant database has not been upgraded yet");
+                    return;
+                }
 
                 ThreadLocalContextUtil.setTenant(tenant);
+                // reads of a GET may be served from the tenant's read replica
+                // until the request opens its first read-write transaction
+                ThreadLocalContextUtil.setReadReplicaAllowed("GET".equalsIgnoreCase(request.getMethod()));
                 String authToken = request.getHeader("Authorization");
 
                 if (authToken != null && authToken.startsWith("bearer ")) {
@@ -150,6 +162,7 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Fineract Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
+            ThreadLocalContextUtil.clearReadReplicaAllowed();
             task.stop();
             final PlatformRequestLog log = PlatformRequestLog.from(task, request);
             LOG.info("{}", this.toApiJsonSerializer.serialize(log));
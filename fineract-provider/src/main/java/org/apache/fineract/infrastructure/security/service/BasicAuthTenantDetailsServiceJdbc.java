@@ -140,9 +140,31 @@ public class BasicAuthTenantDetailsServiceJdbc implements BasicAuthTenantDetails
             final TenantMapper rm = new TenantMapper(isReport);
             final String sql = "select  " + rm.schema() + " where t.identifier like ?";
 
-            return this.jdbcTemplate.queryForObject(sql, rm, new Object[] { tenantIdentifier });
+            final FineractPlatformTenant tenant = this.jdbcTemplate.queryForObject(sql, rm, new Object[] { tenantIdentifier });
+            if (isReport) {
+                return tenant;
+            }
+            return withReadReplica(tenant);
         } catch (final EmptyResultDataAccessException e) {
             throw new InvalidTenantIdentiferException("The tenant identifier: " + tenantIdentifier + " is not valid.", e);
         }
     }
+
+    /**
+     * Attaches the reporting connection of the tenant as its read replica when the tenant has one configured that is
+     * different from its OLTP connection.
+     */
+    private FineractPlatformTenant withReadReplica(final FineractPlatformTenant tenant) {
+        final TenantMapper rm = new TenantMapper(true);
+        final String sql = "select  " + rm.schema() + " where t.id = ?";
+
+        final FineractPlatformTenantConnection reportConnection = this.jdbcTemplate.queryForObject(sql, rm, new Object[] { tenant.getId() })
+                .getConnection();
+        final Long reportConnectionId = reportConnection.getConnectionId();
+        if (reportConnectionId == null || reportConnectionId == 0 || reportConnectionId.equals(tenant.getConnection().getConnectionId())) {
+            return tenant;
+        }
+        return new FineractPlatformTenant(tenant.getId(), tenant.getTenantIdentifier(), tenant.getName(), tenant.getTimezoneId(),
+                tenant.getConnection(), reportConnection);
+    }
 }
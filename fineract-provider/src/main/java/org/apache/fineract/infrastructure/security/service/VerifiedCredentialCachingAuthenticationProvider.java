@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * {@link DaoAuthenticationProvider} that remembers successful password verifications for a short while, so that HTTP
+ * Basic clients sending the same credentials on every request only pay for the (deliberately slow) password hash once
+ * per entry lifetime.
+ *
+ * Entries live in the <code>verifiedCredentials</code> cache, keyed by tenant and username. They hold an HMAC, under a
+ * key that never leaves this process, of the presented password together with the stored password hash; a password
+ * change therefore no longer matches even before the entry is evicted, and the cache never holds anything a password
+ * could be recovered from. Only the password check is skipped: the locked, disabled and expired checks of the provider
+ * still run on every request.
+ */
+public class VerifiedCredentialCachingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    public static final String CACHE_NAME = "verifiedCredentials";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec verificationKey;
+    private CacheManager cacheManager;
+
+    public VerifiedCredentialCachingAuthenticationProvider() {
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.verificationKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    public void setCacheManager(final CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(final UserDetails userDetails, final UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        final Cache cache = this.cacheManager == null ? null : this.cacheManager.getCache(CACHE_NAME);
+        if (cache == null || authentication.getCredentials() == null || userDetails.getPassword() == null) {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            return;
+        }
+
+        final String cacheKey = ThreadLocalContextUtil.getTenant().getTenantIdentifier() + "_" + userDetails.getUsername();
+        final byte[] verification = verificationOf(authentication.getCredentials().toString(), userDetails.getPassword());
+        final byte[] cachedVerification = cache.get(cacheKey, byte[].class);
+        if (cachedVerification != null && MessageDigest.isEqual(cachedVerification, verification)) {
+            return;
+        }
+
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        cache.put(cacheKey, verification);
+    }
+
+    private byte[] verificationOf(final String presentedPassword, final String storedPassword) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(this.verificationKey);
+            mac.update(storedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(presentedPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
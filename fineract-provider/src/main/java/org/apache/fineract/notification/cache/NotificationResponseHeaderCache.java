@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.stereotype.Component;
+
+/**
+ * Whether users of the current tenant have unread notifications, as last seen by this node.
+ *
+ * Entries are replaced when this node adds or reads notifications of a user; notifications added on other nodes show
+ * up once an entry has expired. The number of entries is bounded: when it is reached expired entries are dropped, and
+ * if that is not enough the whole cache is, which only costs one probe per active user.
+ */
+@Component
+public class NotificationResponseHeaderCache {
+
+    private static final long TIME_TO_LIVE_MILLIS = 10000L;
+    private static final int MAX_ENTRIES = 10000;
+
+    private final ConcurrentMap<String, CacheNotificationResponseHeader> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @return whether the user has unread notifications, or null when that is not known or no longer current
+     */
+    public Boolean hasNotifications(final Long appUserId) {
+        final CacheNotificationResponseHeader entry = this.entries.get(key(appUserId));
+        if (entry == null || isExpired(entry, System.currentTimeMillis())) {
+            return null;
+        }
+        return entry.hasNotifications();
+    }
+
+    public void put(final Long appUserId, final boolean hasNotifications) {
+        final long now = System.currentTimeMillis();
+        if (this.entries.size() >= MAX_ENTRIES) {
+            this.entries.values().removeIf(entry -> isExpired(entry, now));
+            if (this.entries.size() >= MAX_ENTRIES) {
+                this.entries.clear();
+            }
+        }
+        this.entries.put(key(appUserId), new CacheNotificationResponseHeader(hasNotifications, now));
+    }
+
+    public void evict(final Long appUserId) {
+        this.entries.remove(key(appUserId));
+    }
+
+    private static boolean isExpired(final CacheNotificationResponseHeader entry, final long now) {
+        return now - entry.getLastFetch() >= TIME_TO_LIVE_MILLIS;
+    }
+
+    private static String key(final Long appUserId) {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier() + "_" + appUserId;
+    }
+}
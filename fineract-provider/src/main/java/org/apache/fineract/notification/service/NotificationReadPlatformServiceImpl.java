@@ -20,18 +20,14 @@ package org.apache.fineract.notification.service;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.List;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
-import org.apache.fineract.notification.cache.CacheNotificationResponseHeader;
+import org.apache.fineract.notification.cache.NotificationResponseHeaderCache;
 import org.apache.fineract.notification.data.NotificationData;
-import org.apache.fineract.notification.data.NotificationMapperData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -45,63 +41,31 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
     private final ColumnValidator columnValidator;
     private final PaginationHelper<NotificationData> paginationHelper = new PaginationHelper<>();
     private final NotificationDataRow notificationDataRow = new NotificationDataRow();
-    private final NotificationMapperRow notificationMapperRow = new NotificationMapperRow();
-    private HashMap<Long, HashMap<Long, CacheNotificationResponseHeader>> tenantNotificationResponseHeaderCache = new HashMap<>();
+    private final NotificationResponseHeaderCache notificationResponseHeaderCache;
 
     @Autowired
     public NotificationReadPlatformServiceImpl(final RoutingDataSource dataSource, final PlatformSecurityContext context,
-            final ColumnValidator columnValidator) {
+            final ColumnValidator columnValidator, final NotificationResponseHeaderCache notificationResponseHeaderCache) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.context = context;
         this.columnValidator = columnValidator;
+        this.notificationResponseHeaderCache = notificationResponseHeaderCache;
     }
 
     @Override
     public boolean hasUnreadNotifications(Long appUserId) {
-        Long tenantId = ThreadLocalContextUtil.getTenant().getId();
-        Long now = System.currentTimeMillis() / 1000L;
-        if (this.tenantNotificationResponseHeaderCache.containsKey(tenantId)) {
-            HashMap<Long, CacheNotificationResponseHeader> notificationResponseHeaderCache = this.tenantNotificationResponseHeaderCache
-                    .get(tenantId);
-            if (notificationResponseHeaderCache.containsKey(appUserId)) {
-                Long lastFetch = notificationResponseHeaderCache.get(appUserId).getLastFetch();
-                if ((now - lastFetch) > 1) {
-                    return this.createUpdateCacheValue(appUserId, now, notificationResponseHeaderCache);
-                } else {
-                    return notificationResponseHeaderCache.get(appUserId).hasNotifications();
-                }
-            } else {
-                return this.createUpdateCacheValue(appUserId, now, notificationResponseHeaderCache);
-            }
-        } else {
-            return this.initializeTenantNotificationResponseHeaderCache(tenantId, now, appUserId);
-
+        final Boolean cachedHasNotifications = this.notificationResponseHeaderCache.hasNotifications(appUserId);
+        if (cachedHasNotifications != null) {
+            return cachedHasNotifications;
         }
-    }
-
-    private boolean initializeTenantNotificationResponseHeaderCache(Long tenantId, Long now, Long appUserId) {
-        HashMap<Long, CacheNotificationResponseHeader> notificationResponseHeaderCache = new HashMap<>();
-        this.tenantNotificationResponseHeaderCache.put(tenantId, notificationResponseHeaderCache);
-        return this.createUpdateCacheValue(appUserId, now, notificationResponseHeaderCache);
-    }
-
-    private boolean createUpdateCacheValue(Long appUserId, Long now,
-            HashMap<Long, CacheNotificationResponseHeader> notificationResponseHeaderCache) {
-        boolean hasNotifications;
-        Long tenantId = ThreadLocalContextUtil.getTenant().getId();
-        CacheNotificationResponseHeader cacheNotificationResponseHeader;
-        hasNotifications = checkForUnreadNotifications(appUserId);
-        cacheNotificationResponseHeader = new CacheNotificationResponseHeader(hasNotifications, now);
-        notificationResponseHeaderCache.put(appUserId, cacheNotificationResponseHeader);
-        this.tenantNotificationResponseHeaderCache.put(tenantId, notificationResponseHeaderCache);
+        final boolean hasNotifications = checkForUnreadNotifications(appUserId);
+        this.notificationResponseHeaderCache.put(appUserId, hasNotifications);
         return hasNotifications;
     }
 
     private boolean checkForUnreadNotifications(Long appUserId) {
-        String sql = "SELECT id, notification_id as notificationId, user_id as userId, is_read as isRead, created_at "
-                + "as createdAt FROM notification_mapper WHERE user_id = ? AND is_read = false";
-        List<NotificationMapperData> notificationMappers = this.jdbcTemplate.query(sql, notificationMapperRow, appUserId);
-        return notificationMappers.size() > 0;
+        String sql = "SELECT EXISTS (SELECT 1 FROM notification_mapper WHERE user_id = ? AND is_read = false)";
+        return this.jdbcTemplate.queryForObject(sql, Boolean.class, appUserId);
     }
 
     @Override
@@ -109,6 +73,7 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
         final Long appUserId = context.authenticatedUser().getId();
         String sql = "UPDATE notification_mapper SET is_read = true WHERE is_read = false and user_id = ?";
         this.jdbcTemplate.update(sql, appUserId);
+        this.notificationResponseHeaderCache.evict(appUserId);
     }
 
     @Override
@@ -160,31 +125,6 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), params, this.notificationDataRow);
     }
 
-    private static final class NotificationMapperRow implements RowMapper<NotificationMapperData> {
-
-        @Override
-        public NotificationMapperData mapRow(ResultSet rs, int rowNum) throws SQLException {
-            NotificationMapperData notificationMapperData = new NotificationMapperData();
-
-            final Long id = rs.getLong("id");
-            notificationMapperData.setId(id);
-
-            final Long notificationId = rs.getLong("notificationId");
-            notificationMapperData.setNotificationId(notificationId);
-
-            final Long userId = rs.getLong("userId");
-            notificationMapperData.setUserId(userId);
-
-            final boolean isRead = rs.getBoolean("isRead");
-            notificationMapperData.setRead(isRead);
-
-            final String createdAt = rs.getString("createdAt");
-            notificationMapperData.setCreatedAt(createdAt);
-
-            return notificationMapperData;
-        }
-    }
-
     private static final class NotificationDataRow implements RowMapper<NotificationData> {
 
         @Override
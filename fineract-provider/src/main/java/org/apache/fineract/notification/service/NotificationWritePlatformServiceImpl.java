@@ -22,6 +22,7 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import org.apache.fineract.notification.cache.NotificationResponseHeaderCache;
 import org.apache.fineract.notification.domain.Notification;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.useradministration.domain.AppUser;
@@ -40,15 +41,19 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
 
     private final NotificationMapperWritePlatformService notificationMapperWritePlatformService;
 
+    private final NotificationResponseHeaderCache notificationResponseHeaderCache;
+
     @Autowired
     public NotificationWritePlatformServiceImpl(final NotificationGeneratorWritePlatformService notificationGeneratorWritePlatformService,
             final NotificationGeneratorReadRepositoryWrapper notificationGeneratorReadRepositoryWrapper,
             final AppUserRepository appUserRepository,
-            final NotificationMapperWritePlatformService notificationMapperWritePlatformService) {
+            final NotificationMapperWritePlatformService notificationMapperWritePlatformService,
+            final NotificationResponseHeaderCache notificationResponseHeaderCache) {
         this.notificationGeneratorWritePlatformService = notificationGeneratorWritePlatformService;
         this.notificationGeneratorReadRepositoryWrapper = notificationGeneratorReadRepositoryWrapper;
         this.appUserRepository = appUserRepository;
         this.notificationMapperWritePlatformService = notificationMapperWritePlatformService;
+        this.notificationResponseHeaderCache = notificationResponseHeaderCache;
     }
 
     @Override
@@ -67,6 +72,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
                 this.notificationGeneratorReadRepositoryWrapper.findById(generatedNotificationId), appUser, false, getCurrentDateTime());
 
         this.notificationMapperWritePlatformService.create(notificationMapper);
+        this.notificationResponseHeaderCache.put(userId, true);
         return notificationMapper.getId();
     }
 
@@ -98,6 +104,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
                     this.notificationGeneratorReadRepositoryWrapper.findById(generatedNotificationId), appUser, false,
                     getCurrentDateTime());
             this.notificationMapperWritePlatformService.create(notificationMapper);
+            this.notificationResponseHeaderCache.put(userId, true);
             mappedIds.add(notificationMapper.getId());
         }
         return mappedIds;
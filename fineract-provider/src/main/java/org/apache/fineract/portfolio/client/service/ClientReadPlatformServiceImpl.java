@@ -35,6 +35,7 @@ import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PageCursor;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
@@ -69,6 +70,7 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 @Service
@@ -175,7 +177,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     }
 
     @Override
-    // @Transactional(readOnly=true)
+    @Transactional(readOnly = true)
     public Page<ClientData> retrieveAll(final SearchParameters searchParameters) {
 
         if (searchParameters != null && searchParameters.getStatus() != null
@@ -197,8 +199,9 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         // underHierarchySearchString = searchParameters.getHierarchy() + "%";
         // }
         List<Object> paramList = new ArrayList<>(Arrays.asList(underHierarchySearchString, underHierarchySearchString));
+        final boolean seekPaged = searchParameters != null && searchParameters.isSeekPaged();
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append(seekPaged ? "select " : "select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.clientMapper.schema());
         sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
 
@@ -215,6 +218,10 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
                 sqlBuilder.append(" and (").append(extraCriteria).append(")");
             }
 
+            if (seekPaged) {
+                return retrieveSeekPage(searchParameters, sqlBuilder, paramList);
+            }
+
             if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -236,6 +243,25 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
                 this.clientMapper);
     }
 
+    private Page<ClientData> retrieveSeekPage(final SearchParameters searchParameters, final StringBuilder sqlBuilder,
+            final List<Object> paramList) {
+        String sqlCountRows = null;
+        if (searchParameters.isTotalCountRequested()) {
+            sqlCountRows = "select count(*) from (" + sqlBuilder + ") filtered_clients";
+        }
+        final Object[] countArgs = paramList.toArray();
+
+        final PageCursor cursor = searchParameters.getCursor();
+        if (cursor != null) {
+            sqlBuilder.append(" and c.id > ?");
+            paramList.add(cursor.getId());
+        }
+        sqlBuilder.append(" order by c.id");
+
+        return this.paginationHelper.fetchSeekPage(this.jdbcTemplate, sqlBuilder.toString(), paramList.toArray(), sqlCountRows, countArgs,
+                searchParameters.getLimit(), this.clientMapper, client -> PageCursor.of(client.getId()));
+    }
+
     private String buildSqlStringFromClientCriteria(String schemaSql, final SearchParameters searchParameters, List<Object> paramList) {
 
         String sqlSearch = searchParameters.getSqlSearch();
@@ -302,6 +328,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ClientData retrieveOne(final Long clientId) {
         try {
             final String hierarchy = this.context.officeHierarchy();
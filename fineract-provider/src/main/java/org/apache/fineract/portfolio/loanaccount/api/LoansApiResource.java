@@ -40,6 +40,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
@@ -75,6 +78,8 @@ import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSer
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.infrastructure.core.service.TenantAwareReadExecutor;
+import org.apache.fineract.infrastructure.core.service.TenantAwareReadExecutor.ReadBatch;
 import org.apache.fineract.infrastructure.dataqueries.data.DatatableData;
 import org.apache.fineract.infrastructure.dataqueries.data.EntityTables;
 import org.apache.fineract.infrastructure.dataqueries.data.StatusEnum;
@@ -137,6 +142,8 @@ import org.apache.fineract.portfolio.rate.data.RateData;
 import org.apache.fineract.portfolio.rate.service.RateReadService;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -198,6 +205,8 @@ import org.springframework.util.CollectionUtils;
         + "Specifies compounding frequency start date for interest recalculation. This date must be equal to disbursement date")
 public class LoansApiResource {
 
+    private static final Logger LOG = LoggerFactory.getLogger(LoansApiResource.class);
+
     private final Set<String> loanDataParameters = new HashSet<>(Arrays.asList("id", "accountNo", "status", "externalId", "clientId",
             "group", "loanProductId", "loanProductName", "loanProductDescription", "isLoanProductLinkedToFloatingRate", "fundId",
             "fundName", "loanPurposeId", "loanPurposeName", "loanOfficerId", "loanOfficerName", "currency", "principal", "totalOverpaid",
@@ -222,6 +231,12 @@ public class LoansApiResource {
             "parentPrincipalAmount", "childLoanAccountNo", "childPrincipalAmount", "clientName"));
     private final String resourceNameForPermissions = "LOAN";
 
+    /**
+     * Response header listing how long each association read of a loan retrieval took, set while debug logging is enabled
+     * for this class.
+     */
+    private static final String ASSOCIATION_TIMINGS_HEADER = "X-Fineract-Association-Timings";
+
     private final PlatformSecurityContext context;
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
@@ -253,6 +268,7 @@ public class LoansApiResource {
     private final ConfigurationDomainService configurationDomainService;
     private final DefaultToApiJsonSerializer<GlimRepaymentTemplate> glimTemplateToApiJsonSerializer;
     private final GLIMAccountInfoReadPlatformService glimAccountInfoReadPlatformService;
+    private final TenantAwareReadExecutor readExecutor;
 
     @Autowired
     public LoansApiResource(final PlatformSecurityContext context, final LoanReadPlatformService loanReadPlatformService,
@@ -278,7 +294,7 @@ public class LoansApiResource {
             final BulkImportWorkbookPopulatorService bulkImportWorkbookPopulatorService, final RateReadService rateReadService,
             final ConfigurationDomainService configurationDomainService,
             final DefaultToApiJsonSerializer<GlimRepaymentTemplate> glimTemplateToApiJsonSerializer,
-            final GLIMAccountInfoReadPlatformService glimAccountInfoReadPlatformService) {
+            final GLIMAccountInfoReadPlatformService glimAccountInfoReadPlatformService, final TenantAwareReadExecutor readExecutor) {
         this.context = context;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanProductReadPlatformService = loanProductReadPlatformService;
@@ -310,6 +326,7 @@ public class LoansApiResource {
         this.configurationDomainService = configurationDomainService;
         this.glimTemplateToApiJsonSerializer = glimTemplateToApiJsonSerializer;
         this.glimAccountInfoReadPlatformService = glimAccountInfoReadPlatformService;
+        this.readExecutor = readExecutor;
     }
 
     /*
@@ -488,53 +505,42 @@ public class LoansApiResource {
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = LoansApiResourceSwagger.GetLoansLoanIdResponse.class))) })
     public String retrieveLoan(@PathParam("loanId") @Parameter(description = "loanId") final Long loanId,
             @DefaultValue("false") @QueryParam("staffInSelectedOfficeOnly") @Parameter(description = "staffInSelectedOfficeOnly") final boolean staffInSelectedOfficeOnly,
-            @Context final UriInfo uriInfo) {
-        long start = System.currentTimeMillis();
+            @Context final UriInfo uriInfo, @Context final HttpServletResponse response) {
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
 
-        LoanAccountData loanBasicDetails = this.loanReadPlatformService.retrieveOne(loanId);
-        if (loanBasicDetails.isInterestRecalculationEnabled()) {
-            Collection<CalendarData> interestRecalculationCalendarDatas = this.calendarReadPlatformService.retrieveCalendarsByEntity(
-                    loanBasicDetails.getInterestRecalculationDetailId(), CalendarEntityType.LOAN_RECALCULATION_REST_DETAIL.getValue(),
-                    null);
-            CalendarData calendarData = null;
-            if (!CollectionUtils.isEmpty(interestRecalculationCalendarDatas)) {
-                calendarData = interestRecalculationCalendarDatas.iterator().next();
-            }
-
-            Collection<CalendarData> interestRecalculationCompoundingCalendarDatas = this.calendarReadPlatformService
-                    .retrieveCalendarsByEntity(loanBasicDetails.getInterestRecalculationDetailId(),
-                            CalendarEntityType.LOAN_RECALCULATION_COMPOUNDING_DETAIL.getValue(), null);
-            CalendarData compoundingCalendarData = null;
-            if (!CollectionUtils.isEmpty(interestRecalculationCompoundingCalendarDatas)) {
-                compoundingCalendarData = interestRecalculationCompoundingCalendarDatas.iterator().next();
-            }
-            loanBasicDetails = LoanAccountData.withInterestRecalculationCalendarData(loanBasicDetails, calendarData,
-                    compoundingCalendarData);
+        final LoanAccountData loanDetails = this.loanReadPlatformService.retrieveOne(loanId);
+
+        // everything below only depends on the loan itself, so the reads are started together and collected in order
+        final ReadBatch reads = this.readExecutor.newBatch();
+        Future<Collection<CalendarData>> interestRecalculationCalendarsRead = null;
+        Future<Collection<CalendarData>> interestRecalculationCompoundingCalendarsRead = null;
+        if (loanDetails.isInterestRecalculationEnabled()) {
+            interestRecalculationCalendarsRead = reads.submit("interestRecalculationCalendar",
+                    () -> this.calendarReadPlatformService.retrieveCalendarsByEntity(loanDetails.getInterestRecalculationDetailId(),
+                            CalendarEntityType.LOAN_RECALCULATION_REST_DETAIL.getValue(), null));
+            interestRecalculationCompoundingCalendarsRead = reads.submit("interestRecalculationCompoundingCalendar",
+                    () -> this.calendarReadPlatformService.retrieveCalendarsByEntity(loanDetails.getInterestRecalculationDetailId(),
+                            CalendarEntityType.LOAN_RECALCULATION_COMPOUNDING_DETAIL.getValue(), null));
         }
-        if (loanBasicDetails.isMonthlyRepaymentFrequencyType()) {
-            Collection<CalendarData> loanCalendarDatas = this.calendarReadPlatformService.retrieveCalendarsByEntity(loanId,
-                    CalendarEntityType.LOANS.getValue(), null);
-            CalendarData calendarData = null;
-            if (!CollectionUtils.isEmpty(loanCalendarDatas)) {
-                calendarData = loanCalendarDatas.iterator().next();
-            }
-            if (calendarData != null) {
-                loanBasicDetails = LoanAccountData.withLoanCalendarData(loanBasicDetails, calendarData);
-            }
+        Future<Collection<CalendarData>> loanCalendarsRead = null;
+        if (loanDetails.isMonthlyRepaymentFrequencyType()) {
+            loanCalendarsRead = reads.submit("loanCalendar",
+                    () -> this.calendarReadPlatformService.retrieveCalendarsByEntity(loanId, CalendarEntityType.LOANS.getValue(), null));
         }
-        Collection<InterestRatePeriodData> interestRatesPeriods = this.loanReadPlatformService
-                .retrieveLoanInterestRatePeriodData(loanBasicDetails);
-        Collection<LoanTransactionData> loanRepayments = null;
-        LoanScheduleData repaymentSchedule = null;
-        Collection<LoanChargeData> charges = null;
-        Collection<GuarantorData> guarantors = null;
-        Collection<CollateralData> collateral = null;
-        CalendarData meeting = null;
-        Collection<NoteData> notes = null;
-        PortfolioAccountData linkedAccount = null;
-        Collection<DisbursementData> disbursementData = null;
-        Collection<LoanTermVariationsData> emiAmountVariations = null;
+        final Future<Collection<InterestRatePeriodData>> interestRatesPeriodsRead = reads.submit("interestRatesPeriods",
+                () -> this.loanReadPlatformService.retrieveLoanInterestRatePeriodData(loanDetails));
+
+        Future<List<GuarantorData>> guarantorsRead = null;
+        Future<Collection<LoanTransactionData>> transactionsRead = null;
+        Future<Collection<DisbursementData>> disbursementDataRead = null;
+        Future<Collection<LoanTermVariationsData>> emiAmountVariationsRead = null;
+        Future<LoanScheduleData> repaymentScheduleRead = null;
+        Future<LoanScheduleData> originalScheduleRead = null;
+        Future<Collection<LoanChargeData>> chargesRead = null;
+        Future<List<CollateralData>> collateralRead = null;
+        Future<CalendarData> meetingRead = null;
+        Future<Collection<NoteData>> notesRead = null;
+        Future<PortfolioAccountData> linkedAccountRead = null;
 
         final Set<String> mandatoryResponseParameters = new HashSet<>();
         final Set<String> associationParameters = ApiParameterHelper.extractAssociationsForResponseIfProvided(uriInfo.getQueryParameters());
@@ -549,86 +555,200 @@ public class LoansApiResource {
 
             if (associationParameters.contains("guarantors")) {
                 mandatoryResponseParameters.add("guarantors");
-                guarantors = this.guarantorReadPlatformService.retrieveGuarantorsForLoan(loanId);
-                if (CollectionUtils.isEmpty(guarantors)) {
-                    guarantors = null;
-                }
+                guarantorsRead = reads.submit("guarantors", () -> this.guarantorReadPlatformService.retrieveGuarantorsForLoan(loanId));
             }
 
             if (associationParameters.contains("transactions")) {
                 mandatoryResponseParameters.add("transactions");
-                final Collection<LoanTransactionData> currentLoanRepayments = this.loanReadPlatformService.retrieveLoanTransactions(loanId);
-                if (!CollectionUtils.isEmpty(currentLoanRepayments)) {
-                    loanRepayments = currentLoanRepayments;
-                }
+                transactionsRead = reads.submit("transactions", () -> this.loanReadPlatformService.retrieveLoanTransactions(loanId));
             }
 
             if (associationParameters.contains("multiDisburseDetails") || associationParameters.contains("repaymentSchedule")) {
                 mandatoryResponseParameters.add("multiDisburseDetails");
-                disbursementData = this.loanReadPlatformService.retrieveLoanDisbursementDetails(loanId);
+                disbursementDataRead = reads.submit("multiDisburseDetails",
+                        () -> this.loanReadPlatformService.retrieveLoanDisbursementDetails(loanId));
             }
 
             if (associationParameters.contains("emiAmountVariations") || associationParameters.contains("repaymentSchedule")) {
                 mandatoryResponseParameters.add("emiAmountVariations");
-                emiAmountVariations = this.loanReadPlatformService.retrieveLoanTermVariations(loanId,
-                        LoanTermVariationType.EMI_AMOUNT.getValue());
-            }
-
-            if (associationParameters.contains("repaymentSchedule")) {
-                mandatoryResponseParameters.add("repaymentSchedule");
-                final RepaymentScheduleRelatedLoanData repaymentScheduleRelatedData = loanBasicDetails.repaymentScheduleRelatedData();
-                repaymentSchedule = this.loanReadPlatformService.retrieveRepaymentSchedule(loanId, repaymentScheduleRelatedData,
-                        disbursementData, loanBasicDetails.isInterestRecalculationEnabled(), loanBasicDetails.getTotalPaidFeeCharges());
-
-                if (associationParameters.contains("futureSchedule") && loanBasicDetails.isInterestRecalculationEnabled()) {
-                    mandatoryResponseParameters.add("futureSchedule");
-                    this.calculationPlatformService.updateFutureSchedule(repaymentSchedule, loanId);
-                }
-
-                if (associationParameters.contains("originalSchedule") && loanBasicDetails.isInterestRecalculationEnabled()
-                        && loanBasicDetails.isActive()) {
-                    mandatoryResponseParameters.add("originalSchedule");
-                    LoanScheduleData loanScheduleData = this.loanScheduleHistoryReadPlatformService.retrieveRepaymentArchiveSchedule(loanId,
-                            repaymentScheduleRelatedData, disbursementData);
-                    loanBasicDetails = LoanAccountData.withOriginalSchedule(loanBasicDetails, loanScheduleData);
-                }
+                emiAmountVariationsRead = reads.submit("emiAmountVariations",
+                        () -> this.loanReadPlatformService.retrieveLoanTermVariations(loanId, LoanTermVariationType.EMI_AMOUNT.getValue()));
             }
 
             if (associationParameters.contains("charges")) {
                 mandatoryResponseParameters.add("charges");
-                charges = this.loanChargeReadPlatformService.retrieveLoanCharges(loanId);
-                if (CollectionUtils.isEmpty(charges)) {
-                    charges = null;
-                }
+                chargesRead = reads.submit("charges", () -> this.loanChargeReadPlatformService.retrieveLoanCharges(loanId));
             }
 
             if (associationParameters.contains("collateral")) {
                 mandatoryResponseParameters.add("collateral");
-                collateral = this.loanCollateralReadPlatformService.retrieveCollaterals(loanId);
-                if (CollectionUtils.isEmpty(collateral)) {
-                    collateral = null;
-                }
+                collateralRead = reads.submit("collateral", () -> this.loanCollateralReadPlatformService.retrieveCollaterals(loanId));
             }
 
             if (associationParameters.contains("meeting")) {
                 mandatoryResponseParameters.add("meeting");
-                meeting = this.calendarReadPlatformService.retrieveLoanCalendar(loanId);
+                meetingRead = reads.submit("meeting", () -> this.calendarReadPlatformService.retrieveLoanCalendar(loanId));
             }
 
             if (associationParameters.contains("notes")) {
                 mandatoryResponseParameters.add("notes");
-                notes = this.noteReadPlatformService.retrieveNotesByResource(loanId, NoteType.LOAN.getValue());
-                if (CollectionUtils.isEmpty(notes)) {
-                    notes = null;
-                }
+                notesRead = reads.submit("notes",
+                        () -> this.noteReadPlatformService.retrieveNotesByResource(loanId, NoteType.LOAN.getValue()));
             }
 
             if (associationParameters.contains("linkedAccount")) {
                 mandatoryResponseParameters.add("linkedAccount");
-                linkedAccount = this.accountAssociationsReadPlatformService.retriveLoanLinkedAssociation(loanId);
+                linkedAccountRead = reads.submit("linkedAccount",
+                        () -> this.accountAssociationsReadPlatformService.retriveLoanLinkedAssociation(loanId));
+            }
+        }
+
+        Future<Collection<LoanProductData>> productOptionsRead = null;
+        Future<LoanProductData> productRead = null;
+        Future<Collection<TransactionProcessingStrategyData>> repaymentStrategyOptionsRead = null;
+        Future<Collection<FundData>> fundOptionsRead = null;
+        Future<ChargeData> chargeTemplateRead = null;
+        Future<Collection<StaffData>> allowedLoanOfficersRead = null;
+        Future<Collection<CodeValueData>> loanPurposeOptionsRead = null;
+        Future<Collection<CodeValueData>> loanCollateralOptionsRead = null;
+        Future<Collection<PortfolioAccountData>> accountLinkingOptionsRead = null;
+        Future<Collection<CalendarData>> calendarOptionsRead = null;
+
+        final boolean template = ApiParameterHelper.template(uriInfo.getQueryParameters());
+        if (template) {
+            productOptionsRead = reads.submit("productOptions",
+                    () -> this.loanProductReadPlatformService.retrieveAllLoanProductsForLookup());
+            productRead = reads.submit("product",
+                    () -> this.loanProductReadPlatformService.retrieveLoanProduct(loanDetails.loanProductId()));
+            repaymentStrategyOptionsRead = reads.submit("repaymentStrategyOptions",
+                    () -> this.dropdownReadPlatformService.retreiveTransactionProcessingStrategies());
+            fundOptionsRead = reads.submit("fundOptions", () -> this.fundReadPlatformService.retrieveAllFunds());
+            chargeTemplateRead = reads.submit("chargeTemplate", () -> this.loanChargeReadPlatformService.retrieveLoanChargeTemplate());
+            allowedLoanOfficersRead = reads.submit("allowedLoanOfficers",
+                    () -> this.loanReadPlatformService.retrieveAllowedLoanOfficers(loanDetails.officeId(), staffInSelectedOfficeOnly));
+            loanPurposeOptionsRead = reads.submit("loanPurposeOptions",
+                    () -> this.codeValueReadPlatformService.retrieveCodeValuesByCode("LoanPurpose"));
+            loanCollateralOptionsRead = reads.submit("loanCollateralOptions",
+                    () -> this.codeValueReadPlatformService.retrieveCodeValuesByCode("LoanCollateral"));
+            final CurrencyData currencyData = loanDetails.currency();
+            String currencyCode = null;
+            if (currencyData != null) {
+                currencyCode = currencyData.code();
+            }
+            final long[] accountStatus = { SavingsAccountStatusType.ACTIVE.getValue() };
+            final PortfolioAccountDTO portfolioAccountDTO = new PortfolioAccountDTO(PortfolioAccountType.SAVINGS.getValue(),
+                    loanDetails.clientId(), currencyCode, accountStatus, DepositAccountType.SAVINGS_DEPOSIT.getValue());
+            accountLinkingOptionsRead = reads.submit("accountLinkingOptions",
+                    () -> this.portfolioAccountReadPlatformService.retrieveAllForLookup(portfolioAccountDTO));
+
+            if (!associationParameters.contains("linkedAccount")) {
+                mandatoryResponseParameters.add("linkedAccount");
+                linkedAccountRead = reads.submit("linkedAccount",
+                        () -> this.accountAssociationsReadPlatformService.retriveLoanLinkedAssociation(loanId));
+            }
+            if (loanDetails.groupId() != null) {
+                calendarOptionsRead = reads.submit("calendarOptions",
+                        () -> this.loanReadPlatformService.retrieveCalendars(loanDetails.groupId()));
+            }
+        }
+
+        final Future<Collection<ChargeData>> overdueChargesRead = reads.submit("overdueCharges",
+                () -> this.chargeReadPlatformService.retrieveLoanProductCharges(loanDetails.loanProductId(),
+                        ChargeTimeType.OVERDUE_INSTALLMENT));
+        final Future<PaidInAdvanceData> paidInAdvanceTemplateRead = reads.submit("paidInAdvance",
+                () -> this.loanReadPlatformService.retrieveTotalPaidInAdvance(loanId));
+
+        // Get rates from Loan
+        final boolean isRatesEnabled = this.configurationDomainService.isSubRatesEnabled();
+        Future<List<RateData>> ratesRead = null;
+        if (isRatesEnabled) {
+            ratesRead = reads.submit("rates", () -> this.rateReadService.retrieveLoanRates(loanId));
+        }
+
+        // the schedules need the disbursement details, so they are only started once those are in
+        final Collection<DisbursementData> disbursementData = disbursementDataRead == null ? null : reads.get(disbursementDataRead);
+        if (associationParameters.contains("repaymentSchedule")) {
+            mandatoryResponseParameters.add("repaymentSchedule");
+            final RepaymentScheduleRelatedLoanData repaymentScheduleRelatedData = loanDetails.repaymentScheduleRelatedData();
+            final boolean futureSchedule = associationParameters.contains("futureSchedule") && loanDetails.isInterestRecalculationEnabled();
+            if (futureSchedule) {
+                mandatoryResponseParameters.add("futureSchedule");
+            }
+            repaymentScheduleRead = reads.submit("repaymentSchedule", () -> {
+                final LoanScheduleData schedule = this.loanReadPlatformService.retrieveRepaymentSchedule(loanId,
+                        repaymentScheduleRelatedData, disbursementData, loanDetails.isInterestRecalculationEnabled(),
+                        loanDetails.getTotalPaidFeeCharges());
+                if (futureSchedule) {
+                    this.calculationPlatformService.updateFutureSchedule(schedule, loanId);
+                }
+                return schedule;
+            });
+
+            if (associationParameters.contains("originalSchedule") && loanDetails.isInterestRecalculationEnabled()
+                    && loanDetails.isActive()) {
+                mandatoryResponseParameters.add("originalSchedule");
+                originalScheduleRead = reads.submit("originalSchedule", () -> this.loanScheduleHistoryReadPlatformService
+                        .retrieveRepaymentArchiveSchedule(loanId, repaymentScheduleRelatedData, disbursementData));
+            }
+        }
+
+        LoanAccountData loanBasicDetails = loanDetails;
+        if (interestRecalculationCalendarsRead != null) {
+            final Collection<CalendarData> interestRecalculationCalendarDatas = reads.get(interestRecalculationCalendarsRead);
+            CalendarData calendarData = null;
+            if (!CollectionUtils.isEmpty(interestRecalculationCalendarDatas)) {
+                calendarData = interestRecalculationCalendarDatas.iterator().next();
             }
 
+            final Collection<CalendarData> interestRecalculationCompoundingCalendarDatas = reads
+                    .get(interestRecalculationCompoundingCalendarsRead);
+            CalendarData compoundingCalendarData = null;
+            if (!CollectionUtils.isEmpty(interestRecalculationCompoundingCalendarDatas)) {
+                compoundingCalendarData = interestRecalculationCompoundingCalendarDatas.iterator().next();
+            }
+            loanBasicDetails = LoanAccountData.withInterestRecalculationCalendarData(loanBasicDetails, calendarData,
+                    compoundingCalendarData);
         }
+        if (loanCalendarsRead != null) {
+            final Collection<CalendarData> loanCalendarDatas = reads.get(loanCalendarsRead);
+            CalendarData calendarData = null;
+            if (!CollectionUtils.isEmpty(loanCalendarDatas)) {
+                calendarData = loanCalendarDatas.iterator().next();
+            }
+            if (calendarData != null) {
+                loanBasicDetails = LoanAccountData.withLoanCalendarData(loanBasicDetails, calendarData);
+            }
+        }
+        final Collection<InterestRatePeriodData> interestRatesPeriods = reads.get(interestRatesPeriodsRead);
+
+        Collection<GuarantorData> guarantors = guarantorsRead == null ? null : reads.get(guarantorsRead);
+        if (CollectionUtils.isEmpty(guarantors)) {
+            guarantors = null;
+        }
+        Collection<LoanTransactionData> loanRepayments = transactionsRead == null ? null : reads.get(transactionsRead);
+        if (CollectionUtils.isEmpty(loanRepayments)) {
+            loanRepayments = null;
+        }
+        final Collection<LoanTermVariationsData> emiAmountVariations = emiAmountVariationsRead == null ? null
+                : reads.get(emiAmountVariationsRead);
+        final LoanScheduleData repaymentSchedule = repaymentScheduleRead == null ? null : reads.get(repaymentScheduleRead);
+        if (originalScheduleRead != null) {
+            loanBasicDetails = LoanAccountData.withOriginalSchedule(loanBasicDetails, reads.get(originalScheduleRead));
+        }
+        Collection<LoanChargeData> charges = chargesRead == null ? null : reads.get(chargesRead);
+        if (CollectionUtils.isEmpty(charges)) {
+            charges = null;
+        }
+        Collection<CollateralData> collateral = collateralRead == null ? null : reads.get(collateralRead);
+        if (CollectionUtils.isEmpty(collateral)) {
+            collateral = null;
+        }
+        final CalendarData meeting = meetingRead == null ? null : reads.get(meetingRead);
+        Collection<NoteData> notes = notesRead == null ? null : reads.get(notesRead);
+        if (CollectionUtils.isEmpty(notes)) {
+            notes = null;
+        }
+        final PortfolioAccountData linkedAccount = linkedAccountRead == null ? null : reads.get(linkedAccountRead);
 
         Collection<LoanProductData> productOptions = null;
         LoanProductData product = null;
@@ -649,13 +769,11 @@ public class LoansApiResource {
         Collection<CodeValueData> loanCollateralOptions = null;
         Collection<CalendarData> calendarOptions = null;
         Collection<PortfolioAccountData> accountLinkingOptions = null;
-        PaidInAdvanceData paidInAdvanceTemplate = null;
         Collection<LoanAccountSummaryData> clientActiveLoanOptions = null;
 
-        final boolean template = ApiParameterHelper.template(uriInfo.getQueryParameters());
         if (template) {
-            productOptions = this.loanProductReadPlatformService.retrieveAllLoanProductsForLookup();
-            product = this.loanProductReadPlatformService.retrieveLoanProduct(loanBasicDetails.loanProductId());
+            productOptions = reads.get(productOptionsRead);
+            product = reads.get(productRead);
             loanBasicDetails.setProduct(product);
             loanTermFrequencyTypeOptions = this.dropdownReadPlatformService.retrieveLoanTermFrequencyTypeOptions();
             repaymentFrequencyTypeOptions = this.dropdownReadPlatformService.retrieveRepaymentFrequencyTypeOptions();
@@ -671,57 +789,43 @@ public class LoansApiResource {
             }
             interestCalculationPeriodTypeOptions = this.dropdownReadPlatformService.retrieveLoanInterestRateCalculatedInPeriodOptions();
 
-            fundOptions = this.fundReadPlatformService.retrieveAllFunds();
-            repaymentStrategyOptions = this.dropdownReadPlatformService.retreiveTransactionProcessingStrategies();
-            if (product.getMultiDisburseLoan()) {
-                chargeOptions = this.chargeReadPlatformService.retrieveLoanAccountApplicableCharges(loanId,
-                        new ChargeTimeType[] { ChargeTimeType.OVERDUE_INSTALLMENT });
-            } else {
-                chargeOptions = this.chargeReadPlatformService.retrieveLoanAccountApplicableCharges(loanId,
-                        new ChargeTimeType[] { ChargeTimeType.OVERDUE_INSTALLMENT, ChargeTimeType.TRANCHE_DISBURSEMENT });
-            }
-            chargeTemplate = this.loanChargeReadPlatformService.retrieveLoanChargeTemplate();
-
-            allowedLoanOfficers = this.loanReadPlatformService.retrieveAllowedLoanOfficers(loanBasicDetails.officeId(),
-                    staffInSelectedOfficeOnly);
-
-            loanPurposeOptions = this.codeValueReadPlatformService.retrieveCodeValuesByCode("LoanPurpose");
-            loanCollateralOptions = this.codeValueReadPlatformService.retrieveCodeValuesByCode("LoanCollateral");
-            final CurrencyData currencyData = loanBasicDetails.currency();
-            String currencyCode = null;
-            if (currencyData != null) {
-                currencyCode = currencyData.code();
+            // these depend on the product
+            final ChargeTimeType[] excludedChargeTimes = product.getMultiDisburseLoan()
+                    ? new ChargeTimeType[] { ChargeTimeType.OVERDUE_INSTALLMENT }
+                    : new ChargeTimeType[] { ChargeTimeType.OVERDUE_INSTALLMENT, ChargeTimeType.TRANCHE_DISBURSEMENT };
+            final Future<Collection<ChargeData>> chargeOptionsRead = reads.submit("chargeOptions",
+                    () -> this.chargeReadPlatformService.retrieveLoanAccountApplicableCharges(loanId, excludedChargeTimes));
+            Future<Collection<LoanAccountSummaryData>> clientActiveLoanOptionsRead = null;
+            if (loanBasicDetails.product().canUseForTopup() && loanBasicDetails.clientId() != null) {
+                clientActiveLoanOptionsRead = reads.submit("clientActiveLoanOptions",
+                        () -> this.accountDetailsReadPlatformService.retrieveClientActiveLoanAccountSummary(loanDetails.clientId()));
             }
-            final long[] accountStatus = { SavingsAccountStatusType.ACTIVE.getValue() };
-            PortfolioAccountDTO portfolioAccountDTO = new PortfolioAccountDTO(PortfolioAccountType.SAVINGS.getValue(),
-                    loanBasicDetails.clientId(), currencyCode, accountStatus, DepositAccountType.SAVINGS_DEPOSIT.getValue());
-            accountLinkingOptions = this.portfolioAccountReadPlatformService.retrieveAllForLookup(portfolioAccountDTO);
 
-            if (!associationParameters.contains("linkedAccount")) {
-                mandatoryResponseParameters.add("linkedAccount");
-                linkedAccount = this.accountAssociationsReadPlatformService.retriveLoanLinkedAssociation(loanId);
+            repaymentStrategyOptions = reads.get(repaymentStrategyOptionsRead);
+            fundOptions = reads.get(fundOptionsRead);
+            chargeTemplate = reads.get(chargeTemplateRead);
+            allowedLoanOfficers = reads.get(allowedLoanOfficersRead);
+            loanPurposeOptions = reads.get(loanPurposeOptionsRead);
+            loanCollateralOptions = reads.get(loanCollateralOptionsRead);
+            accountLinkingOptions = reads.get(accountLinkingOptionsRead);
+            if (calendarOptionsRead != null) {
+                calendarOptions = reads.get(calendarOptionsRead);
             }
-            if (loanBasicDetails.groupId() != null) {
-                calendarOptions = this.loanReadPlatformService.retrieveCalendars(loanBasicDetails.groupId());
+            chargeOptions = reads.get(chargeOptionsRead);
+            if (clientActiveLoanOptionsRead != null) {
+                clientActiveLoanOptions = reads.get(clientActiveLoanOptionsRead);
             }
-
-            if (loanBasicDetails.product().canUseForTopup() && loanBasicDetails.clientId() != null) {
-                clientActiveLoanOptions = this.accountDetailsReadPlatformService
-                        .retrieveClientActiveLoanAccountSummary(loanBasicDetails.clientId());
-            }
-
         }
 
-        Collection<ChargeData> overdueCharges = this.chargeReadPlatformService.retrieveLoanProductCharges(loanBasicDetails.loanProductId(),
-                ChargeTimeType.OVERDUE_INSTALLMENT);
-
-        paidInAdvanceTemplate = this.loanReadPlatformService.retrieveTotalPaidInAdvance(loanId);
+        final Collection<ChargeData> overdueCharges = reads.get(overdueChargesRead);
+        final PaidInAdvanceData paidInAdvanceTemplate = reads.get(paidInAdvanceTemplateRead);
+        final List<RateData> rates = ratesRead == null ? null : reads.get(ratesRead);
 
-        // Get rates from Loan
-        boolean isRatesEnabled = this.configurationDomainService.isSubRatesEnabled();
-        List<RateData> rates = null;
-        if (isRatesEnabled) {
-            rates = this.rateReadService.retrieveLoanRates(loanId);
+        if (response != null && LOG.isDebugEnabled()) {
+            final String timings = reads.getTimings().entrySet().stream().map(timing -> timing.getKey() + "=" + timing.getValue())
+                    .collect(Collectors.joining(";"));
+            LOG.debug("Loan {} associations read in ms: {}", loanId, timings);
+            response.setHeader(ASSOCIATION_TIMINGS_HEADER, timings);
         }
 
         final LoanAccountData loanAccount = LoanAccountData.associationsAndTemplate(loanBasicDetails, repaymentSchedule, loanRepayments,
@@ -21,12 +21,13 @@ package org.apache.fineract.portfolio.loanaccount.service;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.fineract.infrastructure.core.exception.MultiException;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.joda.time.LocalDate;
 import org.slf4j.Logger;
@@ -41,51 +42,38 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
 
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+    private final PartitionedJobExecutor partitionedJobExecutor;
 
     @Autowired
     public LoanAccrualPlatformServiceImpl(final LoanReadPlatformService loanReadPlatformService,
-            final LoanAccrualWritePlatformService loanAccrualWritePlatformService) {
+            final LoanAccrualWritePlatformService loanAccrualWritePlatformService, final PartitionedJobExecutor partitionedJobExecutor) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanAccrualWritePlatformService = loanAccrualWritePlatformService;
+        this.partitionedJobExecutor = partitionedJobExecutor;
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_ACCRUAL_ENTRIES)
     public void addAccrualAccounting() throws JobExecutionException {
-        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retriveScheduleAccrualData();
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
-        }
-
-        List<Throwable> errors = new ArrayList<>();
-        for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
-            try {
-                this.loanAccrualWritePlatformService.addAccrualAccounting(mapEntry.getKey(), mapEntry.getValue());
-            } catch (Exception e) {
-                LOG.error("Failed to add accural transaction for loan {}", mapEntry.getKey(), e);
-                errors.add(e);
-            }
-        }
-        if (!errors.isEmpty()) {
-            throw new JobExecutionException(errors);
-        }
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(
+                this.loanReadPlatformService.retriveScheduleAccrualData());
+        this.partitionedJobExecutor.execute(JobName.ADD_ACCRUAL_ENTRIES, loanDataMap.keySet(),
+                loanId -> this.loanAccrualWritePlatformService.addAccrualAccounting(loanId, loanDataMap.get(loanId)));
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES)
     public void addPeriodicAccruals() throws JobExecutionException {
-        try {
-            addPeriodicAccruals(LocalDate.now());
-        } catch (MultiException e) {
-            throw new JobExecutionException(e);
-        }
+        final LocalDate tilldate = LocalDate.now();
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(
+                this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate));
+        this.partitionedJobExecutor.execute(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, loanDataMap.keySet(), loanIds -> {
+            final Map<Long, Collection<LoanScheduleAccrualData>> chunkDataMap = new LinkedHashMap<>();
+            for (final Long loanId : loanIds) {
+                chunkDataMap.put(loanId, loanDataMap.get(loanId));
+            }
+            this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, chunkDataMap);
+        }, loanId -> this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, loanId, loanDataMap.get(loanId)));
     }
 
     @Override
@@ -97,16 +85,7 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
     @Override
     public void addPeriodicAccruals(final LocalDate tilldate, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas)
             throws JobExecutionException {
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
-        }
+        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(loanScheduleAccrualDatas);
 
         List<Throwable> errors = new ArrayList<>();
         for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
@@ -141,4 +120,18 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
             }
         }
     }
+
+    private Map<Long, Collection<LoanScheduleAccrualData>> groupByLoan(final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
+        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+            if (loanDataMap.containsKey(accrualData.getLoanId())) {
+                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
+            } else {
+                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
+                accrualDatas.add(accrualData);
+                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
+            }
+        }
+        return loanDataMap;
+    }
 }
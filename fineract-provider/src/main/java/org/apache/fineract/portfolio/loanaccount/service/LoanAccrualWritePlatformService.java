@@ -19,6 +19,7 @@
 package org.apache.fineract.portfolio.loanaccount.service;
 
 import java.util.Collection;
+import java.util.Map;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.joda.time.LocalDate;
 
@@ -29,5 +30,7 @@ public interface LoanAccrualWritePlatformService {
     void addPeriodicAccruals(LocalDate tilldate, Long loanId, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas)
             throws Exception;
 
+    void addPeriodicAccruals(LocalDate tilldate, Map<Long, Collection<LoanScheduleAccrualData>> loanScheduleAccrualDatas);
+
     void addIncomeAndAccrualTransactions(Long loanId) throws Exception;
 }
@@ -19,14 +19,19 @@
 package org.apache.fineract.portfolio.loanaccount.service;
 
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import javax.sql.DataSource;
+import java.util.Set;
 import org.apache.fineract.accounting.journalentry.service.JournalEntryWritePlatformService;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
@@ -57,10 +62,19 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlatformService {
 
+    private static final String INSERT_ACCRUAL_TRANSACTION_SQL = "INSERT INTO m_loan_transaction  (loan_id,office_id,is_reversed,"
+            + "transaction_type_enum,transaction_date,amount,interest_portion_derived,fee_charges_portion_derived,"
+            + "penalty_charges_portion_derived, submitted_on_date) VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CHARGE_PAID_BY_SQL = "INSERT INTO m_loan_charge_paid_by (loan_transaction_id, loan_charge_id, "
+            + "amount,installment_number) VALUES (?,?,?,?)";
+    private static final String UPDATE_SCHEDULE_ACCRUALS_SQL = "UPDATE m_loan_repayment_schedule SET accrual_interest_derived=?, "
+            + "accrual_fee_charges_derived=?, accrual_penalty_charges_derived=? WHERE  id=?";
+    private static final String UPDATE_LOAN_ACCRUED_TILL_SQL = "UPDATE m_loan  SET accrued_till=?  WHERE  id=?";
+    private static final String LAST_TRANSACTION_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM m_loan_transaction";
+
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanChargeReadPlatformService loanChargeReadPlatformService;
     private final JdbcTemplate jdbcTemplate;
-    private final DataSource dataSource;
     private final JournalEntryWritePlatformService journalEntryWritePlatformService;
     private final AppUserRepositoryWrapper userRepository;
     private final LoanRepositoryWrapper loanRepositoryWrapper;
@@ -71,9 +85,16 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
             final JournalEntryWritePlatformService journalEntryWritePlatformService,
             final LoanChargeReadPlatformService loanChargeReadPlatformService, final AppUserRepositoryWrapper userRepository,
             final LoanRepositoryWrapper loanRepositoryWrapper, final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository) {
+        this(new JdbcTemplate(dataSource), loanReadPlatformService, journalEntryWritePlatformService, loanChargeReadPlatformService,
+                userRepository, loanRepositoryWrapper, applicationCurrencyRepository);
+    }
+
+    LoanAccrualWritePlatformServiceImpl(final JdbcTemplate jdbcTemplate, final LoanReadPlatformService loanReadPlatformService,
+            final JournalEntryWritePlatformService journalEntryWritePlatformService,
+            final LoanChargeReadPlatformService loanChargeReadPlatformService, final AppUserRepositoryWrapper userRepository,
+            final LoanRepositoryWrapper loanRepositoryWrapper, final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository) {
         this.loanReadPlatformService = loanReadPlatformService;
-        this.dataSource = dataSource;
-        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.jdbcTemplate = jdbcTemplate;
         this.journalEntryWritePlatformService = journalEntryWritePlatformService;
         this.loanChargeReadPlatformService = loanChargeReadPlatformService;
         this.userRepository = userRepository;
@@ -104,6 +125,31 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
     @Transactional
     public void addPeriodicAccruals(final LocalDate tilldate, Long loanId, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas)
             throws Exception {
+        for (final AccrualPosting posting : calculatePeriodicAccruals(tilldate, loanId, loanScheduleAccrualDatas)) {
+            addAccrualAccounting(posting);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void addPeriodicAccruals(final LocalDate tilldate,
+            final Map<Long, Collection<LoanScheduleAccrualData>> loanScheduleAccrualDatas) {
+        final List<AccrualPosting> postings = new ArrayList<>();
+        for (final Map.Entry<Long, Collection<LoanScheduleAccrualData>> entry : loanScheduleAccrualDatas.entrySet()) {
+            postings.addAll(calculatePeriodicAccruals(tilldate, entry.getKey(), entry.getValue()));
+        }
+        if (!postings.isEmpty()) {
+            addAccrualAccountingInBulk(postings);
+        }
+    }
+
+    /**
+     * Works out the accrual transactions that bring the given installments of one loan up to the till date, without
+     * writing anything, so the single loan and the bulk paths post exactly the same amounts.
+     */
+    private List<AccrualPosting> calculatePeriodicAccruals(final LocalDate tilldate, final Long loanId,
+            final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
+        final List<AccrualPosting> postings = new ArrayList<>();
         boolean firstTime = true;
         LocalDate accruredTill = null;
         Collection<LoanChargeData> chargeData = this.loanChargeReadPlatformService.retrieveLoanChargesForAccural(loanId);
@@ -123,18 +169,25 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
                 if (accruredTill == null || accruredTill.isBefore(tilldate)) {
                     updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), tilldate);
                     updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, tilldate);
-                    addAccrualTillSpecificDate(tilldate, accrualData);
+                    addIfApplicable(postings, calculateAccrualTillSpecificDate(tilldate, accrualData));
                 }
             } else {
                 updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), accrualData.getDueDateAsLocaldate());
                 updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, tilldate);
-                addAccrualAccounting(accrualData);
+                addIfApplicable(postings, calculateAccrualAccounting(accrualData));
                 accruredTill = accrualData.getDueDateAsLocaldate();
             }
         }
+        return postings;
+    }
+
+    private static void addIfApplicable(final List<AccrualPosting> postings, final AccrualPosting posting) {
+        if (posting != null) {
+            postings.add(posting);
+        }
     }
 
-    private void addAccrualTillSpecificDate(final LocalDate tilldate, final LoanScheduleAccrualData accrualData) throws Exception {
+    private AccrualPosting calculateAccrualTillSpecificDate(final LocalDate tilldate, final LoanScheduleAccrualData accrualData) {
         LocalDate interestStartDate = accrualData.getFromDateAsLocaldate();
         if (accrualData.getInterestCalculatedFrom() != null
                 && accrualData.getFromDateAsLocaldate().isBefore(accrualData.getInterestCalculatedFrom())) {
@@ -207,13 +260,21 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
             }
         }
         if (amount.compareTo(BigDecimal.ZERO) > 0) {
-            addAccrualAccounting(accrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
+            return new AccrualPosting(accrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
                     totalAccPenalty, tilldate);
         }
+        return null;
     }
 
     @Transactional
     public void addAccrualAccounting(LoanScheduleAccrualData scheduleAccrualData) throws Exception {
+        final AccrualPosting posting = calculateAccrualAccounting(scheduleAccrualData);
+        if (posting != null) {
+            addAccrualAccounting(posting);
+        }
+    }
+
+    private AccrualPosting calculateAccrualAccounting(final LoanScheduleAccrualData scheduleAccrualData) {
 
         BigDecimal amount = BigDecimal.ZERO;
         BigDecimal interestportion = null;
@@ -258,44 +319,128 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
             }
         }
         if (amount.compareTo(BigDecimal.ZERO) > 0) {
-            addAccrualAccounting(scheduleAccrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
-                    totalAccPenalty, scheduleAccrualData.getDueDateAsLocaldate());
+            return new AccrualPosting(scheduleAccrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee,
+                    penaltyportion, totalAccPenalty, scheduleAccrualData.getDueDateAsLocaldate());
         }
+        return null;
     }
 
-    private void addAccrualAccounting(LoanScheduleAccrualData scheduleAccrualData, BigDecimal amount, BigDecimal interestportion,
-            BigDecimal totalAccInterest, BigDecimal feeportion, BigDecimal totalAccFee, BigDecimal penaltyportion,
-            BigDecimal totalAccPenalty, final LocalDate accruedTill) throws DataAccessException {
-        String transactionSql = "INSERT INTO m_loan_transaction  (loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,interest_portion_derived,"
-                + "fee_charges_portion_derived,penalty_charges_portion_derived, submitted_on_date) VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?, ?)";
-        this.jdbcTemplate.update(transactionSql, scheduleAccrualData.getLoanId(), scheduleAccrualData.getOfficeId(),
-                LoanTransactionType.ACCRUAL.getValue(), accruedTill.toDate(), amount, interestportion, feeportion, penaltyportion,
-                DateUtils.getDateOfTenant());
+    private void addAccrualAccounting(final AccrualPosting posting) throws DataAccessException {
+        final LoanScheduleAccrualData scheduleAccrualData = posting.accrualData;
+        this.jdbcTemplate.update(INSERT_ACCRUAL_TRANSACTION_SQL, transactionParameters(posting));
         @SuppressWarnings("deprecation")
         final Long transactonId = this.jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
 
         Map<LoanChargeData, BigDecimal> applicableCharges = scheduleAccrualData.getApplicableCharges();
-        String chargespaidSql = "INSERT INTO m_loan_charge_paid_by (loan_transaction_id, loan_charge_id, amount,installment_number) VALUES (?,?,?,?)";
         for (Map.Entry<LoanChargeData, BigDecimal> entry : applicableCharges.entrySet()) {
             LoanChargeData chargeData = entry.getKey();
-            this.jdbcTemplate.update(chargespaidSql, transactonId, chargeData.getId(), entry.getValue(),
+            this.jdbcTemplate.update(INSERT_CHARGE_PAID_BY_SQL, transactonId, chargeData.getId(), entry.getValue(),
                     scheduleAccrualData.getInstallmentNumber());
         }
 
-        Map<String, Object> transactionMap = toMapData(transactonId, amount, interestportion, feeportion, penaltyportion,
-                scheduleAccrualData, accruedTill);
+        Map<String, Object> transactionMap = toMapData(transactonId, posting.amount, posting.interestportion, posting.feeportion,
+                posting.penaltyportion, scheduleAccrualData, posting.accruedTill);
 
-        String repaymetUpdatesql = "UPDATE m_loan_repayment_schedule SET accrual_interest_derived=?, accrual_fee_charges_derived=?, "
-                + "accrual_penalty_charges_derived=? WHERE  id=?";
-        this.jdbcTemplate.update(repaymetUpdatesql, totalAccInterest, totalAccFee, totalAccPenalty,
+        this.jdbcTemplate.update(UPDATE_SCHEDULE_ACCRUALS_SQL, posting.totalAccInterest, posting.totalAccFee, posting.totalAccPenalty,
                 scheduleAccrualData.getRepaymentScheduleId());
 
-        String updateLoan = "UPDATE m_loan  SET accrued_till=?  WHERE  id=?";
-        this.jdbcTemplate.update(updateLoan, accruedTill.toDate(), scheduleAccrualData.getLoanId());
+        this.jdbcTemplate.update(UPDATE_LOAN_ACCRUED_TILL_SQL, posting.accruedTill.toDate(), scheduleAccrualData.getLoanId());
         final Map<String, Object> accountingBridgeData = deriveAccountingBridgeData(scheduleAccrualData, transactionMap);
         this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
     }
 
+    /**
+     * Writes the accrual transactions of many loans with one JDBC batch per statement and one journal entry batch,
+     * instead of the half dozen single row statements {@link #addAccrualAccounting(AccrualPosting)} issues per
+     * transaction.
+     */
+    private void addAccrualAccountingInBulk(final List<AccrualPosting> postings) throws DataAccessException {
+        final Long lastTransactionId = this.jdbcTemplate.queryForObject(LAST_TRANSACTION_ID_SQL, Long.class);
+        final List<Object[]> transactions = new ArrayList<>(postings.size());
+        for (final AccrualPosting posting : postings) {
+            transactions.add(transactionParameters(posting));
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_ACCRUAL_TRANSACTION_SQL, transactions);
+        final List<Long> transactionIds = retrieveInsertedTransactionIds(postings, lastTransactionId);
+
+        final List<Object[]> chargesPaid = new ArrayList<>();
+        final List<Object[]> scheduleUpdates = new ArrayList<>(postings.size());
+        final Map<Long, Date> accruedTillByLoan = new LinkedHashMap<>();
+        final List<Map<String, Object>> accountingBridgeData = new ArrayList<>(postings.size());
+        for (int i = 0; i < postings.size(); i++) {
+            final AccrualPosting posting = postings.get(i);
+            final LoanScheduleAccrualData scheduleAccrualData = posting.accrualData;
+            final Long transactonId = transactionIds.get(i);
+            for (Map.Entry<LoanChargeData, BigDecimal> entry : scheduleAccrualData.getApplicableCharges().entrySet()) {
+                chargesPaid.add(new Object[] { transactonId, entry.getKey().getId(), entry.getValue(),
+                        scheduleAccrualData.getInstallmentNumber() });
+            }
+            scheduleUpdates.add(new Object[] { posting.totalAccInterest, posting.totalAccFee, posting.totalAccPenalty,
+                    scheduleAccrualData.getRepaymentScheduleId() });
+            // postings of a loan are in installment order, so the last one wins
+            accruedTillByLoan.put(scheduleAccrualData.getLoanId(), posting.accruedTill.toDate());
+
+            Map<String, Object> transactionMap = toMapData(transactonId, posting.amount, posting.interestportion, posting.feeportion,
+                    posting.penaltyportion, scheduleAccrualData, posting.accruedTill);
+            accountingBridgeData.add(deriveAccountingBridgeData(scheduleAccrualData, transactionMap));
+        }
+
+        if (!chargesPaid.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(INSERT_CHARGE_PAID_BY_SQL, chargesPaid);
+        }
+        this.jdbcTemplate.batchUpdate(UPDATE_SCHEDULE_ACCRUALS_SQL, scheduleUpdates);
+        final List<Object[]> loanUpdates = new ArrayList<>(accruedTillByLoan.size());
+        for (final Map.Entry<Long, Date> entry : accruedTillByLoan.entrySet()) {
+            loanUpdates.add(new Object[] { entry.getValue(), entry.getKey() });
+        }
+        this.jdbcTemplate.batchUpdate(UPDATE_LOAN_ACCRUED_TILL_SQL, loanUpdates);
+        this.journalEntryWritePlatformService.createJournalEntriesForLoanAccruals(accountingBridgeData);
+    }
+
+    /**
+     * Finds the ids of the accrual transactions just inserted for the postings, in posting order. Generated keys of a
+     * JDBC batch are not returned reliably by every driver (Drizzle only reports the last one), so they are read back
+     * instead: the rows of these loans above the highest id seen before the insert, which within one connection are
+     * numbered in insert order.
+     */
+    private List<Long> retrieveInsertedTransactionIds(final List<AccrualPosting> postings, final Long lastTransactionId) {
+        final Set<Long> loanIds = new LinkedHashSet<>();
+        for (final AccrualPosting posting : postings) {
+            loanIds.add(posting.accrualData.getLoanId());
+        }
+        final List<Object> params = new ArrayList<>(loanIds.size() + 2);
+        params.add(lastTransactionId);
+        params.add(LoanTransactionType.ACCRUAL.getValue());
+        params.addAll(loanIds);
+        final String sql = "SELECT id, loan_id FROM m_loan_transaction WHERE id > ? AND transaction_type_enum = ? AND loan_id IN ("
+                + String.join(",", Collections.nCopies(loanIds.size(), "?")) + ") ORDER BY id";
+        final Map<Long, Deque<Long>> transactionIdsByLoan = new HashMap<>();
+        this.jdbcTemplate.query(sql, rs -> {
+            transactionIdsByLoan.computeIfAbsent(rs.getLong("loan_id"), loanId -> new ArrayDeque<>()).add(rs.getLong("id"));
+        }, params.toArray());
+
+        final List<Long> transactionIds = new ArrayList<>(postings.size());
+        for (final AccrualPosting posting : postings) {
+            final Deque<Long> loanTransactionIds = transactionIdsByLoan.get(posting.accrualData.getLoanId());
+            if (loanTransactionIds == null || loanTransactionIds.isEmpty()) {
+                throw new IllegalStateException("No inserted accrual transaction found for loan " + posting.accrualData.getLoanId());
+            }
+            transactionIds.add(loanTransactionIds.poll());
+        }
+        for (final Map.Entry<Long, Deque<Long>> entry : transactionIdsByLoan.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                throw new IllegalStateException("Found more accrual transactions than were inserted for loan " + entry.getKey());
+            }
+        }
+        return transactionIds;
+    }
+
+    private static Object[] transactionParameters(final AccrualPosting posting) {
+        return new Object[] { posting.accrualData.getLoanId(), posting.accrualData.getOfficeId(), LoanTransactionType.ACCRUAL.getValue(),
+                posting.accruedTill.toDate(), posting.amount, posting.interestportion, posting.feeportion, posting.penaltyportion,
+                DateUtils.getDateOfTenant() };
+    }
+
     public Map<String, Object> deriveAccountingBridgeData(final LoanScheduleAccrualData loanScheduleAccrualData,
             final Map<String, Object> transactionMap) {
 
@@ -511,4 +656,35 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
                 existingTransactionIds, existingReversedTransactionIds, isAccountTransfer);
         this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
     }
+
+    /**
+     * One accrual transaction worked out for an installment, together with the running totals it brings the
+     * installment to.
+     */
+    private static final class AccrualPosting {
+
+        private final LoanScheduleAccrualData accrualData;
+        private final BigDecimal amount;
+        private final BigDecimal interestportion;
+        private final BigDecimal totalAccInterest;
+        private final BigDecimal feeportion;
+        private final BigDecimal totalAccFee;
+        private final BigDecimal penaltyportion;
+        private final BigDecimal totalAccPenalty;
+        private final LocalDate accruedTill;
+
+        AccrualPosting(final LoanScheduleAccrualData accrualData, final BigDecimal amount, final BigDecimal interestportion,
+                final BigDecimal totalAccInterest, final BigDecimal feeportion, final BigDecimal totalAccFee,
+                final BigDecimal penaltyportion, final BigDecimal totalAccPenalty, final LocalDate accruedTill) {
+            this.accrualData = accrualData;
+            this.amount = amount;
+            this.interestportion = interestportion;
+            this.totalAccInterest = totalAccInterest;
+            this.feeportion = feeportion;
+            this.totalAccFee = totalAccFee;
+            this.penaltyportion = penaltyportion;
+            this.totalAccPenalty = totalAccPenalty;
+            this.accruedTill = accruedTill;
+        }
+    }
 }
@@ -38,6 +38,7 @@ import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.organisation.office.data.OfficeData;
 import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
@@ -61,16 +62,19 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
     private final LoanWritePlatformService loanWritePlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
     private final ApplicationContext applicationContext;
+    private final PartitionedJobExecutor partitionedJobExecutor;
 
     @Autowired
     public LoanSchedularServiceImpl(final ConfigurationDomainService configurationDomainService,
             final LoanReadPlatformService loanReadPlatformService, final LoanWritePlatformService loanWritePlatformService,
-            final OfficeReadPlatformService officeReadPlatformService, final ApplicationContext applicationContext) {
+            final OfficeReadPlatformService officeReadPlatformService, final ApplicationContext applicationContext,
+            final PartitionedJobExecutor partitionedJobExecutor) {
         this.configurationDomainService = configurationDomainService;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanWritePlatformService = loanWritePlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
         this.applicationContext = applicationContext;
+        this.partitionedJobExecutor = partitionedJobExecutor;
     }
 
     @Override
@@ -94,30 +98,22 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
                 }
             }
 
-            List<Throwable> exceptions = new ArrayList<>();
-            for (final Long loanId : overdueScheduleData.keySet()) {
+            this.partitionedJobExecutor.execute(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT, overdueScheduleData.keySet(), loanId -> {
                 try {
                     this.loanWritePlatformService.applyOverdueChargesForLoan(loanId, overdueScheduleData.get(loanId));
-
                 } catch (final PlatformApiDataValidationException e) {
                     final List<ApiParameterError> errors = e.getErrors();
                     for (final ApiParameterError error : errors) {
                         LOG.error("Apply Charges due for overdue loans failed for account {} with message: {}", loanId,
                                 error.getDeveloperMessage(), e);
                     }
-                    exceptions.add(e);
+                    throw e;
                 } catch (final AbstractPlatformDomainRuleException e) {
                     LOG.error("Apply Charges due for overdue loans failed for account {} with message: {}", loanId,
                             e.getDefaultUserMessage(), e);
-                    exceptions.add(e);
-                } catch (Exception e) {
-                    LOG.error("Apply Charges due for overdue loans failed for account {}", loanId, e);
-                    exceptions.add(e);
+                    throw e;
                 }
-            }
-            if (!exceptions.isEmpty()) {
-                throw new JobExecutionException(exceptions);
-            }
+            });
         }
     }
 
@@ -35,6 +35,7 @@ import static org.apache.fineract.portfolio.savings.SavingsApiConstants.withdraw
 import com.google.gson.JsonArray;
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -46,6 +47,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -488,6 +490,100 @@ public class SavingsAccount extends AbstractPersistableCustom {
             final LocalDate postInterestOnDate) {
         final List<PostingPeriod> postingPeriods = calculateInterestUsing(mc, interestPostingUpToDate, isInterestTransfer,
                 isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth, postInterestOnDate);
+        postInterest(postingPeriods, interestPostingUpToDate, null, null);
+    }
+
+    /**
+     * Posts interest as {@link #postInterest(MathContext, LocalDate, boolean, boolean, Integer, LocalDate)} does, but
+     * calculates it only for the posting periods after the given checkpoint when the checkpoint still matches the
+     * transactions and interest settings of this account. The checkpoint is then moved to the last posting period whose
+     * interest has been posted.
+     *
+     * Only savings deposits without interest transfer or user-specified posting dates are calculated incrementally, all
+     * other postings fall back to a calculation over the entire account history.
+     */
+    public void postInterest(final MathContext mc, final LocalDate interestPostingUpToDate, final boolean isInterestTransfer,
+            final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth,
+            final LocalDate postInterestOnDate, final SavingsAccountInterestCheckpoint interestCheckpoint) {
+        if (isInterestTransfer || postInterestOnDate != null || isTransferInterestToOtherAccount()
+                || !depositAccountType().isSavingsDeposit()) {
+            postInterest(mc, interestPostingUpToDate, isInterestTransfer, isSavingsInterestPostingAtCurrentPeriodEnd,
+                    financialYearBeginningMonth, postInterestOnDate);
+            return;
+        }
+
+        final int parametersHash = interestParametersHash(isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth);
+        SavingsAccountInterestCheckpoint resumeFrom = null;
+        final LocalDate checkpointDate = interestCheckpoint.getPeriodEndDate();
+        if (checkpointDate != null
+                && interestCheckpoint.isApplicableFor(interestPostingUpToDate, countTransactionsUpTo(checkpointDate),
+                        transactionChecksumUpTo(checkpointDate), parametersHash)
+                && isEndOfAnyOf(
+                        determineInterestPostingPeriods(interestPostingUpToDate, financialYearBeginningMonth, getManualPostingDates()),
+                        checkpointDate)) {
+            resumeFrom = interestCheckpoint;
+        }
+        // the transactions up to the checkpoint are left untouched, so are their totals
+        final SavingsAccountSummary totalsUpToCheckpoint = resumeFrom == null ? null
+                : this.summary.withoutTransactions(this.currency, this.savingsAccountTransactionSummaryWrapper,
+                        retreiveTransactionsAfter(checkpointDate));
+
+        final List<SavingsAccountTransaction> transactionsBeforePosting = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.isNotReversed()) {
+                transactionsBeforePosting.add(transaction);
+            }
+        }
+
+        final List<PostingPeriod> postingPeriods = calculateInterestUsing(mc, interestPostingUpToDate, isInterestTransfer,
+                isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth, postInterestOnDate, resumeFrom,
+                totalsUpToCheckpoint);
+        postInterest(postingPeriods, interestPostingUpToDate, resumeFrom, totalsUpToCheckpoint);
+
+        // only periods before any transaction added or reversed by this
+        // posting hold values that a full recalculation would reproduce
+        LocalDate firstChangedDate = null;
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.getId() == null
+                    && (firstChangedDate == null || transaction.transactionLocalDate().isBefore(firstChangedDate))) {
+                firstChangedDate = transaction.transactionLocalDate();
+            }
+        }
+        for (final SavingsAccountTransaction transaction : transactionsBeforePosting) {
+            if (transaction.isReversed()
+                    && (firstChangedDate == null || transaction.transactionLocalDate().isBefore(firstChangedDate))) {
+                firstChangedDate = transaction.transactionLocalDate();
+            }
+        }
+
+        Money interestEarnedAfter = Money.zero(this.currency);
+        for (int i = postingPeriods.size() - 1; i >= 0; i--) {
+            final PostingPeriod postingPeriod = postingPeriods.get(i);
+            final LocalDate periodEndDate = postingPeriod.getPeriodInterval().endDate();
+            if (periodEndDate.isBefore(interestPostingUpToDate)
+                    && !postingPeriod.dateOfPostingTransaction().isAfter(interestPostingUpToDate)
+                    && (firstChangedDate == null || periodEndDate.isBefore(firstChangedDate))) {
+                interestCheckpoint.update(periodEndDate, postingPeriod.closingBalance(), postingPeriod.getInterestCarriedForward(),
+                        this.summary.getTotalInterestEarned(this.currency).minus(interestEarnedAfter), countTransactionsUpTo(periodEndDate),
+                        transactionChecksumUpTo(periodEndDate), parametersHash);
+                return;
+            }
+            if (postingPeriod.interest() != null) {
+                interestEarnedAfter = interestEarnedAfter.plus(postingPeriod.interest());
+            }
+        }
+        if (resumeFrom == null) {
+            interestCheckpoint.clear();
+        }
+    }
+
+    /**
+     * @param interestCheckpoint
+     *            when not null, the posting periods start after the checkpoint and only the transactions after it are
+     *            recalculated, on top of the given totals of the transactions up to it
+     */
+    private void postInterest(final List<PostingPeriod> postingPeriods, final LocalDate interestPostingUpToDate,
+            final SavingsAccountInterestCheckpoint interestCheckpoint, final SavingsAccountSummary totalsUpToCheckpoint) {
         Money interestPostedToDate = Money.zero(this.currency);
 
         boolean recalucateDailyBalanceDetails = false;
@@ -563,10 +659,10 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
             // update existing transactions so derived balance fields are
             // correct.
-            recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate);
+            recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate, interestCheckpoint);
         }
 
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        updateSummary(interestCheckpoint, totalsUpToCheckpoint);
     }
 
     protected List<SavingsAccountTransaction> findWithHoldTransactions() {
@@ -691,6 +787,21 @@ public class SavingsAccount extends AbstractPersistableCustom {
     public List<PostingPeriod> calculateInterestUsing(final MathContext mc, final LocalDate upToInterestCalculationDate,
             boolean isInterestTransfer, final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth,
             final LocalDate postInterestOnDate) {
+        return calculateInterestUsing(mc, upToInterestCalculationDate, isInterestTransfer, isSavingsInterestPostingAtCurrentPeriodEnd,
+                financialYearBeginningMonth, postInterestOnDate, null, null);
+    }
+
+    /**
+     * @param interestCheckpoint
+     *            when not null, only the posting periods after the checkpoint are calculated, continuing from its
+     *            closing balance and interest carried forward; it must be the end of one of the posting periods
+     * @param totalsUpToCheckpoint
+     *            summary totals of the transactions up to the checkpoint, when there is one
+     */
+    private List<PostingPeriod> calculateInterestUsing(final MathContext mc, final LocalDate upToInterestCalculationDate,
+            boolean isInterestTransfer, final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth,
+            final LocalDate postInterestOnDate, final SavingsAccountInterestCheckpoint interestCheckpoint,
+            final SavingsAccountSummary totalsUpToCheckpoint) {
 
         // no openingBalance concept supported yet but probably will to allow
         // for migrations.
@@ -698,15 +809,13 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
         // update existing transactions so derived balance fields are
         // correct.
-        recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate);
+        recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate, interestCheckpoint);
 
         // 1. default to calculate interest based on entire history OR
         // 2. determine latest 'posting period' and find interest credited to
         // that period
 
         // A generate list of EndOfDayBalances (not including interest postings)
-        final SavingsPostingInterestPeriodType postingPeriodType = SavingsPostingInterestPeriodType.fromInt(this.interestPostingPeriodType);
-
         final SavingsCompoundingInterestPeriodType compoundingPeriodType = SavingsCompoundingInterestPeriodType
                 .fromInt(this.interestCompoundingPeriodType);
 
@@ -716,14 +825,15 @@ public class SavingsAccount extends AbstractPersistableCustom {
         if (postInterestOnDate != null) {
             postedAsOnDates.add(postInterestOnDate);
         }
-        final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(
-                getStartInterestCalculationDate(), upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,
-                postedAsOnDates);
+        final List<LocalDateInterval> postingPeriodIntervals = determineInterestPostingPeriods(upToInterestCalculationDate,
+                financialYearBeginningMonth, postedAsOnDates);
 
         final List<PostingPeriod> allPostingPeriods = new ArrayList<>();
 
         Money periodStartingBalance;
-        if (this.startInterestCalculationDate != null) {
+        if (interestCheckpoint != null) {
+            periodStartingBalance = interestCheckpoint.getClosingBalance(this.currency);
+        } else if (this.startInterestCalculationDate != null) {
             LocalDate startInterestCalculationDate = new LocalDate(this.startInterestCalculationDate);
             final SavingsAccountTransaction transaction = findLastTransaction(startInterestCalculationDate);
 
@@ -753,16 +863,23 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final Collection<Long> interestPostTransactions = this.savingsHelper.fetchPostInterestTransactionIds(getId());
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
+        final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = interestCheckpoint == null
+                ? retreiveOrderedNonInterestPostingTransactions()
+                : retreiveOrderedNonInterestPostingTransactionsWithBalanceAfter(interestCheckpoint.getPeriodEndDate());
 
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
+            if (interestCheckpoint != null && !periodInterval.endDate().isAfter(interestCheckpoint.getPeriodEndDate())) {
+                continue;
+            }
+
             boolean isUserPosting = false;
             if (postedAsOnDates.contains(periodInterval.endDate().plusDays(1))) {
                 isUserPosting = true;
             }
 
             final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(), this.currency, compoundingPeriodType, interestCalculationType,
+                    orderedNonInterestPostingTransactions, this.currency, compoundingPeriodType, interestCalculationType,
                     interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
                     isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
                     overdraftInterestRateAsFraction, minOverdraftForInterestCalculation, isUserPosting, financialYearBeginningMonth);
@@ -772,15 +889,38 @@ public class SavingsAccount extends AbstractPersistableCustom {
             allPostingPeriods.add(postingPeriod);
         }
 
-        this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
-                isTransferInterestToOtherAccount());
-
-        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        if (interestCheckpoint == null) {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        } else {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount(), interestCheckpoint.getInterestCarriedForward());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods,
+                    interestCheckpoint.getTotalInterestEarned(this.currency));
+        }
+        updateSummary(interestCheckpoint, totalsUpToCheckpoint);
 
         return allPostingPeriods;
     }
 
+    private List<LocalDateInterval> determineInterestPostingPeriods(final LocalDate upToInterestCalculationDate,
+            final Integer financialYearBeginningMonth, final List<LocalDate> postedAsOnDates) {
+        final SavingsPostingInterestPeriodType postingPeriodType = SavingsPostingInterestPeriodType.fromInt(this.interestPostingPeriodType);
+        return this.savingsHelper.determineInterestPostingPeriods(getStartInterestCalculationDate(), upToInterestCalculationDate,
+                postingPeriodType, financialYearBeginningMonth, postedAsOnDates);
+    }
+
+    private void updateSummary(final SavingsAccountInterestCheckpoint interestCheckpoint,
+            final SavingsAccountSummary totalsUpToCheckpoint) {
+        if (interestCheckpoint == null) {
+            this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        } else {
+            this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper,
+                    retreiveTransactionsAfter(interestCheckpoint.getPeriodEndDate()), totalsUpToCheckpoint);
+        }
+    }
+
     private BigDecimal getEffectiveOverdraftInterestRateAsFraction(MathContext mc) {
         return this.nominalAnnualInterestRateOverdraft.divide(BigDecimal.valueOf(100L), mc);
     }
@@ -805,6 +945,90 @@ public class SavingsAccount extends AbstractPersistableCustom {
         return orderedNonInterestPostingTransactions;
     }
 
+    /**
+     * Transactions whose end of day balance still counts after the given date, which are the only ones that take part
+     * in the interest calculation of the posting periods after it.
+     */
+    private List<SavingsAccountTransaction> retreiveOrderedNonInterestPostingTransactionsWithBalanceAfter(final LocalDate date) {
+        final List<SavingsAccountTransaction> transactionsWithBalanceAfter = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (!(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                    && transaction.isNotReversed()) {
+                final LocalDate endOfBalanceDate = transaction.getEndOfBalanceLocalDate();
+                if (transaction.transactionLocalDate().isAfter(date) || endOfBalanceDate == null || endOfBalanceDate.isAfter(date)) {
+                    transactionsWithBalanceAfter.add(transaction);
+                }
+            }
+        }
+        transactionsWithBalanceAfter.sort(new SavingsAccountTransactionComparator());
+        return transactionsWithBalanceAfter;
+    }
+
+    private List<SavingsAccountTransaction> retreiveTransactionsAfter(final LocalDate date) {
+        final List<SavingsAccountTransaction> transactionsAfter = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.transactionLocalDate().isAfter(date)) {
+                transactionsAfter.add(transaction);
+            }
+        }
+        return transactionsAfter;
+    }
+
+    private static boolean isEndOfAnyOf(final List<LocalDateInterval> intervals, final LocalDate date) {
+        for (final LocalDateInterval interval : intervals) {
+            if (interval.endDate().isEqual(date)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long countTransactionsUpTo(final LocalDate date) {
+        long count = 0;
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.isNotReversed() && !transaction.transactionLocalDate().isAfter(date)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Order independent checksum of the date, type and amount of every transaction up to the given date, used to detect
+     * backdated changes to the history an {@link SavingsAccountInterestCheckpoint} was calculated from.
+     */
+    private long transactionChecksumUpTo(final LocalDate date) {
+        long checksum = 0;
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            final LocalDate transactionDate = transaction.transactionLocalDate();
+            if (transaction.isNotReversed() && !transactionDate.isAfter(date)) {
+                long hash = transactionDate.getYear() * 10000L + transactionDate.getMonthOfYear() * 100L + transactionDate.getDayOfMonth();
+                hash = 31 * hash + transaction.getTypeOf();
+                hash = 31 * hash + transaction.getAmount().setScale(6, RoundingMode.HALF_EVEN).unscaledValue().longValue();
+                // mix the bits so that different transactions do not cancel
+                // each other out in the sum
+                hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+                hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+                checksum += hash ^ (hash >>> 31);
+            }
+        }
+        return checksum;
+    }
+
+    private int interestParametersHash(final boolean isSavingsInterestPostingAtCurrentPeriodEnd,
+            final Integer financialYearBeginningMonth) {
+        return Objects.hash(toPlainString(this.nominalAnnualInterestRate), toPlainString(this.nominalAnnualInterestRateOverdraft),
+                this.interestCompoundingPeriodType, this.interestPostingPeriodType, this.interestCalculationType,
+                this.interestCalculationDaysInYearType, toPlainString(minBalanceForInterestCalculation()),
+                toPlainString(this.minOverdraftForInterestCalculation), Objects.toString(getStartInterestCalculationDate(), null),
+                Objects.toString(getLockedInUntilLocalDate(), null), isSavingsInterestPostingAtCurrentPeriodEnd,
+                financialYearBeginningMonth);
+    }
+
+    private static String toPlainString(final BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros().toPlainString();
+    }
+
     protected List<SavingsAccountTransaction> retreiveListOfTransactions() {
         final List<SavingsAccountTransaction> listOfTransactionsSorted = new ArrayList<>();
         listOfTransactionsSorted.addAll(this.transactions);
@@ -815,10 +1039,67 @@ public class SavingsAccount extends AbstractPersistableCustom {
     }
 
     protected void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate) {
+        List<SavingsAccountTransaction> accountTransactionsSorted = retreiveListOfTransactions();
+        if (recalculateRunningBalances(openingAccountBalance, accountTransactionsSorted)) {
+            accountTransactionsSorted = retreiveListOfTransactions();
+        }
+        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
+    }
+
+    /**
+     * Same as {@link #recalculateDailyBalances(Money, LocalDate)}, but with a checkpoint only the transactions after it
+     * are recalculated. They continue from the running balance of the last transaction up to the checkpoint, as the
+     * transactions up to it have not changed since their balances were last calculated.
+     */
+    private void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate,
+            final SavingsAccountInterestCheckpoint interestCheckpoint) {
+        if (interestCheckpoint == null) {
+            recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate);
+            return;
+        }
+        final LocalDate checkpointDate = interestCheckpoint.getPeriodEndDate();
+        final SavingsAccountTransactionComparator transactionComparator = new SavingsAccountTransactionComparator();
+        SavingsAccountTransaction lastTransactionUpToCheckpoint = null;
+        SavingsAccountTransaction lastBalanceTransactionUpToCheckpoint = null;
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.isNotReversed() && !transaction.transactionLocalDate().isAfter(checkpointDate)) {
+                if (lastTransactionUpToCheckpoint == null
+                        || transactionComparator.compare(transaction, lastTransactionUpToCheckpoint) >= 0) {
+                    lastTransactionUpToCheckpoint = transaction;
+                }
+                if (!(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                        && (lastBalanceTransactionUpToCheckpoint == null
+                                || transactionComparator.compare(transaction, lastBalanceTransactionUpToCheckpoint) >= 0)) {
+                    lastBalanceTransactionUpToCheckpoint = transaction;
+                }
+            }
+        }
+        final Money runningBalance = lastTransactionUpToCheckpoint == null ? openingAccountBalance
+                : lastTransactionUpToCheckpoint.getRunningBalance(this.currency);
+
+        List<SavingsAccountTransaction> accountTransactionsSorted = retreiveTransactionsAfter(checkpointDate);
+        accountTransactionsSorted.sort(transactionComparator);
+        if (recalculateRunningBalances(runningBalance, accountTransactionsSorted)) {
+            accountTransactionsSorted = retreiveTransactionsAfter(checkpointDate);
+            accountTransactionsSorted.sort(transactionComparator);
+        }
+        // the balance of the last transaction up to the checkpoint lasts until the first one after it
+        if (lastBalanceTransactionUpToCheckpoint != null) {
+            accountTransactionsSorted.add(0, lastBalanceTransactionUpToCheckpoint);
+        }
+        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
+    }
+
+    /**
+     * Updates the running balance of the given transactions in order, starting from the opening balance.
+     *
+     * @return true when transactions were reversed and added again with a different overdraft amount
+     */
+    private boolean recalculateRunningBalances(final Money openingAccountBalance,
+            final List<SavingsAccountTransaction> accountTransactionsSorted) {
 
         Money runningBalance = openingAccountBalance.copy();
 
-        List<SavingsAccountTransaction> accountTransactionsSorted = retreiveListOfTransactions();
         boolean isTransactionsModified = false;
         for (final SavingsAccountTransaction transaction : accountTransactionsSorted) {
             if (transaction.isReversed()) {
@@ -871,10 +1152,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
             }
         }
 
-        if (isTransactionsModified) {
-            accountTransactionsSorted = retreiveListOfTransactions();
-        }
-        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
+        return isTransactionsModified;
     }
 
     protected void resetAccountTransactionsEndOfDayBalances(final List<SavingsAccountTransaction> accountTransactionsSorted,
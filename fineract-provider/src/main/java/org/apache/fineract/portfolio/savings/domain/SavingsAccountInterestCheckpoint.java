@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.savings.domain.interest.CompoundInterestValues;
+import org.joda.time.LocalDate;
+
+/**
+ * Interest calculation state of a savings account at the end of its last fully posted posting period: the closing
+ * balance, the interest carried into the next period and the interest earned so far.
+ *
+ * The transaction count and checksum fingerprint every transaction dated up to the end of that period, and the
+ * parameters hash fingerprints the interest settings the state was calculated with. When either no longer matches, for
+ * example after a backdated transaction or an interest rate change, the state is discarded and interest is recalculated
+ * from the start of the account.
+ */
+@Entity
+@Table(name = "m_savings_account_interest_checkpoint", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "savings_account_id" }, name = "uq_savings_interest_checkpoint_account") })
+public class SavingsAccountInterestCheckpoint extends AbstractPersistableCustom {
+
+    @Column(name = "savings_account_id", nullable = false)
+    private Long savingsAccountId;
+
+    @Column(name = "period_end_date")
+    @Temporal(TemporalType.DATE)
+    private Date periodEndDate;
+
+    @Column(name = "closing_balance", scale = 6, precision = 19)
+    private BigDecimal closingBalance;
+
+    @Column(name = "compounded_interest", scale = 18, precision = 38)
+    private BigDecimal compoundedInterest;
+
+    @Column(name = "uncompounded_interest", scale = 18, precision = 38)
+    private BigDecimal uncompoundedInterest;
+
+    @Column(name = "total_interest_earned", scale = 6, precision = 19)
+    private BigDecimal totalInterestEarned;
+
+    @Column(name = "transaction_count")
+    private Long transactionCount;
+
+    @Column(name = "transaction_checksum")
+    private Long transactionChecksum;
+
+    @Column(name = "parameters_hash")
+    private Integer parametersHash;
+
+    @Column(name = "lastmodified_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastModifiedDate;
+
+    protected SavingsAccountInterestCheckpoint() {
+
+    }
+
+    public static SavingsAccountInterestCheckpoint newCheckpoint(final Long savingsAccountId) {
+        final SavingsAccountInterestCheckpoint checkpoint = new SavingsAccountInterestCheckpoint();
+        checkpoint.savingsAccountId = savingsAccountId;
+        return checkpoint;
+    }
+
+    public boolean isApplicableFor(final LocalDate upToInterestCalculationDate, final long transactionCount,
+            final long transactionChecksum, final int parametersHash) {
+        return this.periodEndDate != null && getPeriodEndDate().isBefore(upToInterestCalculationDate)
+                && this.transactionCount != null && this.transactionCount == transactionCount && this.transactionChecksum != null
+                && this.transactionChecksum == transactionChecksum && this.parametersHash != null
+                && this.parametersHash == parametersHash;
+    }
+
+    public void update(final LocalDate periodEndDate, final Money closingBalance, final CompoundInterestValues interestCarriedForward,
+            final Money totalInterestEarned, final long transactionCount, final long transactionChecksum, final int parametersHash) {
+        this.periodEndDate = periodEndDate.toDate();
+        this.closingBalance = closingBalance.getAmount();
+        this.compoundedInterest = interestCarriedForward.getcompoundedInterest();
+        this.uncompoundedInterest = interestCarriedForward.getuncompoundedInterest();
+        this.totalInterestEarned = totalInterestEarned.getAmount();
+        this.transactionCount = transactionCount;
+        this.transactionChecksum = transactionChecksum;
+        this.parametersHash = parametersHash;
+        this.lastModifiedDate = new Date();
+    }
+
+    public void clear() {
+        this.periodEndDate = null;
+        this.closingBalance = null;
+        this.compoundedInterest = null;
+        this.uncompoundedInterest = null;
+        this.totalInterestEarned = null;
+        this.transactionCount = null;
+        this.transactionChecksum = null;
+        this.parametersHash = null;
+        this.lastModifiedDate = new Date();
+    }
+
+    public Long getSavingsAccountId() {
+        return this.savingsAccountId;
+    }
+
+    public LocalDate getPeriodEndDate() {
+        return this.periodEndDate == null ? null : new LocalDate(this.periodEndDate);
+    }
+
+    public Money getClosingBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.closingBalance);
+    }
+
+    /**
+     * Returns a new instance on every call as the interest calculation accumulates into the values it is given.
+     */
+    public CompoundInterestValues getInterestCarriedForward() {
+        return new CompoundInterestValues(this.compoundedInterest, this.uncompoundedInterest);
+    }
+
+    public Money getTotalInterestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalInterestEarned);
+    }
+}
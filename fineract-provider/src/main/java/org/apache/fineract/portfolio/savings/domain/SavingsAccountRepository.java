@@ -56,5 +56,8 @@ public interface SavingsAccountRepository extends JpaRepository<SavingsAccount,
 
     Page<SavingsAccount> findByStatus(Integer status, Pageable pageable);
 
+    @Query("select sa.id from SavingsAccount sa where sa.status = :status and sa.id > :lastId order by sa.id")
+    List<Long> findIdsByStatusAfterId(@Param("status") Integer status, @Param("lastId") Long lastId, Pageable pageable);
+
     SavingsAccount findByExternalId(String externalId);
 }
@@ -23,6 +23,7 @@ import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Service;
@@ -88,6 +89,13 @@ public class SavingsAccountRepositoryWrapper {
         return accounts;
     }
 
+    /**
+     * Keyset page of account ids with the given status, in ascending id order, starting after lastId.
+     */
+    public List<Long> findIdsByStatusAfterId(final Integer status, final Long lastId, final int limit) {
+        return this.repository.findIdsByStatusAfterId(status, lastId, PageRequest.of(0, limit));
+    }
+
     // Root Entities are enough
     public List<SavingsAccount> findByClientIdAndGroupId(@Param("clientId") Long clientId, @Param("groupId") Long groupId) {
         return this.repository.findByClientIdAndGroupId(clientId, groupId);
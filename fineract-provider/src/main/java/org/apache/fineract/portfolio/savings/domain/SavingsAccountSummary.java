@@ -101,14 +101,94 @@ public final class SavingsAccountSummary {
         this.totalOverdraftInterestDerived = wrapper.calculateTotalOverdraftInterest(currency, transactions);
         this.totalWithholdTax = wrapper.calculateTotalWithholdTaxWithdrawal(currency, transactions);
 
+        updateAccountBalance(currency);
+    }
+
+    /**
+     * Updates the totals from the given transactions and the totals of all other transactions of the account, as
+     * returned by {@link #withoutTransactions(MonetaryCurrency, SavingsAccountTransactionSummaryWrapper, List)}.
+     */
+    public void updateSummary(final MonetaryCurrency currency, final SavingsAccountTransactionSummaryWrapper wrapper,
+            final List<SavingsAccountTransaction> transactions, final SavingsAccountSummary otherTransactions) {
+
+        this.totalDeposits = plus(currency, otherTransactions.totalDeposits, wrapper.calculateTotalDeposits(currency, transactions));
+        this.totalWithdrawals = plus(currency, otherTransactions.totalWithdrawals,
+                wrapper.calculateTotalWithdrawals(currency, transactions));
+        this.totalInterestPosted = plus(currency, otherTransactions.totalInterestPosted,
+                wrapper.calculateTotalInterestPosted(currency, transactions));
+        this.totalWithdrawalFees = plus(currency, otherTransactions.totalWithdrawalFees,
+                wrapper.calculateTotalWithdrawalFees(currency, transactions));
+        this.totalAnnualFees = plus(currency, otherTransactions.totalAnnualFees, wrapper.calculateTotalAnnualFees(currency, transactions));
+        this.totalFeeCharge = plus(currency, otherTransactions.totalFeeCharge, wrapper.calculateTotalFeesCharge(currency, transactions));
+        this.totalPenaltyCharge = plus(currency, otherTransactions.totalPenaltyCharge,
+                wrapper.calculateTotalPenaltyCharge(currency, transactions));
+        this.totalFeeChargesWaived = plus(currency, otherTransactions.totalFeeChargesWaived,
+                wrapper.calculateTotalFeesChargeWaived(currency, transactions));
+        this.totalPenaltyChargesWaived = plus(currency, otherTransactions.totalPenaltyChargesWaived,
+                wrapper.calculateTotalPenaltyChargeWaived(currency, transactions));
+        this.totalOverdraftInterestDerived = plus(currency, otherTransactions.totalOverdraftInterestDerived,
+                wrapper.calculateTotalOverdraftInterest(currency, transactions));
+        this.totalWithholdTax = plus(currency, otherTransactions.totalWithholdTax,
+                wrapper.calculateTotalWithholdTaxWithdrawal(currency, transactions));
+
+        updateAccountBalance(currency);
+    }
+
+    /**
+     * Returns the totals of all transactions of the account but the given ones, which must be among those this summary
+     * was last updated from.
+     */
+    public SavingsAccountSummary withoutTransactions(final MonetaryCurrency currency, final SavingsAccountTransactionSummaryWrapper wrapper,
+            final List<SavingsAccountTransaction> transactions) {
+        final SavingsAccountSummary otherTransactions = new SavingsAccountSummary();
+        otherTransactions.totalDeposits = minus(currency, this.totalDeposits, wrapper.calculateTotalDeposits(currency, transactions));
+        otherTransactions.totalWithdrawals = minus(currency, this.totalWithdrawals,
+                wrapper.calculateTotalWithdrawals(currency, transactions));
+        otherTransactions.totalInterestPosted = minus(currency, this.totalInterestPosted,
+                wrapper.calculateTotalInterestPosted(currency, transactions));
+        otherTransactions.totalWithdrawalFees = minus(currency, this.totalWithdrawalFees,
+                wrapper.calculateTotalWithdrawalFees(currency, transactions));
+        otherTransactions.totalAnnualFees = minus(currency, this.totalAnnualFees, wrapper.calculateTotalAnnualFees(currency, transactions));
+        otherTransactions.totalFeeCharge = minus(currency, this.totalFeeCharge, wrapper.calculateTotalFeesCharge(currency, transactions));
+        otherTransactions.totalPenaltyCharge = minus(currency, this.totalPenaltyCharge,
+                wrapper.calculateTotalPenaltyCharge(currency, transactions));
+        otherTransactions.totalFeeChargesWaived = minus(currency, this.totalFeeChargesWaived,
+                wrapper.calculateTotalFeesChargeWaived(currency, transactions));
+        otherTransactions.totalPenaltyChargesWaived = minus(currency, this.totalPenaltyChargesWaived,
+                wrapper.calculateTotalPenaltyChargeWaived(currency, transactions));
+        otherTransactions.totalOverdraftInterestDerived = minus(currency, this.totalOverdraftInterestDerived,
+                wrapper.calculateTotalOverdraftInterest(currency, transactions));
+        otherTransactions.totalWithholdTax = minus(currency, this.totalWithholdTax,
+                wrapper.calculateTotalWithholdTaxWithdrawal(currency, transactions));
+        return otherTransactions;
+    }
+
+    private void updateAccountBalance(final MonetaryCurrency currency) {
         this.accountBalance = Money.of(currency, this.totalDeposits).plus(this.totalInterestPosted).minus(this.totalWithdrawals)
                 .minus(this.totalWithdrawalFees).minus(this.totalAnnualFees).minus(this.totalFeeCharge).minus(this.totalPenaltyCharge)
                 .minus(totalOverdraftInterestDerived).minus(totalWithholdTax).getAmount();
     }
 
+    private static BigDecimal plus(final MonetaryCurrency currency, final BigDecimal total, final BigDecimal amount) {
+        return Money.of(currency, total).plus(Money.of(currency, amount)).getAmountDefaultedToNullIfZero();
+    }
+
+    private static BigDecimal minus(final MonetaryCurrency currency, final BigDecimal total, final BigDecimal amount) {
+        return Money.of(currency, total).minus(Money.of(currency, amount)).getAmountDefaultedToNullIfZero();
+    }
+
     public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods) {
+        updateFromInterestPeriodSummaries(currency, allPostingPeriods, Money.zero(currency));
+    }
+
+    /**
+     * @param interestEarnedBefore
+     *            interest earned in the posting periods before the first of allPostingPeriods
+     */
+    public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods,
+            final Money interestEarnedBefore) {
 
-        Money totalEarned = Money.zero(currency);
+        Money totalEarned = interestEarnedBefore;
         LocalDate interestCalculationDate = DateUtils.getLocalDateOfTenant();
         for (final PostingPeriod period : allPostingPeriods) {
             Money interestEarned = period.interest();
@@ -132,6 +212,10 @@ public final class SavingsAccountSummary {
         return this.accountBalance;
     }
 
+    public Money getTotalInterestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalInterestEarned);
+    }
+
     public BigDecimal getTotalInterestPosted() {
         return this.totalInterestPosted;
     }
@@ -63,6 +63,9 @@ public final class PostingPeriod {
 
     private Integer financialYearBeginningMonth;
 
+    // interest carried into the next posting period
+    private CompoundInterestValues interestCarriedForward;
+
     public static PostingPeriod createFrom(final LocalDateInterval periodInterval, final Money periodStartingBalance,
             final List<SavingsAccountTransaction> orderedListOfTransactions, final MonetaryCurrency currency,
             final SavingsCompoundingInterestPeriodType interestCompoundingPeriodType,
@@ -237,6 +240,15 @@ public final class PostingPeriod {
         return this.interestEarnedRounded;
     }
 
+    public void carryForward(final CompoundInterestValues compoundInterestValues) {
+        this.interestCarriedForward = new CompoundInterestValues(compoundInterestValues.getcompoundedInterest(),
+                compoundInterestValues.getuncompoundedInterest());
+    }
+
+    public CompoundInterestValues getInterestCarriedForward() {
+        return this.interestCarriedForward;
+    }
+
     private static List<CompoundingPeriod> compoundingPeriodsInPostingPeriod(final LocalDateInterval postingPeriodInterval,
             final SavingsCompoundingInterestPeriodType interestPeriodType, final List<EndOfDayBalance> allEndOfDayBalances,
             final LocalDate upToInterestCalculationDate, int financialYearBeginningMonth) {
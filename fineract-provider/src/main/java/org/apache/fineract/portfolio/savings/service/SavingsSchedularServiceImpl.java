@@ -24,8 +24,13 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.domain.JobCheckpoint;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameter;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameterRepository;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobCheckpointWritePlatformService;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
@@ -33,8 +38,6 @@ import org.joda.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -46,48 +49,84 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountReadPlatformService savingAccountReadPlatformService;
     private final SavingsAccountRepositoryWrapper savingsAccountRepository;
+    private final JobCheckpointWritePlatformService jobCheckpointWritePlatformService;
+    private final JobParameterRepository jobParameterRepository;
 
     @Autowired
     public SavingsSchedularServiceImpl(final SavingsAccountAssembler savingAccountAssembler,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
             final SavingsAccountReadPlatformService savingAccountReadPlatformService,
-            final SavingsAccountRepositoryWrapper savingsAccountRepository) {
+            final SavingsAccountRepositoryWrapper savingsAccountRepository,
+            final JobCheckpointWritePlatformService jobCheckpointWritePlatformService,
+            final JobParameterRepository jobParameterRepository) {
         this.savingAccountAssembler = savingAccountAssembler;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingAccountReadPlatformService = savingAccountReadPlatformService;
         this.savingsAccountRepository = savingsAccountRepository;
+        this.jobCheckpointWritePlatformService = jobCheckpointWritePlatformService;
+        this.jobParameterRepository = jobParameterRepository;
     }
 
+    /**
+     * Pages through active accounts by id and commits the interest posting of each page together with the job
+     * checkpoint, so a run that is interrupted resumes after the last committed account. A page that fails is posted
+     * again one account per transaction to isolate the failing accounts.
+     */
     @Override
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     public void postInterestForAccounts() throws JobExecutionException {
-        int page = 0;
-        Integer initialSize = 500;
-        Integer totalPageSize = 0;
+        final int batchSize = retrieveBatchSize(JobName.POST_INTEREST_FOR_SAVINGS);
+        JobCheckpoint checkpoint = this.jobCheckpointWritePlatformService.startOrResume(JobName.POST_INTEREST_FOR_SAVINGS,
+                DateUtils.getLocalDateOfTenant());
         List<Throwable> errors = new ArrayList<>();
+        List<Long> savingsAccountIds;
         do {
-            PageRequest pageRequest = PageRequest.of(page, initialSize);
-            Page<SavingsAccount> savingsAccounts = this.savingsAccountRepository.findByStatus(ACTIVE.getValue(), pageRequest);
-            for (SavingsAccount savingsAccount : savingsAccounts.getContent()) {
-                try {
-                    this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
-                    boolean postInterestAsOn = false;
-                    LocalDate transactionDate = null;
-                    this.savingsAccountWritePlatformService.postInterest(savingsAccount, postInterestAsOn, transactionDate);
-                } catch (Exception e) {
-                    LOG.error("Failed to post interest for Savings with id {}", savingsAccount.getId(), e);
-                    errors.add(e);
+            savingsAccountIds = this.savingsAccountRepository.findIdsByStatusAfterId(ACTIVE.getValue(), checkpoint.getLastProcessedId(),
+                    batchSize);
+            if (savingsAccountIds.isEmpty()) {
+                break;
+            }
+            try {
+                checkpoint = this.jobCheckpointWritePlatformService.processBatch(checkpoint, savingsAccountIds, this::postInterest);
+            } catch (Exception batchException) {
+                LOG.warn("Failed to post interest for Savings with ids {} to {} in one batch, retrying individually",
+                        savingsAccountIds.get(0), savingsAccountIds.get(savingsAccountIds.size() - 1), batchException);
+                for (Long savingsAccountId : savingsAccountIds) {
+                    try {
+                        postInterest(savingsAccountId);
+                    } catch (Exception e) {
+                        LOG.error("Failed to post interest for Savings with id {}", savingsAccountId, e);
+                        errors.add(e);
+                    }
+                    checkpoint = this.jobCheckpointWritePlatformService.advance(checkpoint, savingsAccountId, 1);
                 }
             }
-            page++;
-            totalPageSize = savingsAccounts.getTotalPages();
-        } while (page < totalPageSize);
+        } while (savingsAccountIds.size() == batchSize);
+
+        this.jobCheckpointWritePlatformService.complete(checkpoint);
 
         if (!errors.isEmpty()) {
             throw new JobExecutionException(errors);
         }
     }
 
+    private void postInterest(final Long savingsAccountId) {
+        final SavingsAccount savingsAccount = this.savingsAccountRepository.findOneWithNotFoundDetection(savingsAccountId);
+        this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
+        boolean postInterestAsOn = false;
+        LocalDate transactionDate = null;
+        this.savingsAccountWritePlatformService.postInterest(savingsAccount, postInterestAsOn, transactionDate);
+    }
+
+    private int retrieveBatchSize(final JobName jobName) {
+        for (JobParameter jobParameter : this.jobParameterRepository.findJobParametersByJobName(jobName.toString())) {
+            if (SchedulerServiceConstants.BATCH_SIZE_PARAMETER.equals(jobParameter.getParameterName())) {
+                return Math.max(1, Integer.parseInt(jobParameter.getParameterValue()));
+            }
+        }
+        return SchedulerServiceConstants.DEFAULT_BATCH_SIZE;
+    }
+
     @Override
     @CronTarget(jobName = JobName.UPDATE_SAVINGS_DORMANT_ACCOUNTS)
     public void updateSavingsDormancyStatus() throws JobExecutionException {
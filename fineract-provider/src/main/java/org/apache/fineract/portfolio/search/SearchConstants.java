@@ -18,11 +18,20 @@
  */
 package org.apache.fineract.portfolio.search;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 public class SearchConstants {
 
+    /**
+     * Entity names of the commands that change rows of the search index.
+     */
+    public static final Set<String> INDEXED_COMMAND_ENTITIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("CLIENT",
+            "CLIENTIDENTIFIER", "GROUP", "CENTER", "LOAN", "SAVINGSACCOUNT", "FIXEDDEPOSITACCOUNT", "RECURRINGDEPOSITACCOUNT",
+            "SHAREACCOUNT")));
+
     public enum SearchResponseParameters {
 
         ENTITY_ID("entityId"), ENTITY_ACCOUNT_NO("entityAccountNo"), ENTITY_EXTERNAL_ID("entityExternalId"), ENTITY_NAME(
@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+
+/**
+ * Keeps <code>m_search_index</code>, the full-text index behind the <code>/search</code> API, in line with clients,
+ * groups, centers and their accounts.
+ *
+ * The command processing service calls {@link #reindex(String, CommandProcessingResult)} once a command has committed;
+ * anything written outside of commands, and any refresh that failed, is picked up by the <code>Rebuild Search
+ * Index</code> job.
+ */
+public interface SearchIndexWritePlatformService {
+
+    /**
+     * Refreshes, in a transaction of its own, the index rows of the client, group, loan, savings or share account a
+     * command of the given entity was run on. Commands of other entities are ignored.
+     */
+    void reindex(String entityName, CommandProcessingResult result);
+
+    void rebuildSearchIndex();
+}
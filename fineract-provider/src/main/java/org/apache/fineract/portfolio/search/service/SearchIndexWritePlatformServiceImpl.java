@@ -0,0 +1,179 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class SearchIndexWritePlatformServiceImpl implements SearchIndexWritePlatformService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchIndexWritePlatformServiceImpl.class);
+
+    static final int REBUILD_BATCH_SIZE = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SearchIndexWritePlatformServiceImpl(final RoutingDataSource dataSource) {
+        this(new JdbcTemplate(dataSource));
+    }
+
+    SearchIndexWritePlatformServiceImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void reindex(final String entityName, final CommandProcessingResult result) {
+        switch (entityName) {
+            case "CLIENT":
+                reindexClient(result.getClientId() != null ? result.getClientId() : result.resourceId());
+            break;
+            case "CLIENTIDENTIFIER":
+                reindexClient(result.getClientId());
+            break;
+            case "GROUP":
+            case "CENTER":
+                reindexGroup(result.getGroupId() != null ? result.getGroupId() : result.resourceId());
+            break;
+            case "LOAN":
+                refresh(IndexedEntity.LOAN, "id", "entity_id", result.getLoanId() != null ? result.getLoanId() : result.resourceId());
+            break;
+            case "SAVINGSACCOUNT":
+            case "FIXEDDEPOSITACCOUNT":
+            case "RECURRINGDEPOSITACCOUNT":
+                refresh(IndexedEntity.SAVINGS_ACCOUNT, "id", "entity_id",
+                        result.getSavingsId() != null ? result.getSavingsId() : result.resourceId());
+            break;
+            case "SHAREACCOUNT":
+                refresh(IndexedEntity.SHARE_ACCOUNT, "id", "entity_id", result.resourceId());
+            break;
+            default:
+            break;
+        }
+    }
+
+    /**
+     * A client's accounts are refreshed with it, as they are searched within the office of the client.
+     */
+    private void reindexClient(final Long clientId) {
+        refresh(IndexedEntity.CLIENT, "id", "client_id", clientId);
+        refresh(IndexedEntity.CLIENT_IDENTIFIER, "client_id", "client_id", clientId);
+        refresh(IndexedEntity.LOAN, "client_id", "client_id", clientId);
+        refresh(IndexedEntity.SAVINGS_ACCOUNT, "client_id", "client_id", clientId);
+        refresh(IndexedEntity.SHARE_ACCOUNT, "client_id", "client_id", clientId);
+    }
+
+    private void reindexGroup(final Long groupId) {
+        refresh(IndexedEntity.GROUP, "id", "group_id", groupId);
+        refresh(IndexedEntity.LOAN, "group_id", "group_id", groupId);
+        refresh(IndexedEntity.SAVINGS_ACCOUNT, "group_id", "group_id", groupId);
+    }
+
+    private void refresh(final IndexedEntity entity, final String column, final String indexColumn, final Long id) {
+        if (id == null) {
+            return;
+        }
+        this.jdbcTemplate.update(entity.upsertSql(entity.alias + "." + column + " = ?"), id);
+        this.jdbcTemplate.update(entity.deleteOrphansSql(" and si." + indexColumn + " = ?"), id);
+    }
+
+    /**
+     * Rewrites the whole index in id ranges, each committed on its own, so the index stays searchable while it runs.
+     */
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_SEARCH_INDEX)
+    public void rebuildSearchIndex() {
+        final long startTime = System.currentTimeMillis();
+        for (final IndexedEntity entity : IndexedEntity.values()) {
+            final Long maxId = this.jdbcTemplate.queryForObject("select max(id) from " + entity.table, Long.class);
+            final String upsertSql = entity.upsertSql(entity.alias + ".id > ? and " + entity.alias + ".id <= ?");
+            for (long fromId = 0; maxId != null && fromId < maxId; fromId += REBUILD_BATCH_SIZE) {
+                this.jdbcTemplate.update(upsertSql, fromId, fromId + REBUILD_BATCH_SIZE);
+            }
+            final int removed = this.jdbcTemplate.update(entity.deleteOrphansSql(""));
+            LOG.info("{}: rebuilt search index of {} up to id {}, removed {} stale entries",
+                    ThreadLocalContextUtil.getTenant().getName(), entity.table, maxId, removed);
+        }
+        LOG.info("{}: rebuilt search index in {} ms", ThreadLocalContextUtil.getTenant().getName(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * The tables behind the index with the select producing their index rows, which matches the initial load of the
+     * index in the V371 migration.
+     */
+    private enum IndexedEntity {
+
+        CLIENT("m_client", "c", "'CLIENT'", "select 'CLIENT', c.id, c.id, null, c.office_id, "
+                + "concat_ws(' ', c.display_name, c.account_no, c.external_id, c.mobile_no) from m_client c"),
+
+        CLIENT_IDENTIFIER("m_client_identifier", "ci", "'CLIENTIDENTIFIER'",
+                "select 'CLIENTIDENTIFIER', ci.id, c.id, null, c.office_id, ci.document_key "
+                        + "from m_client_identifier ci join m_client c on c.id = ci.client_id"),
+
+        GROUP("m_group", "g", "'GROUP', 'CENTER'", "select if(g.level_id = 1, 'CENTER', 'GROUP'), g.id, null, g.id, g.office_id, "
+                + "concat_ws(' ', g.display_name, g.account_no, g.external_id, g.id) from m_group g"),
+
+        LOAN("m_loan", "l", "'LOAN'", "select 'LOAN', l.id, l.client_id, l.group_id, ifnull(c.office_id, g.office_id), "
+                + "concat_ws(' ', l.account_no, l.external_id) from m_loan l "
+                + "left join m_client c on c.id = l.client_id left join m_group g on g.id = l.group_id"),
+
+        SAVINGS_ACCOUNT("m_savings_account", "s", "'SAVING'", "select 'SAVING', s.id, s.client_id, s.group_id, "
+                + "ifnull(c.office_id, g.office_id), concat_ws(' ', s.account_no, s.external_id) from m_savings_account s "
+                + "left join m_client c on c.id = s.client_id left join m_group g on g.id = s.group_id"),
+
+        SHARE_ACCOUNT("m_share_account", "s", "'SHARE'", "select 'SHARE', s.id, s.client_id, null, c.office_id, "
+                + "concat_ws(' ', s.account_no, s.external_id) from m_share_account s left join m_client c on c.id = s.client_id");
+
+        private final String table;
+        private final String alias;
+        private final String entityTypes;
+        private final String selectSql;
+
+        IndexedEntity(final String table, final String alias, final String entityTypes, final String selectSql) {
+            this.table = table;
+            this.alias = alias;
+            this.entityTypes = entityTypes;
+            this.selectSql = selectSql;
+        }
+
+        String upsertSql(final String condition) {
+            // rows whose values did not change are left untouched, so their full-text entries are not rewritten
+            return "insert into m_search_index (entity_type, entity_id, client_id, group_id, office_id, search_text) " + this.selectSql
+                    + " where " + condition + " on duplicate key update client_id = values(client_id), group_id = values(group_id),"
+                    + " office_id = values(office_id), search_text = values(search_text)";
+        }
+
+        String deleteOrphansSql(final String extraCondition) {
+            return "delete si from m_search_index si left join " + this.table + " t on t.id = si.entity_id where si.entity_type in ("
+                    + this.entityTypes + ") and t.id is null" + extraCondition;
+        }
+    }
+}
@@ -22,7 +22,13 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
@@ -43,14 +49,24 @@ import org.apache.fineract.portfolio.search.data.SearchConditions;
 import org.apache.fineract.portfolio.search.data.SearchData;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class SearchReadPlatformServiceImpl implements SearchReadPlatformService {
 
+    // the token size of the ngram parser of the search index, shorter queries are searched in the tables
+    private static final int MIN_INDEXED_QUERY_LENGTH = 2;
+    private static final int MAX_INDEXED_RESULTS = 200;
+    private static final String INDEX_SEARCH_SQL = "select si.entity_type as entityType, si.entity_id as entityId from m_search_index si"
+            + " join m_office o on o.id = si.office_id where o.hierarchy like :hierarchy and si.entity_type in (:entityTypes)"
+            + " and match (si.search_text) against (:query in boolean mode)"
+            + " order by match (si.search_text) against (:query in boolean mode) desc, si.entity_id limit :limit";
+
     private final NamedParameterJdbcTemplate namedParameterjdbcTemplate;
     private final PlatformSecurityContext context;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
@@ -67,12 +83,18 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<SearchData> retriveMatchingData(final SearchConditions searchConditions) {
         final AppUser currentUser = this.context.authenticatedUser();
         final String hierarchy = currentUser.getOffice().getHierarchy();
 
         final SearchMapper rm = new SearchMapper();
 
+        final String searchQuery = StringUtils.trimToEmpty(searchConditions.getSearchQuery()).replace("\"", "");
+        if (!searchConditions.getExactMatch() && searchQuery.length() >= MIN_INDEXED_QUERY_LENGTH) {
+            return retrieveIndexedMatches(rm, searchConditions, hierarchy, searchQuery);
+        }
+
         final MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("hierarchy", hierarchy + "%");
         if (searchConditions.getExactMatch()) {
@@ -83,68 +105,164 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
         return this.namedParameterjdbcTemplate.query(rm.searchSchema(searchConditions), params, rm);
     }
 
+    /**
+     * Looks the query up in the full-text index, whose ngrams match anywhere inside the indexed values like the infix
+     * LIKE of an unindexed search, and reads the best ranked entities from their tables.
+     */
+    private Collection<SearchData> retrieveIndexedMatches(final SearchMapper rm, final SearchConditions searchConditions,
+            final String hierarchy, final String searchQuery) {
+        final List<String> entityTypes = rm.indexedEntityTypes(searchConditions);
+        if (entityTypes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("hierarchy", hierarchy + "%");
+        params.addValue("entityTypes", entityTypes);
+        // as a phrase the ngrams of the query have to follow each other, as the characters of the query do
+        params.addValue("query", '"' + searchQuery + '"');
+        params.addValue("limit", MAX_INDEXED_RESULTS);
+
+        final Map<String, Integer> rankByEntity = new HashMap<>();
+        final Map<String, List<Long>> idsByEntityType = new HashMap<>();
+        this.namedParameterjdbcTemplate.query(INDEX_SEARCH_SQL, params, (RowCallbackHandler) rs -> {
+            final String entityType = rs.getString("entityType");
+            final Long entityId = rs.getLong("entityId");
+            rankByEntity.put(entityType + entityId, rankByEntity.size());
+            idsByEntityType.computeIfAbsent(entityType, type -> new ArrayList<>()).add(entityId);
+        });
+        if (rankByEntity.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<SearchData> matches = this.namedParameterjdbcTemplate.query(rm.indexedSchema(idsByEntityType, params), params, rm);
+        matches.sort(Comparator
+                .comparing(match -> rankByEntity.getOrDefault(match.getEntityType() + match.getEntityId(), Integer.MAX_VALUE)));
+        return matches;
+    }
+
     private static final class SearchMapper implements RowMapper<SearchData> {
 
-        public String searchSchema(final SearchConditions searchConditions) {
+        private static final String CLIENT_SQL = "select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
+                + " , c.office_id as parentId, o.name as parentName, c.mobile_no as entityMobileNo,c.status_enum as entityStatusEnum, null as parentType "
+                + " from m_client c join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy";
+
+        private static final String LOAN_SQL = "select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
+                + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
+                + " from m_loan l left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_office o on o.id = c.office_id left join m_product_loan pl on pl.id=l.product_id where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy)";
+
+        private static final String SAVING_SQL = "select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
+                + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
+                + " from m_savings_account s left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_office o on o.id = c.office_id left join m_savings_product sp on sp.id=s.product_id "
+                + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy)";
+
+        private static final String SHARE_SQL = "select 'SHARE' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
+                + " , c.id as parentId, c.display_name as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, 'client' as parentType "
+                + " from m_share_account s left join m_client c on s.client_id = c.id left join m_office o on o.id = c.office_id left join m_share_product sp on sp.id=s.product_id "
+                + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy)";
 
-            final String union = " union ";
-            final String clientMatchSql = " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
-                    + " , c.office_id as parentId, o.name as parentName, c.mobile_no as entityMobileNo,c.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_client c join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy and (c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)) ";
-
-            final String loanMatchSql = " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
-                    + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
-                    + " from m_loan l left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_office o on o.id = c.office_id left join m_product_loan pl on pl.id=l.product_id where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (l.account_no like :search or l.external_id like :search)) ";
-
-            final String savingMatchSql = " (select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
-                    + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
-                    + " from m_savings_account s left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_office o on o.id = c.office_id left join m_savings_product sp on sp.id=s.product_id "
-                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (s.account_no like :search or s.external_id like :search)) ";
-
-            final String shareMatchSql = " (select 'SHARE' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
-                    + " , c.id as parentId, c.display_name as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, 'client' as parentType "
-                    + " from m_share_account s left join m_client c on s.client_id = c.id left join m_office o on o.id = c.office_id left join m_share_product sp on sp.id=s.product_id "
-                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (s.account_no like :search or s.external_id like :search)) ";
-
-            final String clientIdentifierMatchSql = " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
-                    + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName,null as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
-                    + " where o.hierarchy like :hierarchy and ci.document_key like :search ) ";
-            final String groupMatchSql = " (select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo "
-                    + " , g.office_id as parentId, o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_group g join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy and (g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )) ";
+        private static final String CLIENT_IDENTIFIER_SQL = "select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
+                + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName,null as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType "
+                + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
+                + " where o.hierarchy like :hierarchy";
+
+        private static final String GROUP_SQL = "select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo "
+                + " , g.office_id as parentId, o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as parentType "
+                + " from m_group g join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy";
+
+        public String searchSchema(final SearchConditions searchConditions) {
             final StringBuilder sql = new StringBuilder();
 
             if (searchConditions.isClientSearch()) {
-                sql.append(clientMatchSql).append(union);
+                appendMatches(sql, CLIENT_SQL, "(c.account_no like :search or c.display_name like :search or c.external_id like :search"
+                        + " or c.mobile_no like :search)");
             }
 
             if (searchConditions.isLoanSeach()) {
-                sql.append(loanMatchSql).append(union);
+                appendMatches(sql, LOAN_SQL, "(l.account_no like :search or l.external_id like :search)");
             }
 
             if (searchConditions.isSavingSeach()) {
-                sql.append(savingMatchSql).append(union);
+                appendMatches(sql, SAVING_SQL, "(s.account_no like :search or s.external_id like :search)");
             }
 
             if (searchConditions.isShareSeach()) {
-                sql.append(shareMatchSql).append(union);
+                appendMatches(sql, SHARE_SQL, "(s.account_no like :search or s.external_id like :search)");
             }
 
             if (searchConditions.isClientIdentifierSearch()) {
-                sql.append(clientIdentifierMatchSql).append(union);
+                appendMatches(sql, CLIENT_IDENTIFIER_SQL, "ci.document_key like :search");
             }
 
             if (searchConditions.isGroupSearch()) {
-                sql.append(groupMatchSql).append(union);
+                appendMatches(sql, GROUP_SQL, "(g.account_no like :search or g.display_name like :search or g.external_id like :search"
+                        + " or g.id like :search )");
             }
 
-            sql.replace(sql.lastIndexOf(union), sql.length(), "");
+            return sql.toString();
+        }
 
-            // remove last occurrence of "union all" string
+        /**
+         * The same rows as {@link #searchSchema(SearchConditions)}, for the entities found in the search index.
+         */
+        public String indexedSchema(final Map<String, List<Long>> idsByEntityType, final MapSqlParameterSource params) {
+            final StringBuilder sql = new StringBuilder();
+            appendIds(sql, params, CLIENT_SQL, "c.id", "clientIds", idsByEntityType.get("CLIENT"));
+            appendIds(sql, params, LOAN_SQL, "l.id", "loanIds", idsByEntityType.get("LOAN"));
+            appendIds(sql, params, SAVING_SQL, "s.id", "savingIds", idsByEntityType.get("SAVING"));
+            appendIds(sql, params, SHARE_SQL, "s.id", "shareIds", idsByEntityType.get("SHARE"));
+            appendIds(sql, params, CLIENT_IDENTIFIER_SQL, "ci.id", "clientIdentifierIds", idsByEntityType.get("CLIENTIDENTIFIER"));
+
+            final List<Long> groupIds = new ArrayList<>();
+            groupIds.addAll(idsByEntityType.getOrDefault("GROUP", Collections.emptyList()));
+            groupIds.addAll(idsByEntityType.getOrDefault("CENTER", Collections.emptyList()));
+            appendIds(sql, params, GROUP_SQL, "g.id", "groupIds", groupIds);
             return sql.toString();
         }
 
+        /**
+         * @return the entity types of the search index covered by the searched resources
+         */
+        public List<String> indexedEntityTypes(final SearchConditions searchConditions) {
+            final List<String> entityTypes = new ArrayList<>();
+            if (searchConditions.isClientSearch()) {
+                entityTypes.add("CLIENT");
+            }
+            if (searchConditions.isLoanSeach()) {
+                entityTypes.add("LOAN");
+            }
+            if (searchConditions.isSavingSeach()) {
+                entityTypes.add("SAVING");
+            }
+            if (searchConditions.isShareSeach()) {
+                entityTypes.add("SHARE");
+            }
+            if (searchConditions.isClientIdentifierSearch()) {
+                entityTypes.add("CLIENTIDENTIFIER");
+            }
+            if (searchConditions.isGroupSearch()) {
+                entityTypes.add("GROUP");
+                entityTypes.add("CENTER");
+            }
+            return entityTypes;
+        }
+
+        private static void appendIds(final StringBuilder sql, final MapSqlParameterSource params, final String entitySql,
+                final String idColumn, final String parameterName, final List<Long> ids) {
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+            params.addValue(parameterName, ids);
+            appendMatches(sql, entitySql, idColumn + " in (:" + parameterName + ")");
+        }
+
+        private static void appendMatches(final StringBuilder sql, final String entitySql, final String condition) {
+            if (sql.length() > 0) {
+                sql.append(" union ");
+            }
+            sql.append(" (").append(entitySql).append(" and ").append(condition).append(") ");
+        }
+
         @Override
         public SearchData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
             final Long entityId = JdbcSupport.getLong(rs, "entityId");
@@ -192,6 +310,7 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<AdHocSearchQueryData> retrieveAdHocQueryMatchingData(final AdHocQuerySearchConditions searchConditions) {
 
         this.context.authenticatedUser();
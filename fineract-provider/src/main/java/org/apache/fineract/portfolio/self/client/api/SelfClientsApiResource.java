@@ -109,8 +109,10 @@ public class SelfClientsApiResource {
         final String externalId = null;
         final String hierarchy = null;
         final Boolean orphansOnly = null;
+        final String cursor = null;
+        final Boolean countTotal = null;
         return this.clientApiResource.retrieveAll(uriInfo, sqlSearch, officeId, externalId, displayName, firstname, lastname, status,
-                hierarchy, offset, limit, orderBy, sortOrder, orphansOnly, true);
+                hierarchy, offset, limit, orderBy, sortOrder, orphansOnly, true, cursor, countTotal);
     }
 
     @GET
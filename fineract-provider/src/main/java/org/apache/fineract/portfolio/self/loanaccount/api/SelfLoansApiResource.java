@@ -106,7 +106,7 @@ public class SelfLoansApiResource {
         validateAppuserLoanMapping(loanId);
 
         final boolean staffInSelectedOfficeOnly = false;
-        return this.loansApiResource.retrieveLoan(loanId, staffInSelectedOfficeOnly, uriInfo);
+        return this.loansApiResource.retrieveLoan(loanId, staffInSelectedOfficeOnly, uriInfo, null);
     }
 
     @GET
@@ -26,13 +26,13 @@ public interface ScheduledJobRunnerService {
 
     void updateLoanPaidInAdvance();
 
-    void applyAnnualFeeForSavings();
+    void applyAnnualFeeForSavings() throws JobExecutionException;
 
     void applyDueChargesForSavings() throws JobExecutionException;
 
     void updateNPA();
 
-    void updateMaturityDetailsOfDepositAccounts();
+    void updateMaturityDetailsOfDepositAccounts() throws JobExecutionException;
 
     void generateRDSchedule();
 
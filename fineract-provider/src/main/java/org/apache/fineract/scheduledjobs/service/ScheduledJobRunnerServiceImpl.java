@@ -24,6 +24,7 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.fineract.accounting.glaccount.domain.TrialBalance;
@@ -36,6 +37,7 @@ import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.DepositAccountUtils;
 import org.apache.fineract.portfolio.savings.data.DepositAccountData;
@@ -75,6 +77,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     private final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService;
     private final ShareAccountSchedularService shareAccountSchedularService;
     private final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper;
+    private final PartitionedJobExecutor partitionedJobExecutor;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final RoutingDataSourceServiceFactory dataSourceServiceFactory,
@@ -84,7 +87,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
             final DepositAccountWritePlatformService depositAccountWritePlatformService,
             final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService,
             final ShareAccountSchedularService shareAccountSchedularService,
-            final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper) {
+            final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper, final PartitionedJobExecutor partitionedJobExecutor) {
         this.dataSourceServiceFactory = dataSourceServiceFactory;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingsAccountChargeReadPlatformService = savingsAccountChargeReadPlatformService;
@@ -93,6 +96,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         this.shareAccountDividendReadPlatformService = shareAccountDividendReadPlatformService;
         this.shareAccountSchedularService = shareAccountSchedularService;
         this.trialBalanceRepositoryWrapper = trialBalanceRepositoryWrapper;
+        this.partitionedJobExecutor = partitionedJobExecutor;
     }
 
     @Transactional
@@ -215,24 +219,28 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     @Override
     @CronTarget(jobName = JobName.APPLY_ANNUAL_FEE_FOR_SAVINGS)
-    public void applyAnnualFeeForSavings() {
+    public void applyAnnualFeeForSavings() throws JobExecutionException {
 
         final Collection<SavingsAccountAnnualFeeData> annualFeeData = this.savingsAccountChargeReadPlatformService
                 .retrieveChargesWithAnnualFeeDue();
 
-        for (final SavingsAccountAnnualFeeData savingsAccountReference : annualFeeData) {
-            try {
-                this.savingsAccountWritePlatformService.applyAnnualFee(savingsAccountReference.getId(),
-                        savingsAccountReference.getAccountId());
-            } catch (final PlatformApiDataValidationException e) {
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error("Apply annual fee failed for account: {} with message {}", savingsAccountReference.getAccountNo(), error);
+        final Map<Long, List<SavingsAccountAnnualFeeData>> annualFeeDataByAccount = groupByAccount(annualFeeData);
+        this.partitionedJobExecutor.execute(JobName.APPLY_ANNUAL_FEE_FOR_SAVINGS, annualFeeDataByAccount.keySet(), savingsId -> {
+            for (final SavingsAccountAnnualFeeData savingsAccountReference : annualFeeDataByAccount.get(savingsId)) {
+                try {
+                    this.savingsAccountWritePlatformService.applyAnnualFee(savingsAccountReference.getId(),
+                            savingsAccountReference.getAccountId());
+                } catch (final PlatformApiDataValidationException e) {
+                    final List<ApiParameterError> errors = e.getErrors();
+                    for (final ApiParameterError error : errors) {
+                        LOG.error("Apply annual fee failed for account: {} with message {}", savingsAccountReference.getAccountNo(),
+                                error);
+                    }
+                } catch (final Exception ex) {
+                    LOG.error("Apply annual fee failed for account: {}", savingsAccountReference.getAccountNo(), ex);
                 }
-            } catch (final Exception ex) {
-                LOG.error("Apply annual fee failed for account: {}", savingsAccountReference.getAccountNo(), ex);
             }
-        }
+        });
 
         LOG.info("{}: Records affected by applyAnnualFeeForSavings: {}", ThreadLocalContextUtil.getTenant().getName(),
                 annualFeeData.size());
@@ -243,28 +251,44 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     public void applyDueChargesForSavings() throws JobExecutionException {
         final Collection<SavingsAccountAnnualFeeData> chargesDueData = this.savingsAccountChargeReadPlatformService
                 .retrieveChargesWithDue();
-        List<Throwable> exceptions = new ArrayList<>();
-        for (final SavingsAccountAnnualFeeData savingsAccountReference : chargesDueData) {
-            try {
-                this.savingsAccountWritePlatformService.applyChargeDue(savingsAccountReference.getId(),
-                        savingsAccountReference.getAccountId());
-            } catch (final PlatformApiDataValidationException e) {
-                exceptions.add(e);
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error("Apply Charges due for savings failed for account {} with message: {}",
-                            savingsAccountReference.getAccountNo(), error.getDeveloperMessage(), e);
+        // the charges of one account are applied one after another on the same worker
+        final Map<Long, List<SavingsAccountAnnualFeeData>> chargesDueDataByAccount = groupByAccount(chargesDueData);
+        try {
+            this.partitionedJobExecutor.execute(JobName.PAY_DUE_SAVINGS_CHARGES, chargesDueDataByAccount.keySet(), savingsId -> {
+                Exception firstException = null;
+                for (final SavingsAccountAnnualFeeData savingsAccountReference : chargesDueDataByAccount.get(savingsId)) {
+                    try {
+                        this.savingsAccountWritePlatformService.applyChargeDue(savingsAccountReference.getId(),
+                                savingsAccountReference.getAccountId());
+                    } catch (final PlatformApiDataValidationException e) {
+                        final List<ApiParameterError> errors = e.getErrors();
+                        for (final ApiParameterError error : errors) {
+                            LOG.error("Apply Charges due for savings failed for account {} with message: {}",
+                                    savingsAccountReference.getAccountNo(), error.getDeveloperMessage(), e);
+                        }
+                        firstException = firstException == null ? e : firstException;
+                    } catch (final Exception ex) {
+                        LOG.error("Apply Charges due for savings failed for account: {}", savingsAccountReference.getAccountNo(), ex);
+                        firstException = firstException == null ? ex : firstException;
+                    }
                 }
-            } catch (final Exception ex) {
-                exceptions.add(ex);
-                LOG.error("Apply Charges due for savings failed for account: {}", savingsAccountReference.getAccountNo(), ex);
-            }
+                if (firstException != null) {
+                    throw firstException;
+                }
+            });
+        } finally {
+            LOG.info("{}: Records affected by applyDueChargesForSavings: {}", ThreadLocalContextUtil.getTenant().getName(),
+                    chargesDueData.size());
         }
-        LOG.info("{}: Records affected by applyDueChargesForSavings: {}", ThreadLocalContextUtil.getTenant().getName(),
-                chargesDueData.size());
-        if (!exceptions.isEmpty()) {
-            throw new JobExecutionException(exceptions);
+    }
+
+    private static Map<Long, List<SavingsAccountAnnualFeeData>> groupByAccount(final Collection<SavingsAccountAnnualFeeData> chargeData) {
+        final Map<Long, List<SavingsAccountAnnualFeeData>> chargeDataByAccount = new LinkedHashMap<>();
+        for (final SavingsAccountAnnualFeeData savingsAccountReference : chargeData) {
+            chargeDataByAccount.computeIfAbsent(savingsAccountReference.getAccountId(), accountId -> new ArrayList<>())
+                    .add(savingsAccountReference);
         }
+        return chargeDataByAccount;
     }
 
     @Transactional
@@ -304,11 +328,16 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     @Override
     @CronTarget(jobName = JobName.UPDATE_DEPOSITS_ACCOUNT_MATURITY_DETAILS)
-    public void updateMaturityDetailsOfDepositAccounts() {
+    public void updateMaturityDetailsOfDepositAccounts() throws JobExecutionException {
 
         final Collection<DepositAccountData> depositAccounts = this.depositAccountReadPlatformService.retrieveForMaturityUpdate();
 
+        final Map<Long, DepositAccountData> depositAccountsById = new LinkedHashMap<>();
         for (final DepositAccountData depositAccount : depositAccounts) {
+            depositAccountsById.put(depositAccount.id(), depositAccount);
+        }
+        this.partitionedJobExecutor.execute(JobName.UPDATE_DEPOSITS_ACCOUNT_MATURITY_DETAILS, depositAccountsById.keySet(), accountId -> {
+            final DepositAccountData depositAccount = depositAccountsById.get(accountId);
             try {
                 final DepositAccountType depositAccountType = DepositAccountType.fromInt(depositAccount.depositType().getId().intValue());
                 this.depositAccountWritePlatformService.updateMaturityDetails(depositAccount.id(), depositAccountType);
@@ -321,7 +350,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
             } catch (final Exception ex) {
                 LOG.error("Update maturity details failed for account: {}", depositAccount.accountNo(), ex);
             }
-        }
+        });
 
         LOG.info("{}: Records affected by updateMaturityDetailsOfDepositAccounts: {}", ThreadLocalContextUtil.getTenant().getName(),
                 depositAccounts.size());
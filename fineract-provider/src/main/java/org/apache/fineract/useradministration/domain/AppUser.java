@@ -26,6 +26,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -38,6 +40,7 @@ import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
@@ -63,6 +66,10 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
 
     private static final Logger LOG = LoggerFactory.getLogger(AppUser.class);
 
+    // READ_ permission code per resource type, so read checks do not build it
+    // on every call
+    private static final ConcurrentMap<String, String> READ_PERMISSION_CODES = new ConcurrentHashMap<>();
+
     @Column(name = "email", nullable = false, length = 100)
     private String email;
 
@@ -122,6 +129,9 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
     @JoinColumn(name = "appuser_id", referencedColumnName = "id", nullable = false)
     private Set<AppUserClientMapping> appUserClientMappings = new HashSet<>();
 
+    @Transient
+    private transient volatile AppUserPermissions permissions;
+
     public static AppUser fromJson(final Office userOffice, final Staff linkedStaff, final Set<Role> allRoles,
             final Collection<Client> clients, final JsonCommand command) {
 
@@ -215,6 +225,7 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
         if (!allRoles.isEmpty()) {
             this.roles.clear();
             this.roles = allRoles;
+            this.permissions = null;
         }
     }
 
@@ -376,18 +387,16 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
 
     @Override
     public Collection<GrantedAuthority> getAuthorities() {
-        return populateGrantedAuthorities();
+        return permissions().getGrantedAuthorities();
     }
 
-    private List<GrantedAuthority> populateGrantedAuthorities() {
-        final List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
-        for (final Role role : this.roles) {
-            final Collection<Permission> permissions = role.getPermissions();
-            for (final Permission permission : permissions) {
-                grantedAuthorities.add(new SimpleGrantedAuthority(permission.getCode()));
-            }
+    private AppUserPermissions permissions() {
+        AppUserPermissions current = this.permissions;
+        if (current == null || !current.isCurrent()) {
+            current = AppUserPermissions.of(this.roles);
+            this.permissions = current;
         }
-        return grantedAuthorities;
+        return current;
     }
 
     @Override
@@ -521,54 +530,31 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
      * @return whether the user has the specified permission
      */
     public boolean hasSpecificPermissionTo(final String permissionCode) {
-        boolean hasPermission = false;
-        for (final Role role : this.roles) {
-            if (role.hasPermissionTo(permissionCode)) {
-                hasPermission = true;
-                break;
-            }
-        }
-        return hasPermission;
+        return permissions().hasSpecificPermissionTo(permissionCode);
     }
 
     public void validateHasReadPermission(final String resourceType) {
 
-        final String authorizationMessage = "User has no authority to view " + resourceType.toLowerCase() + "s";
-        final String matchPermission = "READ_" + resourceType.toUpperCase();
-
-        if (!hasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ", matchPermission)) {
+        final AppUserPermissions permissions = permissions();
+        if (permissions.hasPermissionTo("ALL_FUNCTIONS_READ")
+                || permissions.hasPermissionTo(READ_PERMISSION_CODES.computeIfAbsent(resourceType, AppUser::readPermissionCode))) {
             return;
         }
 
+        final String authorizationMessage = "User has no authority to view " + resourceType.toLowerCase() + "s";
         throw new NoAuthorizationException(authorizationMessage);
     }
 
+    private static String readPermissionCode(final String resourceType) {
+        return "READ_" + resourceType.toUpperCase();
+    }
+
     private boolean hasNotPermissionTo(final String permissionCode) {
         return !hasPermissionTo(permissionCode);
     }
 
     private boolean hasPermissionTo(final String permissionCode) {
-        boolean hasPermission = hasAllFunctionsPermission();
-        if (!hasPermission) {
-            for (final Role role : this.roles) {
-                if (role.hasPermissionTo(permissionCode)) {
-                    hasPermission = true;
-                    break;
-                }
-            }
-        }
-        return hasPermission;
-    }
-
-    private boolean hasAllFunctionsPermission() {
-        boolean match = false;
-        for (final Role role : this.roles) {
-            if (role.hasPermissionTo("ALL_FUNCTIONS")) {
-                match = true;
-                break;
-            }
-        }
-        return match;
+        return permissions().hasPermissionTo(permissionCode);
     }
 
     public boolean hasIdOf(final Long userId) {
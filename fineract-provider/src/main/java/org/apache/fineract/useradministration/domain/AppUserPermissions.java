@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.useradministration.domain;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Immutable snapshot of the permissions an {@link AppUser} holds through its roles.
+ *
+ * Permission codes are interned to small int ids shared by all users, and a snapshot keeps the ids of its user's
+ * permissions in a {@link BitSet}, so a permission check is a map lookup and a bit test instead of a walk over every role
+ * and permission. Codes are matched case-insensitively, as {@link Permission#hasCode(String)} does.
+ *
+ * Snapshots are built once per user instance and are dropped by {@link #invalidateAll()} whenever roles or permissions
+ * change.
+ */
+public final class AppUserPermissions {
+
+    private static final ConcurrentMap<String, Integer> PERMISSION_IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_PERMISSION_ID = new AtomicInteger();
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private static final String ALL_FUNCTIONS = "ALL_FUNCTIONS";
+
+    private final BitSet grantedPermissionIds;
+    private final boolean allFunctions;
+    private final List<GrantedAuthority> grantedAuthorities;
+    private final long version;
+
+    private AppUserPermissions(final BitSet grantedPermissionIds, final List<GrantedAuthority> grantedAuthorities, final long version) {
+        this.grantedPermissionIds = grantedPermissionIds;
+        this.grantedAuthorities = grantedAuthorities;
+        this.version = version;
+        this.allFunctions = hasSpecificPermissionTo(ALL_FUNCTIONS);
+    }
+
+    static AppUserPermissions of(final Collection<Role> roles) {
+        // read the version first, so that a change made while building
+        // leaves this snapshot outdated rather than wrong
+        final long version = VERSION.get();
+        final BitSet grantedPermissionIds = new BitSet();
+        final List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        for (final Role role : roles) {
+            for (final Permission permission : role.getPermissions()) {
+                grantedPermissionIds.set(register(permission.getCode()));
+                grantedAuthorities.add(new SimpleGrantedAuthority(permission.getCode()));
+            }
+        }
+        return new AppUserPermissions(grantedPermissionIds, Collections.unmodifiableList(grantedAuthorities), version);
+    }
+
+    /**
+     * Outdates the snapshots of all users, for when a role or permission has changed.
+     */
+    public static void invalidateAll() {
+        VERSION.incrementAndGet();
+    }
+
+    boolean isCurrent() {
+        return this.version == VERSION.get();
+    }
+
+    boolean hasPermissionTo(final String permissionCode) {
+        return this.allFunctions || hasSpecificPermissionTo(permissionCode);
+    }
+
+    boolean hasSpecificPermissionTo(final String permissionCode) {
+        final int permissionId = lookup(permissionCode);
+        return permissionId >= 0 && this.grantedPermissionIds.get(permissionId);
+    }
+
+    List<GrantedAuthority> getGrantedAuthorities() {
+        return this.grantedAuthorities;
+    }
+
+    private static int register(final String permissionCode) {
+        final String upperCaseCode = permissionCode.toUpperCase(Locale.ROOT);
+        final Integer permissionId = PERMISSION_IDS.computeIfAbsent(upperCaseCode, code -> NEXT_PERMISSION_ID.getAndIncrement());
+        // also register the code as spelt, so that it is found without
+        // changing its case
+        PERMISSION_IDS.putIfAbsent(permissionCode, permissionId);
+        return permissionId;
+    }
+
+    /**
+     * @return the id of the permission code, or -1 for a code no role has ever granted
+     */
+    private static int lookup(final String permissionCode) {
+        Integer permissionId = PERMISSION_IDS.get(permissionCode);
+        if (permissionId == null) {
+            permissionId = PERMISSION_IDS.get(permissionCode.toUpperCase(Locale.ROOT));
+        }
+        return permissionId == null ? -1 : permissionId;
+    }
+}
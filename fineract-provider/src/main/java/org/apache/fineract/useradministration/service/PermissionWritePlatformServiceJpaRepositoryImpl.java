@@ -21,6 +21,7 @@ package org.apache.fineract.useradministration.service;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -42,13 +43,16 @@ public class PermissionWritePlatformServiceJpaRepositoryImpl implements Permissi
     private final PlatformSecurityContext context;
     private final PermissionRepository permissionRepository;
     private final PermissionsCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final ConfigurationDomainService configurationDomainService;
 
     @Autowired
     public PermissionWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
-            final PermissionRepository permissionRepository, final PermissionsCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final PermissionRepository permissionRepository, final PermissionsCommandFromApiJsonDeserializer fromApiJsonDeserializer,
+            final ConfigurationDomainService configurationDomainService) {
         this.context = context;
         this.permissionRepository = permissionRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.configurationDomainService = configurationDomainService;
     }
 
     @Caching(evict = { @CacheEvict(value = "users", allEntries = true), @CacheEvict(value = "usersByUsername", allEntries = true) })
@@ -83,6 +87,7 @@ public class PermissionWritePlatformServiceJpaRepositoryImpl implements Permissi
 
         if (!changedPermissions.isEmpty()) {
             changes.put("permissions", changedPermissions);
+            this.configurationDomainService.configurationChanged();
         }
 
         return new CommandProcessingResultBuilder().withCommandId(command.commandId()).with(changes).build();
@@ -30,6 +30,7 @@ import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityEx
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.notification.service.TopicDomainService;
 import org.apache.fineract.useradministration.command.PermissionsCommand;
+import org.apache.fineract.useradministration.domain.AppUserPermissions;
 import org.apache.fineract.useradministration.domain.Permission;
 import org.apache.fineract.useradministration.domain.PermissionRepository;
 import org.apache.fineract.useradministration.domain.Role;
@@ -188,6 +189,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
         if (!changedPermissions.isEmpty()) {
             changes.put("permissions", changedPermissions);
             this.roleRepository.save(role);
+            AppUserPermissions.invalidateAll();
         }
 
         return new CommandProcessingResultBuilder() //
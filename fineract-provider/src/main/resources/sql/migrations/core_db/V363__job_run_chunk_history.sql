@@ -0,0 +1,44 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE `job_run_chunk_history` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `job_id` BIGINT NOT NULL,
+  `version` BIGINT NOT NULL,
+  `chunk_number` INT NOT NULL,
+  `start_account_id` BIGINT NOT NULL,
+  `end_account_id` BIGINT NOT NULL,
+  `account_count` INT NOT NULL,
+  `processed_count` INT NOT NULL DEFAULT 0,
+  `failed_count` INT NOT NULL DEFAULT 0,
+  `status` VARCHAR(10) NOT NULL,
+  `start_time` DATETIME NOT NULL,
+  `end_time` DATETIME NULL DEFAULT NULL,
+  `error_message` TEXT NULL DEFAULT NULL,
+  `error_log` TEXT NULL DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `FK_job_run_chunk_history_job_id` (`job_id`, `version`),
+  CONSTRAINT `FK_job_run_chunk_history_job_id` FOREIGN KEY (`job_id`) REFERENCES `job` (`id`)
+);
+
+INSERT IGNORE INTO `job_parameters` (`job_id`, `parameter_name`, `parameter_value`)
+SELECT `id`, 'partition-thread-count', 1 FROM `job` WHERE `name` IN ('Apply penalty to overdue loans', 'Add Accrual Transactions', 'Add Periodic Accrual Transactions');
+
+INSERT IGNORE INTO `job_parameters` (`job_id`, `parameter_name`, `parameter_value`)
+SELECT `id`, 'partition-chunk-size', 500 FROM `job` WHERE `name` IN ('Apply penalty to overdue loans', 'Add Accrual Transactions', 'Add Periodic Accrual Transactions');
@@ -0,0 +1,33 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE `job_checkpoint` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `job_name` VARCHAR(100) NOT NULL,
+  `run_date` DATE NOT NULL,
+  `last_processed_id` BIGINT NOT NULL DEFAULT 0,
+  `processed_count` BIGINT NOT NULL DEFAULT 0,
+  `status` VARCHAR(10) NOT NULL,
+  `lastmodified_date` DATETIME NULL DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uq_job_checkpoint_job_name` (`job_name`)
+);
+
+INSERT IGNORE INTO `job_parameters` (`job_id`, `parameter_name`, `parameter_value`)
+SELECT `id`, 'batch-size', 100 FROM `job` WHERE `name` = 'Post Interest For Savings';
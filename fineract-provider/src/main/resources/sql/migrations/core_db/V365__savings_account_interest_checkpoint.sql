@@ -0,0 +1,35 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE `m_savings_account_interest_checkpoint` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `savings_account_id` BIGINT NOT NULL,
+  `period_end_date` DATE NULL DEFAULT NULL,
+  `closing_balance` DECIMAL(19,6) NULL DEFAULT NULL,
+  `compounded_interest` DECIMAL(38,18) NULL DEFAULT NULL,
+  `uncompounded_interest` DECIMAL(38,18) NULL DEFAULT NULL,
+  `total_interest_earned` DECIMAL(19,6) NULL DEFAULT NULL,
+  `transaction_count` BIGINT NULL DEFAULT NULL,
+  `transaction_checksum` BIGINT NULL DEFAULT NULL,
+  `parameters_hash` INT NULL DEFAULT NULL,
+  `lastmodified_date` DATETIME NULL DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uq_savings_interest_checkpoint_account` (`savings_account_id`),
+  CONSTRAINT `FK_savings_interest_checkpoint_account` FOREIGN KEY (`savings_account_id`) REFERENCES `m_savings_account` (`id`)
+);
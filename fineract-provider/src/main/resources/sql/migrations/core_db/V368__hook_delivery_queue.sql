@@ -0,0 +1,40 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- durable outbound queue of web hook deliveries; delivered rows are removed,
+-- rows that ran out of attempts stay behind with status DEAD
+CREATE TABLE `m_hook_delivery` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `hook_id` BIGINT NOT NULL,
+  `entity_name` VARCHAR(45) NOT NULL,
+  `action_name` VARCHAR(45) NOT NULL,
+  `payload` LONGTEXT NOT NULL,
+  `status` VARCHAR(20) NOT NULL,
+  `attempt_count` INT NOT NULL DEFAULT 0,
+  `next_attempt_time` DATETIME NOT NULL,
+  `claim_token` VARCHAR(36) NULL DEFAULT NULL,
+  `last_error` VARCHAR(1000) NULL DEFAULT NULL,
+  `created_date` DATETIME NOT NULL,
+  `lastmodified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `idx_m_hook_delivery_status_next_attempt` (`status`, `next_attempt_time`),
+  INDEX `idx_m_hook_delivery_hook_status` (`hook_id`, `status`, `id`),
+  INDEX `idx_m_hook_delivery_claim_token` (`claim_token`),
+  CONSTRAINT `fk_m_hook_delivery_hook_id` FOREIGN KEY (`hook_id`) REFERENCES `m_hook` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
@@ -0,0 +1,61 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+
+-- stop words would drop every ngram containing a single letter stop word such as 'a' or 'i'
+SET SESSION innodb_ft_enable_stopword = 0;
+
+CREATE TABLE `m_search_index` (
+  `entity_type` VARCHAR(20) NOT NULL,
+  `entity_id` BIGINT NOT NULL,
+  `client_id` BIGINT NULL DEFAULT NULL,
+  `group_id` BIGINT NULL DEFAULT NULL,
+  `office_id` BIGINT NULL DEFAULT NULL,
+  `search_text` VARCHAR(1000) NOT NULL,
+  PRIMARY KEY (`entity_type`, `entity_id`),
+  KEY `idx_search_index_client` (`client_id`),
+  KEY `idx_search_index_group` (`group_id`),
+  FULLTEXT KEY `ft_search_index_text` (`search_text`) WITH PARSER ngram
+) ENGINE=InnoDB;
+
+INSERT INTO `m_search_index` (`entity_type`, `entity_id`, `client_id`, `group_id`, `office_id`, `search_text`)
+SELECT 'CLIENT', c.id, c.id, NULL, c.office_id, CONCAT_WS(' ', c.display_name, c.account_no, c.external_id, c.mobile_no)
+FROM m_client c;
+
+INSERT INTO `m_search_index` (`entity_type`, `entity_id`, `client_id`, `group_id`, `office_id`, `search_text`)
+SELECT 'CLIENTIDENTIFIER', ci.id, c.id, NULL, c.office_id, ci.document_key
+FROM m_client_identifier ci JOIN m_client c ON c.id = ci.client_id;
+
+INSERT INTO `m_search_index` (`entity_type`, `entity_id`, `client_id`, `group_id`, `office_id`, `search_text`)
+SELECT IF(g.level_id = 1, 'CENTER', 'GROUP'), g.id, NULL, g.id, g.office_id, CONCAT_WS(' ', g.display_name, g.account_no, g.external_id, g.id)
+FROM m_group g;
+
+INSERT INTO `m_search_index` (`entity_type`, `entity_id`, `client_id`, `group_id`, `office_id`, `search_text`)
+SELECT 'LOAN', l.id, l.client_id, l.group_id, IFNULL(c.office_id, g.office_id), CONCAT_WS(' ', l.account_no, l.external_id)
+FROM m_loan l LEFT JOIN m_client c ON c.id = l.client_id LEFT JOIN m_group g ON g.id = l.group_id;
+
+INSERT INTO `m_search_index` (`entity_type`, `entity_id`, `client_id`, `group_id`, `office_id`, `search_text`)
+SELECT 'SAVING', s.id, s.client_id, s.group_id, IFNULL(c.office_id, g.office_id), CONCAT_WS(' ', s.account_no, s.external_id)
+FROM m_savings_account s LEFT JOIN m_client c ON c.id = s.client_id LEFT JOIN m_group g ON g.id = s.group_id;
+
+INSERT INTO `m_search_index` (`entity_type`, `entity_id`, `client_id`, `group_id`, `office_id`, `search_text`)
+SELECT 'SHARE', s.id, s.client_id, NULL, c.office_id, CONCAT_WS(' ', s.account_no, s.external_id)
+FROM m_share_account s LEFT JOIN m_client c ON c.id = s.client_id;
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Rebuild Search Index', 'Rebuild Search Index', '0 0 3 ? * SUN *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0);
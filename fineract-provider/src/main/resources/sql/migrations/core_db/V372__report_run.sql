@@ -0,0 +1,44 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+
+-- queue of asynchronous stretchy report runs; the result of a completed run is
+-- spooled as a gzip file to the document content repository
+CREATE TABLE `m_report_run` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `report_name` VARCHAR(100) NOT NULL,
+  `report_type` VARCHAR(20) NOT NULL,
+  `output_type` VARCHAR(10) NOT NULL,
+  `is_self_service_user_report` TINYINT(1) NOT NULL DEFAULT 0,
+  `report_parameters` TEXT NULL DEFAULT NULL,
+  `status` VARCHAR(20) NOT NULL,
+  `run_as_userid` BIGINT NOT NULL,
+  `row_count` BIGINT NULL DEFAULT NULL,
+  `file_size` BIGINT NULL DEFAULT NULL,
+  `storage_type_enum` SMALLINT NULL DEFAULT NULL,
+  `location` VARCHAR(500) NULL DEFAULT NULL,
+  `error_message` VARCHAR(1000) NULL DEFAULT NULL,
+  `submitted_date` DATETIME NOT NULL,
+  `started_date` DATETIME NULL DEFAULT NULL,
+  `completed_date` DATETIME NULL DEFAULT NULL,
+  `lastmodified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `idx_m_report_run_status` (`status`, `id`),
+  CONSTRAINT `fk_m_report_run_run_as_userid` FOREIGN KEY (`run_as_userid`) REFERENCES `m_appuser` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
@@ -0,0 +1,31 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+INSERT INTO `c_configuration` (`name`, `value`, `date_value`, `enabled`, `is_trap_door`, `description`)
+VALUES
+    ('async-command-audit', 0, NULL, 0, 0, 'If enabled, the audit entries of commands that do not need maker checker approval are written to m_portfolio_command_source in batches shortly after the command commits');
+
+-- segments of the local command audit log that have been written to
+-- m_portfolio_command_source; a segment found here again after a crash is
+-- dropped instead of being written twice
+CREATE TABLE `m_portfolio_command_source_log_segment` (
+  `segment_name` VARCHAR(100) NOT NULL,
+  `flushed_date` DATETIME NOT NULL,
+  PRIMARY KEY (`segment_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
@@ -0,0 +1,348 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.UriInfo;
+import org.apache.fineract.batch.command.CommandStrategy;
+import org.apache.fineract.batch.command.CommandStrategyProvider;
+import org.apache.fineract.batch.domain.BatchRequest;
+import org.apache.fineract.batch.domain.BatchResponse;
+import org.apache.fineract.batch.serialization.BatchRequestJsonHelper;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit Test for the streaming and concurrent batches of {@link BatchApiServiceImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BatchApiServiceImplTest {
+
+    private final Gson gson = new Gson();
+    private final BatchRequestExecutor batchRequestExecutor = new BatchRequestExecutor();
+    // the ids of the requests in the order they were executed
+    private final List<Long> executedRequestIds = Collections.synchronizedList(new ArrayList<>());
+
+    @Mock
+    private CommandStrategyProvider strategyProvider;
+
+    @Mock
+    private ResolutionHelper resolutionHelper;
+
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+
+    @Mock
+    private ToApiJsonSerializer<BatchResponse> toApiJsonSerializer;
+
+    @Mock
+    private UriInfo uriInfo;
+
+    private BatchApiServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final CommandStrategy strategy = (request, uriInfo) -> {
+            this.executedRequestIds.add(request.getRequestId());
+            final int statusCode = request.getRelativeUrl().startsWith("fail") ? 400 : 200;
+            return new BatchResponse(request.getRequestId(), statusCode, null, "{\"resourceId\":" + request.getRequestId() + "}");
+        };
+        lenient().when(this.strategyProvider.getCommandStrategy(any())).thenReturn(strategy);
+        lenient().when(this.resolutionHelper.resoluteRequest(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(this.toApiJsonSerializer.serialize(any())).thenAnswer(invocation -> this.gson.toJson(invocation.getArgument(0)));
+        this.service = new BatchApiServiceImpl(this.strategyProvider, this.resolutionHelper, null, this.configurationDomainService,
+                this.batchRequestExecutor, new BatchRequestJsonHelper(), this.toApiJsonSerializer);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.batchRequestExecutor.stop();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testResponsesAreWrittenInRequestOrderWhenRunSequentially() throws IOException {
+        final List<BatchResponse> responses = stream(1, request(1L, null), request(2L, null), request(3L, null));
+
+        assertEquals(List.of(1L, 2L, 3L), requestIds(responses));
+        assertEquals("{\"resourceId\":2}", responses.get(1).getBody());
+    }
+
+    @Test
+    public void testChildRequestsRunAfterTheirParentAndAreResolvedAgainstIt() throws IOException {
+        final List<BatchResponse> responses = stream(4, request(1L, null), request(2L, 1L), request(3L, 2L), request(4L, null));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), sorted(requestIds(responses)));
+        assertTrue(this.executedRequestIds.indexOf(1L) < this.executedRequestIds.indexOf(2L), this.executedRequestIds.toString());
+        assertTrue(this.executedRequestIds.indexOf(2L) < this.executedRequestIds.indexOf(3L), this.executedRequestIds.toString());
+        verify(this.resolutionHelper).resoluteRequest(argThat(request -> request.getRequestId() == 2L),
+                argThat(response -> response.getRequestId() == 1L));
+    }
+
+    @Test
+    public void testChildOfFailedParentIsNotRun() throws IOException {
+        final BatchRequest parent = request(1L, null);
+        parent.setRelativeUrl("fail");
+
+        final List<BatchResponse> responses = stream(1, parent, request(2L, 1L));
+
+        assertEquals(409, responses.get(1).getStatusCode());
+        assertTrue(responses.get(1).getBody().contains("was erroneous"), responses.get(1).getBody());
+        assertEquals(List.of(1L), this.executedRequestIds);
+    }
+
+    @Test
+    public void testOnlyTheLatestResponsesCanBeReferredTo() throws IOException {
+        final int maxResponses = BatchApiServiceImpl.MAX_REFERENCEABLE_RESPONSES;
+        final List<BatchRequest> requests = new ArrayList<>();
+        for (long requestId = 1; requestId <= maxResponses + 1; requestId++) {
+            requests.add(request(requestId, null));
+        }
+        // the response of request 1 has been released, that of request 2 is
+        // the oldest one still kept
+        requests.add(request(maxResponses + 2L, 1L));
+        requests.add(request(maxResponses + 3L, 2L));
+
+        final List<BatchResponse> responses = stream(1, requests.toArray(new BatchRequest[0]));
+
+        final BatchResponse tooOld = responses.get(maxResponses + 1);
+        assertEquals(409, tooOld.getStatusCode());
+        assertTrue(tooOld.getBody().contains("was not found"), tooOld.getBody());
+        assertEquals(200, responses.get(maxResponses + 2).getStatusCode());
+    }
+
+    @Test
+    public void testFirstResponseIsWrittenBeforeTheNextRequestIsRead() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] first = ("[" + this.gson.toJson(request(1L, null))).getBytes(StandardCharsets.UTF_8);
+        // more than the reader buffers ahead
+        final byte[] padding = String.join("", Collections.nCopies(65536, " ")).getBytes(StandardCharsets.UTF_8);
+        final byte[] rest = ("," + this.gson.toJson(request(2L, null)) + "]").getBytes(StandardCharsets.UTF_8);
+        final List<String> outputWhenReachingSecondRequest = new ArrayList<>();
+        final InputStream input = new ByteArrayInputStream(concat(first, padding, rest)) {
+
+            @Override
+            public synchronized int read(final byte[] buffer, final int offset, final int length) {
+                if (this.pos >= first.length + padding.length && outputWhenReachingSecondRequest.isEmpty()) {
+                    outputWhenReachingSecondRequest.add(new String(output.toByteArray(), StandardCharsets.UTF_8));
+                }
+                return super.read(buffer, offset, length);
+            }
+        };
+        when(this.configurationDomainService.retrieveBatchApiParallelism()).thenReturn(1);
+
+        this.service.handleBatchRequestsStreaming(input, this.uriInfo).write(output);
+
+        assertEquals(List.of(1L), this.executedRequestIds.subList(0, 1));
+        assertTrue(outputWhenReachingSecondRequest.get(0).startsWith("[{\"requestId\":1"), outputWhenReachingSecondRequest.get(0));
+        assertEquals(List.of(1L, 2L), requestIds(parse(output)));
+    }
+
+    @Test
+    public void testUnreadableRequestsEndTheArrayWithAnErrorResponse() throws IOException {
+        final String json = "[" + this.gson.toJson(request(1L, null)) + ", {\"requestId\": ";
+
+        final List<BatchResponse> responses = stream(1, json);
+
+        assertEquals(2, responses.size());
+        assertEquals(200, responses.get(0).getStatusCode());
+        assertEquals(400, responses.get(1).getStatusCode());
+    }
+
+    @Test
+    public void testEmptyBatchIsAnError() throws IOException {
+        final List<BatchResponse> responses = stream(1, "[]");
+
+        assertEquals(1, responses.size());
+        assertEquals(500, responses.get(0).getStatusCode());
+    }
+
+    @Test
+    public void testWriteFailureIsRaisedAtTheEnd() {
+        when(this.configurationDomainService.retrieveBatchApiParallelism()).thenReturn(1);
+        final OutputStream brokenOutput = new OutputStream() {
+
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("client went away");
+            }
+        };
+        final String json = "[" + this.gson.toJson(request(1L, null)) + "," + this.gson.toJson(request(2L, null)) + "]";
+        final InputStream input = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> this.service.handleBatchRequestsStreaming(input, this.uriInfo).write(brokenOutput));
+        // the requests read so far are still run
+        assertEquals(List.of(1L, 2L), this.executedRequestIds);
+    }
+
+    @Test
+    public void testIndependentRootRequestsRunInParallel() {
+        // both requests have to be in progress at the same time for either to succeed
+        final CountDownLatch running = new CountDownLatch(2);
+        when(this.strategyProvider.getCommandStrategy(any())).thenReturn((request, uriInfo) -> {
+            running.countDown();
+            try {
+                final int statusCode = running.await(10, TimeUnit.SECONDS) ? 200 : 500;
+                return new BatchResponse(request.getRequestId(), statusCode, null, null);
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        final List<BatchResponse> responses = runConcurrently(2, request(1L, null), request(2L, null));
+
+        assertEquals(200, responses.get(0).getStatusCode());
+        assertEquals(200, responses.get(1).getStatusCode());
+    }
+
+    @Test
+    public void testConcurrentChildRequestsRunAfterTheirParentAndAreResolvedAgainstIt() {
+        final List<BatchResponse> responses = runConcurrently(4, request(1L, null), request(2L, 1L), request(3L, 2L), request(4L, null));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), requestIds(responses));
+        assertTrue(this.executedRequestIds.indexOf(1L) < this.executedRequestIds.indexOf(2L), this.executedRequestIds.toString());
+        assertTrue(this.executedRequestIds.indexOf(2L) < this.executedRequestIds.indexOf(3L), this.executedRequestIds.toString());
+        verify(this.resolutionHelper).resoluteRequest(argThat(request -> request.getRequestId() == 2L),
+                argThat(response -> response.getRequestId() == 1L && "{\"resourceId\":1}".equals(response.getBody())));
+        verify(this.resolutionHelper).resoluteRequest(argThat(request -> request.getRequestId() == 3L),
+                argThat(response -> response.getRequestId() == 2L));
+    }
+
+    @Test
+    public void testConcurrentChildrenOfFailedParentAreConflicts() {
+        final BatchRequest parent = request(1L, null);
+        parent.setRelativeUrl("fail");
+
+        final List<BatchResponse> responses = runConcurrently(4, parent, request(2L, 1L), request(3L, 2L), request(4L, null));
+
+        assertEquals(400, responses.get(0).getStatusCode());
+        assertEquals(409, responses.get(1).getStatusCode());
+        assertTrue(responses.get(1).getBody().contains("was erroneous"), responses.get(1).getBody());
+        assertEquals(409, responses.get(2).getStatusCode());
+        assertEquals(200, responses.get(3).getStatusCode());
+        assertEquals(List.of(1L, 4L), sorted(this.executedRequestIds));
+    }
+
+    @Test
+    public void testConcurrentResponsesAreSortedByRequestId() {
+        final List<BatchResponse> responses = runConcurrently(4, request(3L, null), request(1L, 3L), request(4L, null),
+                request(2L, null));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), requestIds(responses));
+    }
+
+    @Test
+    public void testErrorOfConcurrentRootRequestFailsOnlyThatRequest() {
+        when(this.strategyProvider.getCommandStrategy(any())).thenReturn((request, uriInfo) -> {
+            if (request.getRequestId() == 1L) {
+                throw new StackOverflowError("too deep");
+            }
+            return new BatchResponse(request.getRequestId(), 200, null, null);
+        });
+
+        final List<BatchResponse> responses = runConcurrently(2, request(1L, null), request(2L, 1L), request(3L, null));
+
+        assertEquals(500, responses.get(0).getStatusCode());
+        assertEquals("too deep", responses.get(0).getBody());
+        assertEquals(409, responses.get(1).getStatusCode());
+        assertEquals(200, responses.get(2).getStatusCode());
+    }
+
+    private List<BatchResponse> runConcurrently(final int parallelism, final BatchRequest... requests) {
+        when(this.configurationDomainService.retrieveBatchApiParallelism()).thenReturn(parallelism);
+        final List<BatchRequest> requestList = List.of(requests);
+        when(this.resolutionHelper.getDependingRequests(requestList))
+                .thenReturn(new ResolutionHelper(null).getDependingRequests(requestList));
+        return this.service.handleBatchRequestsWithoutEnclosingTransaction(requestList, this.uriInfo);
+    }
+
+    private List<BatchResponse> stream(final int parallelism, final BatchRequest... requests) throws IOException {
+        return stream(parallelism, this.gson.toJson(requests));
+    }
+
+    private List<BatchResponse> stream(final int parallelism, final String json) throws IOException {
+        when(this.configurationDomainService.retrieveBatchApiParallelism()).thenReturn(parallelism);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        this.service.handleBatchRequestsStreaming(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), this.uriInfo)
+                .write(output);
+        return parse(output);
+    }
+
+    private List<BatchResponse> parse(final ByteArrayOutputStream output) {
+        final Type listType = new TypeToken<List<BatchResponse>>() {}.getType();
+        return this.gson.fromJson(new String(output.toByteArray(), StandardCharsets.UTF_8), listType);
+    }
+
+    private static BatchRequest request(final Long requestId, final Long reference) {
+        return new BatchRequest(requestId, "clients", "POST", null, reference, "{}");
+    }
+
+    private static List<Long> requestIds(final List<BatchResponse> responses) {
+        final List<Long> requestIds = new ArrayList<>();
+        for (final BatchResponse response : responses) {
+            requestIds.add(response.getRequestId());
+        }
+        return requestIds;
+    }
+
+    private static List<Long> sorted(final List<Long> values) {
+        final List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private static byte[] concat(final byte[]... parts) {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        for (final byte[] part : parts) {
+            result.writeBytes(part);
+        }
+        return result.toByteArray();
+    }
+}
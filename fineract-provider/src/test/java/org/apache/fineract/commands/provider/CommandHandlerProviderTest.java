@@ -19,7 +19,9 @@
 package org.apache.fineract.commands.provider;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.exception.UnsupportedCommandException;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
 import org.apache.fineract.infrastructure.configuration.spring.TestsWithoutDatabaseAndNoJobsConfiguration;
@@ -64,4 +66,22 @@ public class CommandHandlerProviderTest {
             this.commandHandlerProvider.getHandler("WHATEVER", "DOSOMETHING");
         });
     }
+
+    @Test
+    public void shouldReturnRegisteredHandlerForCommand() {
+        final CommandWrapper wrapper = new CommandWrapper(null, null, null, null, null, "UPDATE", "HUMAN", 1L, null, "/humans/1", "{}",
+                null, null, null, null, null);
+
+        assertSame(this.commandHandlerProvider.getHandler("HUMAN", "UPDATE"), this.commandHandlerProvider.getHandler(wrapper));
+    }
+
+    @Test
+    public void shouldThrowUnsupportedCommandExceptionForUnsupportedSpecialCommand() {
+        final CommandWrapper wrapper = new CommandWrapper(null, null, null, null, null, "DELETE", "SURVEY", 1L, null, "/survey/ppi", "{}",
+                null, null, null, null, null);
+
+        Assertions.assertThrows(UnsupportedCommandException.class, () -> {
+            this.commandHandlerProvider.getHandler(wrapper);
+        });
+    }
 }
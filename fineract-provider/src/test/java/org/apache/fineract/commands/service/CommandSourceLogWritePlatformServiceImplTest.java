@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.apache.fineract.commands.data.CommandSourceLogRecord;
+import org.apache.fineract.commands.domain.CommandSource;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Unit Test for {@link CommandSourceLogWritePlatformServiceImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CommandSourceLogWritePlatformServiceImplTest {
+
+    private static final int COLUMNS = 18;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CommandSourceLogWritePlatformServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        this.service = new CommandSourceLogWritePlatformServiceImpl(this.jdbcTemplate);
+    }
+
+    @Test
+    public void testRecordsAreInsertedInChunksOfMaxRowsPerInsert() {
+        final int maxRows = CommandSourceLogWritePlatformServiceImpl.MAX_ROWS_PER_INSERT;
+
+        this.service.write("segment.log", records(2 * maxRows + 1));
+
+        final List<Invocation> updates = updates();
+        assertEquals(4, updates.size());
+        assertInsert(updates.get(0), maxRows, 0);
+        assertInsert(updates.get(1), maxRows, maxRows);
+        assertInsert(updates.get(2), 1, 2 * maxRows);
+        assertTrue(((String) updates.get(3).getRawArguments()[0]).startsWith("insert into m_portfolio_command_source_log_segment"));
+        assertEquals("segment.log", ((Object[]) updates.get(3).getRawArguments()[1])[0]);
+    }
+
+    @Test
+    public void testExactlyMaxRowsPerInsertTakeOneInsert() {
+        final int maxRows = CommandSourceLogWritePlatformServiceImpl.MAX_ROWS_PER_INSERT;
+
+        this.service.write(null, records(maxRows));
+
+        final List<Invocation> updates = updates();
+        assertEquals(1, updates.size());
+        assertInsert(updates.get(0), maxRows, 0);
+    }
+
+    @Test
+    public void testNoRecordsOnlyRecordTheSegment() {
+        this.service.write("segment.log", new ArrayList<>());
+
+        final List<Invocation> updates = updates();
+        assertEquals(1, updates.size());
+        assertTrue(((String) updates.get(0).getRawArguments()[0]).startsWith("insert into m_portfolio_command_source_log_segment"));
+    }
+
+    private List<Invocation> updates() {
+        final List<Invocation> updates = new ArrayList<>();
+        for (final Invocation invocation : mockingDetails(this.jdbcTemplate).getInvocations()) {
+            if (invocation.getMethod().getName().equals("update")) {
+                updates.add(invocation);
+            }
+        }
+        return updates;
+    }
+
+    private static void assertInsert(final Invocation update, final int rows, final int firstRow) {
+        final String sql = (String) update.getRawArguments()[0];
+        final Object[] args = (Object[]) update.getRawArguments()[1];
+        assertTrue(sql.startsWith("insert into m_portfolio_command_source ("), sql);
+        assertEquals(rows, sql.split("\\(\\?", -1).length - 1);
+        assertEquals(rows * COLUMNS, args.length);
+        // the resource id of each row is its position in the records
+        assertEquals((long) firstRow, args[8]);
+        assertEquals((long) firstRow + rows - 1, args[args.length - COLUMNS + 8]);
+    }
+
+    private static List<CommandSourceLogRecord> records(final int count) {
+        final AppUser maker = mock(AppUser.class);
+        when(maker.getId()).thenReturn(1L);
+        final List<CommandSourceLogRecord> records = new ArrayList<>(count);
+        for (long resourceId = 0; resourceId < count; resourceId++) {
+            final CommandSource commandSource = mock(CommandSource.class);
+            when(commandSource.getMaker()).thenReturn(maker);
+            when(commandSource.getMadeOnDate()).thenReturn(new Date());
+            when(commandSource.getResourceId()).thenReturn(resourceId);
+            records.add(CommandSourceLogRecord.from(commandSource));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.fineract.commands.data.CommandSourceLogRecord;
+import org.apache.fineract.commands.domain.CommandSource;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit Test for {@link CommandSourceWriteBehindLog}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CommandSourceWriteBehindLogTest {
+
+    private static final String LEFTOVER_NODE_NAME = "0000000000001-deadbeef";
+
+    private final FineractPlatformTenant tenant = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+
+    @TempDir
+    Path baseDirectory;
+
+    @Mock
+    private CommandSourceLogWritePlatformService commandSourceLogWritePlatformService;
+
+    @Mock
+    private TenantDetailsService tenantDetailsService;
+
+    @Mock
+    private TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
+
+    private CommandSourceWriteBehindLog writeBehindLog;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(this.tenantDetailsService.findAllTenants()).thenReturn(Collections.singletonList(this.tenant));
+        lenient().when(this.tenantDatabaseUpgradeService.isTenantReady("default")).thenReturn(true);
+        this.writeBehindLog = new CommandSourceWriteBehindLog(this.commandSourceLogWritePlatformService, this.tenantDetailsService,
+                this.tenantDatabaseUpgradeService, this.baseDirectory);
+        ThreadLocalContextUtil.setTenant(this.tenant);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testSealedSegmentsAreWrittenInAppendOrder() {
+        this.writeBehindLog.appendBeforeCommit(command("CLIENT"));
+        this.writeBehindLog.flush();
+        // flushing clears the tenant of the thread
+        ThreadLocalContextUtil.setTenant(this.tenant);
+        this.writeBehindLog.appendBeforeCommit(command("LOAN"));
+        this.writeBehindLog.appendBeforeCommit(command("SAVINGSACCOUNT"));
+        this.writeBehindLog.flush();
+
+        final ArgumentCaptor<String> segmentNames = ArgumentCaptor.forClass(String.class);
+        final ArgumentCaptor<List<CommandSourceLogRecord>> records = recordsCaptor();
+        final InOrder inOrder = inOrder(this.commandSourceLogWritePlatformService);
+        inOrder.verify(this.commandSourceLogWritePlatformService).write(segmentNames.capture(), records.capture());
+        inOrder.verify(this.commandSourceLogWritePlatformService).forgetSegment(segmentNames.getValue());
+        inOrder.verify(this.commandSourceLogWritePlatformService).write(segmentNames.capture(), records.capture());
+
+        assertEquals(Collections.singletonList("CLIENT"), entityNames(records.getAllValues().get(0)));
+        assertEquals(Arrays.asList("LOAN", "SAVINGSACCOUNT"), entityNames(records.getAllValues().get(1)));
+        final String firstSegment = segmentNames.getAllValues().get(0);
+        final String secondSegment = segmentNames.getAllValues().get(1);
+        assertTrue(firstSegment.compareTo(secondSegment) < 0, firstSegment + " sorts after " + secondSegment);
+    }
+
+    @Test
+    public void testActiveSegmentIsNotWrittenBeforeItIsSealed() throws IOException {
+        this.writeBehindLog.appendBeforeCommit(command("CLIENT"));
+
+        final Path tenantDirectory = tenantDirectory();
+        try (Stream<Path> files = Files.walk(tenantDirectory)) {
+            assertEquals(1, files.filter(file -> file.toString().endsWith(CommandSourceWriteBehindLog.SEGMENT_SUFFIX)).count());
+        }
+        verify(this.commandSourceLogWritePlatformService, never()).write(anyString(), any());
+    }
+
+    @Test
+    public void testSegmentWaitsForPendingEntriesAndSkipsAbortedOnes() {
+        TransactionSynchronizationManager.initSynchronization();
+        final List<TransactionSynchronization> synchronizations;
+        try {
+            this.writeBehindLog.appendBeforeCommit(command("CLIENT"));
+            this.writeBehindLog.appendBeforeCommit(command("LOAN"));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(2, synchronizations.size());
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+
+        // sealed, but the outcome of its entries is not known yet
+        this.writeBehindLog.flush();
+        verify(this.commandSourceLogWritePlatformService, never()).write(anyString(), any());
+
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        this.writeBehindLog.flush();
+
+        final ArgumentCaptor<List<CommandSourceLogRecord>> records = recordsCaptor();
+        verify(this.commandSourceLogWritePlatformService).write(anyString(), records.capture());
+        assertEquals(Collections.singletonList("LOAN"), entityNames(records.getValue()));
+    }
+
+    @Test
+    public void testLaterSealedSegmentWaitsForEarlierOneWithPendingEntries() {
+        TransactionSynchronizationManager.initSynchronization();
+        final List<TransactionSynchronization> synchronizations;
+        try {
+            this.writeBehindLog.appendBeforeCommit(command("CLIENT"));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        this.writeBehindLog.flush();
+        ThreadLocalContextUtil.setTenant(this.tenant);
+        this.writeBehindLog.appendBeforeCommit(command("LOAN"));
+
+        // both segments are sealed, the later one is done but the earlier one still has a pending entry
+        this.writeBehindLog.flush();
+        verify(this.commandSourceLogWritePlatformService, never()).write(anyString(), any());
+
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        this.writeBehindLog.flush();
+
+        final ArgumentCaptor<List<CommandSourceLogRecord>> records = recordsCaptor();
+        final InOrder inOrder = inOrder(this.commandSourceLogWritePlatformService);
+        inOrder.verify(this.commandSourceLogWritePlatformService).write(anyString(), records.capture());
+        inOrder.verify(this.commandSourceLogWritePlatformService).write(anyString(), records.capture());
+        assertEquals(Collections.singletonList("CLIENT"), entityNames(records.getAllValues().get(0)));
+        assertEquals(Collections.singletonList("LOAN"), entityNames(records.getAllValues().get(1)));
+    }
+
+    @Test
+    public void testLeftoverSegmentOfStoppedNodeIsReplayed() throws IOException {
+        final Path segment = leftoverSegment(entryLine(1, "CLIENT"), entryLine(2, "LOAN"), "{\"id\":1,\"aborted\":true}");
+
+        this.writeBehindLog.flush();
+
+        final ArgumentCaptor<List<CommandSourceLogRecord>> records = recordsCaptor();
+        verify(this.commandSourceLogWritePlatformService).write(eq(segment.getFileName().toString()), records.capture());
+        assertEquals(Collections.singletonList("LOAN"), entityNames(records.getValue()));
+        verify(this.commandSourceLogWritePlatformService).forgetSegment(segment.getFileName().toString());
+        assertFalse(Files.exists(segment.getParent()));
+        assertFalse(Files.exists(tenantDirectory().resolve(LEFTOVER_NODE_NAME + CommandSourceWriteBehindLog.LOCK_SUFFIX)));
+    }
+
+    @Test
+    public void testLeftoverSegmentThatWasAlreadyWrittenIsOnlyDeleted() throws IOException {
+        final Path segment = leftoverSegment(entryLine(1, "CLIENT"));
+        final String segmentName = segment.getFileName().toString();
+        when(this.commandSourceLogWritePlatformService.isSegmentWritten(segmentName)).thenReturn(true);
+
+        this.writeBehindLog.flush();
+
+        verify(this.commandSourceLogWritePlatformService, never()).write(anyString(), any());
+        verify(this.commandSourceLogWritePlatformService).forgetSegment(segmentName);
+        assertFalse(Files.exists(segment));
+    }
+
+    @Test
+    public void testTruncatedLastLineIsSkipped() throws IOException {
+        final String entry = entryLine(2, "LOAN");
+        leftoverSegment(entryLine(1, "CLIENT"), entry.substring(0, entry.length() / 2));
+
+        this.writeBehindLog.flush();
+
+        final ArgumentCaptor<List<CommandSourceLogRecord>> records = recordsCaptor();
+        verify(this.commandSourceLogWritePlatformService).write(anyString(), records.capture());
+        assertEquals(Collections.singletonList("CLIENT"), entityNames(records.getValue()));
+    }
+
+    @Test
+    public void testLaterSegmentsWaitForOneThatFails() throws IOException {
+        final Path first = leftoverSegment(entryLine(1, "CLIENT"));
+        final Path second = first.resolveSibling(LEFTOVER_NODE_NAME + "-0000000002" + CommandSourceWriteBehindLog.SEGMENT_SUFFIX);
+        Files.write(second, Collections.singletonList(entryLine(2, "LOAN")), StandardCharsets.UTF_8);
+        doThrow(new IllegalStateException("database down")).when(this.commandSourceLogWritePlatformService)
+                .write(eq(first.getFileName().toString()), any());
+
+        this.writeBehindLog.flush();
+
+        verify(this.commandSourceLogWritePlatformService, never()).write(eq(second.getFileName().toString()), any());
+        assertTrue(Files.exists(first));
+        assertTrue(Files.exists(second));
+    }
+
+    private Path tenantDirectory() {
+        return this.baseDirectory.resolve("default").resolve(CommandSourceWriteBehindLog.LOG_DIRECTORY_NAME);
+    }
+
+    private Path leftoverSegment(final String... lines) throws IOException {
+        final Path nodeDirectory = Files.createDirectories(tenantDirectory().resolve(LEFTOVER_NODE_NAME));
+        Files.createFile(tenantDirectory().resolve(LEFTOVER_NODE_NAME + CommandSourceWriteBehindLog.LOCK_SUFFIX));
+        final Path segment = nodeDirectory.resolve(LEFTOVER_NODE_NAME + "-0000000001" + CommandSourceWriteBehindLog.SEGMENT_SUFFIX);
+        // the last line is written without a line break, as when an append was cut short
+        Files.write(segment, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return segment;
+    }
+
+    private static String entryLine(final long id, final String entityName) {
+        return "{\"id\":" + id + ",\"command\":{\"actionName\":\"CREATE\",\"entityName\":\"" + entityName
+                + "\",\"makerId\":1,\"madeOnDate\":0},\"aborted\":false}";
+    }
+
+    private static CommandSource command(final String entityName) {
+        final AppUser maker = mock(AppUser.class);
+        when(maker.getId()).thenReturn(1L);
+        final CommandSource commandSource = mock(CommandSource.class);
+        when(commandSource.getEntityName()).thenReturn(entityName);
+        when(commandSource.getMaker()).thenReturn(maker);
+        when(commandSource.getMadeOnDate()).thenReturn(new Date());
+        return commandSource;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static ArgumentCaptor<List<CommandSourceLogRecord>> recordsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+
+    private static List<String> entityNames(final List<CommandSourceLogRecord> records) {
+        final List<String> entityNames = new ArrayList<>();
+        for (final CommandSourceLogRecord record : records) {
+            entityNames.add(record.getEntityName());
+        }
+        return entityNames;
+    }
+}
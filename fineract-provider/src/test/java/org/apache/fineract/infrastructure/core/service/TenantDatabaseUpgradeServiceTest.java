@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService.UpgradeStatus;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Unit Test for {@link TenantDatabaseUpgradeService}.
+ */
+public class TenantDatabaseUpgradeServiceTest {
+
+    private static final FineractPlatformTenant TENANT = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+
+    private final TenantDatabaseUpgradeService service = new TenantDatabaseUpgradeService(mock(TenantDetailsService.class),
+            mock(DataSource.class));
+
+    @Test
+    public void testChecksumIgnoresLineBreaksAndByteOrderMark() throws Exception {
+        final int expected = crc32("select 1;select 2;");
+
+        assertEquals(expected, TenantDatabaseUpgradeService.calculateChecksum(migration("V1__a.sql", "select 1;\nselect 2;\n")));
+        assertEquals(expected, TenantDatabaseUpgradeService.calculateChecksum(migration("V1__a.sql", "select 1;\r\nselect 2;")));
+        assertEquals(expected, TenantDatabaseUpgradeService.calculateChecksum(migration("V1__a.sql", "\uFEFFselect 1;\nselect 2;")));
+    }
+
+    @Test
+    public void testChecksumsAreKeyedByFlywayVersion() throws Exception {
+        final Map<String, Integer> checksums = TenantDatabaseUpgradeService.calculateChecksums(
+                new Resource[] { migration("V1__core.sql", "a"), migration("V118_3__patch.sql", "b"), migration("README.sql", "c") });
+
+        assertEquals(2, checksums.size());
+        assertEquals(crc32("a"), checksums.get("1"));
+        assertEquals(crc32("b"), checksums.get("118.3"));
+    }
+
+    @Test
+    public void testPackagedChecksumsCoverEveryCoreMigration() {
+        final Map<String, Integer> checksums = this.service.retrievePackagedChecksums();
+
+        assertTrue(checksums.containsKey("1"));
+        assertTrue(checksums.containsKey("111.1"));
+        assertTrue(checksums.containsKey("374"));
+    }
+
+    @Test
+    public void testSchemaIsUpToDateOnlyWhenAppliedMigrationsMatchExactly() {
+        final Map<String, Integer> packaged = new HashMap<>(Map.of("1", 10, "2", 20));
+
+        assertTrue(TenantDatabaseUpgradeService.isSchemaUpToDate(packaged, new HashMap<>(Map.of("1", 10, "2", 20))));
+        // a pending migration
+        assertFalse(TenantDatabaseUpgradeService.isSchemaUpToDate(packaged, new HashMap<>(Map.of("1", 10))));
+        // an edited migration
+        assertFalse(TenantDatabaseUpgradeService.isSchemaUpToDate(packaged, new HashMap<>(Map.of("1", 10, "2", 21))));
+        // a migration of a newer release
+        assertFalse(TenantDatabaseUpgradeService.isSchemaUpToDate(packaged, new HashMap<>(Map.of("1", 10, "2", 20, "3", 30))));
+        final Map<String, Integer> withoutChecksum = new HashMap<>(Map.of("1", 10));
+        withoutChecksum.put("2", null);
+        assertFalse(TenantDatabaseUpgradeService.isSchemaUpToDate(packaged, withoutChecksum));
+        assertFalse(TenantDatabaseUpgradeService.isSchemaUpToDate(new HashMap<>(), new HashMap<>()));
+    }
+
+    @Test
+    public void testTenantsWithoutUpgradeAreReady() {
+        final List<String> ran = new ArrayList<>();
+
+        this.service.whenTenantReady("default", () -> ran.add("task"));
+
+        assertTrue(this.service.isTenantReady("default"));
+        assertEquals(List.of("task"), ran);
+    }
+
+    @Test
+    public void testTasksWaitForTheUpgradeAndRunInOrder() {
+        final List<String> ran = new ArrayList<>();
+        this.service.markPending("default");
+
+        this.service.whenTenantReady("default", () -> ran.add("first"));
+        this.service.whenTenantReady("default", () -> ran.add("second"));
+        assertFalse(this.service.isTenantReady("default"));
+        assertTrue(ran.isEmpty());
+
+        this.service.upgradeCompleted(TENANT, UpgradeStatus.UPGRADED);
+        assertTrue(this.service.isTenantReady("default"));
+        assertEquals(List.of("first", "second"), ran);
+
+        this.service.whenTenantReady("default", () -> ran.add("third"));
+        assertEquals(List.of("first", "second", "third"), ran);
+    }
+
+    @Test
+    public void testTasksAreDroppedWhenTheUpgradeFails() {
+        final List<String> ran = new ArrayList<>();
+        this.service.markPending("default");
+        this.service.whenTenantReady("default", () -> ran.add("task"));
+
+        this.service.upgradeFailed(TENANT);
+
+        assertFalse(this.service.isTenantReady("default"));
+        assertEquals(UpgradeStatus.FAILED, this.service.retrieveUpgradeStatuses().get("default"));
+        assertTrue(ran.isEmpty());
+    }
+
+    private static Resource migration(final String fileName, final String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+
+            @Override
+            public String getFilename() {
+                return fileName;
+            }
+        };
+    }
+
+    private static int crc32(final String content) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(content.getBytes(StandardCharsets.UTF_8));
+        return (int) crc32.getValue();
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import javax.ws.rs.core.Response;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportRunData;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunConstants;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunDispatcher;
+import org.apache.fineract.infrastructure.dataqueries.service.ReportRunReadPlatformService;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit Test for the Range header of {@link ReportRunsApiResource#downloadReportRunFile(Long, String)}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReportRunsApiResourceTest {
+
+    private static final Long REPORT_RUN_ID = 7L;
+    private static final long FILE_SIZE = 1000L;
+
+    @Mock
+    private PlatformSecurityContext context;
+
+    @Mock
+    private ReportRunDispatcher reportRunDispatcher;
+
+    @Mock
+    private ReportRunReadPlatformService reportRunReadPlatformService;
+
+    @Mock
+    private ToApiJsonSerializer<ReportRunData> toApiJsonSerializer;
+
+    @Mock
+    private AppUser appUser;
+
+    private final InputStream content = new ByteArrayInputStream(new byte[0]);
+    private ReportRunData reportRun;
+    private ReportRunsApiResource resource;
+
+    @BeforeEach
+    public void setUp() {
+        this.reportRun = new ReportRunData(REPORT_RUN_ID, "Client Listing", ReportRunConstants.REPORT_TYPE_REPORT,
+                ReportRunConstants.OUTPUT_TYPE_CSV, false, null, ReportRunConstants.STATUS_COMPLETED, 1L, 10L, FILE_SIZE, null, null, null,
+                null, null, null);
+        when(this.appUser.getId()).thenReturn(1L);
+        when(this.context.authenticatedUser()).thenReturn(this.appUser);
+        when(this.reportRunReadPlatformService.retrieveReportRun(REPORT_RUN_ID)).thenReturn(this.reportRun);
+        this.resource = new ReportRunsApiResource(this.context, this.reportRunDispatcher, this.reportRunReadPlatformService,
+                this.toApiJsonSerializer);
+    }
+
+    @Test
+    public void testWithoutRangeReturnsTheWholeFile() {
+        when(this.reportRunReadPlatformService.retrieveReportRunFile(this.reportRun, 0, FILE_SIZE - 1)).thenReturn(this.content);
+        assertWholeFile(download(null));
+    }
+
+    @Test
+    public void testUnknownRangeUnitReturnsTheWholeFile() {
+        when(this.reportRunReadPlatformService.retrieveReportRunFile(this.reportRun, 0, FILE_SIZE - 1)).thenReturn(this.content);
+        assertWholeFile(download("items=0-99"));
+    }
+
+    @Test
+    public void testClosedRange() {
+        assertPartial(download("bytes=0-99"), 0, 99);
+    }
+
+    @Test
+    public void testClosedRangeEndingAfterTheFileIsCutAtTheLastByte() {
+        assertPartial(download("bytes=500-5000"), 500, 999);
+    }
+
+    @Test
+    public void testOpenEndedRange() {
+        assertPartial(download("bytes=900-"), 900, 999);
+    }
+
+    @Test
+    public void testSuffixRange() {
+        assertPartial(download("bytes=-100"), 900, 999);
+    }
+
+    @Test
+    public void testSuffixRangeLongerThanTheFileReturnsTheWholeFile() {
+        assertPartial(download("bytes=-5000"), 0, 999);
+    }
+
+    @Test
+    public void testRangeStartingAfterTheFileIsNotSatisfiable() {
+        assertNotSatisfiable(download("bytes=1000-"));
+    }
+
+    @Test
+    public void testEmptySuffixRangeIsNotSatisfiable() {
+        assertNotSatisfiable(download("bytes=-0"));
+    }
+
+    @Test
+    public void testRangeEndingBeforeItStartsIsNotSatisfiable() {
+        assertNotSatisfiable(download("bytes=200-100"));
+    }
+
+    private Response download(final String range) {
+        return this.resource.downloadReportRunFile(REPORT_RUN_ID, range);
+    }
+
+    private void assertWholeFile(final Response response) {
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertSame(this.content, response.getEntity());
+        assertEquals(String.valueOf(FILE_SIZE), header(response, "Content-Length"));
+        assertNull(response.getMetadata().getFirst("Content-Range"));
+    }
+
+    private void assertPartial(final Response response, final long firstByte, final long lastByte) {
+        verify(this.reportRunReadPlatformService).retrieveReportRunFile(this.reportRun, firstByte, lastByte);
+        assertEquals(Response.Status.PARTIAL_CONTENT.getStatusCode(), response.getStatus());
+        assertEquals("bytes " + firstByte + "-" + lastByte + "/" + FILE_SIZE, header(response, "Content-Range"));
+        assertEquals(String.valueOf(lastByte - firstByte + 1), header(response, "Content-Length"));
+    }
+
+    private void assertNotSatisfiable(final Response response) {
+        verify(this.reportRunReadPlatformService, never()).retrieveReportRunFile(any(), anyLong(), anyLong());
+        assertEquals(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode(), response.getStatus());
+        assertEquals("bytes */" + FILE_SIZE, header(response, "Content-Range"));
+    }
+
+    private static String header(final Response response, final String name) {
+        return String.valueOf(response.getMetadata().getFirst(name));
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Test for {@link CsvResultsetRowWriter}.
+ */
+public class CsvResultsetRowWriterTest {
+
+    @Test
+    public void testQuotesTextAndLeavesNumbersAndNullsBare() throws IOException {
+        final StringWriter csv = new StringWriter();
+        final ResultsetRowWriter writer = new CsvResultsetRowWriter(csv);
+        writer.writeColumnHeaders(Arrays.asList(ResultsetColumnHeaderData.basic("id", "BIGINT"),
+                ResultsetColumnHeaderData.basic("name", "VARCHAR"), ResultsetColumnHeaderData.basic("balance", "DECIMAL")));
+        writer.writeRow(Arrays.asList("1", "Petra \"P\", Jones", "12.50"));
+        writer.writeRow(Arrays.asList("2", null, null));
+        writer.finish();
+
+        assertEquals("\"id\",\"name\",\"balance\"\n1,\"Petra \"\"P\"\", Jones\",12.50\n2,,\n", csv.toString());
+    }
+}
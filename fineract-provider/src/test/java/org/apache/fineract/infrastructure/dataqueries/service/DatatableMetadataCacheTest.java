@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.dataqueries.exception.DatatableNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Test for {@link DatatableMetadataCache}.
+ */
+public class DatatableMetadataCacheTest {
+
+    private final DatatableMetadataCache cache = new DatatableMetadataCache();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @AfterEach
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testLooksUpEachDatatableOncePerTenant() {
+        useTenant("default");
+        assertEquals("m_client", this.cache.getApplicationTableName("dt_client", this::lookup));
+        assertEquals("m_client", this.cache.getApplicationTableName("dt_client", this::lookup));
+        assertEquals(1, this.lookups.get());
+
+        useTenant("other");
+        this.cache.getApplicationTableName("dt_client", this::lookup);
+        assertEquals(2, this.lookups.get());
+    }
+
+    @Test
+    public void testEvictDropsOnlyTheMetadataOfTheCurrentTenant() {
+        useTenant("default");
+        this.cache.getApplicationTableName("dt_client", this::lookup);
+        useTenant("other");
+        this.cache.getApplicationTableName("dt_client", this::lookup);
+
+        this.cache.evict();
+        this.cache.getApplicationTableName("dt_client", this::lookup);
+        useTenant("default");
+        this.cache.getApplicationTableName("dt_client", this::lookup);
+        assertEquals(3, this.lookups.get());
+    }
+
+    @Test
+    public void testDoesNotCacheFailedLookups() {
+        useTenant("default");
+        assertThrows(DatatableNotFoundException.class, () -> this.cache.getApplicationTableName("dt_missing", this::lookup));
+        assertThrows(DatatableNotFoundException.class, () -> this.cache.getApplicationTableName("dt_missing", this::lookup));
+        assertEquals(2, this.lookups.get());
+    }
+
+    private String lookup(final String datatable) {
+        this.lookups.incrementAndGet();
+        if ("dt_missing".equals(datatable)) {
+            throw new DatatableNotFoundException(datatable);
+        }
+        return "m_client";
+    }
+
+    private static void useTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, tenantIdentifier, tenantIdentifier, "Asia/Kolkata", null));
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Unit Test for the streamed results of {@link GenericDataServiceImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class GenericDataServiceImplTest {
+
+    private static final String SQL = "select x.* from (select id, name from m_client) x";
+    private static final String DROP_SQL = "drop temporary table if exists " + GenericDataServiceImpl.RESULT_ROWS_TABLE;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private DatabaseMetaData databaseMetaData;
+
+    private GenericDataServiceImpl genericDataService;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        when(this.jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(this.connection));
+        when(this.connection.getMetaData()).thenReturn(this.databaseMetaData);
+        this.genericDataService = new GenericDataServiceImpl(this.jdbcTemplate, null, false);
+    }
+
+    @Test
+    public void testStreamingDriverReadsRowsOneByOne() throws Exception {
+        when(this.databaseMetaData.getDriverName()).thenReturn("MySQL Connector/J");
+        final Statement statement = mock(Statement.class);
+        when(this.connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+        final ResultSet rs = rows(0, 2, "id", "name");
+        when(statement.executeQuery(SQL)).thenReturn(rs);
+        final StringWriter csv = new StringWriter();
+
+        final long rowCount = this.genericDataService.writeGenericResultSet(SQL, new CsvResultsetRowWriter(csv));
+
+        assertEquals(2, rowCount);
+        assertEquals("\"id\",\"name\"\n\"id1\",\"name1\"\n\"id2\",\"name2\"\n", csv.toString());
+        verify(statement).setFetchSize(Integer.MIN_VALUE);
+        verify(this.connection, never()).createStatement();
+    }
+
+    @Test
+    public void testStreamingIsCancelledWhenTheWriterFails() throws Exception {
+        when(this.databaseMetaData.getDriverName()).thenReturn("MariaDB Connector/J");
+        final Statement statement = mock(Statement.class);
+        when(this.connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+        final ResultSet rs = rows(0, 2, "id");
+        when(statement.executeQuery(SQL)).thenReturn(rs);
+        final ResultsetRowWriter failingWriter = new ResultsetRowWriter() {
+
+            @Override
+            public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) {}
+
+            @Override
+            public void writeRow(final List<String> row) throws IOException {
+                throw new IOException("client went away");
+            }
+
+            @Override
+            public void finish() {}
+        };
+
+        assertThrows(IOException.class, () -> this.genericDataService.writeGenericResultSet(SQL, failingWriter));
+        verify(statement).cancel();
+    }
+
+    @Test
+    public void testOtherDriversReadTheResultThroughAForwardOnlyCursor() throws Exception {
+        when(this.databaseMetaData.getDriverName()).thenReturn("Drizzle-JDBC");
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        when(this.connection.prepareStatement(SQL + " where x.id > ?", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY))
+                .thenReturn(statement);
+        final ResultSet rs = rows(0, 2, "id", "name");
+        when(statement.executeQuery()).thenReturn(rs);
+        final StringWriter csv = new StringWriter();
+
+        final long rowCount = this.genericDataService.writeGenericResultSet(SQL + " where x.id > ?", new Object[] { 7L },
+                new CsvResultsetRowWriter(csv));
+
+        assertEquals(2, rowCount);
+        assertEquals("\"id\",\"name\"\n\"id1\",\"name1\"\n\"id2\",\"name2\"\n", csv.toString());
+        verify(statement).setObject(1, 7L);
+        verify(statement).setFetchSize(GenericDataServiceImpl.RESULT_FETCH_SIZE);
+        // no temporary table unless it is asked for
+        verify(this.connection, never()).createStatement();
+    }
+
+    @Test
+    public void testColumnsWithTheSameLabelAreAllWritten() throws Exception {
+        when(this.databaseMetaData.getDriverName()).thenReturn("Drizzle-JDBC");
+        final Statement statement = mock(Statement.class);
+        when(this.connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+        final String sql = "select x.* from (select c.id, l.id from m_client c join m_loan l on l.client_id = c.id) x";
+        final ResultSet rs = rows(0, 1, "id", "id");
+        when(statement.executeQuery(sql)).thenReturn(rs);
+        final StringWriter csv = new StringWriter();
+
+        final long rowCount = this.genericDataService.writeGenericResultSet(sql, new CsvResultsetRowWriter(csv));
+
+        assertEquals(1, rowCount);
+        assertEquals("\"id\",\"id\"\n\"id1\",\"id1\"\n", csv.toString());
+        verify(statement, never()).execute(startsWith("create temporary table"));
+    }
+
+    @Test
+    public void testTemporaryTableIsReadInPagesByRowNumberWhenEnabled() throws Exception {
+        this.genericDataService = new GenericDataServiceImpl(this.jdbcTemplate, null, true);
+        final int pageSize = GenericDataServiceImpl.RESULT_PAGE_SIZE;
+        when(this.databaseMetaData.getDriverName()).thenReturn("Drizzle-JDBC");
+        final Statement dropStatement = mock(Statement.class);
+        when(this.connection.createStatement()).thenReturn(dropStatement);
+        final Statement createStatement = mock(Statement.class);
+        when(this.connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(createStatement);
+        final PreparedStatement pageStatement = mock(PreparedStatement.class);
+        when(this.connection.prepareStatement(startsWith("select * from " + GenericDataServiceImpl.RESULT_ROWS_TABLE)))
+                .thenReturn(pageStatement);
+        final ResultSet firstPage = rows(0, pageSize, GenericDataServiceImpl.RESULT_ROW_NUMBER, "id");
+        final ResultSet lastPage = rows(pageSize, 1, GenericDataServiceImpl.RESULT_ROW_NUMBER, "id");
+        when(pageStatement.executeQuery()).thenReturn(firstPage, lastPage);
+        final StringWriter csv = new StringWriter();
+
+        final long rowCount = this.genericDataService.writeGenericResultSet(SQL, new CsvResultsetRowWriter(csv));
+
+        assertEquals(pageSize + 1L, rowCount);
+        final String[] lines = csv.toString().split("\n");
+        assertEquals(pageSize + 2, lines.length);
+        // the row number is left out
+        assertEquals("\"id\"", lines[0]);
+        assertEquals("\"id" + (pageSize + 1) + "\"", lines[pageSize + 1]);
+
+        final InOrder inOrder = inOrder(dropStatement, createStatement, pageStatement);
+        inOrder.verify(dropStatement).execute(DROP_SQL);
+        inOrder.verify(createStatement).execute("create temporary table " + GenericDataServiceImpl.RESULT_ROWS_TABLE + " ("
+                + GenericDataServiceImpl.RESULT_ROW_NUMBER + " bigint not null auto_increment primary key) " + SQL);
+        inOrder.verify(pageStatement).setLong(1, 0L);
+        inOrder.verify(pageStatement).setLong(1, pageSize);
+        inOrder.verify(dropStatement).execute(DROP_SQL);
+        verify(pageStatement, times(2)).executeQuery();
+        verify(pageStatement, never()).setFetchSize(anyInt());
+    }
+
+    @Test
+    public void testPagedQueryBindsItsArgumentsToTheTemporaryTable() throws Exception {
+        this.genericDataService = new GenericDataServiceImpl(this.jdbcTemplate, null, true);
+        when(this.databaseMetaData.getDriverName()).thenReturn("Drizzle-JDBC");
+        when(this.connection.createStatement()).thenReturn(mock(Statement.class));
+        final PreparedStatement createStatement = mock(PreparedStatement.class);
+        when(this.connection.prepareStatement(startsWith("create temporary table"), anyInt(), anyInt()))
+                .thenReturn(createStatement);
+        final PreparedStatement pageStatement = mock(PreparedStatement.class);
+        when(this.connection.prepareStatement(startsWith("select * from " + GenericDataServiceImpl.RESULT_ROWS_TABLE)))
+                .thenReturn(pageStatement);
+        final ResultSet emptyPage = rows(0, 0, GenericDataServiceImpl.RESULT_ROW_NUMBER, "id");
+        when(pageStatement.executeQuery()).thenReturn(emptyPage);
+        final StringWriter csv = new StringWriter();
+
+        final long rowCount = this.genericDataService.writeGenericResultSet(SQL + " where x.id = ?", new Object[] { 7L },
+                new CsvResultsetRowWriter(csv));
+
+        assertEquals(0, rowCount);
+        assertEquals("\"id\"\n", csv.toString());
+        verify(createStatement).setObject(1, 7L);
+        verify(createStatement).execute();
+    }
+
+    /**
+     * A result of the given number of rows, numbered from after the given one, whose values are the column label
+     * followed by the row number; the first column also answers the row number as a long.
+     */
+    private static ResultSet rows(final int afterRowNumber, final int rowCount, final String... columnLabels) throws SQLException {
+        final ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(columnLabels.length);
+        // only the first page of a paged result is asked for its column headers
+        lenient().when(metaData.getColumnLabel(anyInt())).thenAnswer(invocation -> columnLabels[invocation.<Integer>getArgument(0) - 1]);
+        lenient().when(metaData.getColumnTypeName(anyInt())).thenReturn("VARCHAR");
+        final ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        final int[] rowNumber = { afterRowNumber };
+        when(rs.next()).thenAnswer(invocation -> ++rowNumber[0] <= afterRowNumber + rowCount);
+        if (rowCount > 0) {
+            when(rs.getString(anyInt())).thenAnswer(invocation -> columnLabels[invocation.<Integer>getArgument(0) - 1] + rowNumber[0]);
+            if (GenericDataServiceImpl.RESULT_ROW_NUMBER.equals(columnLabels[0])) {
+                when(rs.getLong(1)).thenAnswer(invocation -> (long) rowNumber[0]);
+            }
+        }
+        return rs;
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportRunData;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepository;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.apache.fineract.infrastructure.report.provider.ReportingProcessServiceProvider;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit Test for the tenant and report limits of {@link ReportRunDispatcher}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReportRunDispatcherTest {
+
+    private static final FineractPlatformTenant TENANT = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+    private static final long WAIT_SECONDS = 10;
+
+    @Mock
+    private ReportRunWritePlatformService reportRunWritePlatformService;
+
+    @Mock
+    private ReportRunReadPlatformService reportRunReadPlatformService;
+
+    @Mock
+    private ReadReportingService readReportingService;
+
+    @Mock
+    private ReportingProcessServiceProvider reportingProcessServiceProvider;
+
+    @Mock
+    private ContentRepositoryFactory contentRepositoryFactory;
+
+    @Mock
+    private ContentRepository contentRepository;
+
+    @Mock
+    private AppUserRepository appUserRepository;
+
+    @Mock
+    private TenantDetailsService tenantDetailsService;
+
+    @Mock
+    private TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
+
+    @Mock
+    private AppUser appUser;
+
+    private ReportRunDispatcher dispatcher;
+
+    // the queue of m_report_run, by id
+    private final Map<Long, ReportRunData> queuedRuns = new LinkedHashMap<>();
+    private final AtomicLong lastReportRunId = new AtomicLong();
+
+    // runs are told apart by their single parameter
+    private final Map<String, CountDownLatch> startedRuns = new ConcurrentHashMap<>();
+    private final Map<String, CountDownLatch> releasedRuns = new ConcurrentHashMap<>();
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, AtomicInteger> activeRunsByReport = new ConcurrentHashMap<>();
+    private final AtomicInteger activeRuns = new AtomicInteger();
+    private final AtomicInteger maxActiveRunsOfAReport = new AtomicInteger();
+    private final AtomicInteger maxActiveRuns = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ThreadLocalContextUtil.setTenant(TENANT);
+        when(this.appUser.getId()).thenReturn(1L);
+        when(this.appUserRepository.findById(1L)).thenReturn(Optional.of(this.appUser));
+        when(this.contentRepositoryFactory.getRepository()).thenReturn(this.contentRepository);
+        when(this.reportRunWritePlatformService.enqueue(anyString(), anyString(), anyString(), anyBoolean(), anyMap(), anyLong()))
+                .thenAnswer(invocation -> {
+                    final Long reportRunId = this.lastReportRunId.incrementAndGet();
+                    final ReportRunData run = new ReportRunData(reportRunId, invocation.getArgument(0), invocation.getArgument(1),
+                            invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4),
+                            ReportRunConstants.STATUS_QUEUED, invocation.getArgument(5), null, null, null, null, null, null, null, null);
+                    synchronized (this.queuedRuns) {
+                        this.queuedRuns.put(reportRunId, run);
+                    }
+                    return reportRunId;
+                });
+        when(this.reportRunWritePlatformService.retrieveQueuedRuns(anyInt())).thenAnswer(invocation -> {
+            synchronized (this.queuedRuns) {
+                return new ArrayList<>(this.queuedRuns.values());
+            }
+        });
+        when(this.reportRunWritePlatformService.claim(anyLong())).thenAnswer(invocation -> {
+            synchronized (this.queuedRuns) {
+                return this.queuedRuns.remove(invocation.<Long>getArgument(0)) != null;
+            }
+        });
+        when(this.readReportingService.writeReport(anyString(), anyString(), anyMap(), anyBoolean(), any())).thenAnswer(invocation -> {
+            final String reportName = invocation.getArgument(0);
+            final String run = invocation.<Map<String, String>>getArgument(2).get("${run}");
+            final AtomicInteger activeRunsOfReport = this.activeRunsByReport.computeIfAbsent(reportName, key -> new AtomicInteger());
+            this.maxActiveRunsOfAReport.accumulateAndGet(activeRunsOfReport.incrementAndGet(), Math::max);
+            this.maxActiveRuns.accumulateAndGet(this.activeRuns.incrementAndGet(), Math::max);
+            this.events.add("start " + run);
+            startedLatch(run).countDown();
+            try {
+                releasedLatch(run).await(WAIT_SECONDS, TimeUnit.SECONDS);
+            } finally {
+                this.events.add("end " + run);
+                this.activeRuns.decrementAndGet();
+                activeRunsOfReport.decrementAndGet();
+            }
+            return 1L;
+        });
+
+        this.dispatcher = new ReportRunDispatcher(this.reportRunWritePlatformService, this.reportRunReadPlatformService,
+                this.readReportingService, this.reportingProcessServiceProvider, this.contentRepositoryFactory, this.appUserRepository,
+                this.tenantDetailsService, this.tenantDatabaseUpgradeService);
+        this.dispatcher.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.dispatcher.stop();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testQueuedRunsStayWithinTheTenantAndReportLimits() throws Exception {
+        submit("A", "a1");
+        submit("A", "a2");
+        submit("B", "b1");
+        submit("C", "c1");
+
+        // a1 and b1 take both slots of the tenant, a2 has to wait for a1
+        assertTrue(startedLatch("a1").await(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(startedLatch("b1").await(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertFalse(this.events.contains("start a2"));
+        assertFalse(this.events.contains("start c1"));
+
+        releasedLatch("a1").countDown();
+        releasedLatch("b1").countDown();
+        releasedLatch("a2").countDown();
+        releasedLatch("c1").countDown();
+        verify(this.reportRunWritePlatformService, timeout(WAIT_SECONDS * 1000).times(4)).markCompleted(anyLong(), anyLong(), anyLong(),
+                any(), any());
+
+        assertEquals(ReportRunDispatcher.MAX_RUNS_PER_REPORT, this.maxActiveRunsOfAReport.get());
+        assertEquals(ReportRunDispatcher.MAX_RUNS_PER_TENANT, this.maxActiveRuns.get());
+        assertTrue(this.events.indexOf("end a1") < this.events.indexOf("start a2"));
+        synchronized (this.queuedRuns) {
+            assertTrue(this.queuedRuns.isEmpty());
+        }
+    }
+
+    @Test
+    public void testRunNowWaitsForTheRunningRunOfTheReport() throws Exception {
+        when(this.reportRunWritePlatformService.createRunning(anyString(), anyString(), anyString(), anyBoolean(), anyMap(), anyLong()))
+                .thenAnswer(invocation -> this.lastReportRunId.incrementAndGet());
+        submit("A", "a1");
+        assertTrue(startedLatch("a1").await(WAIT_SECONDS, TimeUnit.SECONDS));
+
+        final CompletableFuture<ReportRunData> runNow = CompletableFuture.supplyAsync(() -> {
+            ThreadLocalContextUtil.setTenant(TENANT);
+            try {
+                return this.dispatcher.runNow("A", ReportRunConstants.OUTPUT_TYPE_CSV, Map.of("${run}", "now"), this.appUser);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        });
+        releasedLatch("now").countDown();
+        // the tenant has a slot left, but the report has not
+        assertFalse(startedLatch("now").await(500, TimeUnit.MILLISECONDS));
+
+        releasedLatch("a1").countDown();
+        runNow.get(WAIT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(List.of("start a1", "end a1", "start now", "end now"), new ArrayList<>(this.events));
+        verify(this.reportRunWritePlatformService, times(2)).markCompleted(anyLong(), anyLong(), anyLong(), any(), any());
+    }
+
+    private void submit(final String reportName, final String run) {
+        this.dispatcher.submit(reportName, ReportRunConstants.REPORT_TYPE_REPORT, ReportRunConstants.OUTPUT_TYPE_CSV,
+                Map.of("${run}", run), false, this.appUser);
+    }
+
+    private CountDownLatch startedLatch(final String run) {
+        return this.startedRuns.computeIfAbsent(run, key -> new CountDownLatch(1));
+    }
+
+    private CountDownLatch releasedLatch(final String run) {
+        return this.releasedRuns.computeIfAbsent(run, key -> new CountDownLatch(1));
+    }
+}
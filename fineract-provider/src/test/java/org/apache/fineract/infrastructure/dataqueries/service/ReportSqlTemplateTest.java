@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Test for {@link ReportSqlTemplate}.
+ */
+public class ReportSqlTemplateTest {
+
+    @Test
+    public void testBindsQuotedPlaceholdersAsTextAndBarePlaceholdersAsNumbers() {
+        final ReportSqlTemplate template = ReportSqlTemplate.compile("select * from m_office o where o.id = ${officeId}"
+                + " and o.hierarchy like concat('${currentUserHierarchy}', '%') and o.opening_date > \"${startDate}\"");
+        final Map<String, String> values = new HashMap<>();
+        values.put("${officeId}", "1");
+        values.put("${currentUserHierarchy}", ".2.");
+        values.put("${startDate}", "2020-01-01");
+
+        assertEquals("select * from m_office o where o.id = ? and o.hierarchy like concat(?, '%') and o.opening_date > ?",
+                template.getSql());
+        assertArrayEquals(new Object[] { 1L, ".2.", "2020-01-01" }, template.bind(values));
+    }
+
+    @Test
+    public void testKeepsTheRestOfAQuotedLiteralAroundItsPlaceholders() {
+        final ReportSqlTemplate template = ReportSqlTemplate.compile("select * from m_client c where c.display_name like '%${name}''s'");
+        final Map<String, String> values = new HashMap<>();
+        values.put("${name}", "Jo");
+
+        assertEquals("select * from m_client c where c.display_name like concat('%', ?, '''s')", template.getSql());
+        assertArrayEquals(new Object[] { "Jo" }, template.bind(values));
+    }
+
+    @Test
+    public void testFallsBackToSubstitutionWhenABarePlaceholderIsNotANumber() {
+        final ReportSqlTemplate template = ReportSqlTemplate.compile("select ${startDate}");
+        final Map<String, String> values = new HashMap<>();
+        values.put("${startDate}", "2020-01-01");
+
+        assertNull(template.bind(values));
+    }
+
+    @Test
+    public void testSubstitutesColumnPositionsInOrderByAndGroupBy() {
+        final ReportSqlTemplate template = ReportSqlTemplate.compile("select o.name, count(*) from m_office o where o.id > ${officeId}"
+                + " group by ${groupColumn} order by ${orderColumn} desc, o.id + ${officeId} limit ${officeId}");
+        final Map<String, String> values = new HashMap<>();
+        values.put("${officeId}", "1");
+        values.put("${groupColumn}", "1");
+        values.put("${orderColumn}", "2");
+
+        assertEquals("select o.name, count(*) from m_office o where o.id > ? group by ${groupColumn} order by ${orderColumn} desc,"
+                + " o.id + ? limit ?", template.getSql());
+        assertArrayEquals(new Object[] { 1L, 1L, 1L }, template.bind(values));
+        assertEquals("select o.name, count(*) from m_office o where o.id > ? group by 1 order by 2 desc, o.id + ? limit ?",
+                template.getSql(values));
+    }
+
+    @Test
+    public void testBindsPlaceholdersInOrderByExpressionsAndSubqueries() {
+        final ReportSqlTemplate template = ReportSqlTemplate.compile("select * from (select id from m_office order by ${column}) x"
+                + " where x.id in (${officeId}, 2) order by field(x.id, ${officeId})");
+        final Map<String, String> values = new HashMap<>();
+        values.put("${column}", "1");
+        values.put("${officeId}", "3");
+
+        assertEquals("select * from (select id from m_office order by ${column}) x where x.id in (?, 2) order by field(x.id, ?)",
+                template.getSql());
+        assertArrayEquals(new Object[] { 3L, 3L }, template.bind(values));
+    }
+
+    @Test
+    public void testFallsBackToSubstitutionWhenAColumnPositionIsNotDigits() {
+        final ReportSqlTemplate template = ReportSqlTemplate.compile("select * from m_office order by ${column}");
+        final Map<String, String> values = new HashMap<>();
+        values.put("${column}", "name");
+        assertNull(template.bind(values));
+
+        values.put("${column}", "-1");
+        assertNull(template.bind(values));
+    }
+
+    @Test
+    public void testSubstitutesPlaceholdersInTypedLiterals() {
+        final ReportSqlTemplate template = ReportSqlTemplate.compile("select _utf8'${name}' as n, N'${name}' as m, '${name}' as k"
+                + " from m_loan l where l.disbursedon_date > DATE '${startDate}'"
+                + " and l.expected_maturedon_date < timestamp'${endDate} 23:59'");
+        final Map<String, String> values = new HashMap<>();
+        values.put("${name}", "Jo");
+        values.put("${startDate}", "2020-01-01");
+        values.put("${endDate}", "2020-12-31");
+
+        assertEquals("select _utf8'${name}' as n, N'${name}' as m, ? as k from m_loan l where l.disbursedon_date > DATE '${startDate}'"
+                + " and l.expected_maturedon_date < timestamp'${endDate} 23:59'", template.getSql());
+        assertArrayEquals(new Object[] { "Jo" }, template.bind(values));
+        assertEquals("select _utf8'Jo' as n, N'Jo' as m, ? as k from m_loan l where l.disbursedon_date > DATE '2020-01-01'"
+                + " and l.expected_maturedon_date < timestamp'2020-12-31 23:59'", template.getSql(values));
+    }
+
+    @Test
+    public void testFallsBackToSubstitutionWhenATypedLiteralValueHasQuotes() {
+        final ReportSqlTemplate template = ReportSqlTemplate
+                .compile("select * from m_loan l where l.disbursedon_date > DATE '${startDate}'");
+        final Map<String, String> values = new HashMap<>();
+        values.put("${startDate}", "2020-01-01' or '1' = '1");
+        assertNull(template.bind(values));
+
+        values.put("${startDate}", "2020-01-01\\");
+        assertNull(template.bind(values));
+    }
+
+    @Test
+    public void testDoesNotBindPlaceholdersInIdentifiers() {
+        assertNull(ReportSqlTemplate.compile("select * from m_office_${suffix}").getSql());
+        assertNull(ReportSqlTemplate.compile("select `${column}` from m_office").getSql());
+    }
+}
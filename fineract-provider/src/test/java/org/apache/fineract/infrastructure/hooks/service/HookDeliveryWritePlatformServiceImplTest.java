@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Unit Test for {@link HookDeliveryWritePlatformServiceImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class HookDeliveryWritePlatformServiceImplTest {
+
+    private static final Long HOOK_ID = 3L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private HookDeliveryWritePlatformServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        this.service = new HookDeliveryWritePlatformServiceImpl(this.jdbcTemplate);
+    }
+
+    @Test
+    public void testDoesNotClaimWhileABatchOfTheHookIsBeingSent() {
+        when(this.jdbcTemplate.queryForObject(contains("from m_hook_delivery where hook_id = ? and status = ?"), eq(Integer.class),
+                eq(HOOK_ID), eq("SENDING"))).thenReturn(2);
+
+        assertTrue(this.service.claimDueDeliveries(HOOK_ID, 50).isEmpty());
+
+        verify(this.jdbcTemplate).queryForList("select id from m_hook where id = ? for update", Long.class, HOOK_ID);
+        verify(this.jdbcTemplate).queryForObject(contains("from m_hook_delivery where hook_id = ? and status = ?"), eq(Integer.class),
+                eq(HOOK_ID), eq("SENDING"));
+        verifyNoMoreInteractions(this.jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testClaimsDueDeliveriesInOrderUnderOneToken() {
+        final List<HookDeliveryData> claimed = List.of(new HookDeliveryData(10L, HOOK_ID, "LOAN", "REPAYMENT", "{}", 0),
+                new HookDeliveryData(11L, HOOK_ID, "LOAN", "REPAYMENT", "{}", 0));
+        when(this.jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(HOOK_ID), eq("SENDING"))).thenReturn(0);
+        when(this.jdbcTemplate.update(startsWith("update m_hook_delivery set status = ?, claim_token = ?"), eq("SENDING"), anyString(),
+                eq(HOOK_ID), eq("PENDING"), eq(50))).thenReturn(2);
+        when(this.jdbcTemplate.query(contains("where d.claim_token = ? order by d.id"), any(RowMapper.class), anyString()))
+                .thenReturn(claimed);
+
+        assertEquals(claimed, this.service.claimDueDeliveries(HOOK_ID, 50));
+
+        final ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        verify(this.jdbcTemplate).update(contains("order by id limit ?"), eq("SENDING"), claimToken.capture(), eq(HOOK_ID), eq("PENDING"),
+                eq(50));
+        verify(this.jdbcTemplate).query(contains("where d.claim_token = ?"), any(RowMapper.class), eq(claimToken.getValue()));
+    }
+
+    @Test
+    public void testCompletingADeliveryRenewsTheClaimOfTheRestOfTheBatch() {
+        this.service.completeDelivery(10L, List.of(11L, 12L));
+
+        verify(this.jdbcTemplate).update("delete from m_hook_delivery where id = ?", 10L);
+        verify(this.jdbcTemplate).update(any(PreparedStatementCreator.class));
+    }
+
+    @Test
+    public void testCompletingTheLastDeliveryOfABatchRenewsNothing() {
+        this.service.completeDelivery(12L, Collections.emptyList());
+
+        verify(this.jdbcTemplate).update("delete from m_hook_delivery where id = ?", 12L);
+        verify(this.jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+    }
+
+    @Test
+    public void testRequeuesOnlyBatchesWhoseClaimWasNotRenewed() {
+        this.service.requeueStalledDeliveries();
+
+        verify(this.jdbcTemplate).update(contains("where status = ? and lastmodified_date < DATE_SUB(NOW(), INTERVAL ? MINUTE)"),
+                eq("PENDING"), eq("SENDING"), eq(HookDeliveryWritePlatformServiceImpl.STALLED_DELIVERY_MINUTES));
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameter;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameterRepository;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetailRepository;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunkHistory;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunkHistoryRepository;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Unit Test for {@link PartitionedJobExecutorImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PartitionedJobExecutorImplTest {
+
+    private static final JobName JOB_NAME = JobName.ADD_ACCRUAL_ENTRIES;
+    private static final Long JOB_ID = 7L;
+
+    private final FineractPlatformTenant tenant = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+
+    @Mock
+    private ScheduledJobDetailRepository scheduledJobDetailRepository;
+
+    @Mock
+    private ScheduledJobRunChunkHistoryRepository scheduledJobRunChunkHistoryRepository;
+
+    @Mock
+    private JobParameterRepository jobParameterRepository;
+
+    @Mock
+    private SchedularWritePlatformService schedularWritePlatformService;
+
+    private PartitionedJobExecutorImpl partitionedJobExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        this.partitionedJobExecutor = new PartitionedJobExecutorImpl(this.scheduledJobDetailRepository,
+                this.scheduledJobRunChunkHistoryRepository, this.jobParameterRepository, this.schedularWritePlatformService);
+        ThreadLocalContextUtil.setTenant(this.tenant);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testPartitionSplitsDistinctSortedIdsIntoContiguousRanges() {
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L, 3L), Arrays.asList(4L, 5L, 7L), Collections.singletonList(9L)),
+                PartitionedJobExecutorImpl.partition(Arrays.asList(9L, 5L, 1L, 3L, 3L, 2L, 7L, 4L), 3));
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList(3L, 4L)),
+                PartitionedJobExecutorImpl.partition(Arrays.asList(4L, 3L, 2L, 1L), 2));
+        assertEquals(Collections.singletonList(Arrays.asList(1L, 2L)), PartitionedJobExecutorImpl.partition(Arrays.asList(2L, 1L), 500));
+    }
+
+    @Test
+    public void testSingleThreadProcessesAllRangesInOrderOnTheCallingThread() throws Exception {
+        jobParameters("1", "2", null);
+        final List<Long> processedIds = new ArrayList<>();
+        final List<Thread> threads = new ArrayList<>();
+
+        this.partitionedJobExecutor.execute(JOB_NAME, Arrays.asList(5L, 3L, 1L, 4L, 2L), accountId -> {
+            processedIds.add(accountId);
+            threads.add(Thread.currentThread());
+        });
+
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), processedIds);
+        assertTrue(threads.stream().allMatch(thread -> thread == Thread.currentThread()));
+    }
+
+    @Test
+    public void testRangesRunOnAPoolWithTheTenantAndSecurityContextOfTheCaller() throws Exception {
+        jobParameters("2", "1", null);
+        final Authentication authentication = new UsernamePasswordAuthenticationToken("mifos", null);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        // both ranges have to be in progress at the same time for either to finish
+        final CountDownLatch running = new CountDownLatch(2);
+        final Map<Long, Thread> threads = new ConcurrentHashMap<>();
+        final Map<Long, FineractPlatformTenant> tenants = new ConcurrentHashMap<>();
+        final Map<Long, Authentication> authentications = new ConcurrentHashMap<>();
+
+        this.partitionedJobExecutor.execute(JOB_NAME, Arrays.asList(1L, 2L), accountId -> {
+            threads.put(accountId, Thread.currentThread());
+            tenants.put(accountId, ThreadLocalContextUtil.getTenant());
+            authentications.put(accountId, SecurityContextHolder.getContext().getAuthentication());
+            running.countDown();
+            assertTrue(running.await(10, TimeUnit.SECONDS), "ranges did not run in parallel");
+        });
+
+        assertNotEquals(threads.get(1L), threads.get(2L));
+        assertNotEquals(Thread.currentThread(), threads.get(1L));
+        assertSame(this.tenant, tenants.get(1L));
+        assertSame(this.tenant, tenants.get(2L));
+        assertSame(authentication, authentications.get(1L));
+        assertSame(authentication, authentications.get(2L));
+        // the caller keeps its own context
+        assertSame(this.tenant, ThreadLocalContextUtil.getTenant());
+        assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void testFailuresOfAllRangesAreCollectedAfterTheRestIsProcessed() {
+        jobParameters("2", "2", null);
+        final List<Long> processedIds = Collections.synchronizedList(new ArrayList<>());
+        final IllegalStateException firstFailure = new IllegalStateException("account 2");
+        final IllegalStateException secondFailure = new IllegalStateException("account 5");
+
+        final JobExecutionException e = assertThrows(JobExecutionException.class,
+                () -> this.partitionedJobExecutor.execute(JOB_NAME, Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L), accountId -> {
+                    processedIds.add(accountId);
+                    if (accountId == 2L) {
+                        throw firstFailure;
+                    } else if (accountId == 5L) {
+                        throw secondFailure;
+                    }
+                }));
+
+        assertEquals(6, processedIds.size());
+        assertEquals(2, e.getCauses().size());
+        assertTrue(e.getCauses().contains(firstFailure));
+        assertTrue(e.getCauses().contains(secondFailure));
+    }
+
+    @Test
+    public void testChunkHistoryRecordsProgressAndCompletionOfEachRange() {
+        final ScheduledJobDetail scheduledJobDetail = jobParameters("1", "250", null);
+        when(scheduledJobDetail.getJobKey()).thenReturn("key");
+        when(this.schedularWritePlatformService.fetchMaxVersionBy("key")).thenReturn(4L);
+        final List<String> savedRows = new ArrayList<>();
+        when(this.scheduledJobRunChunkHistoryRepository.save(any(ScheduledJobRunChunkHistory.class))).thenAnswer(invocation -> {
+            final ScheduledJobRunChunkHistory chunkHistory = invocation.getArgument(0);
+            savedRows.add(chunkHistory.getChunkNumber() + ":" + chunkHistory.getStartAccountId() + "-" + chunkHistory.getEndAccountId()
+                    + ":" + chunkHistory.getProcessedCount() + "/" + chunkHistory.getFailedCount() + ":" + chunkHistory.getStatus());
+            return chunkHistory;
+        });
+        final List<Long> accountIds = LongStream.rangeClosed(1, 260).boxed().collect(Collectors.toList());
+
+        assertThrows(JobExecutionException.class, () -> this.partitionedJobExecutor.execute(JOB_NAME, accountIds, accountId -> {
+            if (accountId == 150L) {
+                throw new IllegalStateException("account 150");
+            }
+        }));
+
+        assertEquals(Arrays.asList("1:1-250:0/0:" + SchedulerServiceConstants.STATUS_RUNNING,
+                "1:1-250:100/0:" + SchedulerServiceConstants.STATUS_RUNNING,
+                "1:1-250:200/1:" + SchedulerServiceConstants.STATUS_RUNNING,
+                "1:1-250:250/1:" + SchedulerServiceConstants.STATUS_FAILED,
+                "2:251-260:0/0:" + SchedulerServiceConstants.STATUS_RUNNING,
+                "2:251-260:10/0:" + SchedulerServiceConstants.STATUS_SUCCESS), savedRows);
+    }
+
+    @Test
+    public void testFailedBulkRangeIsRetriedOneAccountAtATime() throws Exception {
+        jobParameters("1", "3", "1");
+        final List<List<Long>> bulkRanges = new ArrayList<>();
+        final List<Long> singleAccountIds = new ArrayList<>();
+
+        this.partitionedJobExecutor.execute(JOB_NAME, Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L), accountIds -> {
+            bulkRanges.add(new ArrayList<>(accountIds));
+            if (accountIds.contains(5L)) {
+                throw new IllegalStateException("account 5");
+            }
+        }, singleAccountIds::add);
+
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L, 3L), Arrays.asList(4L, 5L, 6L)), bulkRanges);
+        assertEquals(Arrays.asList(4L, 5L, 6L), singleAccountIds);
+    }
+
+    @Test
+    public void testBulkProcessorIsOnlyUsedInBulkMode() throws Exception {
+        final PartitionedJobExecutor.BulkProcessor bulkProcessor = mock(PartitionedJobExecutor.BulkProcessor.class);
+        final List<Long> singleAccountIds = new ArrayList<>();
+
+        this.partitionedJobExecutor.execute(JOB_NAME, Arrays.asList(2L, 1L), bulkProcessor, singleAccountIds::add);
+
+        verify(bulkProcessor, never()).process(any());
+        assertEquals(Arrays.asList(1L, 2L), singleAccountIds);
+    }
+
+    private ScheduledJobDetail jobParameters(final String threadCount, final String chunkSize, final String bulkMode) {
+        final ScheduledJobDetail scheduledJobDetail = mock(ScheduledJobDetail.class);
+        when(scheduledJobDetail.getId()).thenReturn(JOB_ID);
+        when(this.scheduledJobDetailRepository.findByJobName(JOB_NAME.toString())).thenReturn(scheduledJobDetail);
+        final List<JobParameter> jobParameters = new ArrayList<>();
+        jobParameters.add(new JobParameter(JOB_ID, SchedulerServiceConstants.PARTITION_THREAD_COUNT_PARAMETER, threadCount));
+        jobParameters.add(new JobParameter(JOB_ID, SchedulerServiceConstants.PARTITION_CHUNK_SIZE_PARAMETER, chunkSize));
+        if (bulkMode != null) {
+            jobParameters.add(new JobParameter(JOB_ID, SchedulerServiceConstants.BULK_MODE_PARAMETER, bulkMode));
+        }
+        when(this.jobParameterRepository.findJobParametersByJobId(JOB_ID)).thenReturn(jobParameters);
+        return scheduledJobDetail;
+    }
+}
@@ -28,6 +28,7 @@ import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Optional;
+import org.apache.fineract.notification.cache.NotificationResponseHeaderCache;
 import org.apache.fineract.notification.domain.Notification;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.notification.service.NotificationGeneratorReadRepositoryWrapper;
@@ -61,10 +62,14 @@ public class StorageTest {
     @Mock
     private AppUserRepository appUserRepository;
 
+    @Mock
+    private NotificationResponseHeaderCache notificationResponseHeaderCache;
+
     @BeforeEach
     public void setUp() {
         notificationWritePlatformServiceImpl = new NotificationWritePlatformServiceImpl(notificationGeneratorWritePlatformService,
-                notificationGeneratorReadRepositoryWrapper, appUserRepository, notificationMapperWritePlatformService);
+                notificationGeneratorReadRepositoryWrapper, appUserRepository, notificationMapperWritePlatformService,
+                notificationResponseHeaderCache);
     }
 
     @Test
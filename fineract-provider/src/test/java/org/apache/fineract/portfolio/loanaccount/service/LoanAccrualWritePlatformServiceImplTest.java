@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryWritePlatformService;
+import org.apache.fineract.organisation.monetary.data.CurrencyData;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.loanaccount.data.LoanChargeData;
+import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
+import org.apache.fineract.portfolio.loanaccount.data.LoanTransactionEnumData;
+import org.joda.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Unit Test for the periodic accruals of {@link LoanAccrualWritePlatformServiceImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class LoanAccrualWritePlatformServiceImplTest {
+
+    private static final LocalDate TILL_DATE = new LocalDate(2020, 3, 15);
+    private static final CurrencyData USD = new CurrencyData("USD", "US Dollar", 2, 0, "$", "currency.USD");
+    private static final long LAST_TRANSACTION_ID = 100L;
+
+    @Mock
+    private LoanReadPlatformService loanReadPlatformService;
+
+    @Mock
+    private LoanChargeReadPlatformService loanChargeReadPlatformService;
+
+    @Mock
+    private JournalEntryWritePlatformService journalEntryWritePlatformService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+        when(this.loanChargeReadPlatformService.retrieveLoanChargesForAccural(1L)).thenReturn(
+                List.of(new LoanChargeData(501L, 51L, new LocalDate(2020, 1, 15), null, new BigDecimal("5.00"), null, null, false)));
+        when(this.loanChargeReadPlatformService.retrieveLoanChargesForAccural(2L)).thenReturn(
+                List.of(new LoanChargeData(502L, 52L, new LocalDate(2020, 2, 20), null, new BigDecimal("3.00"), null, null, true)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBulkModePostsTheSameAccrualsAsThePerLoanPath() throws Exception {
+        final JdbcTemplate perLoanJdbcTemplate = jdbcTemplate();
+        final LoanAccrualWritePlatformServiceImpl perLoanService = service(perLoanJdbcTemplate);
+        for (final Map.Entry<Long, Collection<LoanScheduleAccrualData>> entry : accrualData().entrySet()) {
+            perLoanService.addPeriodicAccruals(TILL_DATE, entry.getKey(), entry.getValue());
+        }
+        final ArgumentCaptor<Map<String, Object>> perLoanJournalEntries = ArgumentCaptor.forClass(Map.class);
+        verify(this.journalEntryWritePlatformService, times(3)).createJournalEntriesForLoan(perLoanJournalEntries.capture());
+
+        // the ids are read back in insert order: two installments of loan 1, then one of loan 2
+        final JdbcTemplate bulkJdbcTemplate = jdbcTemplate(1L, 1L, 2L);
+        service(bulkJdbcTemplate).addPeriodicAccruals(TILL_DATE, accrualData());
+        final ArgumentCaptor<List<Map<String, Object>>> bulkJournalEntries = ArgumentCaptor.forClass(List.class);
+        verify(this.journalEntryWritePlatformService).createJournalEntriesForLoanAccruals(bulkJournalEntries.capture());
+
+        final Map<String, List<List<Object>>> perLoanRows = writtenRows(perLoanJdbcTemplate);
+        final Map<String, List<List<Object>>> bulkRows = writtenRows(bulkJdbcTemplate);
+        // the per loan path moves accrued_till once per transaction, the bulk one once per loan
+        final Map<Long, Date> bulkAccruedTill = accruedTillByLoan(bulkRows);
+        assertEquals(Map.of(1L, TILL_DATE.toDate(), 2L, new LocalDate(2020, 3, 1).toDate()), bulkAccruedTill);
+        assertEquals(accruedTillByLoan(perLoanRows), bulkAccruedTill);
+        assertEquals(perLoanRows, bulkRows);
+        // the first statement inserts the transactions
+        assertEquals(3, bulkRows.values().iterator().next().size());
+        assertEquals(withTransactionTypeIds(perLoanJournalEntries.getAllValues()), withTransactionTypeIds(bulkJournalEntries.getValue()));
+    }
+
+    @Test
+    public void testBulkModeFailsWhenTheInsertedTransactionsCannotBeMatched() {
+        final JdbcTemplate bulkJdbcTemplate = jdbcTemplate(1L, 1L);
+        final LoanAccrualWritePlatformServiceImpl bulkService = service(bulkJdbcTemplate);
+        final Map<Long, Collection<LoanScheduleAccrualData>> accrualData = accrualData();
+
+        assertThrows(IllegalStateException.class, () -> bulkService.addPeriodicAccruals(TILL_DATE, accrualData));
+        verify(this.journalEntryWritePlatformService, never()).createJournalEntriesForLoanAccruals(any());
+    }
+
+    private LoanAccrualWritePlatformServiceImpl service(final JdbcTemplate jdbcTemplate) {
+        return new LoanAccrualWritePlatformServiceImpl(jdbcTemplate, this.loanReadPlatformService, this.journalEntryWritePlatformService,
+                this.loanChargeReadPlatformService, null, null, null);
+    }
+
+    /**
+     * Loan 1 has an installment due before the till date with a fee and one running past it; loan 2 has an installment
+     * due before the till date with a penalty.
+     */
+    private static Map<Long, Collection<LoanScheduleAccrualData>> accrualData() {
+        final Map<Long, Collection<LoanScheduleAccrualData>> accrualData = new LinkedHashMap<>();
+        accrualData.put(1L, List.of(installment(1L, 1, 11L, new LocalDate(2020, 1, 1), new LocalDate(2020, 2, 1), "10.00"),
+                installment(1L, 2, 12L, new LocalDate(2020, 2, 1), new LocalDate(2020, 4, 1), "60.00")));
+        accrualData.put(2L, List.of(installment(2L, 1, 21L, new LocalDate(2020, 2, 1), new LocalDate(2020, 3, 1), "8.00")));
+        return accrualData;
+    }
+
+    private static LoanScheduleAccrualData installment(final Long loanId, final Integer installmentNumber, final Long repaymentScheduleId,
+            final LocalDate fromDate, final LocalDate dueDate, final String interestIncome) {
+        return new LoanScheduleAccrualData(loanId, 1L, installmentNumber, null, null, 1, dueDate, fromDate, repaymentScheduleId, 1L,
+                new BigDecimal(interestIncome), null, null, null, null, null, USD, null, null);
+    }
+
+    /**
+     * A template that numbers inserted transactions from {@link #LAST_TRANSACTION_ID}, both for LAST_INSERT_ID() and for
+     * the read back of a bulk insert, which finds transactions of the given loans in that order.
+     */
+    private static JdbcTemplate jdbcTemplate(final long... insertedLoanIds) {
+        final long[] nextTransactionId = { LAST_TRANSACTION_ID + 1 };
+        final long[] row = new long[2];
+        final ResultSet rs = mock(ResultSet.class, invocation -> "id".equals(invocation.getArgument(0)) ? row[0] : row[1]);
+        return mock(JdbcTemplate.class, invocation -> {
+            final String method = invocation.getMethod().getName();
+            if (method.equals("queryForObject")) {
+                return "SELECT LAST_INSERT_ID()".equals(invocation.getArgument(0)) ? nextTransactionId[0]++ : LAST_TRANSACTION_ID;
+            }
+            if (method.equals("query")) {
+                final RowCallbackHandler handler = invocation.getArgument(1);
+                for (final long loanId : insertedLoanIds) {
+                    row[0] = nextTransactionId[0]++;
+                    row[1] = loanId;
+                    handler.processRow(rs);
+                }
+                return null;
+            }
+            return RETURNS_DEFAULTS.answer(invocation);
+        });
+    }
+
+    /**
+     * The parameters of every row written through the template, by statement, whether it was written alone or in a batch.
+     */
+    private static Map<String, List<List<Object>>> writtenRows(final JdbcTemplate jdbcTemplate) {
+        final Map<String, List<List<Object>>> rows = new LinkedHashMap<>();
+        for (final Invocation invocation : mockingDetails(jdbcTemplate).getInvocations()) {
+            final String method = invocation.getMethod().getName();
+            final Object[] arguments = invocation.getArguments();
+            if (method.equals("update")) {
+                rows.computeIfAbsent((String) arguments[0], sql -> new ArrayList<>())
+                        .add(Arrays.asList(Arrays.copyOfRange(arguments, 1, arguments.length)));
+            } else if (method.equals("batchUpdate")) {
+                for (final Object[] batchArguments : invocation.<List<Object[]>>getArgument(1)) {
+                    rows.computeIfAbsent((String) arguments[0], sql -> new ArrayList<>()).add(Arrays.asList(batchArguments));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Removes the accrued_till updates of the loans from the written rows and returns the value each loan ends up with.
+     */
+    private static Map<Long, Date> accruedTillByLoan(final Map<String, List<List<Object>>> rows) {
+        final Map<Long, Date> accruedTillByLoan = new LinkedHashMap<>();
+        for (final Iterator<Map.Entry<String, List<List<Object>>>> iterator = rows.entrySet().iterator(); iterator.hasNext();) {
+            final Map.Entry<String, List<List<Object>>> entry = iterator.next();
+            if (entry.getKey().startsWith("UPDATE m_loan ")) {
+                for (final List<Object> row : entry.getValue()) {
+                    accruedTillByLoan.put((Long) row.get(1), (Date) row.get(0));
+                }
+                iterator.remove();
+            }
+        }
+        return accruedTillByLoan;
+    }
+
+    /**
+     * Replaces the transaction types, which do not implement equals, with their ids.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> withTransactionTypeIds(final List<Map<String, Object>> accountingBridgeDatas) {
+        for (final Map<String, Object> accountingBridgeData : accountingBridgeDatas) {
+            for (final Map<String, Object> transaction : (List<Map<String, Object>>) accountingBridgeData.get("newLoanTransactions")) {
+                transaction.put("type", ((LoanTransactionEnumData) transaction.get("type")).id());
+            }
+        }
+        return accountingBridgeDatas;
+    }
+}
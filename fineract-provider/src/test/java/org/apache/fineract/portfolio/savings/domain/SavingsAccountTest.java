@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.apache.fineract.portfolio.accountdetails.domain.AccountType;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationDaysInYearType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.joda.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit Test for the interest checkpoint of {@link SavingsAccount}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class SavingsAccountTest {
+
+    private static final MonetaryCurrency USD = new MonetaryCurrency("USD", 2, null);
+    private static final LocalDate ACTIVATION_DATE = new LocalDate(2020, 1, 1);
+    private static final MathContext MC = new MathContext(15, RoundingMode.HALF_EVEN);
+
+    @Mock
+    private SavingsProduct product;
+
+    @Mock
+    private AccountTransfersReadPlatformService accountTransfersReadPlatformService;
+
+    private long lastTransactionId;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+        when(this.product.currency()).thenReturn(USD);
+        this.lastTransactionId = 0L;
+    }
+
+    @Test
+    public void testPostingFromCheckpointMatchesFullRecalculation() throws Exception {
+        final SavingsAccount fullAccount = newAccount();
+        final SavingsAccount checkpointAccount = newAccount();
+        final SavingsAccountInterestCheckpoint checkpoint = SavingsAccountInterestCheckpoint.newCheckpoint(1L);
+
+        // nothing has been saved before the first posting, so only the
+        // second one leaves a checkpoint, at the last posted period
+        for (int i = 0; i < 2; i++) {
+            fullAccount.postInterest(MC, new LocalDate(2020, 4, 1), false, false, 1, null);
+            checkpointAccount.postInterest(MC, new LocalDate(2020, 4, 1), false, false, 1, null, checkpoint);
+            persist(fullAccount);
+            persist(checkpointAccount);
+        }
+        assertEquals(new LocalDate(2020, 3, 31), checkpoint.getPeriodEndDate());
+
+        for (final SavingsAccount account : List.of(fullAccount, checkpointAccount)) {
+            deposit(account, new LocalDate(2020, 4, 20), "300");
+            withdraw(account, new LocalDate(2020, 5, 5), "1100");
+            deposit(account, new LocalDate(2020, 6, 10), "250");
+            persist(account);
+        }
+
+        // transactions up to the checkpoint are neither sorted nor
+        // recalculated, so a bogus balance on one of them is left as is
+        final SavingsAccountTransaction firstDeposit = checkpointAccount.getTransactions().get(0);
+        final Money firstDepositBalance = firstDeposit.getRunningBalance(USD);
+        firstDeposit.updateRunningBalance(Money.of(USD, new BigDecimal("12345")));
+
+        fullAccount.postInterest(MC, new LocalDate(2020, 7, 1), false, false, 1, null);
+        checkpointAccount.postInterest(MC, new LocalDate(2020, 7, 1), false, false, 1, null, checkpoint);
+
+        assertEquals("USD 12345.00", firstDeposit.getRunningBalance(USD).toString());
+        firstDeposit.updateRunningBalance(firstDepositBalance);
+        // moved up to the period before the first new posting
+        assertEquals(new LocalDate(2020, 4, 30), checkpoint.getPeriodEndDate());
+
+        assertSameTransactions(fullAccount, checkpointAccount);
+        final SavingsAccountSummary fullSummary = fullAccount.getSummary();
+        final SavingsAccountSummary checkpointSummary = checkpointAccount.getSummary();
+        assertEquals(fullSummary.getAccountBalance(USD).toString(), checkpointSummary.getAccountBalance(USD).toString());
+        assertEquals(fullSummary.getTotalInterestEarned(USD).toString(), checkpointSummary.getTotalInterestEarned(USD).toString());
+        assertEquals(Money.of(USD, fullSummary.getTotalInterestPosted()).toString(),
+                Money.of(USD, checkpointSummary.getTotalInterestPosted()).toString());
+        assertTrue(Money.of(USD, fullSummary.getTotalInterestPosted()).isGreaterThanZero());
+    }
+
+    private SavingsAccount newAccount() throws Exception {
+        final SavingsAccount account = SavingsAccount.createNewApplicationForSubmittal(null, null, this.product, null, null, null,
+                AccountType.INDIVIDUAL, ACTIVATION_DATE, null, new BigDecimal("10"), SavingsCompoundingInterestPeriodType.DAILY,
+                SavingsPostingInterestPeriodType.MONTHLY, SavingsInterestCalculationType.DAILY_BALANCE,
+                SavingsInterestCalculationDaysInYearType.DAYS_365, null, null, null, false, null, false, null, false, null, BigDecimal.ZERO,
+                BigDecimal.ZERO, false);
+        final Field depositType = SavingsAccount.class.getDeclaredField("depositType");
+        depositType.setAccessible(true);
+        depositType.set(account, DepositAccountType.SAVINGS_DEPOSIT.getValue());
+        account.activatedOnDate = ACTIVATION_DATE.toDate();
+        account.setHelpers(new SavingsAccountTransactionSummaryWrapper(), new SavingsHelper(this.accountTransfersReadPlatformService));
+
+        deposit(account, ACTIVATION_DATE, "1000");
+        withdraw(account, new LocalDate(2020, 2, 10), "200");
+        deposit(account, new LocalDate(2020, 3, 15), "500");
+        return account;
+    }
+
+    private static void deposit(final SavingsAccount account, final LocalDate date, final String amount) {
+        account.addTransaction(
+                SavingsAccountTransaction.deposit(account, null, null, date, Money.of(USD, new BigDecimal(amount)), new Date(), null));
+        account.getSummary().updateSummary(USD, new SavingsAccountTransactionSummaryWrapper(), account.getTransactions());
+    }
+
+    private static void withdraw(final SavingsAccount account, final LocalDate date, final String amount) {
+        account.addTransaction(
+                SavingsAccountTransaction.withdrawal(account, null, null, date, Money.of(USD, new BigDecimal(amount)), new Date(), null));
+        account.getSummary().updateSummary(USD, new SavingsAccountTransactionSummaryWrapper(), account.getTransactions());
+    }
+
+    /**
+     * Assigns ids to the new transactions, as saving the account would.
+     */
+    private void persist(final SavingsAccount account) throws Exception {
+        final Field id = AbstractPersistableCustom.class.getDeclaredField("id");
+        id.setAccessible(true);
+        for (final SavingsAccountTransaction transaction : account.getTransactions()) {
+            if (transaction.getId() == null) {
+                id.set(transaction, ++this.lastTransactionId);
+            }
+        }
+    }
+
+    private static void assertSameTransactions(final SavingsAccount expected, final SavingsAccount actual) {
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    private static List<String> describe(final SavingsAccount account) {
+        final List<String> descriptions = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : account.retreiveListOfTransactions()) {
+            descriptions.add(transaction.transactionLocalDate() + " " + transaction.getTypeOf() + " "
+                    + Money.of(USD, transaction.getAmount()) + " " + transaction.isReversed() + " " + transaction.getRunningBalance(USD)
+                    + " " + transaction.getEndOfBalanceLocalDate());
+        }
+        return descriptions;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Unit Test for {@link SearchIndexWritePlatformServiceImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class SearchIndexWritePlatformServiceImplTest {
+
+    private static final long BATCH = SearchIndexWritePlatformServiceImpl.REBUILD_BATCH_SIZE;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SearchIndexWritePlatformServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.service = new SearchIndexWritePlatformServiceImpl(this.jdbcTemplate);
+    }
+
+    @AfterEach
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testRebuildUpsertsEachIdRangeUpToTheMaximumId() {
+        when(this.jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenAnswer(invocation -> "select max(id) from m_client".equals(invocation.getArgument(0)) ? 2 * BATCH + 1 : null);
+
+        this.service.rebuildSearchIndex();
+
+        final String clientRange = "c.id > ? and c.id <= ?";
+        verify(this.jdbcTemplate).update(contains(clientRange), eq(0L), eq(BATCH));
+        verify(this.jdbcTemplate).update(contains(clientRange), eq(BATCH), eq(2 * BATCH));
+        verify(this.jdbcTemplate).update(contains(clientRange), eq(2 * BATCH), eq(3 * BATCH));
+        verify(this.jdbcTemplate, times(3)).update(contains(clientRange), any(), any());
+    }
+
+    @Test
+    public void testRebuildRemovesStaleEntriesOfEveryTableEvenWhenItIsEmpty() {
+        this.service.rebuildSearchIndex();
+
+        verify(this.jdbcTemplate, never()).update(contains("id > ? and"), eq(0L), eq(BATCH));
+        verify(this.jdbcTemplate).update(startsWith("delete si from m_search_index si left join m_client t"));
+        verify(this.jdbcTemplate).update(startsWith("delete si from m_search_index si left join m_client_identifier t"));
+        verify(this.jdbcTemplate).update(startsWith("delete si from m_search_index si left join m_group t"));
+        verify(this.jdbcTemplate).update(startsWith("delete si from m_search_index si left join m_loan t"));
+        verify(this.jdbcTemplate).update(startsWith("delete si from m_search_index si left join m_savings_account t"));
+        verify(this.jdbcTemplate).update(startsWith("delete si from m_search_index si left join m_share_account t"));
+    }
+
+    @Test
+    public void testReindexOfLoanCommandRefreshesOnlyThatLoan() {
+        this.service.reindex("LOAN", new CommandProcessingResultBuilder().withEntityId(7L).withLoanId(5L).build());
+
+        verify(this.jdbcTemplate).update(contains("where l.id = ?"), eq(5L));
+        verify(this.jdbcTemplate).update(contains("left join m_loan t on t.id = si.entity_id"), eq(5L));
+        verify(this.jdbcTemplate, times(2)).update(anyString(), eq(5L));
+    }
+
+    @Test
+    public void testReindexIgnoresCommandsOfOtherEntities() {
+        this.service.reindex("OFFICE", new CommandProcessingResultBuilder().withEntityId(7L).build());
+
+        verify(this.jdbcTemplate, never()).update(anyString(), eq(7L));
+    }
+}
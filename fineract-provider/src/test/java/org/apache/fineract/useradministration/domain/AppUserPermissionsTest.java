@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.useradministration.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class AppUserPermissionsTest {
+
+    @Test
+    void testGrantedPermissionsAreFoundRegardlessOfCase() {
+        final Role role = role(new Permission("portfolio", "LOAN", "READ"), new Permission("portfolio", "CLIENT", "CREATE"));
+        final AppUserPermissions permissions = AppUserPermissions.of(Collections.singleton(role));
+
+        assertTrue(permissions.hasPermissionTo("READ_LOAN"));
+        assertTrue(permissions.hasPermissionTo("read_loan"));
+        assertTrue(permissions.hasSpecificPermissionTo("CREATE_CLIENT"));
+        assertFalse(permissions.hasPermissionTo("READ_CLIENT"));
+        assertFalse(permissions.hasPermissionTo("NEVER_GRANTED_BY_ANY_ROLE"));
+        assertEquals(2, permissions.getGrantedAuthorities().size());
+    }
+
+    @Test
+    void testAllFunctionsGrantsEverythingButNoSpecificPermission() {
+        final AppUserPermissions permissions = AppUserPermissions
+                .of(Arrays.asList(role(new Permission("special", "FUNCTIONS", "ALL")), role(new Permission("portfolio", "LOAN", "READ"))));
+
+        assertTrue(permissions.hasPermissionTo("APPROVEINPAST_LOAN"));
+        assertFalse(permissions.hasSpecificPermissionTo("APPROVEINPAST_LOAN"));
+        assertTrue(permissions.hasSpecificPermissionTo("READ_LOAN"));
+    }
+
+    @Test
+    void testInvalidateAllOutdatesExistingSnapshots() {
+        final Role role = role(new Permission("portfolio", "LOAN", "READ"));
+        final AppUserPermissions permissions = AppUserPermissions.of(Collections.singleton(role));
+        assertTrue(permissions.isCurrent());
+
+        AppUserPermissions.invalidateAll();
+
+        assertFalse(permissions.isCurrent());
+    }
+
+    private static Role role(final Permission... permissions) {
+        final Role role = new Role("role", "description");
+        for (final Permission permission : permissions) {
+            role.updatePermission(permission, true);
+        }
+        return role;
+    }
+}